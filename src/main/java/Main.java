@@ -1,8 +1,13 @@
+import api.ServidorRed;
+import services.GrabadorOperaciones;
 import services.ISocialNetwork;
 import services.SocialNetwork;
 import utils.JsonLoader;
+import utils.ModoBatch;
 import models.Cliente;
 import exceptions.SocialNetworkException;
+import java.io.OutputStream;
+import java.io.PrintStream;
 import java.util.Scanner;
 import java.util.List;
 import exceptions.ClienteNoEncontradoException;
@@ -14,16 +19,48 @@ public class Main {
     // Declaramos la variable 'red' usando la INTERFAZ (ISocialNetwork).
     // Esto aplica el principio de "Programar contra una interfaz, no una implementación".
     // Permite cambiar la lógica interna (la clase SocialNetwork) sin romper el Main.
-    private static final ISocialNetwork red = new SocialNetwork();
+    // 'base' es la red concreta (la que carga el JsonLoader); 'red' puede envolverla en un grabador.
+    private static final SocialNetwork base = new SocialNetwork();
+    private static ISocialNetwork red = base;
+
+    public static void main(String[] args) throws Exception {
+        // Modo servidor: java Main --servidor [puerto] expone la red por HTTP en lugar del menú
+        if (args.length > 0 && args[0].equals("--servidor")) {
+            int puerto = (args.length > 1) ? Integer.parseInt(args[1]) : 8080;
+            // TCP_NODELAY para el servidor HTTP del JDK (es global, por eso se fija solo en este modo)
+            if (System.getProperty("sun.net.httpserver.nodelay") == null) {
+                System.setProperty("sun.net.httpserver.nodelay", "true");
+            }
+            JsonLoader.cargar("datos.json", base);
+            new ServidorRed(red, puerto).iniciar();
+            Thread.currentThread().join(); // El servidor corre hasta que se corta el proceso
+            return;
+        }
+
+        // Modo batch: java Main --batch guion.txt (o "-" para stdin) ejecuta los comandos sin menú
+        if (args.length > 0 && args[0].equals("--batch")) {
+            // La carga no ensucia la salida: la red y el loader se callan sin tocar System.out
+            base.configurarConsola(null, false);
+            JsonLoader.cargar("datos.json", base, new PrintStream(OutputStream.nullOutputStream()));
+            ModoBatch.ejecutar(red, (args.length > 1) ? args[1] : "-");
+            return;
+        }
 
-    public static void main(String[] args) {
         System.out.println("=== TPO UADE - RED SOCIAL (ITERACIÓN 3) ===");
         System.out.println("   (Estructuras: AVL, Grafos Dirigidos y No Dirigidos)");
 
         // Carga automática inicial
-        // Nota: Hacemos un cast (SocialNetwork) porque el JsonLoader original
-        // probablemente espera la clase concreta. Esto es válido.
-        JsonLoader.cargar("datos.json", (SocialNetwork) red);
+        // Nota: el JsonLoader espera la clase concreta, por eso se carga sobre 'base'.
+        // La carga no se graba: para reproducir la sesión hay que partir del mismo datos.json.
+        JsonLoader.cargar("datos.json", base);
+
+        // Modo grabación: java Main --grabar sesion.trz guarda cada llamada a la red en una traza
+        GrabadorOperaciones grabador = null;
+        if (args.length > 1 && args[0].equals("--grabar")) {
+            grabador = new GrabadorOperaciones(base, args[1]);
+            red = grabador;
+            System.out.println("⏺ Grabando la sesión en " + args[1]);
+        }
 
         int opcion;
         do {
@@ -31,6 +68,11 @@ public class Main {
             opcion = obtenerOpcion();
             ejecutarOpcion(opcion);
         } while (opcion != 0);
+
+        if (grabador != null) {
+            grabador.close();
+            System.out.println("⏹ Sesión grabada: " + grabador.getOperacionesGrabadas() + " operaciones.");
+        }
     }
 
     private static void mostrarMenu() {
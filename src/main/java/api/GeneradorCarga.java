@@ -0,0 +1,190 @@
+package api;
+
+import utils.Ejecutores;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Generador de carga local para {@link ServidorRed}, con el HttpClient del JDK (HTTP/1.1 keep-alive).
+ *
+ * Da de alta una población propia de clientes con amistades al azar y después lanza N trabajadores
+ * que mezclan lecturas (distancias, perfiles, búsquedas por scoring) con escrituras (re-scoring)
+ * hasta cumplir la cantidad de pedidos o la duración. Reporta throughput y percentiles de latencia.
+ *
+ * Uso: java api.GeneradorCarga [urlBase] [trabajadores] [segundos] [clientes]
+ */
+public class GeneradorCarga {
+    private final URI base;
+    private final HttpClient http;
+    private final int clientes;
+    private final long semilla;
+
+    public GeneradorCarga(String urlBase, int clientes, long semilla) {
+        this.base = URI.create(urlBase.endsWith("/") ? urlBase : urlBase + "/");
+        this.clientes = clientes;
+        this.semilla = semilla;
+        this.http = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(5))
+                .executor(Ejecutores.porTarea("carga-http"))
+                .build();
+    }
+
+    /**
+     * Crea los clientes "carga-i" (si ya existen se reutilizan) y 2 amistades al azar por cliente.
+     */
+    public void preparar() throws Exception {
+        Random rnd = new Random(semilla);
+        for (int i = 0; i < clientes; i++) {
+            enviar("POST", "clientes", "{\"nombre\":\"" + nombre(i) + "\",\"scoring\":" + rnd.nextInt(101) + "}");
+        }
+        for (int i = 0; i < clientes * 2; i++) {
+            int a = rnd.nextInt(clientes), b = rnd.nextInt(clientes);
+            if (a != b) enviar("POST", "amistades", "{\"nombre1\":\"" + nombre(a) + "\",\"nombre2\":\"" + nombre(b) + "\"}");
+        }
+    }
+
+    /**
+     * Corre la carga hasta completar los pedidos indicados o agotar la duración (lo que ocurra antes).
+     */
+    public ResultadoCarga ejecutar(int trabajadores, long pedidosMaximos, Duration duracion) throws InterruptedException {
+        ExecutorService hilos = Ejecutores.porTarea("carga-trabajador");
+        AtomicLong emitidos = new AtomicLong();
+        long limite = System.nanoTime() + duracion.toNanos();
+        List<Future<long[]>> parciales = new ArrayList<>();
+        long[] errores = new long[trabajadores];
+
+        long inicio = System.nanoTime();
+        for (int t = 0; t < trabajadores; t++) {
+            final int id = t;
+            parciales.add(hilos.submit(() -> {
+                Random rnd = new Random(semilla + 31L * id);
+                long[] latencias = new long[1024];
+                int n = 0;
+                while (System.nanoTime() < limite && emitidos.incrementAndGet() <= pedidosMaximos) {
+                    long t0 = System.nanoTime();
+                    try {
+                        int codigo = pedidoAlAzar(rnd);
+                        if (codigo >= 500) errores[id]++;
+                    } catch (Exception e) {
+                        errores[id]++;
+                    }
+                    if (n == latencias.length) latencias = Arrays.copyOf(latencias, n * 2);
+                    latencias[n++] = System.nanoTime() - t0;
+                }
+                return Arrays.copyOf(latencias, n);
+            }));
+        }
+
+        List<long[]> todas = new ArrayList<>();
+        for (Future<long[]> parcial : parciales) {
+            try {
+                todas.add(parcial.get());
+            } catch (ExecutionException e) {
+                throw new IllegalStateException("Falló un trabajador de carga", e.getCause());
+            }
+        }
+        long transcurrido = System.nanoTime() - inicio;
+        hilos.shutdown();
+
+        long totalErrores = 0;
+        for (long e : errores) totalErrores += e;
+        return new ResultadoCarga(unir(todas), totalErrores, transcurrido);
+    }
+
+    // Mezcla: 50% distancia, 25% perfil, 15% búsqueda por scoring, 10% re-scoring (escritura)
+    private int pedidoAlAzar(Random rnd) throws Exception {
+        int dado = rnd.nextInt(100);
+        String a = nombre(rnd.nextInt(clientes));
+        if (dado < 50) return enviar("GET", "distancia?origen=" + a + "&destino=" + nombre(rnd.nextInt(clientes)), null);
+        if (dado < 75) return enviar("GET", "clientes/" + a, null);
+        if (dado < 90) return enviar("GET", "clientes?scoring=" + rnd.nextInt(101), null);
+        return enviar("PUT", "clientes/" + a + "/scoring", "{\"scoring\":" + rnd.nextInt(101) + "}");
+    }
+
+    private int enviar(String metodo, String ruta, String cuerpo) throws Exception {
+        HttpRequest.Builder pedido = HttpRequest.newBuilder(base.resolve(ruta)).timeout(Duration.ofSeconds(30));
+        if (cuerpo == null) {
+            pedido.method(metodo, HttpRequest.BodyPublishers.noBody());
+        } else {
+            pedido.header("Content-Type", "application/json").method(metodo, HttpRequest.BodyPublishers.ofString(cuerpo));
+        }
+        return http.send(pedido.build(), HttpResponse.BodyHandlers.discarding()).statusCode();
+    }
+
+    private static String nombre(int i) {
+        return "carga-" + i;
+    }
+
+    private static long[] unir(List<long[]> partes) {
+        int total = 0;
+        for (long[] p : partes) total += p.length;
+        long[] todas = new long[total];
+        int i = 0;
+        for (long[] p : partes) {
+            System.arraycopy(p, 0, todas, i, p.length);
+            i += p.length;
+        }
+        Arrays.sort(todas);
+        return todas;
+    }
+
+    /**
+     * Resumen de una corrida: latencias ordenadas (ns), errores y tiempo total.
+     */
+    public static final class ResultadoCarga {
+        private final long[] latencias;
+        private final long errores;
+        private final long nanosTotales;
+
+        ResultadoCarga(long[] latenciasOrdenadas, long errores, long nanosTotales) {
+            this.latencias = latenciasOrdenadas;
+            this.errores = errores;
+            this.nanosTotales = nanosTotales;
+        }
+
+        public long getPedidos() { return latencias.length; }
+        public long getErrores() { return errores; }
+
+        public double getPedidosPorSegundo() {
+            return latencias.length / (nanosTotales / 1e9);
+        }
+
+        /**
+         * Percentil por rango más cercano, en milisegundos.
+         */
+        public double percentilMs(double p) {
+            if (latencias.length == 0) return 0;
+            int rango = (int) Math.ceil(p / 100.0 * latencias.length);
+            return latencias[Math.max(0, Math.min(latencias.length - 1, rango - 1))] / 1e6;
+        }
+
+        @Override
+        public String toString() {
+            return String.format(Locale.ROOT,
+                    "Pedidos: %d (errores: %d) | %.1f ped/s | p50 %.2f ms | p90 %.2f ms | p99 %.2f ms | máx %.2f ms",
+                    getPedidos(), errores, getPedidosPorSegundo(),
+                    percentilMs(50), percentilMs(90), percentilMs(99), percentilMs(100));
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        String url = (args.length > 0) ? args[0] : "http://localhost:8080";
+        int trabajadores = (args.length > 1) ? Integer.parseInt(args[1]) : 32;
+        int segundos = (args.length > 2) ? Integer.parseInt(args[2]) : 10;
+        int clientes = (args.length > 3) ? Integer.parseInt(args[3]) : 1000;
+
+        GeneradorCarga carga = new GeneradorCarga(url, clientes, 42L);
+        System.out.println("Preparando " + clientes + " clientes en " + url + " ...");
+        carga.preparar();
+        System.out.println("Carga: " + trabajadores + " trabajadores durante " + segundos + " s");
+        System.out.println(carga.ejecutar(trabajadores, Long.MAX_VALUE, Duration.ofSeconds(segundos)));
+    }
+}
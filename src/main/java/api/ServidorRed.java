@@ -0,0 +1,405 @@
+package api;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParseException;
+import com.google.gson.stream.JsonWriter;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import exceptions.ClienteNoEncontradoException;
+import exceptions.ClienteYaExisteException;
+import exceptions.SocialNetworkException;
+import models.Cliente;
+import models.FichaCliente;
+import services.EstrategiaPeso;
+import services.ISocialNetwork;
+import services.SocialNetworkAsync;
+import utils.Ejecutores;
+
+import java.io.*;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+
+/**
+ * API HTTP/JSON embebida sobre la red, con el servidor del JDK (com.sun.net.httpserver).
+ *
+ * Cada pedido se atiende en su propio hilo (virtual si la JVM lo permite) y se delega en
+ * {@link SocialNetworkAsync}: las escrituras pasan por el escritor único y las lecturas corren en
+ * paralelo. Las conexiones son keep-alive (HTTP/1.1) y las respuestas se escriben con el JsonWriter
+ * de Gson directamente sobre el cuerpo, en chunks, sin armar el JSON completo en memoria.
+ *
+ * Endpoints:
+ *   POST   /clientes                      {"nombre", "scoring"}
+ *   GET    /clientes?scoring=N            (sin scoring: todos, ordenados por scoring)
+ *   GET    /clientes/{nombre}
+ *   DELETE /clientes/{nombre}
+ *   PUT    /clientes/{nombre}/scoring     {"scoring"}
+ *   POST   /scorings                      {"nombre": scoring, ...}
+ *   POST   /solicitudes                   {"solicitante", "solicitado"}
+ *   POST   /solicitudes/procesar
+ *   POST   /amistades                     {"nombre1", "nombre2"}
+ *   POST   /deshacer
+ *   GET    /historial                     (se imprime en la consola del servidor)
+ *   GET    /nivel?origen=&nivel=
+ *   GET    /distancia?origen=&destino=
+ *   GET    /distancias?origen=&destino=&destino=...
+ *   GET    /camino?origen=&destino=
+ *   GET    /distancia-ponderada?origen=&destino=&peso=uniforme|lineal|inversa
+ *   GET    /camino-ponderado?origen=&destino=&peso=...
+ *   GET    /amigos-en-comun?nombre1=&nombre2=
+ *   GET    /cantidad-amigos-en-comun?nombre=&otro=&otro=...
+ *
+ * Sin TCP_NODELAY el chunk final de cada respuesta espera el ACK retardado del cliente (~40 ms).
+ * La propiedad sun.net.httpserver.nodelay es global de la JVM, así que no se fija acá: la fija
+ * Main --servidor, y quien embeba el servidor puede lanzar la JVM con -Dsun.net.httpserver.nodelay=true.
+ */
+public class ServidorRed implements AutoCloseable {
+    private static final Gson GSON = new Gson();
+
+    private final SocialNetworkAsync red;
+    private final HttpServer servidor;
+    private final ExecutorService hilos;
+
+    public ServidorRed(ISocialNetwork red, int puerto) throws IOException {
+        this.red = new SocialNetworkAsync(red);
+        this.hilos = Ejecutores.porTarea("http-red");
+        this.servidor = HttpServer.create(new InetSocketAddress(puerto), 0);
+        this.servidor.createContext("/", this::atender);
+        this.servidor.setExecutor(hilos);
+    }
+
+    public void iniciar() {
+        servidor.start();
+        System.out.println("🌐 API escuchando en http://localhost:" + getPuerto());
+    }
+
+    public int getPuerto() {
+        return servidor.getAddress().getPort();
+    }
+
+    @Override
+    public void close() {
+        servidor.stop(0);
+        red.close();
+        hilos.shutdown();
+    }
+
+    // ==========================================
+    // --- RUTEO ---
+    // ==========================================
+
+    private void atender(HttpExchange intercambio) throws IOException {
+        try (intercambio) {
+            try {
+                Pedido pedido = new Pedido(intercambio);
+                rutear(pedido);
+            } catch (ExecutionException e) {
+                responderError(intercambio, e.getCause());
+            } catch (Exception e) {
+                responderError(intercambio, e);
+            }
+        }
+    }
+
+    private void rutear(Pedido p) throws Exception {
+        String[] partes = p.segmentos;
+        String recurso = (partes.length > 0) ? partes[0] : "";
+
+        switch (p.metodo + " " + recurso + (partes.length > 1 ? "/*" : "") + (partes.length > 2 ? "/" + partes[2] : "")) {
+            case "POST clientes": {
+                JsonObject cuerpo = p.cuerpoJson();
+                red.agregarCliente(texto(cuerpo, "nombre"), entero(cuerpo, "scoring")).get();
+                responderMensaje(p, 201, "Cliente agregado.");
+                break;
+            }
+            case "GET clientes":
+                if (p.parametro("scoring") != null) {
+                    int scoring = Integer.parseInt(p.parametro("scoring"));
+                    responderFichas(p, red.consultar(r -> fichas(r.buscarPorScoring(scoring))).get());
+                } else {
+                    responderTodas(p);
+                }
+                break;
+            case "GET clientes/*": {
+                String nombre = partes[1];
+                FichaCliente ficha = red.consultar(r -> {
+                    Cliente c = r.buscarPorNombre(nombre);
+                    return (c == null) ? null : FichaCliente.de(c);
+                }).get();
+                if (ficha == null) throw new ClienteNoEncontradoException(nombre);
+                responderFichas(p, 200, Collections.singletonList(ficha), false);
+                break;
+            }
+            case "DELETE clientes/*":
+                red.eliminarClienteTotalmente(partes[1]).get();
+                responderMensaje(p, 200, "Cliente eliminado.");
+                break;
+            case "PUT clientes/*/scoring":
+                red.actualizarScoring(partes[1], entero(p.cuerpoJson(), "scoring")).get();
+                responderMensaje(p, 200, "Scoring actualizado.");
+                break;
+            case "POST scorings": {
+                Map<String, Integer> lote = new LinkedHashMap<>();
+                p.cuerpoJson().entrySet().forEach(e -> lote.put(e.getKey(), e.getValue().getAsInt()));
+                red.actualizarScorings(lote).get();
+                responderMensaje(p, 200, "Scorings actualizados.");
+                break;
+            }
+            case "POST solicitudes": {
+                JsonObject cuerpo = p.cuerpoJson();
+                red.enviarSolicitud(texto(cuerpo, "solicitante"), texto(cuerpo, "solicitado")).get();
+                responderMensaje(p, 202, "Solicitud enviada.");
+                break;
+            }
+            case "POST solicitudes/*":
+                if (!partes[1].equals("procesar")) throw new NoSuchElementException();
+                responderTextos(p, red.procesarSolicitudes().get());
+                break;
+            case "POST amistades": {
+                JsonObject cuerpo = p.cuerpoJson();
+                red.crearAmistad(texto(cuerpo, "nombre1"), texto(cuerpo, "nombre2")).get();
+                responderMensaje(p, 201, "Amistad creada.");
+                break;
+            }
+            case "POST deshacer":
+                red.deshacerUltimaAccion().get();
+                responderMensaje(p, 200, "Última acción deshecha.");
+                break;
+            case "GET historial":
+                red.verHistorial().get();
+                responderMensaje(p, 200, "Historial impreso en la consola del servidor.");
+                break;
+            case "GET nivel": {
+                String origen = p.requerido("origen");
+                int nivel = Integer.parseInt(p.requerido("nivel"));
+                responderFichas(p, red.consultar(r -> {
+                    try {
+                        return fichas(r.clientesEnNivel(origen, nivel));
+                    } catch (ClienteNoEncontradoException e) {
+                        throw new NoSuchElementException(e.getMessage());
+                    }
+                }).get());
+                break;
+            }
+            case "GET distancia": {
+                int saltos = red.calcularDistancia(p.requerido("origen"), p.requerido("destino")).get();
+                responderObjeto(p, "distancia", saltos);
+                break;
+            }
+            case "GET distancias":
+                responderMapa(p, red.calcularDistancias(p.requerido("origen"), p.parametros("destino")).get());
+                break;
+            case "GET camino":
+                responderTextos(p, red.calcularCamino(p.requerido("origen"), p.requerido("destino")).get());
+                break;
+            case "GET distancia-ponderada": {
+                double costo = red.calcularDistanciaPonderada(p.requerido("origen"), p.requerido("destino"), estrategia(p)).get();
+                responderObjeto(p, "costo", costo);
+                break;
+            }
+            case "GET camino-ponderado":
+                responderTextos(p, red.calcularCaminoPonderado(p.requerido("origen"), p.requerido("destino"), estrategia(p)).get());
+                break;
+            case "GET amigos-en-comun":
+                responderTextos(p, red.amigosEnComun(p.requerido("nombre1"), p.requerido("nombre2")).get());
+                break;
+            case "GET cantidad-amigos-en-comun":
+                responderMapa(p, red.cantidadAmigosEnComun(p.requerido("nombre"), p.parametros("otro")).get());
+                break;
+            default:
+                throw new NoSuchElementException("Ruta inexistente: " + p.metodo + " /" + String.join("/", partes));
+        }
+    }
+
+    private static List<FichaCliente> fichas(List<Cliente> clientes) {
+        List<FichaCliente> fichas = new ArrayList<>(clientes.size());
+        for (Cliente c : clientes) fichas.add(FichaCliente.de(c));
+        return fichas;
+    }
+
+    private static EstrategiaPeso estrategia(Pedido p) {
+        String nombre = p.parametro("peso");
+        if (nombre == null || nombre.equals("uniforme")) return EstrategiaPeso.uniforme();
+        if (nombre.equals("lineal")) return EstrategiaPeso.confianzaLineal();
+        if (nombre.equals("inversa")) return EstrategiaPeso.confianzaInversa();
+        throw new IllegalArgumentException("Estrategia de peso desconocida: " + nombre);
+    }
+
+    private static String texto(JsonObject cuerpo, String campo) {
+        if (!cuerpo.has(campo) || cuerpo.get(campo).isJsonNull()) {
+            throw new IllegalArgumentException("Falta el campo '" + campo + "'.");
+        }
+        return cuerpo.get(campo).getAsString();
+    }
+
+    private static int entero(JsonObject cuerpo, String campo) {
+        return Integer.parseInt(texto(cuerpo, campo));
+    }
+
+    // ==========================================
+    // --- RESPUESTAS (STREAMING CON JSONWRITER) ---
+    // ==========================================
+
+    private static JsonWriter abrir(Pedido p, int codigo) throws IOException {
+        p.intercambio.getResponseHeaders().set("Content-Type", "application/json; charset=utf-8");
+        p.intercambio.sendResponseHeaders(codigo, 0); // Largo 0: cuerpo en chunks
+        Writer salida = new BufferedWriter(new OutputStreamWriter(p.intercambio.getResponseBody(), StandardCharsets.UTF_8));
+        return new JsonWriter(salida);
+    }
+
+    private static void responderFichas(Pedido p, List<FichaCliente> fichas) throws IOException {
+        responderFichas(p, 200, fichas, true);
+    }
+
+    private static void responderFichas(Pedido p, int codigo, List<FichaCliente> fichas, boolean comoLista) throws IOException {
+        try (JsonWriter json = abrir(p, codigo)) {
+            if (comoLista) json.beginArray();
+            for (FichaCliente f : fichas) escribirFicha(json, f);
+            if (comoLista) json.endArray();
+        }
+    }
+
+    /**
+     * Todos los clientes, escritos mientras se recorre el índice por scoring (ya ordenado) bajo el
+     * lock de lectura: en memoria solo queda un grupo a la vez, nunca la lista completa. A cambio,
+     * un cliente HTTP lento demora a las escrituras mientras dura la respuesta.
+     */
+    private void responderTodas(Pedido p) throws Exception {
+        try (JsonWriter json = abrir(p, 200)) {
+            json.beginArray();
+            red.consultar(r -> {
+                try {
+                    for (int s = 0; s <= 100; s++) {
+                        for (Cliente c : r.buscarPorScoring(s)) escribirFicha(json, FichaCliente.de(c));
+                    }
+                    return null;
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }).get();
+            json.endArray();
+        }
+    }
+
+    private static void escribirFicha(JsonWriter json, FichaCliente f) throws IOException {
+        json.beginObject();
+        json.name("nombre").value(f.getNombre());
+        json.name("scoring").value(f.getScoring());
+        json.name("amigos").beginArray();
+        for (String amigo : f.getAmigos()) json.value(amigo);
+        json.endArray();
+        json.name("siguiendo").beginArray();
+        for (String seguido : f.getSiguiendo()) json.value(seguido);
+        json.endArray();
+        json.name("pendientes").value(f.getPendientes());
+        json.endObject();
+    }
+
+    private static void responderTextos(Pedido p, List<String> textos) throws IOException {
+        try (JsonWriter json = abrir(p, 200)) {
+            json.beginArray();
+            for (String t : textos) json.value(t);
+            json.endArray();
+        }
+    }
+
+    private static void responderMapa(Pedido p, Map<String, Integer> mapa) throws IOException {
+        try (JsonWriter json = abrir(p, 200)) {
+            json.beginObject();
+            for (Map.Entry<String, Integer> e : mapa.entrySet()) json.name(e.getKey()).value(e.getValue());
+            json.endObject();
+        }
+    }
+
+    private static void responderObjeto(Pedido p, String campo, Number valor) throws IOException {
+        try (JsonWriter json = abrir(p, 200)) {
+            json.beginObject().name(campo).value(valor).endObject();
+        }
+    }
+
+    private static void responderMensaje(Pedido p, int codigo, String mensaje) throws IOException {
+        try (JsonWriter json = abrir(p, codigo)) {
+            json.beginObject().name("mensaje").value(mensaje).endObject();
+        }
+    }
+
+    private static void responderError(HttpExchange intercambio, Throwable e) throws IOException {
+        // Con los encabezados ya enviados no hay cómo cambiar el código: se corta el cuerpo a medias
+        // (JSON incompleto) y el cierre del intercambio termina la respuesta
+        if (intercambio.getResponseCode() != -1) return;
+
+        int codigo;
+        if (e instanceof ClienteNoEncontradoException || e instanceof NoSuchElementException) codigo = 404;
+        else if (e instanceof ClienteYaExisteException) codigo = 409;
+        else if (e instanceof SocialNetworkException || e instanceof IllegalArgumentException
+                || e instanceof IllegalStateException || e instanceof JsonParseException) codigo = 400;
+        else codigo = 500;
+
+        intercambio.getResponseHeaders().set("Content-Type", "application/json; charset=utf-8");
+        byte[] cuerpo = GSON.toJson(Collections.singletonMap("error", String.valueOf(e.getMessage())))
+                .getBytes(StandardCharsets.UTF_8);
+        intercambio.sendResponseHeaders(codigo, cuerpo.length);
+        intercambio.getResponseBody().write(cuerpo);
+    }
+
+    /**
+     * Ruta, parámetros de la query y cuerpo de un pedido.
+     */
+    private static final class Pedido {
+        final HttpExchange intercambio;
+        final String metodo;
+        final String[] segmentos;
+        final Map<String, List<String>> query = new HashMap<>();
+
+        Pedido(HttpExchange intercambio) {
+            this.intercambio = intercambio;
+            this.metodo = intercambio.getRequestMethod();
+
+            String ruta = intercambio.getRequestURI().getRawPath();
+            List<String> partes = new ArrayList<>();
+            for (String s : ruta.split("/")) if (!s.isEmpty()) partes.add(decodificar(s));
+            this.segmentos = partes.toArray(new String[0]);
+
+            String q = intercambio.getRequestURI().getRawQuery();
+            if (q != null) {
+                for (String par : q.split("&")) {
+                    int igual = par.indexOf('=');
+                    if (igual < 0) continue;
+                    query.computeIfAbsent(decodificar(par.substring(0, igual)), k -> new ArrayList<>())
+                            .add(decodificar(par.substring(igual + 1)));
+                }
+            }
+        }
+
+        String parametro(String nombre) {
+            List<String> valores = query.get(nombre);
+            return (valores == null) ? null : valores.get(0);
+        }
+
+        List<String> parametros(String nombre) {
+            return query.getOrDefault(nombre, Collections.emptyList());
+        }
+
+        String requerido(String nombre) {
+            String valor = parametro(nombre);
+            if (valor == null) throw new IllegalArgumentException("Falta el parámetro '" + nombre + "'.");
+            return valor;
+        }
+
+        JsonObject cuerpoJson() throws IOException {
+            try (Reader lector = new InputStreamReader(intercambio.getRequestBody(), StandardCharsets.UTF_8)) {
+                JsonObject cuerpo = GSON.fromJson(lector, JsonObject.class);
+                if (cuerpo == null) throw new IllegalArgumentException("El cuerpo JSON está vacío.");
+                return cuerpo;
+            }
+        }
+
+        private static String decodificar(String s) {
+            return URLDecoder.decode(s, StandardCharsets.UTF_8);
+        }
+    }
+}
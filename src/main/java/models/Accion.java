@@ -1,47 +1,60 @@
 package models;
 
-import java.time.LocalDateTime;
+import java.time.Instant;
+import java.time.ZoneId;
 import java.time.format.DateTimeFormatter;
 
 public class Accion {
     public enum TipoAccion {
         AGREGAR_CLIENTE,
         SEGUIR_USUARIO,
-        ELIMINAR_CLIENTE
+        ELIMINAR_CLIENTE,
+        ACTUALIZAR_SCORING
     }
 
+    // Un único formateador compartido (es inmutable y thread-safe)
+    private static final DateTimeFormatter FORMATO_HORA = DateTimeFormatter.ofPattern("HH:mm:ss").withZone(ZoneId.systemDefault());
+
     private TipoAccion tipo;
     private String sujeto;
     private String objeto;
     private Object respaldo;
 
     // --- NUEVO: Requisito de Fecha y Hora ---
-    private LocalDateTime fecha;
+    // Epoch en milisegundos: ocupa 8 bytes y se puede indexar y comparar sin objetos intermedios
+    private long instante;
 
     public Accion(TipoAccion tipo, String sujeto, String objeto) {
         this.tipo = tipo;
         this.sujeto = sujeto;
         this.objeto = objeto;
-        this.fecha = LocalDateTime.now(); // Se guarda el momento exacto
+        this.instante = System.currentTimeMillis(); // Se guarda el momento exacto
     }
 
     public Accion(TipoAccion tipo, String sujeto, Object respaldo) {
         this.tipo = tipo;
         this.sujeto = sujeto;
         this.respaldo = respaldo;
-        this.fecha = LocalDateTime.now(); // Se guarda el momento exacto
+        this.instante = System.currentTimeMillis(); // Se guarda el momento exacto
     }
 
     public TipoAccion getTipo() { return tipo; }
     public String getSujeto() { return sujeto; }
     public String getObjeto() { return objeto; }
     public Object getRespaldo() { return respaldo; }
+    public long getInstante() { return instante; }
+
+    /**
+     * Hora (HH:mm:ss, zona del sistema) de un instante epoch en milisegundos.
+     */
+    public static String formatearHora(long instante) {
+        return FORMATO_HORA.format(Instant.ofEpochMilli(instante));
+    }
 
     @Override
     public String toString() {
         // Formato bonito: [18:30:05] AGREGAR_CLIENTE...
-        DateTimeFormatter fmt = DateTimeFormatter.ofPattern("HH:mm:ss");
-        String tiempo = "[" + fecha.format(fmt) + "] ";
+        String tiempo = "[" + formatearHora(instante) + "] ";
 
         if (objeto != null) return tiempo + tipo + ": " + sujeto + " -> " + objeto;
         return tiempo + tipo + ": " + sujeto;
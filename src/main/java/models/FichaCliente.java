@@ -0,0 +1,44 @@
+package models;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Copia inmutable de un cliente con todas sus aristas por nombre.
+ * Es lo que viaja entre particiones y coordinador, y la versión de cada cliente en los snapshots.
+ */
+public final class FichaCliente implements Serializable {
+    private static final long serialVersionUID = 1L;
+
+    private final String nombre;
+    private final int scoring;
+    private final List<String> amigos;
+    private final List<String> siguiendo;
+    private final int pendientes;
+
+    public FichaCliente(String nombre, int scoring, List<String> amigos, List<String> siguiendo, int pendientes) {
+        this.nombre = nombre;
+        this.scoring = scoring;
+        this.amigos = List.copyOf(amigos);
+        this.siguiendo = List.copyOf(siguiendo);
+        this.pendientes = pendientes;
+    }
+
+    /**
+     * Copia el estado actual del cliente (solo sus aristas directas).
+     */
+    public static FichaCliente de(Cliente c) {
+        List<String> amigos = new ArrayList<>(c.cantidadAmigos());
+        for (Cliente amigo : c.getAmigos()) amigos.add(amigo.getNombre());
+        List<String> siguiendo = new ArrayList<>(2);
+        for (Cliente seguido : c.getSiguiendo()) siguiendo.add(seguido.getNombre());
+        return new FichaCliente(c.getNombre(), c.getScoring(), amigos, siguiendo, c.getSolicitudesRecibidas().size());
+    }
+
+    public String getNombre() { return nombre; }
+    public int getScoring() { return scoring; }
+    public List<String> getAmigos() { return amigos; }
+    public List<String> getSiguiendo() { return siguiendo; }
+    public int getPendientes() { return pendientes; }
+}
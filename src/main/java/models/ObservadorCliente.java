@@ -0,0 +1,24 @@
+package models;
+
+/**
+ * Recibe avisos de los cambios de un cliente que afectan a los índices de la red que lo contiene.
+ */
+public interface ObservadorCliente {
+
+    /**
+     * Se invoca después de que el scoring del cliente cambió.
+     */
+    void scoringCambiado(Cliente cliente, int scoringAnterior);
+
+    /**
+     * Se invoca después de cambiar amistades o seguidos del cliente.
+     */
+    default void clienteModificado(Cliente cliente) {
+    }
+
+    /**
+     * Se invoca después de cambiar el buzón de solicitudes del cliente. No toca aristas.
+     */
+    default void buzonModificado(Cliente cliente) {
+    }
+}
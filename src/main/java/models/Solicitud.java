@@ -1,21 +1,34 @@
 package models;
 
+import utils.TDA.RuedaTemporizadora;
+
 public class Solicitud {
     private String solicitante;
     private String solicitado;
     private long timestamp;
 
+    // Vencimiento programado en la rueda de la red (null si la red no la vence)
+    private RuedaTemporizadora.Temporizador<Solicitud> vencimiento;
+
     public Solicitud(String solicitante, String solicitado) {
+        this(solicitante, solicitado, System.currentTimeMillis());
+    }
+
+    public Solicitud(String solicitante, String solicitado, long timestamp) {
         this.solicitante = solicitante;
         this.solicitado = solicitado;
-        this.timestamp = System.currentTimeMillis();
+        this.timestamp = timestamp;
     }
 
     public String getSolicitante() { return solicitante; }
     public String getSolicitado() { return solicitado; }
+    public long getTimestamp() { return timestamp; }
+
+    public RuedaTemporizadora.Temporizador<Solicitud> getVencimiento() { return vencimiento; }
+    public void setVencimiento(RuedaTemporizadora.Temporizador<Solicitud> vencimiento) { this.vencimiento = vencimiento; }
 
     @Override
     public String toString() {
         return "Solicitud: " + solicitante + " quiere seguir a " + solicitado;
     }
-}
\ No newline at end of file
+}
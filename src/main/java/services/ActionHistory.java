@@ -1,41 +1,196 @@
 package services;
 
 import models.Accion;
-import java.util.Stack;
+import models.Accion.TipoAccion;
+
+import java.io.PrintStream;
+import java.util.*;
 
 public class ActionHistory {
-    private Stack<Accion> historial;
+    // Pila sobre ArrayList (la posición i es la i-ésima acción registrada) en lugar de Stack/Vector
+    private final ArrayList<Accion> historial;
+
+    // Índice temporal: instantes[i] es el de la acción i, forzado a no decrecer para poder hacer búsqueda binaria
+    private long[] instantes;
+
+    // Índices secundarios: posiciones (crecientes) de las acciones de cada tipo y de cada cliente
+    private final EnumMap<TipoAccion, Posiciones> porTipo;
+    private final Map<String, Posiciones> porCliente;
 
     public ActionHistory() {
-        this.historial = new Stack<>();
+        this.historial = new ArrayList<>();
+        this.instantes = new long[16];
+        this.porTipo = new EnumMap<>(TipoAccion.class);
+        this.porCliente = new HashMap<>();
     }
 
-    // O(1) - Cumple requisito de eficiencia
+    // O(1) amortizado (+ un paso por cliente involucrado) - Cumple requisito de eficiencia
     public void registrarAccion(Accion accion) {
-        historial.push(accion);
+        int pos = historial.size();
+        if (pos == instantes.length) instantes = Arrays.copyOf(instantes, pos * 2);
+        instantes[pos] = (pos == 0) ? accion.getInstante() : Math.max(accion.getInstante(), instantes[pos - 1]);
+        historial.add(accion);
+
+        porTipo.computeIfAbsent(accion.getTipo(), t -> new Posiciones()).agregar(pos);
+        for (String nombre : involucrados(accion)) {
+            porCliente.computeIfAbsent(nombre, n -> new Posiciones()).agregar(pos);
+        }
     }
 
     // O(1) - Cumple requisito de eficiencia
     public Accion deshacer() {
         if (historial.isEmpty()) return null;
-        return historial.pop();
+        int pos = historial.size() - 1;
+        Accion accion = historial.remove(pos);
+
+        // La acción es la última en todos sus índices: se quita del final
+        porTipo.get(accion.getTipo()).quitarUltima(pos);
+        for (String nombre : involucrados(accion)) {
+            Posiciones p = porCliente.get(nombre);
+            if (p != null && p.quitarUltima(pos) && p.tamanio == 0) porCliente.remove(nombre);
+        }
+        return accion;
     }
 
     public boolean isEmpty() {
         return historial.isEmpty();
     }
 
+    public int cantidad() {
+        return historial.size();
+    }
+
+    // ==========================================
+    // --- CONSULTAS (PAGINADAS, DE MÁS RECIENTE A MÁS ANTIGUA) ---
+    // ==========================================
+
+    /**
+     * Acciones con instante en [desde, hasta] (epoch ms). Se salta las primeras 'salto' y devuelve
+     * a lo sumo 'limite'. Complejidad: O(log n + limite).
+     */
+    public List<Accion> accionesEntre(long desde, long hasta, int salto, int limite) {
+        validarPagina(salto, limite);
+        int primera = primeraPosicionDesde(desde);          // Inclusive
+        int ultima = primeraPosicionDespuesDe(hasta) - 1;   // Inclusive
+        List<Accion> pagina = new ArrayList<>();
+        for (int i = ultima - salto; i >= primera && pagina.size() < limite; i--) pagina.add(historial.get(i));
+        return pagina;
+    }
+
+    public int cantidadEntre(long desde, long hasta) {
+        return Math.max(0, primeraPosicionDespuesDe(hasta) - primeraPosicionDesde(desde));
+    }
+
+    /**
+     * Acciones de un tipo. Complejidad: O(1 + limite).
+     */
+    public List<Accion> accionesPorTipo(TipoAccion tipo, int salto, int limite) {
+        validarPagina(salto, limite);
+        return pagina(porTipo.get(tipo), salto, limite);
+    }
+
+    /**
+     * Acciones que involucran al cliente como sujeto, objeto o parte de un re-scoring en lote.
+     * Complejidad: O(1 + limite).
+     */
+    public List<Accion> accionesDeCliente(String nombre, int salto, int limite) {
+        validarPagina(salto, limite);
+        return pagina(porCliente.get(nombre), salto, limite);
+    }
+
+    public int cantidadPorTipo(TipoAccion tipo) {
+        Posiciones p = porTipo.get(tipo);
+        return (p == null) ? 0 : p.tamanio;
+    }
+
+    public int cantidadDeCliente(String nombre) {
+        Posiciones p = porCliente.get(nombre);
+        return (p == null) ? 0 : p.tamanio;
+    }
+
     // --- NUEVO: Requisito de "Consultar todas las acciones" ---
     public void mostrarHistorialCompleto() {
+        mostrarHistorialCompleto(System.out);
+    }
+
+    public void mostrarHistorialCompleto(PrintStream salida) {
         if (historial.isEmpty()) {
-            System.out.println("   (Historial vacío)");
+            salida.println("   (Historial vacío)");
             return;
         }
-        System.out.println("\n--- HISTORIAL DE ACCIONES (LIFO) ---");
-        // Stack hereda de Vector, así que podemos iterarlo.
+        salida.println("\n--- HISTORIAL DE ACCIONES (LIFO) ---");
         // Lo mostramos de arriba a abajo (del más reciente al más antiguo).
         for (int i = historial.size() - 1; i >= 0; i--) {
-            System.out.println(historial.get(i));
+            salida.println(historial.get(i));
+        }
+    }
+
+    // ==========================================
+    // --- AUXILIARES ---
+    // ==========================================
+
+    private List<Accion> pagina(Posiciones posiciones, int salto, int limite) {
+        List<Accion> pagina = new ArrayList<>();
+        if (posiciones == null) return pagina;
+        for (int i = posiciones.tamanio - 1 - salto; i >= 0 && pagina.size() < limite; i--) {
+            pagina.add(historial.get(posiciones.datos[i]));
+        }
+        return pagina;
+    }
+
+    // Primera posición con instante >= t (o size() si no hay). Búsqueda binaria: O(log n)
+    private int primeraPosicionDesde(long t) {
+        int bajo = 0, alto = historial.size();
+        while (bajo < alto) {
+            int medio = (bajo + alto) >>> 1;
+            if (instantes[medio] < t) bajo = medio + 1;
+            else alto = medio;
+        }
+        return bajo;
+    }
+
+    // Primera posición con instante > t (sin sumar 1 a t: hasta puede ser Long.MAX_VALUE)
+    private int primeraPosicionDespuesDe(long t) {
+        int bajo = 0, alto = historial.size();
+        while (bajo < alto) {
+            int medio = (bajo + alto) >>> 1;
+            if (instantes[medio] <= t) bajo = medio + 1;
+            else alto = medio;
+        }
+        return bajo;
+    }
+
+    private static void validarPagina(int salto, int limite) {
+        if (salto < 0 || limite < 0) throw new IllegalArgumentException("Salto y límite no pueden ser negativos.");
+    }
+
+    // Sujeto y objeto; en los re-scorings en lote el sujeto es un resumen y los clientes son las claves del respaldo
+    private static Collection<String> involucrados(Accion accion) {
+        if (accion.getRespaldo() instanceof Map) {
+            List<String> nombres = new ArrayList<>();
+            for (Object clave : ((Map<?, ?>) accion.getRespaldo()).keySet()) {
+                if (clave instanceof String) nombres.add((String) clave);
+            }
+            if (!nombres.isEmpty()) return nombres;
+        }
+        if (accion.getObjeto() == null) return Collections.singletonList(accion.getSujeto());
+        return Arrays.asList(accion.getSujeto(), accion.getObjeto());
+    }
+
+    // Lista creciente de enteros sin boxing
+    private static final class Posiciones {
+        int[] datos = new int[4];
+        int tamanio = 0;
+
+        void agregar(int pos) {
+            if (tamanio == datos.length) datos = Arrays.copyOf(datos, tamanio * 2);
+            datos[tamanio++] = pos;
+        }
+
+        boolean quitarUltima(int pos) {
+            if (tamanio == 0 || datos[tamanio - 1] != pos) return false;
+            tamanio--;
+            return true;
         }
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,206 @@
+package services;
+
+import models.FichaCliente;
+import utils.TDA.ArbolAVL;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+/**
+ * Historia multiversión (MVCC) de los clientes de la red.
+ *
+ * Cada nombre apunta a una cadena de eslabones inmutables, del más nuevo al más viejo. El escritor
+ * agrega eslabones con la versión siguiente y recién después publica esa versión; un lector fijado
+ * en la versión v toma, de cada cadena, el primer eslabón con versión <= v. Los lectores nunca
+ * bloquean al escritor ni ven estructuras a medio modificar.
+ *
+ * Los eslabones que ningún lector registrado puede ver se podan: de cada cadena se conserva el más
+ * nuevo con versión <= la del lector más viejo (el horizonte).
+ *
+ * Para no recorrer todas las cadenas en cada consulta se mantienen también la cantidad de clientes
+ * de cada versión retenida y, por scoring, los nombres con algún eslabón retenido en ese scoring.
+ */
+class AlmacenVersiones {
+
+    // Un eslabón sin ficha marca que el cliente fue eliminado en esa versión
+    private static final class Eslabon {
+        final long version;
+        final FichaCliente ficha;
+        volatile Eslabon anterior;
+
+        Eslabon(long version, FichaCliente ficha, Eslabon anterior) {
+            this.version = version;
+            this.ficha = ficha;
+            this.anterior = anterior;
+        }
+    }
+
+    private final ConcurrentHashMap<String, Eslabon> cadenas = new ConcurrentHashMap<>();
+    private volatile long versionPublicada = 0;
+
+    // Lectores activos por versión (el primero es el más viejo)
+    private final TreeMap<Long, Integer> lectores = new TreeMap<>();
+
+    // Cadenas con más de un eslabón, candidatas a poda
+    private final Queue<String> conHistoria = new ConcurrentLinkedQueue<>();
+
+    // Clientes visibles por versión publicada (se poda igual que las cadenas)
+    private final ConcurrentSkipListMap<Long, Integer> cantidades = new ConcurrentSkipListMap<>();
+
+    // Candidatos por scoring: se agregan y quitan dentro del compute de la cadena, así nunca se
+    // cruzan una publicación y una poda del mismo nombre
+    private final Set<String>[] porScoring;
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    AlmacenVersiones() {
+        porScoring = new Set[ArbolAVL.SCORING_MAXIMO + 1];
+        for (int s = 0; s < porScoring.length; s++) porScoring[s] = ConcurrentHashMap.newKeySet();
+        cantidades.put(0L, 0);
+    }
+
+    long getVersionPublicada() {
+        return versionPublicada;
+    }
+
+    /**
+     * Escribe las nuevas versiones de un lote (null = eliminado) y las publica juntas.
+     * Solo lo invoca el escritor.
+     */
+    void publicar(Map<String, FichaCliente> cambios) {
+        long nueva = versionPublicada + 1;
+        int[] cantidad = {cantidades.lastEntry().getValue()};
+        for (Map.Entry<String, FichaCliente> e : cambios.entrySet()) {
+            String nombre = e.getKey();
+            FichaCliente ficha = e.getValue();
+            boolean[] tieneHistoria = {false};
+            cadenas.compute(nombre, (k, previo) -> {
+                if (previo == null && ficha == null) return null; // Nunca fue visible: nada que borrar
+                tieneHistoria[0] = (previo != null);
+                if (previo != null && previo.ficha != null) cantidad[0]--;
+                if (ficha != null) {
+                    cantidad[0]++;
+                    porScoring[casilla(ficha.getScoring())].add(nombre);
+                }
+                return new Eslabon(nueva, ficha, previo);
+            });
+            if (tieneHistoria[0]) conHistoria.add(nombre);
+        }
+        cantidades.put(nueva, cantidad[0]);
+        versionPublicada = nueva;
+        podar();
+    }
+
+    /**
+     * @return La ficha del cliente visible en la versión indicada, o null si no existía.
+     */
+    FichaCliente leer(String nombre, long version) {
+        Eslabon e = cadenas.get(nombre);
+        while (e != null && e.version > version) e = e.anterior;
+        return (e == null) ? null : e.ficha;
+    }
+
+    Set<String> nombres() {
+        return cadenas.keySet();
+    }
+
+    /**
+     * Cantidad de clientes visibles en la versión (que debe estar registrada). Complejidad: O(log v).
+     */
+    int cantidad(long version) {
+        return cantidades.floorEntry(version).getValue();
+    }
+
+    /**
+     * Fichas con el scoring dado en la versión. Complejidad: O(k) con k = nombres que tienen ese
+     * scoring en alguna versión retenida, no el total de la red.
+     */
+    List<FichaCliente> conScoring(int scoring, long version) {
+        List<FichaCliente> resultado = new ArrayList<>();
+        for (String nombre : porScoring[casilla(scoring)]) {
+            FichaCliente c = leer(nombre, version);
+            if (c != null && c.getScoring() == scoring) resultado.add(c);
+        }
+        return resultado;
+    }
+
+    private static int casilla(int scoring) {
+        return Math.max(0, Math.min(ArbolAVL.SCORING_MAXIMO, scoring));
+    }
+
+    synchronized long registrarLector() {
+        long version = versionPublicada;
+        lectores.merge(version, 1, Integer::sum);
+        return version;
+    }
+
+    void liberarLector(long version) {
+        synchronized (this) {
+            lectores.computeIfPresent(version, (v, n) -> (n == 1) ? null : n - 1);
+        }
+        podar();
+    }
+
+    // Los lectores nuevos siempre toman la versión publicada, que nunca es menor que el horizonte
+    private synchronized long horizonte() {
+        return lectores.isEmpty() ? versionPublicada : Math.min(lectores.firstKey(), versionPublicada);
+    }
+
+    /**
+     * Recorta las cadenas pendientes hasta el horizonte. La pueden invocar escritor y lectores a la vez:
+     * cada recorte es atómico sobre su cadena.
+     */
+    void podar() {
+        long horizonte = horizonte();
+        Long piso = cantidades.floorKey(horizonte);
+        if (piso != null) cantidades.headMap(piso).clear();
+
+        for (int pendientes = conHistoria.size(); pendientes > 0; pendientes--) {
+            String nombre = conHistoria.poll();
+            if (nombre == null) break;
+
+            boolean[] quedaHistoria = {false};
+            cadenas.computeIfPresent(nombre, (k, cabeza) -> {
+                Eslabon e = cabeza;
+                while (e != null && e.version > horizonte) e = e.anterior;
+                if (e == null) { // Toda la cadena es posterior al horizonte: se revisa en otra poda
+                    quedaHistoria[0] = true;
+                    return cabeza;
+                }
+                quitarScoringsPodados(nombre, cabeza, e);
+                e.anterior = null;
+                // Un borrado que ya nadie puede ver antes de que ocurriera desaparece del todo
+                if (e == cabeza && cabeza.ficha == null) return null;
+                quedaHistoria[0] = (e != cabeza);
+                return cabeza;
+            });
+            if (quedaHistoria[0]) conHistoria.add(nombre);
+        }
+    }
+
+    // Saca al nombre de los scorings que solo aparecían en los eslabones posteriores a "ultimo"
+    private void quitarScoringsPodados(String nombre, Eslabon cabeza, Eslabon ultimo) {
+        if (ultimo.anterior == null) return;
+        BitSet retenidos = new BitSet(porScoring.length);
+        for (Eslabon e = cabeza; e != ultimo.anterior; e = e.anterior) {
+            if (e.ficha != null) retenidos.set(casilla(e.ficha.getScoring()));
+        }
+        for (Eslabon e = ultimo.anterior; e != null; e = e.anterior) {
+            if (e.ficha != null && !retenidos.get(casilla(e.ficha.getScoring()))) {
+                porScoring[casilla(e.ficha.getScoring())].remove(nombre);
+            }
+        }
+    }
+
+    /**
+     * Cantidad total de eslabones retenidos (para medir la poda).
+     */
+    int cantidadEslabones() {
+        int total = 0;
+        for (Eslabon cabeza : cadenas.values()) {
+            for (Eslabon e = cabeza; e != null; e = e.anterior) total++;
+        }
+        return total;
+    }
+}
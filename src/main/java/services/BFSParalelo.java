@@ -0,0 +1,234 @@
+package services;
+
+import utils.TDA.GrafoIndexado;
+
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * BFS paralela sincronizada por niveles sobre un {@link GrafoIndexado}.
+ *
+ * Cada nivel reparte la frontera entre los hilos del ForkJoinPool. Los visitados se guardan
+ * en un bitset atómico y se alterna entre expansión "de arriba hacia abajo" (la frontera recorre
+ * sus salientes) y "de abajo hacia arriba" (los no visitados buscan un padre en la frontera)
+ * según el tamaño de la frontera (heurística de Beamer).
+ *
+ * Cada nodo nuevo se asigna al padre de MENOR posición en la frontera, y la frontera siguiente
+ * se arma recorriendo los padres en orden. Así el orden de cada nivel es exactamente el mismo
+ * que produciría la BFS secuencial con cola.
+ */
+public class BFSParalelo {
+    // Tamaño mínimo de un bloque antes de dejar de subdividir la tarea
+    private static final int UMBRAL_TAREA = 1024;
+
+    // Parámetros de la heurística de cambio de dirección
+    private static final int ALFA = 14;
+    private static final int BETA = 24;
+
+    private static final int SIN_PADRE = Integer.MAX_VALUE;
+
+    private final GrafoIndexado grafo;
+    private final ForkJoinPool pool;
+
+    public BFSParalelo(GrafoIndexado grafo) {
+        this(grafo, ForkJoinPool.commonPool());
+    }
+
+    public BFSParalelo(GrafoIndexado grafo, ForkJoinPool pool) {
+        this.grafo = grafo;
+        this.pool = pool;
+    }
+
+    /**
+     * Distancia mínima (en saltos) entre dos índices del grafo, o -1 si no hay camino.
+     */
+    public int distancia(int origen, int destino) {
+        if (origen == destino) return 0;
+        Recorrido r = new Recorrido(origen);
+        for (int nivel = 1; r.frontera.length > 0; nivel++) {
+            r.avanzar();
+            if (r.visitado(destino)) return nivel;
+        }
+        return -1;
+    }
+
+    /**
+     * Índices que están exactamente a {@code nivel} saltos del origen, en orden BFS.
+     */
+    public int[] nivel(int origen, int nivel) {
+        Recorrido r = new Recorrido(origen);
+        for (int i = 0; i < nivel && r.frontera.length > 0; i++) {
+            r.avanzar();
+        }
+        return r.frontera;
+    }
+
+    // ==========================================
+    // --- ESTADO DE UN RECORRIDO ---
+    // ==========================================
+
+    private class Recorrido {
+        final int n = grafo.cantidadNodos();
+        final AtomicLongArray visitados = new AtomicLongArray((n + 63) >>> 6);
+        final AtomicIntegerArray padrePos = new AtomicIntegerArray(n);
+        final int[] posEnFrontera = new int[n];
+
+        int[] frontera;
+        boolean abajoArriba = false;
+        long aristasSinExplorar; // suma de grados de entrada de los no visitados
+
+        Recorrido(int origen) {
+            for (int i = 0; i < n; i++) padrePos.set(i, SIN_PADRE);
+            Arrays.fill(posEnFrontera, -1);
+            aristasSinExplorar = grafo.cantidadAristas() - grafo.gradoEntrada(origen);
+            marcar(origen);
+            frontera = new int[]{origen};
+        }
+
+        boolean visitado(int v) {
+            return (visitados.get(v >>> 6) & (1L << v)) != 0;
+        }
+
+        void marcar(int v) {
+            visitados.getAndAccumulate(v >>> 6, 1L << v, (a, b) -> a | b);
+        }
+
+        void avanzar() {
+            elegirDireccion();
+            if (abajoArriba) {
+                pasoAbajoArriba();
+            } else {
+                pasoArribaAbajo();
+            }
+            int[] nueva = compactar();
+            en(nueva.length, (desde, hasta) -> {
+                for (int i = desde; i < hasta; i++) marcar(nueva[i]);
+            });
+            for (int v : nueva) aristasSinExplorar -= grafo.gradoEntrada(v);
+            frontera = nueva;
+        }
+
+        private void elegirDireccion() {
+            if (abajoArriba) {
+                if (frontera.length < n / BETA) abajoArriba = false;
+            } else {
+                long aristasFrontera = 0;
+                for (int u : frontera) aristasFrontera += grafo.gradoSalida(u);
+                if (aristasFrontera > aristasSinExplorar / ALFA) abajoArriba = true;
+            }
+        }
+
+        // La frontera recorre sus salientes y propone su posición como padre (mínimo atómico)
+        private void pasoArribaAbajo() {
+            int[] f = frontera;
+            en(f.length, (desde, hasta) -> {
+                for (int p = desde; p < hasta; p++) {
+                    int u = f[p];
+                    for (int k = grafo.inicioSalida(u); k < grafo.finSalida(u); k++) {
+                        int v = grafo.vecinoSalida(k);
+                        if (visitado(v)) continue;
+                        int actual;
+                        while (p < (actual = padrePos.get(v)) && !padrePos.compareAndSet(v, actual, p)) {
+                            // reintentar hasta dejar el mínimo
+                        }
+                    }
+                }
+            });
+        }
+
+        // Cada no visitado busca, entre sus entrantes, el padre de menor posición en la frontera
+        private void pasoAbajoArriba() {
+            int[] f = frontera;
+            en(f.length, (desde, hasta) -> {
+                for (int p = desde; p < hasta; p++) posEnFrontera[f[p]] = p;
+            });
+            en(n, (desde, hasta) -> {
+                for (int v = desde; v < hasta; v++) {
+                    if (visitado(v)) continue;
+                    int mejor = SIN_PADRE;
+                    for (int k = grafo.inicioEntrada(v); k < grafo.finEntrada(v); k++) {
+                        int pos = posEnFrontera[grafo.vecinoEntrada(k)];
+                        if (pos >= 0 && pos < mejor) mejor = pos;
+                    }
+                    if (mejor != SIN_PADRE) padrePos.set(v, mejor);
+                }
+            });
+            en(f.length, (desde, hasta) -> {
+                for (int p = desde; p < hasta; p++) posEnFrontera[f[p]] = -1;
+            });
+        }
+
+        // Arma la frontera siguiente en el orden de la BFS secuencial (conteo + suma prefija + llenado)
+        private int[] compactar() {
+            int[] f = frontera;
+            int[] cuenta = new int[f.length + 1];
+            en(f.length, (desde, hasta) -> {
+                for (int p = desde; p < hasta; p++) {
+                    int u = f[p];
+                    int c = 0;
+                    for (int k = grafo.inicioSalida(u); k < grafo.finSalida(u); k++) {
+                        int v = grafo.vecinoSalida(k);
+                        if (!visitado(v) && padrePos.get(v) == p) c++;
+                    }
+                    cuenta[p + 1] = c;
+                }
+            });
+            for (int p = 0; p < f.length; p++) cuenta[p + 1] += cuenta[p];
+
+            int[] nueva = new int[cuenta[f.length]];
+            en(f.length, (desde, hasta) -> {
+                for (int p = desde; p < hasta; p++) {
+                    int u = f[p];
+                    int i = cuenta[p];
+                    for (int k = grafo.inicioSalida(u); k < grafo.finSalida(u); k++) {
+                        int v = grafo.vecinoSalida(k);
+                        if (!visitado(v) && padrePos.get(v) == p) nueva[i++] = v;
+                    }
+                }
+            });
+            return nueva;
+        }
+    }
+
+    // ==========================================
+    // --- REPARTO DE TRABAJO (FORK/JOIN) ---
+    // ==========================================
+
+    @FunctionalInterface
+    private interface Bloque {
+        void ejecutar(int desde, int hasta);
+    }
+
+    private void en(int total, Bloque bloque) {
+        if (total <= UMBRAL_TAREA) {
+            bloque.ejecutar(0, total);
+        } else {
+            pool.invoke(new TareaRango(0, total, bloque));
+        }
+    }
+
+    @SuppressWarnings("serial") // Tarea de fork/join, nunca se serializa
+    private static class TareaRango extends RecursiveAction {
+        private final int desde, hasta;
+        private final Bloque bloque;
+
+        TareaRango(int desde, int hasta, Bloque bloque) {
+            this.desde = desde;
+            this.hasta = hasta;
+            this.bloque = bloque;
+        }
+
+        @Override
+        protected void compute() {
+            if (hasta - desde <= UMBRAL_TAREA) {
+                bloque.ejecutar(desde, hasta);
+                return;
+            }
+            int medio = (desde + hasta) >>> 1;
+            invokeAll(new TareaRango(desde, medio, bloque), new TareaRango(medio, hasta, bloque));
+        }
+    }
+}
@@ -0,0 +1,106 @@
+package services;
+
+import models.Cliente;
+import utils.TDA.HeapIndexado;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Dijkstra sobre el grafo de amistades con pesos dados por una {@link EstrategiaPeso}.
+ *
+ * Usa un {@link HeapIndexado} (ids primitivos con decrease-key) y arreglos indexados por id de
+ * cliente que se reutilizan entre consultas mediante épocas, así que cada búsqueda cuesta
+ * O((V' + E') log V') sobre la parte del grafo que llega a explorar antes de fijar el destino.
+ */
+public class CaminosPonderados {
+    private final HeapIndexado heap = new HeapIndexado(0);
+    private double[] distancia = new double[0];
+    private int[] padre = new int[0];
+    private int[] marca = new int[0];    // época en que el id recibió distancia tentativa
+    private int[] cerrado = new int[0];  // época en que se fijó su distancia definitiva
+    private int epoca = 0;
+
+    /**
+     * Ejecuta Dijkstra desde el origen y se detiene al fijar la distancia del destino.
+     * @return true si el destino es alcanzable.
+     */
+    public boolean ejecutar(List<Cliente> clientesPorId, Cliente origen, Cliente destino, EstrategiaPeso estrategia) {
+        preparar(clientesPorId.size());
+        int idDestino = destino.getId();
+
+        distancia[origen.getId()] = 0.0;
+        padre[origen.getId()] = -1;
+        marca[origen.getId()] = epoca;
+        heap.insertarOReducir(origen.getId(), 0.0);
+
+        try {
+            while (!heap.estaVacio()) {
+                int id = heap.extraerMinimo();
+                cerrado[id] = epoca;
+                if (id == idDestino) return true; // Corte temprano: la distancia ya es definitiva
+
+                Cliente actual = clientesPorId.get(id);
+                double base = distancia[id];
+                for (Cliente vecino : actual.getAmigos()) {
+                    int v = vecino.getId();
+                    if (cerrado[v] == epoca) continue;
+
+                    double peso = estrategia.peso(actual, vecino);
+                    if (!(peso >= 0.0)) {
+                        throw new IllegalArgumentException("La estrategia devolvió un peso inválido (" + peso + ") entre "
+                                + actual.getNombre() + " y " + vecino.getNombre() + ".");
+                    }
+
+                    double candidata = base + peso;
+                    if (marca[v] != epoca || candidata < distancia[v]) {
+                        marca[v] = epoca;
+                        distancia[v] = candidata;
+                        padre[v] = id;
+                        heap.insertarOReducir(v, candidata);
+                    }
+                }
+            }
+            return false;
+        } finally {
+            heap.vaciar();
+        }
+    }
+
+    /**
+     * Distancia fijada para el id en la última ejecución.
+     */
+    public double getDistancia(int id) {
+        return distancia[id];
+    }
+
+    /**
+     * Reconstruye el camino (nombres) hasta el id indicado a partir de los padres de la última ejecución.
+     */
+    public List<String> camino(List<Cliente> clientesPorId, int idDestino) {
+        List<String> camino = new ArrayList<>();
+        for (int id = idDestino; id != -1; id = padre[id]) {
+            camino.add(clientesPorId.get(id).getNombre());
+        }
+        Collections.reverse(camino);
+        return camino;
+    }
+
+    private void preparar(int capacidad) {
+        if (marca.length < capacidad) {
+            int nueva = Math.max(capacidad, marca.length * 2);
+            distancia = Arrays.copyOf(distancia, nueva);
+            padre = Arrays.copyOf(padre, nueva);
+            marca = Arrays.copyOf(marca, nueva);
+            cerrado = Arrays.copyOf(cerrado, nueva);
+            heap.asegurarCapacidad(nueva);
+        }
+        if (++epoca == Integer.MAX_VALUE) {
+            Arrays.fill(marca, 0);
+            Arrays.fill(cerrado, 0);
+            epoca = 1;
+        }
+    }
+}
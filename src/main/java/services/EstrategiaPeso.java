@@ -0,0 +1,46 @@
+package services;
+
+import models.Cliente;
+
+/**
+ * Costo de atravesar una amistad en los caminos ponderados (Dijkstra).
+ * Debe devolver valores no negativos.
+ */
+@FunctionalInterface
+public interface EstrategiaPeso {
+
+    double peso(Cliente desde, Cliente hacia);
+
+    /**
+     * Todas las amistades cuestan 1 (equivale a la distancia en saltos).
+     */
+    static EstrategiaPeso uniforme() {
+        return Predefinidas.UNIFORME;
+    }
+
+    /**
+     * "Distancia de confianza": entrar a un cliente cuesta entre 1 (scoring 100) y 2 (scoring 0).
+     */
+    static EstrategiaPeso confianzaLineal() {
+        return Predefinidas.LINEAL;
+    }
+
+    /**
+     * Penaliza fuertemente a los clientes de scoring bajo: cuesta 101 / (scoring + 1).
+     */
+    static EstrategiaPeso confianzaInversa() {
+        return Predefinidas.INVERSA;
+    }
+
+    /**
+     * Instancias únicas de las estrategias de fábrica: la traza de operaciones las reconoce por identidad.
+     */
+    final class Predefinidas {
+        static final EstrategiaPeso UNIFORME = (desde, hacia) -> 1.0;
+        static final EstrategiaPeso LINEAL = (desde, hacia) -> 1.0 + (100 - hacia.getScoring()) / 100.0;
+        static final EstrategiaPeso INVERSA = (desde, hacia) -> 101.0 / (hacia.getScoring() + 1);
+
+        private Predefinidas() {
+        }
+    }
+}
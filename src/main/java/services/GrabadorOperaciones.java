@@ -0,0 +1,224 @@
+package services;
+
+import exceptions.ClienteNoEncontradoException;
+import exceptions.ClienteYaExisteException;
+import exceptions.SocialNetworkException;
+import models.Cliente;
+
+import java.io.*;
+import java.util.*;
+
+/**
+ * Decorador de {@link ISocialNetwork} que graba cada llamada (operación, argumentos, instante,
+ * duración y huella del resultado) en una traza binaria compacta, para reproducirla después con
+ * {@link ReproductorTraza} contra cualquier implementación.
+ *
+ * Las excepciones también se graban (como huella) y se relanzan sin cambios. Las estrategias de
+ * peso que no son las de fábrica se graban como desconocidas y se reproducen como uniformes.
+ *
+ * Cada llamada y su registro se hacen bajo el mismo monitor: con llamadores concurrentes las
+ * operaciones se serializan, y la traza queda en el orden en que se ejecutaron sobre el delegado
+ * (el que sigue la reproducción).
+ */
+public class GrabadorOperaciones implements ISocialNetwork, AutoCloseable {
+    private final ISocialNetwork delegado;
+    private final DataOutputStream salida;
+    private final long inicio = System.nanoTime();
+    private long operacionesGrabadas = 0;
+
+    @FunctionalInterface
+    private interface Llamada<T, E extends Exception> {
+        T ejecutar() throws E;
+    }
+
+    @FunctionalInterface
+    private interface LlamadaVacia<E extends Exception> {
+        void ejecutar() throws E;
+    }
+
+    public GrabadorOperaciones(ISocialNetwork delegado, OutputStream destino) throws IOException {
+        this.delegado = delegado;
+        this.salida = new DataOutputStream(new BufferedOutputStream(destino, 1 << 16));
+        this.salida.writeInt(TrazaBinaria.MAGIA);
+    }
+
+    public GrabadorOperaciones(ISocialNetwork delegado, String archivo) throws IOException {
+        this(delegado, new FileOutputStream(archivo));
+    }
+
+    public ISocialNetwork getDelegado() {
+        return delegado;
+    }
+
+    public synchronized long getOperacionesGrabadas() {
+        return operacionesGrabadas;
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        salida.close();
+    }
+
+    // ==========================================
+    // --- GRABACIÓN ---
+    // ==========================================
+
+    private synchronized <T, E extends Exception> T grabar(OperacionTraza op, Llamada<T, E> llamada, Object... argumentos) throws E {
+        long antes = System.nanoTime();
+        try {
+            T resultado = llamada.ejecutar();
+            registrar(op, argumentos, antes, resultado);
+            return resultado;
+        } catch (Exception e) {
+            registrar(op, argumentos, antes, e);
+            throw e;
+        }
+    }
+
+    private <E extends Exception> void grabarVacia(OperacionTraza op, LlamadaVacia<E> llamada, Object... argumentos) throws E {
+        grabar(op, () -> {
+            llamada.ejecutar();
+            return TrazaBinaria.VACIO;
+        }, argumentos);
+    }
+
+    private void registrar(OperacionTraza op, Object[] argumentos, long antes, Object resultado) {
+        long ahora = System.nanoTime();
+        try {
+            TrazaBinaria.escribir(salida, new TrazaBinaria.Registro(op, antes - inicio, argumentos,
+                    ahora - antes, TrazaBinaria.huella(resultado)));
+            operacionesGrabadas++;
+        } catch (IOException e) {
+            throw new UncheckedIOException("No se pudo grabar la traza", e);
+        }
+    }
+
+    // ==========================================
+    // --- OPERACIONES DELEGADAS ---
+    // ==========================================
+
+    @Override
+    public void agregarCliente(String nombre, int scoring) throws ClienteYaExisteException {
+        grabarVacia(OperacionTraza.AGREGAR_CLIENTE, () -> delegado.agregarCliente(nombre, scoring), nombre, scoring);
+    }
+
+    @Override
+    public void actualizarScoring(String nombre, int nuevoScoring) throws ClienteNoEncontradoException {
+        grabarVacia(OperacionTraza.ACTUALIZAR_SCORING, () -> delegado.actualizarScoring(nombre, nuevoScoring), nombre, nuevoScoring);
+    }
+
+    @Override
+    public void actualizarScorings(Map<String, Integer> nuevosScorings) throws ClienteNoEncontradoException {
+        Map<String, Integer> copia = new LinkedHashMap<>(nuevosScorings);
+        grabarVacia(OperacionTraza.ACTUALIZAR_SCORINGS, () -> delegado.actualizarScorings(copia), copia);
+    }
+
+    @Override
+    public Cliente buscarPorNombre(String nombre) {
+        return grabar(OperacionTraza.BUSCAR_POR_NOMBRE, () -> delegado.buscarPorNombre(nombre), nombre);
+    }
+
+    @Override
+    public List<Cliente> buscarPorScoring(int scoring) {
+        return grabar(OperacionTraza.BUSCAR_POR_SCORING, () -> delegado.buscarPorScoring(scoring), scoring);
+    }
+
+    @Override
+    public void enviarSolicitud(String solicitante, String solicitado) throws SocialNetworkException {
+        grabarVacia(OperacionTraza.ENVIAR_SOLICITUD, () -> delegado.enviarSolicitud(solicitante, solicitado), solicitante, solicitado);
+    }
+
+    @Override
+    public List<String> procesarSolicitudes() {
+        return grabar(OperacionTraza.PROCESAR_SOLICITUDES, delegado::procesarSolicitudes);
+    }
+
+    @Override
+    public void deshacerUltimaAccion() {
+        grabarVacia(OperacionTraza.DESHACER, delegado::deshacerUltimaAccion);
+    }
+
+    @Override
+    public void mostrarEstadoGeneral() {
+        grabarVacia(OperacionTraza.MOSTRAR_ESTADO, delegado::mostrarEstadoGeneral);
+    }
+
+    @Override
+    public void eliminarClienteTotalmente(String nombre) throws ClienteNoEncontradoException {
+        grabarVacia(OperacionTraza.ELIMINAR_CLIENTE, () -> delegado.eliminarClienteTotalmente(nombre), nombre);
+    }
+
+    @Override
+    public void verHistorial() {
+        grabarVacia(OperacionTraza.VER_HISTORIAL, delegado::verHistorial);
+    }
+
+    @Override
+    public void mostrarConexionesDe(String nombre) throws ClienteNoEncontradoException {
+        grabarVacia(OperacionTraza.MOSTRAR_CONEXIONES, () -> delegado.mostrarConexionesDe(nombre), nombre);
+    }
+
+    @Override
+    public void configurarConsola(PrintStream destino, boolean mensajes) {
+        delegado.configurarConsola(destino, mensajes); // No es una operación de la red: no se graba
+    }
+
+    @Override
+    public void analizarNivel(String nombreOrigen, int nivelObjetivo) {
+        grabarVacia(OperacionTraza.ANALIZAR_NIVEL, () -> delegado.analizarNivel(nombreOrigen, nivelObjetivo), nombreOrigen, nivelObjetivo);
+    }
+
+    @Override
+    public List<Cliente> clientesEnNivel(String nombreOrigen, int nivelObjetivo) throws ClienteNoEncontradoException {
+        return grabar(OperacionTraza.CLIENTES_EN_NIVEL, () -> delegado.clientesEnNivel(nombreOrigen, nivelObjetivo), nombreOrigen, nivelObjetivo);
+    }
+
+    @Override
+    public void crearAmistad(String nombre1, String nombre2) throws ClienteNoEncontradoException {
+        grabarVacia(OperacionTraza.CREAR_AMISTAD, () -> delegado.crearAmistad(nombre1, nombre2), nombre1, nombre2);
+    }
+
+    @Override
+    public int calcularDistancia(String origen, String destino) throws ClienteNoEncontradoException {
+        return grabar(OperacionTraza.CALCULAR_DISTANCIA, () -> delegado.calcularDistancia(origen, destino), origen, destino);
+    }
+
+    @Override
+    public List<String> calcularCamino(String origen, String destino) throws ClienteNoEncontradoException {
+        return grabar(OperacionTraza.CALCULAR_CAMINO, () -> delegado.calcularCamino(origen, destino), origen, destino);
+    }
+
+    @Override
+    public Map<String, Integer> calcularDistancias(String origen, Collection<String> destinos) throws ClienteNoEncontradoException {
+        List<String> copia = new ArrayList<>(destinos);
+        return grabar(OperacionTraza.CALCULAR_DISTANCIAS, () -> delegado.calcularDistancias(origen, copia), origen, copia);
+    }
+
+    @Override
+    public double calcularDistanciaPonderada(String origen, String destino, EstrategiaPeso peso) throws ClienteNoEncontradoException {
+        return grabar(OperacionTraza.DISTANCIA_PONDERADA, () -> delegado.calcularDistanciaPonderada(origen, destino, peso),
+                origen, destino, TrazaBinaria.codigoPeso(peso));
+    }
+
+    @Override
+    public List<String> calcularCaminoPonderado(String origen, String destino, EstrategiaPeso peso) throws ClienteNoEncontradoException {
+        return grabar(OperacionTraza.CAMINO_PONDERADO, () -> delegado.calcularCaminoPonderado(origen, destino, peso),
+                origen, destino, TrazaBinaria.codigoPeso(peso));
+    }
+
+    @Override
+    public List<String> amigosEnComun(String nombre1, String nombre2) throws ClienteNoEncontradoException {
+        return grabar(OperacionTraza.AMIGOS_EN_COMUN, () -> delegado.amigosEnComun(nombre1, nombre2), nombre1, nombre2);
+    }
+
+    @Override
+    public int cantidadAmigosEnComun(String nombre1, String nombre2) throws ClienteNoEncontradoException {
+        return grabar(OperacionTraza.CANTIDAD_AMIGOS_EN_COMUN, () -> delegado.cantidadAmigosEnComun(nombre1, nombre2), nombre1, nombre2);
+    }
+
+    @Override
+    public Map<String, Integer> cantidadAmigosEnComun(String nombre, Collection<String> otros) throws ClienteNoEncontradoException {
+        List<String> copia = new ArrayList<>(otros);
+        return grabar(OperacionTraza.CANTIDAD_AMIGOS_EN_COMUN_LOTE, () -> delegado.cantidadAmigosEnComun(nombre, copia), nombre, copia);
+    }
+}
@@ -1,13 +1,27 @@
 package services;
 
 import models.Cliente;
+import java.io.PrintStream;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 import exceptions.ClienteYaExisteException;
 import exceptions.ClienteNoEncontradoException;
 import exceptions.SocialNetworkException;
 
 public interface ISocialNetwork {
     void agregarCliente(String nombre, int scoring) throws ClienteYaExisteException;
+
+    /**
+     * Cambia el scoring de un cliente reubicándolo en el índice AVL (O(log n)). Se puede deshacer.
+     */
+    void actualizarScoring(String nombre, int nuevoScoring) throws ClienteNoEncontradoException;
+
+    /**
+     * Re-scoring en lote (todo o nada). Si el lote es grande el índice se reconstruye en una pasada.
+     * Se deshace como una única acción.
+     */
+    void actualizarScorings(Map<String, Integer> nuevosScorings) throws ClienteNoEncontradoException;
     Cliente buscarPorNombre(String nombre);
     List<Cliente> buscarPorScoring(int scoring);
     void enviarSolicitud(String solicitante, String solicitado) throws SocialNetworkException;
@@ -19,6 +33,19 @@ public interface ISocialNetwork {
     void mostrarConexionesDe(String nombre) throws ClienteNoEncontradoException;
     void analizarNivel(String nombreOrigen, int nivelObjetivo);
 
+    /**
+     * Dirige los listados (estado, conexiones, nivel, historial) y los mensajes de cada operación a
+     * otro destino (null: System.out). Con mensajes = false las operaciones no imprimen nada y los
+     * listados siguen saliendo. Por defecto no hace nada y todo sale por System.out.
+     */
+    default void configurarConsola(PrintStream destino, boolean mensajes) {
+    }
+
+    /**
+     * Clientes que están exactamente a N saltos del origen en la red de seguimientos, en orden BFS.
+     */
+    List<Cliente> clientesEnNivel(String nombreOrigen, int nivelObjetivo) throws ClienteNoEncontradoException;
+
     // ==========================================
     // --- NUEVO ITERACIÓN 3: GRAFOS GENERALES ---
     // ==========================================
@@ -33,4 +60,41 @@ public interface ISocialNetwork {
      * @return Número de saltos, o -1 si no hay conexión.
      */
     int calcularDistancia(String origen, String destino) throws ClienteNoEncontradoException;
-}
\ No newline at end of file
+
+    /**
+     * Camino más corto de amistades entre dos clientes (nombres, de origen a destino inclusive).
+     * @return Lista vacía si no hay conexión.
+     */
+    List<String> calcularCamino(String origen, String destino) throws ClienteNoEncontradoException;
+
+    /**
+     * Distancia mínima desde un origen a varios destinos con una única BFS.
+     * @return Mapa destino -> saltos (-1 si no hay conexión), en el orden recibido.
+     */
+    Map<String, Integer> calcularDistancias(String origen, Collection<String> destinos) throws ClienteNoEncontradoException;
+
+    /**
+     * Costo mínimo entre dos clientes sobre las amistades, con pesos dados por la estrategia (Dijkstra).
+     * @return Costo total, o -1 si no hay conexión.
+     */
+    double calcularDistanciaPonderada(String origen, String destino, EstrategiaPeso peso) throws ClienteNoEncontradoException;
+
+    /**
+     * Camino de costo mínimo (nombres, de origen a destino inclusive) según la estrategia de pesos.
+     * @return Lista vacía si no hay conexión.
+     */
+    List<String> calcularCaminoPonderado(String origen, String destino, EstrategiaPeso peso) throws ClienteNoEncontradoException;
+
+    /**
+     * Amigos que tienen en común dos clientes, sin un orden en particular.
+     */
+    List<String> amigosEnComun(String nombre1, String nombre2) throws ClienteNoEncontradoException;
+
+    int cantidadAmigosEnComun(String nombre1, String nombre2) throws ClienteNoEncontradoException;
+
+    /**
+     * Amigos en común de un cliente con cada uno de los otros, en una sola llamada.
+     * @return Mapa otro -> cantidad de amigos en común, en el orden recibido.
+     */
+    Map<String, Integer> cantidadAmigosEnComun(String nombre, Collection<String> otros) throws ClienteNoEncontradoException;
+}
@@ -0,0 +1,51 @@
+package services;
+
+/**
+ * Operaciones de {@link ISocialNetwork} en la traza binaria, con su código y la firma de sus
+ * argumentos: S = texto, I = entero, M = mapa texto->entero, L = lista de textos, E = estrategia de peso.
+ */
+enum OperacionTraza {
+    AGREGAR_CLIENTE(1, "SI"),
+    ACTUALIZAR_SCORING(2, "SI"),
+    ACTUALIZAR_SCORINGS(3, "M"),
+    BUSCAR_POR_NOMBRE(4, "S"),
+    BUSCAR_POR_SCORING(5, "I"),
+    ENVIAR_SOLICITUD(6, "SS"),
+    PROCESAR_SOLICITUDES(7, ""),
+    DESHACER(8, ""),
+    MOSTRAR_ESTADO(9, ""),
+    ELIMINAR_CLIENTE(10, "S"),
+    VER_HISTORIAL(11, ""),
+    MOSTRAR_CONEXIONES(12, "S"),
+    ANALIZAR_NIVEL(13, "SI"),
+    CLIENTES_EN_NIVEL(14, "SI"),
+    CREAR_AMISTAD(15, "SS"),
+    CALCULAR_DISTANCIA(16, "SS"),
+    CALCULAR_CAMINO(17, "SS"),
+    CALCULAR_DISTANCIAS(18, "SL"),
+    DISTANCIA_PONDERADA(19, "SSE"),
+    CAMINO_PONDERADO(20, "SSE"),
+    AMIGOS_EN_COMUN(21, "SS"),
+    CANTIDAD_AMIGOS_EN_COMUN(22, "SS"),
+    CANTIDAD_AMIGOS_EN_COMUN_LOTE(23, "SL");
+
+    private static final OperacionTraza[] POR_CODIGO = new OperacionTraza[256];
+
+    static {
+        for (OperacionTraza op : values()) POR_CODIGO[op.codigo] = op;
+    }
+
+    final int codigo;
+    final String firma;
+
+    OperacionTraza(int codigo, String firma) {
+        this.codigo = codigo;
+        this.firma = firma;
+    }
+
+    static OperacionTraza desdeCodigo(int codigo) {
+        OperacionTraza op = (codigo >= 0 && codigo < POR_CODIGO.length) ? POR_CODIGO[codigo] : null;
+        if (op == null) throw new IllegalArgumentException("Código de operación desconocido en la traza: " + codigo);
+        return op;
+    }
+}
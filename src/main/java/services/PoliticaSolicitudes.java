@@ -0,0 +1,18 @@
+package services;
+
+/**
+ * Orden en que procesarSolicitudes acepta las solicitudes pendientes.
+ */
+public enum PoliticaSolicitudes {
+    /**
+     * Buzón por buzón, en orden de llegada (comportamiento histórico).
+     */
+    FIFO,
+
+    /**
+     * Todo el lote junto: primero las solicitudes hacia clientes de mayor scoring y, a igual
+     * scoring, las más antiguas. Con el límite de 2 seguidos, cada solicitante termina siguiendo
+     * a los mejor puntuados de los que pidió (y no a los primeros que pidió).
+     */
+    PRIORIDAD_SCORING
+}
@@ -0,0 +1,227 @@
+package services;
+
+import utils.JsonLoader;
+
+import java.io.*;
+import java.util.*;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Reproduce una traza grabada por {@link GrabadorOperaciones} contra cualquier {@link ISocialNetwork}.
+ *
+ * Cada llamada se vuelve a ejecutar con los mismos argumentos, se mide su latencia y se compara la
+ * huella del resultado (o de la excepción) con la grabada: si difieren se cuenta una divergencia.
+ * Puede ir a máxima velocidad o respetar los tiempos originales entre llamadas.
+ */
+public class ReproductorTraza {
+    private static final int EJEMPLOS_MAXIMOS = 10;
+    private static final int CUBETAS = 40; // Cubeta i: latencias en [2^i, 2^(i+1)) µs
+
+    public enum Modo {
+        MAXIMA_VELOCIDAD,
+        TIEMPO_ORIGINAL
+    }
+
+    private final ISocialNetwork red;
+    private final Modo modo;
+
+    public ReproductorTraza(ISocialNetwork red, Modo modo) {
+        this.red = red;
+        this.modo = modo;
+    }
+
+    public Reporte reproducir(String archivo) throws IOException {
+        try (InputStream in = new FileInputStream(archivo)) {
+            return reproducir(in);
+        }
+    }
+
+    public Reporte reproducir(InputStream origen) throws IOException {
+        DataInputStream in = new DataInputStream(new BufferedInputStream(origen, 1 << 16));
+        if (in.readInt() != TrazaBinaria.MAGIA) throw new IOException("El archivo no es una traza de operaciones.");
+
+        Reporte reporte = new Reporte();
+        long inicio = System.nanoTime();
+        TrazaBinaria.Registro registro;
+        while ((registro = TrazaBinaria.leer(in)) != null) {
+            if (modo == Modo.TIEMPO_ORIGINAL) esperarHasta(inicio + registro.instante);
+
+            long antes = System.nanoTime();
+            Object resultado = ejecutar(registro);
+            long latencia = System.nanoTime() - antes;
+
+            int huella = TrazaBinaria.huella(resultado);
+            reporte.registrar(registro, latencia, huella != registro.huella, TrazaBinaria.canonico(resultado));
+        }
+        reporte.nanosTotales = System.nanoTime() - inicio;
+        return reporte;
+    }
+
+    private static void esperarHasta(long instante) {
+        long falta;
+        while ((falta = instante - System.nanoTime()) > 0) LockSupport.parkNanos(falta);
+    }
+
+    // Devuelve el resultado de la llamada o la excepción que lanzó, para compararlos por huella
+    @SuppressWarnings("unchecked")
+    private Object ejecutar(TrazaBinaria.Registro r) {
+        Object[] a = r.argumentos;
+        try {
+            switch (r.operacion) {
+                case AGREGAR_CLIENTE:
+                    red.agregarCliente((String) a[0], (Integer) a[1]);
+                    return TrazaBinaria.VACIO;
+                case ACTUALIZAR_SCORING:
+                    red.actualizarScoring((String) a[0], (Integer) a[1]);
+                    return TrazaBinaria.VACIO;
+                case ACTUALIZAR_SCORINGS:
+                    red.actualizarScorings((Map<String, Integer>) a[0]);
+                    return TrazaBinaria.VACIO;
+                case BUSCAR_POR_NOMBRE:
+                    return red.buscarPorNombre((String) a[0]);
+                case BUSCAR_POR_SCORING:
+                    return red.buscarPorScoring((Integer) a[0]);
+                case ENVIAR_SOLICITUD:
+                    red.enviarSolicitud((String) a[0], (String) a[1]);
+                    return TrazaBinaria.VACIO;
+                case PROCESAR_SOLICITUDES:
+                    return red.procesarSolicitudes();
+                case DESHACER:
+                    red.deshacerUltimaAccion();
+                    return TrazaBinaria.VACIO;
+                case MOSTRAR_ESTADO:
+                    red.mostrarEstadoGeneral();
+                    return TrazaBinaria.VACIO;
+                case ELIMINAR_CLIENTE:
+                    red.eliminarClienteTotalmente((String) a[0]);
+                    return TrazaBinaria.VACIO;
+                case VER_HISTORIAL:
+                    red.verHistorial();
+                    return TrazaBinaria.VACIO;
+                case MOSTRAR_CONEXIONES:
+                    red.mostrarConexionesDe((String) a[0]);
+                    return TrazaBinaria.VACIO;
+                case ANALIZAR_NIVEL:
+                    red.analizarNivel((String) a[0], (Integer) a[1]);
+                    return TrazaBinaria.VACIO;
+                case CLIENTES_EN_NIVEL:
+                    return red.clientesEnNivel((String) a[0], (Integer) a[1]);
+                case CREAR_AMISTAD:
+                    red.crearAmistad((String) a[0], (String) a[1]);
+                    return TrazaBinaria.VACIO;
+                case CALCULAR_DISTANCIA:
+                    return red.calcularDistancia((String) a[0], (String) a[1]);
+                case CALCULAR_CAMINO:
+                    return red.calcularCamino((String) a[0], (String) a[1]);
+                case CALCULAR_DISTANCIAS:
+                    return red.calcularDistancias((String) a[0], (List<String>) a[1]);
+                case DISTANCIA_PONDERADA:
+                    return red.calcularDistanciaPonderada((String) a[0], (String) a[1], TrazaBinaria.pesoDesdeCodigo((Integer) a[2]));
+                case CAMINO_PONDERADO:
+                    return red.calcularCaminoPonderado((String) a[0], (String) a[1], TrazaBinaria.pesoDesdeCodigo((Integer) a[2]));
+                case AMIGOS_EN_COMUN:
+                    return red.amigosEnComun((String) a[0], (String) a[1]);
+                case CANTIDAD_AMIGOS_EN_COMUN:
+                    return red.cantidadAmigosEnComun((String) a[0], (String) a[1]);
+                case CANTIDAD_AMIGOS_EN_COMUN_LOTE:
+                    return red.cantidadAmigosEnComun((String) a[0], (List<String>) a[1]);
+                default:
+                    throw new IllegalStateException("Operación sin reproducir: " + r.operacion);
+            }
+        } catch (Exception e) {
+            return e;
+        }
+    }
+
+    /**
+     * Resultado de una reproducción: throughput, histograma de latencias por operación y divergencias.
+     */
+    public static final class Reporte {
+        private long operaciones = 0;
+        private long divergencias = 0;
+        private long nanosTotales = 0;
+        private final long[] histograma = new long[CUBETAS];
+        private final Map<String, long[]> histogramaPorOperacion = new TreeMap<>();
+        private final List<String> ejemplos = new ArrayList<>();
+
+        Reporte() {
+        }
+
+        private void registrar(TrazaBinaria.Registro r, long latenciaNanos, boolean diverge, String obtenido) {
+            operaciones++;
+            int cubeta = cubeta(latenciaNanos);
+            histograma[cubeta]++;
+            histogramaPorOperacion.computeIfAbsent(r.operacion.name(), k -> new long[CUBETAS])[cubeta]++;
+            if (diverge) {
+                divergencias++;
+                if (ejemplos.size() < EJEMPLOS_MAXIMOS) {
+                    ejemplos.add("#" + operaciones + " " + r.operacion + Arrays.toString(r.argumentos) + " -> " + obtenido);
+                }
+            }
+        }
+
+        private static int cubeta(long nanos) {
+            long micros = nanos / 1000;
+            if (micros <= 0) return 0;
+            return Math.min(CUBETAS - 1, 63 - Long.numberOfLeadingZeros(micros));
+        }
+
+        public long getOperaciones() { return operaciones; }
+        public long getDivergencias() { return divergencias; }
+        public List<String> getEjemplosDivergencia() { return Collections.unmodifiableList(ejemplos); }
+
+        public double getOperacionesPorSegundo() {
+            return nanosTotales == 0 ? 0 : operaciones / (nanosTotales / 1e9);
+        }
+
+        /**
+         * Cota superior (en µs) del percentil pedido, según el histograma de potencias de 2.
+         */
+        public long percentilMicros(double p) {
+            if (operaciones == 0) return 0;
+            long rango = (long) Math.ceil(p / 100.0 * operaciones);
+            long acumulado = 0;
+            for (int i = 0; i < CUBETAS; i++) {
+                acumulado += histograma[i];
+                if (acumulado >= rango) return 1L << (i + 1);
+            }
+            return 1L << CUBETAS;
+        }
+
+        @Override
+        public String toString() {
+            StringBuilder sb = new StringBuilder();
+            sb.append(String.format(Locale.ROOT, "Operaciones: %d | %.1f op/s | p50 < %d µs | p99 < %d µs | divergencias: %d%n",
+                    operaciones, getOperacionesPorSegundo(), percentilMicros(50), percentilMicros(99), divergencias));
+            for (Map.Entry<String, long[]> e : histogramaPorOperacion.entrySet()) {
+                sb.append("  ").append(e.getKey()).append(':');
+                long[] h = e.getValue();
+                for (int i = 0; i < CUBETAS; i++) {
+                    if (h[i] > 0) sb.append(" <").append(1L << (i + 1)).append("µs=").append(h[i]);
+                }
+                sb.append(System.lineSeparator());
+            }
+            for (String ejemplo : ejemplos) sb.append("  ≠ ").append(ejemplo).append(System.lineSeparator());
+            return sb.toString();
+        }
+    }
+
+    /**
+     * Uso: java services.ReproductorTraza archivo [--tiempo-original] [--datos datos.json]
+     * Reproduce contra una SocialNetwork nueva, cargada antes con el JSON indicado (las sesiones de
+     * Main arrancan con datos.json ya cargado y esa carga no queda en la traza).
+     */
+    public static void main(String[] args) throws IOException {
+        if (args.length == 0) {
+            System.out.println("Uso: ReproductorTraza <archivo> [--tiempo-original] [--datos <json>]");
+            return;
+        }
+        Modo modo = Modo.MAXIMA_VELOCIDAD;
+        SocialNetwork red = new SocialNetwork();
+        for (int i = 1; i < args.length; i++) {
+            if (args[i].equals("--tiempo-original")) modo = Modo.TIEMPO_ORIGINAL;
+            else if (args[i].equals("--datos") && i + 1 < args.length) JsonLoader.cargar(args[++i], red);
+        }
+        System.out.println(new ReproductorTraza(red, modo).reproducir(args[0]));
+    }
+}
@@ -0,0 +1,151 @@
+package services;
+
+import exceptions.ClienteNoEncontradoException;
+import models.FichaCliente;
+
+import java.util.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Vista inmutable de la red en una versión publicada. Sirve para lecturas largas (reportes, BFS)
+ * mientras otros hilos siguen escribiendo: nunca ve cambios posteriores ni estructuras a medio
+ * modificar, y no bloquea al escritor.
+ *
+ * Hay que cerrarla (try-with-resources) para que las versiones viejas que retiene se puedan liberar.
+ */
+public class SnapshotRed implements AutoCloseable {
+    private final AlmacenVersiones almacen;
+    private final long version;
+    private final AtomicBoolean cerrado = new AtomicBoolean(false);
+
+    SnapshotRed(AlmacenVersiones almacen) {
+        this.almacen = almacen;
+        this.version = almacen.registrarLector();
+    }
+
+    public long getVersion() {
+        return version;
+    }
+
+    public FichaCliente buscarPorNombre(String nombre) {
+        verificarAbierto();
+        return almacen.leer(nombre, version);
+    }
+
+    /**
+     * Todos los clientes visibles en esta versión. Complejidad: O(n).
+     */
+    public List<FichaCliente> clientes() {
+        verificarAbierto();
+        List<FichaCliente> clientes = new ArrayList<>();
+        for (String nombre : almacen.nombres()) {
+            FichaCliente c = almacen.leer(nombre, version);
+            if (c != null) clientes.add(c);
+        }
+        return clientes;
+    }
+
+    /**
+     * Complejidad: O(log v), con v = versiones retenidas.
+     */
+    public int cantidadClientes() {
+        verificarAbierto();
+        return almacen.cantidad(version);
+    }
+
+    /**
+     * Usa el índice por scoring del almacén: O(k) con k = clientes que tienen (o tuvieron en alguna
+     * versión retenida) ese scoring.
+     */
+    public List<FichaCliente> buscarPorScoring(int scoring) {
+        verificarAbierto();
+        return almacen.conScoring(scoring, version);
+    }
+
+    /**
+     * Distancia mínima (saltos) entre dos clientes por amistades, o -1 si no hay conexión.
+     */
+    public int calcularDistancia(String origen, String destino) throws ClienteNoEncontradoException {
+        if (buscarPorNombre(origen) == null) throw new ClienteNoEncontradoException(origen);
+        if (buscarPorNombre(destino) == null) throw new ClienteNoEncontradoException(destino);
+        if (origen.equals(destino)) return 0;
+
+        Queue<String> cola = new ArrayDeque<>();
+        Map<String, Integer> distancias = new HashMap<>();
+        cola.add(origen);
+        distancias.put(origen, 0);
+
+        while (!cola.isEmpty()) {
+            String actual = cola.poll();
+            int distanciaActual = distancias.get(actual);
+            FichaCliente c = buscarPorNombre(actual);
+            if (c == null) continue;
+            for (String vecino : c.getAmigos()) {
+                if (distancias.containsKey(vecino)) continue;
+                if (vecino.equals(destino)) return distanciaActual + 1;
+                distancias.put(vecino, distanciaActual + 1);
+                cola.add(vecino);
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Clientes exactamente a N saltos del origen en la red de seguimientos, en orden BFS.
+     */
+    public List<FichaCliente> clientesEnNivel(String origen, int nivelObjetivo) throws ClienteNoEncontradoException {
+        FichaCliente inicio = buscarPorNombre(origen);
+        if (inicio == null) throw new ClienteNoEncontradoException(origen);
+        if (nivelObjetivo < 0) throw new IllegalArgumentException("El nivel no puede ser negativo.");
+
+        List<FichaCliente> nivel = Collections.singletonList(inicio);
+        Set<String> visitados = new HashSet<>();
+        visitados.add(origen);
+
+        for (int n = 0; n < nivelObjetivo && !nivel.isEmpty(); n++) {
+            List<FichaCliente> siguiente = new ArrayList<>();
+            for (FichaCliente c : nivel) {
+                for (String seguido : c.getSiguiendo()) {
+                    FichaCliente vecino = buscarPorNombre(seguido);
+                    if (vecino != null && visitados.add(seguido)) siguiente.add(vecino);
+                }
+            }
+            nivel = siguiente;
+        }
+        return new ArrayList<>(nivel);
+    }
+
+    public void mostrarEstadoGeneral() {
+        List<FichaCliente> clientes = clientes();
+        if (clientes.isEmpty()) {
+            System.out.println("❌ No hay clientes en el sistema.");
+            return;
+        }
+
+        System.out.println("\n--- ESTADO GENERAL DE LA RED SOCIAL (versión " + version + ") ---");
+        for (FichaCliente c : clientes) {
+            System.out.println("👤 " + c.getNombre() + " (Scoring: " + c.getScoring() + ")");
+            if (!c.getAmigos().isEmpty()) {
+                System.out.println("   🤝 Amigos: " + String.join(", ", c.getAmigos()));
+            }
+            if (c.getPendientes() > 0) {
+                System.out.println("   📩 Buzón: " + c.getPendientes() + " pendientes");
+            }
+            if (c.getSiguiendo().isEmpty()) {
+                System.out.println("   ➡ Sigue a: (Nadie)");
+            } else {
+                System.out.println("   ➡ Sigue a: " + String.join(", ", c.getSiguiendo()));
+            }
+            System.out.println("---------------------------------------");
+        }
+    }
+
+    private void verificarAbierto() {
+        if (cerrado.get()) throw new IllegalStateException("El snapshot ya fue cerrado.");
+    }
+
+    @Override
+    public void close() {
+        if (cerrado.compareAndSet(false, true)) almacen.liberarLector(version);
+    }
+}
@@ -6,9 +6,27 @@ import exceptions.OperacionInvalidaException;
 import exceptions.SocialNetworkException;
 import models.Accion;
 import models.Cliente;
+import models.FichaCliente;
+import models.ObservadorCliente;
+import models.Solicitud;
+import services.analitica.ComponentesFuertes;
+import services.analitica.ContadorTriangulos;
+import services.analitica.DeteccionComunidades;
+import services.analitica.RankingInfluencia;
 import utils.TDA.ArbolAVL;
-
+import utils.TDA.EspacioBFS;
+import utils.TDA.GrafoIndexado;
+import utils.TDA.IndiceAmigos;
+import utils.TDA.RuedaTemporizadora;
+
+import java.io.PrintStream;
+import java.time.Clock;
+import java.time.Duration;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
 
 public class SocialNetwork implements ISocialNetwork {
     // Índice principal: Búsqueda O(1) por nombre
@@ -20,14 +38,92 @@ public class SocialNetwork implements ISocialNetwork {
     // Historial de acciones (Pila LIFO)
     private ActionHistory history;
 
+    // Registro denso id -> Cliente. Los ids liberados se reutilizan para mantener los arreglos compactos.
+    private List<Cliente> clientesPorId;
+    private Deque<Integer> idsLibres;
+
+    // A partir de esta cantidad de clientes las BFS se resuelven en paralelo (-Dred.bfs.umbralParalelo=N)
+    public static final int UMBRAL_PARALELO_POR_DEFECTO = Integer.getInteger("red.bfs.umbralParalelo", 100_000);
+    private int umbralParalelo = UMBRAL_PARALELO_POR_DEFECTO;
+
+    // Vencimiento de solicitudes pendientes: TTL configurable (<= 0 las deja sin vencer)
+    public static final long TTL_SOLICITUDES_POR_DEFECTO_MS = Long.getLong("red.solicitudes.ttlMs", 7L * 24 * 60 * 60 * 1000);
+    private static final long MS_POR_TICK_VENCIMIENTOS = 100;
+    private final RuedaTemporizadora<Solicitud> vencimientos = new RuedaTemporizadora<>(MS_POR_TICK_VENCIMIENTOS);
+    private long ttlSolicitudesMs = TTL_SOLICITUDES_POR_DEFECTO_MS;
+    private Clock reloj = Clock.systemUTC();
+    private long solicitudesVencidas = 0;
+    private PoliticaSolicitudes politicaSolicitudes = PoliticaSolicitudes.FIFO;
+
+    // Espacios de trabajo reutilizables para BFS (uno por consulta en curso)
+    private final Queue<EspacioBFS> espaciosLibres = new ConcurrentLinkedQueue<>();
+    private final Queue<CaminosPonderados> dijkstrasLibres = new ConcurrentLinkedQueue<>();
+
+    // Fotos indexadas de los grafos, armadas a demanda y descartadas en cada marcarModificado
+    private volatile GrafoIndexado fotoAmistades;
+    private volatile GrafoIndexado fotoSeguimientos;
+
+    // Adyacencia de amistades por id (arreglos ordenados o bitsets) para los amigos en común
+    private final IndiceAmigos indiceAmigos = new IndiceAmigos();
+
+    // Lotes de re-scoring que superan esta fracción de la red reconstruyen el índice en una pasada
+    private static final double FRACCION_RECONSTRUCCION = 0.125;
+
+    // Mantiene el AVL sincronizado aunque el scoring se cambie directamente sobre el Cliente
+    private final ObservadorCliente observadorIndices = new ObservadorIndices();
+    private boolean reindexandoEnLote = false;
+
+    // Secuencia de escrituras al estilo seqlock: impar mientras hay una mutación en curso
+    private volatile long secuenciaEscritura = 0;
+    private int profundidadEscritura = 0;
+
+    // Historia MVCC para snapshot(); null hasta habilitarSnapshots()
+    private volatile AlmacenVersiones versiones;
+    private final Set<String> pendientesDePublicar = new HashSet<>();
+
+    // Registro de cambios para exportar deltas: cada cliente tocado queda con su último número de
+    // secuencia. Apagado (null) hasta el primer checkpoint, así las cargas masivas no lo llenan.
+    private long secuenciaCambios = 0;
+    private long cambiosOlvidadosHasta = 0;
+    private Map<String, Long> ultimoCambio;
+    private TreeMap<Long, String> cambiosPorSecuencia;
+
+    // Destino de los listados y de los mensajes de cada operación (null: el System.out del momento)
+    private volatile PrintStream consola;
+    private volatile boolean mensajes = true;
+
+    // Qué parte del IREP se verifica en cada assert (completo, incremental o muestreo)
+    private final VerificadorInvariantes verificador;
+    private final Random azarMuestreo = new Random();
+
     public SocialNetwork() {
         this.clienteMap = new HashMap<>();
         this.scoringTree = new ArbolAVL();
         this.history = new ActionHistory();
+        this.clientesPorId = new ArrayList<>();
+        this.idsLibres = new ArrayDeque<>();
+        this.verificador = new VerificadorInvariantes(this::repOK, this::repOKLocal,
+                this::clienteAlAzar, this::repOKGlobalRapido);
 
         assert repOK() : "Error: La red social no se inicializó correctamente.";
     }
 
+    @Override
+    public void configurarConsola(PrintStream destino, boolean mensajes) {
+        this.consola = destino;
+        this.mensajes = mensajes;
+    }
+
+    private PrintStream consola() {
+        PrintStream destino = consola;
+        return (destino != null) ? destino : System.out;
+    }
+
+    // Mensajes de las operaciones (LOG, avisos): se callan sin tocar System.out
+    private void informar(String mensaje) {
+        if (mensajes) consola().println(mensaje);
+    }
+
     // ==========================================
     // --- REQ 1: GESTIÓN BÁSICA DE CLIENTES ---
     // ==========================================
@@ -38,22 +134,69 @@ public class SocialNetwork implements ISocialNetwork {
             throw new ClienteYaExisteException(nombre);
         }
 
-        if (scoring < 0 || scoring > 100) {
-            throw new IllegalArgumentException("El scoring debe estar entre 0 y 100.");
-        }
+        validarScoring(scoring);
 
-        Cliente nuevo = new Cliente(nombre, scoring);
+        iniciarEscritura();
+        Cliente nuevo;
+        try {
+            nuevo = new Cliente(nombre, scoring);
 
-        // 1. Agregar al HashMap (O(1))
-        clienteMap.put(nombre, nuevo);
+            // 1. Agregar al HashMap (O(1))
+            clienteMap.put(nombre, nuevo);
+            vincular(nuevo);
 
-        // 2. Agregar al Árbol AVL (O(log n))
-        scoringTree.insertar(scoring, nuevo);
+            // 2. Agregar al Árbol AVL (O(log n))
+            scoringTree.insertar(scoring, nuevo);
 
-        history.registrarAccion(new Accion(Accion.TipoAccion.AGREGAR_CLIENTE, nombre, null));
-        System.out.println("LOG: Cliente agregado -> " + nombre);
+            history.registrarAccion(new Accion(Accion.TipoAccion.AGREGAR_CLIENTE, nombre, null));
+            informar("LOG: Cliente agregado -> " + nombre);
+        } finally {
+            finalizarEscritura();
+        }
 
-        assert repOK() : "IREP Roto: Desincronización tras agregar cliente.";
+        assert verificar(nuevo) : "IREP Roto: Desincronización tras agregar cliente.";
+    }
+
+    /**
+     * Alta masiva de clientes (carga inicial). Los clientes se agrupan por scoring y el índice AVL
+     * se construye balanceado en O(n) si la red estaba vacía, o se fusiona con el existente si no.
+     * @return Nombres rechazados por estar repetidos o tener un scoring inválido.
+     */
+    public List<String> agregarClientes(Map<String, Integer> nuevos) {
+        List<String> rechazados = new ArrayList<>();
+        List<Cliente> agregados = new ArrayList<>(nuevos.size());
+        boolean redVacia = clienteMap.isEmpty();
+
+        iniciarEscritura();
+        try {
+
+            for (Map.Entry<String, Integer> e : nuevos.entrySet()) {
+                String nombre = e.getKey();
+                Integer scoring = e.getValue();
+                if (nombre == null || scoring == null || scoring < 0 || scoring > 100 || clienteMap.containsKey(nombre)) {
+                    rechazados.add(nombre);
+                    continue;
+                }
+                Cliente nuevo = new Cliente(nombre, scoring);
+                clienteMap.put(nombre, nuevo);
+                vincular(nuevo);
+                agregados.add(nuevo);
+                history.registrarAccion(new Accion(Accion.TipoAccion.AGREGAR_CLIENTE, nombre, null));
+            }
+
+            List<List<Cliente>> grupos = agruparPorScoring(agregados);
+            if (redVacia) {
+                scoringTree = ArbolAVL.desdeGruposOrdenados(scoringsDe(grupos), sinVacios(grupos));
+            } else {
+                scoringTree.fusionar(scoringsDe(grupos), sinVacios(grupos));
+            }
+            informar("LOG: Alta masiva -> " + agregados.size() + " clientes agregados.");
+        } finally {
+            finalizarEscritura();
+        }
+
+        assert verificar(agregados) : "IREP Roto: Desincronización tras alta masiva.";
+        return rechazados;
     }
 
     @Override
@@ -66,6 +209,181 @@ public class SocialNetwork implements ISocialNetwork {
         return scoringTree.buscar(scoring);
     }
 
+    // ==========================================
+    // --- DISTRIBUCIÓN DE SCORINGS ---
+    // ==========================================
+    // El AVL mantiene los agregados en cada alta, baja, re-scoring (individual o en lote) y deshacer,
+    // así que ninguna de estas consultas recorre los clientes.
+
+    // O(1)
+    public int cantidadClientes() {
+        return scoringTree.cantidadClientes();
+    }
+
+    // O(1)
+    public long sumaScorings() {
+        return scoringTree.sumaScorings();
+    }
+
+    // O(1); 0 si la red está vacía
+    public double promedioScoring() {
+        return scoringTree.promedioScoring();
+    }
+
+    // O(101): copia del histograma indexado por scoring
+    public int[] histogramaScorings() {
+        return scoringTree.histograma();
+    }
+
+    // O(log 101)
+    public int cantidadEntreScorings(int minimo, int maximo) {
+        return scoringTree.cantidadEntreScorings(minimo, maximo);
+    }
+
+    /**
+     * Cuantil p (entre 0 y 1) de los scorings por rango más cercano; -1 si la red está vacía.
+     * Complejidad: O(log 101).
+     */
+    public int cuantilScoring(double p) {
+        return scoringTree.cuantil(p);
+    }
+
+    public int medianaScoring() {
+        return scoringTree.mediana();
+    }
+
+    // ==========================================
+    // --- ACTUALIZACIÓN DE SCORING ---
+    // ==========================================
+
+    @Override
+    public void actualizarScoring(String nombre, int nuevoScoring) throws ClienteNoEncontradoException {
+        Cliente c = clienteMap.get(nombre);
+        if (c == null) throw new ClienteNoEncontradoException(nombre);
+        validarScoring(nuevoScoring);
+
+        int anterior = c.getScoring();
+        if (anterior == nuevoScoring) return;
+
+        iniciarEscritura();
+        try {
+            // El observador mueve al cliente de nodo en el AVL (O(log n))
+            c.setScoring(nuevoScoring);
+
+            Map<String, Integer> respaldo = new HashMap<>();
+            respaldo.put(nombre, anterior);
+            history.registrarAccion(new Accion(Accion.TipoAccion.ACTUALIZAR_SCORING, nombre, respaldo));
+            informar("LOG: Scoring de " + nombre + " actualizado " + anterior + " -> " + nuevoScoring);
+        } finally {
+            finalizarEscritura();
+        }
+
+        assert verificar(c) : "IREP Roto: Desincronización tras actualizar scoring.";
+    }
+
+    @Override
+    public void actualizarScorings(Map<String, Integer> nuevosScorings) throws ClienteNoEncontradoException {
+        // Validamos el lote completo antes de tocar nada (todo o nada)
+        for (Map.Entry<String, Integer> e : nuevosScorings.entrySet()) {
+            if (!clienteMap.containsKey(e.getKey())) throw new ClienteNoEncontradoException(e.getKey());
+            validarScoring(e.getValue());
+        }
+
+        Map<String, Integer> anteriores;
+        iniciarEscritura();
+        try {
+            anteriores = aplicarScorings(nuevosScorings);
+            if (anteriores.isEmpty()) return;
+
+            history.registrarAccion(new Accion(Accion.TipoAccion.ACTUALIZAR_SCORING, anteriores.size() + " clientes", anteriores));
+            informar("LOG: Re-scoring en lote de " + anteriores.size() + " clientes.");
+        } finally {
+            finalizarEscritura();
+        }
+
+        assert verificar(clientesDe(anteriores.keySet())) : "IREP Roto: Desincronización tras re-scoring en lote.";
+    }
+
+    /**
+     * Aplica los scorings y devuelve los valores anteriores de los que cambiaron.
+     * Lotes chicos mueven cliente por cliente (O(k log n)); lotes grandes reconstruyen el índice en O(n).
+     */
+    private Map<String, Integer> aplicarScorings(Map<String, Integer> nuevosScorings) {
+        Map<String, Integer> anteriores = new HashMap<>();
+        boolean reconstruir = nuevosScorings.size() > clienteMap.size() * FRACCION_RECONSTRUCCION;
+
+        reindexandoEnLote = reconstruir;
+        try {
+            for (Map.Entry<String, Integer> e : nuevosScorings.entrySet()) {
+                Cliente c = clienteMap.get(e.getKey());
+                if (c == null || c.getScoring() == e.getValue()) continue;
+                anteriores.put(e.getKey(), c.getScoring());
+                c.setScoring(e.getValue());
+            }
+        } finally {
+            reindexandoEnLote = false;
+        }
+
+        if (reconstruir && !anteriores.isEmpty()) reconstruirIndiceScoring();
+        return anteriores;
+    }
+
+    // Reconstruye el AVL agrupando por scoring (dominio acotado 0..100) en una sola pasada
+    private void reconstruirIndiceScoring() {
+        List<List<Cliente>> grupos = agruparPorScoring(clienteMap.values());
+        scoringTree = ArbolAVL.desdeGruposOrdenados(scoringsDe(grupos), sinVacios(grupos));
+    }
+
+    // Counting sort por scoring: una lista por cada valor de 0 a 100
+    private List<List<Cliente>> agruparPorScoring(Collection<Cliente> clientes) {
+        List<List<Cliente>> grupos = new ArrayList<>(101);
+        for (int s = 0; s <= 100; s++) grupos.add(new ArrayList<>());
+        for (Cliente c : clientes) grupos.get(c.getScoring()).add(c);
+        return grupos;
+    }
+
+    private int[] scoringsDe(List<List<Cliente>> grupos) {
+        int cantidad = 0;
+        for (List<Cliente> g : grupos) if (!g.isEmpty()) cantidad++;
+        int[] scorings = new int[cantidad];
+        int i = 0;
+        for (int s = 0; s < grupos.size(); s++) if (!grupos.get(s).isEmpty()) scorings[i++] = s;
+        return scorings;
+    }
+
+    private List<List<Cliente>> sinVacios(List<List<Cliente>> grupos) {
+        List<List<Cliente>> resultado = new ArrayList<>();
+        for (List<Cliente> g : grupos) if (!g.isEmpty()) resultado.add(g);
+        return resultado;
+    }
+
+    private void validarScoring(int scoring) {
+        if (scoring < 0 || scoring > 100) {
+            throw new IllegalArgumentException("El scoring debe estar entre 0 y 100.");
+        }
+    }
+
+    private class ObservadorIndices implements ObservadorCliente {
+        @Override
+        public void scoringCambiado(Cliente cliente, int scoringAnterior) {
+            marcarModificado(cliente.getNombre());
+            if (reindexandoEnLote) return; // El índice se reconstruye completo al final del lote
+            scoringTree.eliminar(scoringAnterior, cliente);
+            scoringTree.insertar(cliente.getScoring(), cliente);
+        }
+
+        @Override
+        public void clienteModificado(Cliente cliente) {
+            marcarModificado(cliente.getNombre());
+            indiceAmigos.invalidar(cliente.getId());
+        }
+
+        @Override
+        public void buzonModificado(Cliente cliente) {
+            marcarParaPublicar(cliente.getNombre());
+        }
+    }
+
     // ==============================================================
     // --- ITERACIÓN 2: GESTIÓN DE SEGUIMIENTOS (DIRIGIDO, MAX 2) ---
     // ==============================================================
@@ -82,64 +400,172 @@ public class SocialNetwork implements ISocialNetwork {
         if (origen == null) throw new ClienteNoEncontradoException(solicitante);
         if (destino == null) throw new ClienteNoEncontradoException(solicitado);
 
-        // Usamos el buzón personal del destino (Descentralización)
-        destino.recibirSolicitud(solicitante);
+        iniciarEscritura();
+        try {
+            long ahora = reloj.millis();
+            vencimientos.avanzar(ahora, this::vencerSolicitud);
 
-        history.registrarAccion(new Accion(Accion.TipoAccion.SEGUIR_USUARIO, solicitante, solicitado));
-        System.out.println("LOG: Solicitud enviada al buzón de " + solicitado);
+            // Usamos el buzón personal del destino (Descentralización)
+            Solicitud solicitud = new Solicitud(solicitante, solicitado, ahora);
+            if (destino.recibirSolicitud(solicitud) && ttlSolicitudesMs > 0) {
+                solicitud.setVencimiento(vencimientos.programar(solicitud, ahora, ttlSolicitudesMs));
+            }
 
-        assert repOK();
+            history.registrarAccion(new Accion(Accion.TipoAccion.SEGUIR_USUARIO, solicitante, solicitado));
+            informar("LOG: Solicitud enviada al buzón de " + solicitado);
+        } finally {
+            finalizarEscritura();
+        }
+
+        assert verificar(origen, destino);
     }
 
     @Override
     public List<String> procesarSolicitudes() {
         List<String> procesados = new ArrayList<>();
-        System.out.println("\n--- Procesando Solicitudes (Buzones por Cliente) ---");
+        List<Cliente> tocados = new ArrayList<>();
 
-        for (Cliente destino : clienteMap.values()) {
-            Queue<String> buzon = destino.getSolicitudesRecibidas();
-
-            while (!buzon.isEmpty()) {
-                String nombreSolicitante = buzon.poll(); // Extrae de la cola O(1)
-                Cliente solicitante = clienteMap.get(nombreSolicitante);
-
-                if (solicitante != null) {
-                    try {
-                        // Validación de Iteración 2 (Máx 2) está dentro de agregarSeguido
-                        solicitante.agregarSeguido(destino);
-                        String log = "✅ Aceptada: " + solicitante.getNombre() + " -> " + destino.getNombre();
-                        System.out.println(log);
-                        procesados.add(log);
-                    } catch (IllegalStateException e) {
-                        System.out.println("⚠️ Solicitud rechazada para " + solicitante.getNombre() + ": " + e.getMessage());
+        iniciarEscritura();
+        try {
+            informar("\n--- Procesando Solicitudes (Buzones por Cliente) ---");
+            vencimientos.avanzar(reloj.millis(), this::vencerSolicitud); // Las vencidas no se aceptan
+
+            if (politicaSolicitudes == PoliticaSolicitudes.PRIORIDAD_SCORING) {
+                procesarPorPrioridad(procesados, tocados);
+            } else {
+                for (Cliente destino : clienteMap.values()) {
+                    Solicitud pendiente;
+                    while ((pendiente = destino.tomarSolicitudPendiente()) != null) { // Extrae de la cola O(1)
+                        vencimientos.cancelar(pendiente.getVencimiento());
+                        Cliente solicitante = clienteMap.get(pendiente.getSolicitante());
+                        if (solicitante != null) aceptarSolicitud(solicitante, destino, procesados, tocados);
                     }
                 }
             }
+        } finally {
+            finalizarEscritura();
         }
-        assert repOK();
+        assert verificar(tocados);
         return procesados;
     }
 
-    /**
-     * Búsqueda en Anchura (BFS) para encontrar conexiones dirigidas de 4to nivel.
-     */
+    // Vacía todos los buzones en un heap (armado en O(n)) y acepta por scoring del solicitado y antigüedad
+    private void procesarPorPrioridad(List<String> procesados, List<Cliente> tocados) {
+        List<SolicitudPriorizada> lote = new ArrayList<>();
+        for (Cliente destino : clienteMap.values()) {
+            Solicitud pendiente;
+            while ((pendiente = destino.tomarSolicitudPendiente()) != null) {
+                vencimientos.cancelar(pendiente.getVencimiento());
+                Cliente solicitante = clienteMap.get(pendiente.getSolicitante());
+                if (solicitante != null) lote.add(new SolicitudPriorizada(pendiente, solicitante, destino, lote.size()));
+            }
+        }
+
+        PriorityQueue<SolicitudPriorizada> heap = new PriorityQueue<>(lote);
+        SolicitudPriorizada siguiente;
+        while ((siguiente = heap.poll()) != null) {
+            aceptarSolicitud(siguiente.solicitante, siguiente.destino, procesados, tocados);
+        }
+    }
+
+    private void aceptarSolicitud(Cliente solicitante, Cliente destino, List<String> procesados, List<Cliente> tocados) {
+        // Falla rápido: con los 2 cupos ocupados no tiene sentido intentar (ni reintentar) el alta
+        if (solicitante.cantidadSeguidos() >= 2) {
+            informar("⚠️ Solicitud rechazada para " + solicitante.getNombre()
+                    + ": ya sigue al máximo de 2 personas (" + destino.getNombre() + " descartada).");
+            return;
+        }
+        try {
+            // Validación de Iteración 2 (Máx 2) está dentro de agregarSeguido
+            solicitante.agregarSeguido(destino);
+            tocados.add(solicitante);
+            tocados.add(destino);
+            String log = "✅ Aceptada: " + solicitante.getNombre() + " -> " + destino.getNombre();
+            informar(log);
+            procesados.add(log);
+        } catch (IllegalStateException e) {
+            informar("⚠️ Solicitud rechazada para " + solicitante.getNombre() + ": " + e.getMessage());
+        }
+    }
+
+    public PoliticaSolicitudes getPoliticaSolicitudes() {
+        return politicaSolicitudes;
+    }
+
+    public void setPoliticaSolicitudes(PoliticaSolicitudes politica) {
+        this.politicaSolicitudes = Objects.requireNonNull(politica);
+    }
+
+    // Orden: scoring del solicitado descendente, luego antigüedad y, si empatan, orden de llegada al lote.
+    // Las solicitudes solo compiten por los cupos de su solicitante, cuyo scoring es el mismo en todas:
+    // ordenar por él no cambiaría cuáles se aceptan.
+    private static final class SolicitudPriorizada implements Comparable<SolicitudPriorizada> {
+        final Cliente solicitante;
+        final Cliente destino;
+        final int scoring;
+        final long timestamp;
+        final int orden;
+
+        SolicitudPriorizada(Solicitud s, Cliente solicitante, Cliente destino, int orden) {
+            this.solicitante = solicitante;
+            this.destino = destino;
+            this.scoring = destino.getScoring();
+            this.timestamp = s.getTimestamp();
+            this.orden = orden;
+        }
+
+        @Override
+        public int compareTo(SolicitudPriorizada o) {
+            if (scoring != o.scoring) return Integer.compare(o.scoring, scoring);
+            if (timestamp != o.timestamp) return Long.compare(timestamp, o.timestamp);
+            return Integer.compare(orden, o.orden);
+        }
+    }
+
     /**
      * Búsqueda en Anchura (BFS) Dinámica para encontrar conexiones dirigidas en cualquier nivel N.
      */
     @Override
     public void analizarNivel(String nombreOrigen, int nivelObjetivo) {
-        Cliente origen = clienteMap.get(nombreOrigen);
-        if (origen == null) {
-            System.out.println("Cliente no encontrado.");
+        List<Cliente> nivelEncontrado;
+        try {
+            nivelEncontrado = clientesEnNivel(nombreOrigen, nivelObjetivo);
+        } catch (ClienteNoEncontradoException e) {
+            consola().println("Cliente no encontrado.");
+            return;
+        } catch (IllegalArgumentException e) {
+            consola().println(e.getMessage());
             return;
         }
 
+        consola().println("\n--- ANÁLISIS DE RED (SEGUIDORES): NIVEL " + nivelObjetivo + " desde " + nombreOrigen + " ---");
+
+        if (nivelEncontrado.isEmpty()) {
+            consola().println("No hay nadie en el nivel " + nivelObjetivo + ".");
+        } else {
+            consola().println("Clientes en el nivel " + nivelObjetivo + ":");
+            for (Cliente c : nivelEncontrado) {
+                consola().println(" -> " + c.getNombre() + " (Scoring: " + c.getScoring() + ")");
+            }
+        }
+    }
+
+    @Override
+    public List<Cliente> clientesEnNivel(String nombreOrigen, int nivelObjetivo) throws ClienteNoEncontradoException {
+        Cliente origen = clienteMap.get(nombreOrigen);
+        if (origen == null) throw new ClienteNoEncontradoException(nombreOrigen);
+
         if (nivelObjetivo < 0) {
-            System.out.println("El nivel no puede ser negativo.");
-            return;
+            throw new IllegalArgumentException("El nivel no puede ser negativo.");
         }
 
-        System.out.println("\n--- ANÁLISIS DE RED (SEGUIDORES): NIVEL " + nivelObjetivo + " desde " + nombreOrigen + " ---");
+        if (usarBFSParalela()) {
+            GrafoIndexado grafo = fotoSeguimientos();
+            int[] indices = new BFSParalelo(grafo).nivel(grafo.indiceDe(origen), nivelObjetivo);
+            List<Cliente> nivel = new ArrayList<>(indices.length);
+            for (int i : indices) nivel.add(grafo.getCliente(i));
+            return nivel;
+        }
 
         Queue<Cliente> cola = new LinkedList<>();
         Map<Cliente, Integer> niveles = new HashMap<>();
@@ -169,15 +595,7 @@ public class SocialNetwork implements ISocialNetwork {
                 }
             }
         }
-
-        if (nivelEncontrado.isEmpty()) {
-            System.out.println("No hay nadie en el nivel " + nivelObjetivo + ".");
-        } else {
-            System.out.println("Clientes en el nivel " + nivelObjetivo + ":");
-            for (Cliente c : nivelEncontrado) {
-                System.out.println(" -> " + c.getNombre() + " (Scoring: " + c.getScoring() + ")");
-            }
-        }
+        return nivelEncontrado;
     }
 
     // ==============================================================
@@ -197,11 +615,16 @@ public class SocialNetwork implements ISocialNetwork {
         if (c2 == null) throw new ClienteNoEncontradoException(nombre2);
 
         // La amistad es estrictamente bidireccional (Grafo no dirigido O(1))
-        c1.agregarAmigo(c2);
-        c2.agregarAmigo(c1);
+        iniciarEscritura();
+        try {
+            c1.agregarAmigo(c2);
+            c2.agregarAmigo(c1);
+        } finally {
+            finalizarEscritura();
+        }
 
-        System.out.println("🤝 Nueva amistad creada: " + nombre1 + " y " + nombre2);
-        assert repOK();
+        informar("🤝 Nueva amistad creada: " + nombre1 + " y " + nombre2);
+        assert verificar(c1, c2);
     }
 
     @Override
@@ -214,6 +637,11 @@ public class SocialNetwork implements ISocialNetwork {
         if (nodoOrigen == null) throw new ClienteNoEncontradoException(origen);
         if (nodoDestino == null) throw new ClienteNoEncontradoException(destino);
 
+        if (usarBFSParalela()) {
+            GrafoIndexado grafo = fotoAmistades();
+            return new BFSParalelo(grafo).distancia(grafo.indiceDe(nodoOrigen), grafo.indiceDe(nodoDestino));
+        }
+
         // BFS Estricto para el camino más corto
         Queue<Cliente> cola = new LinkedList<>();
         Map<Cliente, Integer> distancias = new HashMap<>();
@@ -240,86 +668,366 @@ public class SocialNetwork implements ISocialNetwork {
         return -1; // No hay ruta que los conecte
     }
 
-    // ==========================================
-    // --- REQ 2: HISTORIAL, DESHACER Y MEMENTO ---
-    // ==========================================
-
     @Override
-    public void deshacerUltimaAccion() {
-        if (history.isEmpty()) {
-            System.out.println("Info: El historial está vacío.");
-            return;
+    public List<String> calcularCamino(String origen, String destino) throws ClienteNoEncontradoException {
+        Cliente nodoOrigen = clienteMap.get(origen);
+        Cliente nodoDestino = clienteMap.get(destino);
+
+        if (nodoOrigen == null) throw new ClienteNoEncontradoException(origen);
+        if (nodoDestino == null) throw new ClienteNoEncontradoException(destino);
+
+        EspacioBFS espacio = tomarEspacio();
+        try {
+            int idDestino = nodoDestino.getId();
+            espacio.visitar(nodoOrigen.getId(), -1);
+
+            // BFS con arreglo de padres indexado por id; corta apenas descubre el destino
+            while (!espacio.colaVacia() && !espacio.visitado(idDestino)) {
+                Cliente actual = clientesPorId.get(espacio.desencolar());
+                for (Cliente vecino : actual.getAmigos()) {
+                    int id = vecino.getId();
+                    if (!espacio.visitado(id)) {
+                        espacio.visitar(id, actual.getId());
+                        if (id == idDestino) break;
+                    }
+                }
+            }
+
+            List<String> camino = new ArrayList<>();
+            if (!espacio.visitado(idDestino)) return camino; // No hay ruta que los conecte
+
+            // Reconstrucción siguiendo los padres desde el destino
+            for (int id = idDestino; id != -1; id = espacio.getPadre(id)) {
+                camino.add(clientesPorId.get(id).getNombre());
+            }
+            Collections.reverse(camino);
+            return camino;
+        } finally {
+            devolverEspacio(espacio);
         }
+    }
+
+    @Override
+    public Map<String, Integer> calcularDistancias(String origen, Collection<String> destinos) throws ClienteNoEncontradoException {
+        Cliente nodoOrigen = clienteMap.get(origen);
+        if (nodoOrigen == null) throw new ClienteNoEncontradoException(origen);
+
+        Map<String, Integer> resultado = new LinkedHashMap<>();
+        EspacioBFS espacio = tomarEspacio();
+        try {
+            int pendientes = 0;
+            for (String nombre : destinos) {
+                Cliente c = clienteMap.get(nombre);
+                if (c == null) throw new ClienteNoEncontradoException(nombre);
+                if (!espacio.esObjetivo(c.getId())) {
+                    espacio.marcarObjetivo(c.getId());
+                    resultado.put(nombre, -1);
+                    pendientes++;
+                }
+            }
 
-        Accion ultima = history.deshacer();
-        System.out.println("Deshaciendo: " + ultima);
+            espacio.visitar(nodoOrigen.getId(), -1);
+            if (espacio.esObjetivo(nodoOrigen.getId())) {
+                resultado.put(origen, 0);
+                pendientes--;
+            }
 
-        switch (ultima.getTipo()) {
-            case AGREGAR_CLIENTE:
-                Cliente c = clienteMap.get(ultima.getSujeto());
-                if (c != null) {
-                    scoringTree.eliminar(c.getScoring(), c);
-                    clienteMap.remove(ultima.getSujeto());
-                    System.out.println("LOG: Cliente eliminado por deshacer.");
+            // Una sola BFS para todos los destinos; se detiene cuando ya se encontraron todos
+            int nivel = 0;
+            int finNivel = espacio.encolados();
+            while (pendientes > 0 && !espacio.colaVacia()) {
+                Cliente actual = clientesPorId.get(espacio.desencolar());
+                for (Cliente vecino : actual.getAmigos()) {
+                    int id = vecino.getId();
+                    if (espacio.visitado(id)) continue;
+                    espacio.visitar(id, actual.getId());
+                    if (espacio.esObjetivo(id)) {
+                        resultado.put(vecino.getNombre(), nivel + 1);
+                        if (--pendientes == 0) break;
+                    }
+                }
+                if (espacio.desencolados() == finNivel) {
+                    nivel++;
+                    finNivel = espacio.encolados();
                 }
-                break;
+            }
+            return resultado;
+        } finally {
+            devolverEspacio(espacio);
+        }
+    }
+
+    @Override
+    public double calcularDistanciaPonderada(String origen, String destino, EstrategiaPeso peso) throws ClienteNoEncontradoException {
+        Cliente nodoOrigen = clienteMap.get(origen);
+        Cliente nodoDestino = clienteMap.get(destino);
+
+        if (nodoOrigen == null) throw new ClienteNoEncontradoException(origen);
+        if (nodoDestino == null) throw new ClienteNoEncontradoException(destino);
+
+        CaminosPonderados dijkstra = tomarDijkstra();
+        try {
+            if (!dijkstra.ejecutar(clientesPorId, nodoOrigen, nodoDestino, peso)) return -1;
+            return dijkstra.getDistancia(nodoDestino.getId());
+        } finally {
+            dijkstrasLibres.offer(dijkstra);
+        }
+    }
+
+    @Override
+    public List<String> calcularCaminoPonderado(String origen, String destino, EstrategiaPeso peso) throws ClienteNoEncontradoException {
+        Cliente nodoOrigen = clienteMap.get(origen);
+        Cliente nodoDestino = clienteMap.get(destino);
+
+        if (nodoOrigen == null) throw new ClienteNoEncontradoException(origen);
+        if (nodoDestino == null) throw new ClienteNoEncontradoException(destino);
+
+        CaminosPonderados dijkstra = tomarDijkstra();
+        try {
+            if (!dijkstra.ejecutar(clientesPorId, nodoOrigen, nodoDestino, peso)) return new ArrayList<>();
+            return dijkstra.camino(clientesPorId, nodoDestino.getId());
+        } finally {
+            dijkstrasLibres.offer(dijkstra);
+        }
+    }
+
+    @Override
+    public List<String> amigosEnComun(String nombre1, String nombre2) throws ClienteNoEncontradoException {
+        Cliente c1 = clienteMap.get(nombre1);
+        Cliente c2 = clienteMap.get(nombre2);
+        if (c1 == null) throw new ClienteNoEncontradoException(nombre1);
+        if (c2 == null) throw new ClienteNoEncontradoException(nombre2);
+
+        List<String> comunes = new ArrayList<>();
+        indiceAmigos.recorrerComunes(c1, c2, clientesPorId.size(), id -> comunes.add(clientesPorId.get(id).getNombre()));
+        return comunes;
+    }
+
+    @Override
+    public int cantidadAmigosEnComun(String nombre1, String nombre2) throws ClienteNoEncontradoException {
+        Cliente c1 = clienteMap.get(nombre1);
+        Cliente c2 = clienteMap.get(nombre2);
+        if (c1 == null) throw new ClienteNoEncontradoException(nombre1);
+        if (c2 == null) throw new ClienteNoEncontradoException(nombre2);
+        return indiceAmigos.contarComunes(c1, c2, clientesPorId.size());
+    }
 
-            case SEGUIR_USUARIO:
-                String sujeto = ultima.getSujeto();
-                String objeto = ultima.getObjeto();
-                Cliente sol = clienteMap.get(sujeto);
-                Cliente obj = clienteMap.get(objeto);
+    @Override
+    public Map<String, Integer> cantidadAmigosEnComun(String nombre, Collection<String> otros) throws ClienteNoEncontradoException {
+        Cliente cliente = clienteMap.get(nombre);
+        if (cliente == null) throw new ClienteNoEncontradoException(nombre);
+
+        // La representación del cliente se arma una sola vez y se reutiliza contra cada uno de los otros
+        Map<String, Integer> resultado = new LinkedHashMap<>();
+        for (String otro : otros) {
+            Cliente c = clienteMap.get(otro);
+            if (c == null) throw new ClienteNoEncontradoException(otro);
+            resultado.put(otro, indiceAmigos.contarComunes(cliente, c, clientesPorId.size()));
+        }
+        return resultado;
+    }
+
+    /**
+     * "Personas que quizás conozcas": los k amigos de amigos con más amigos en común (desempate por
+     * scoring mayor y luego por nombre), sin incluir al cliente ni a sus amigos actuales.
+     * Complejidad: O(V2 + C log k), con V2 el tamaño del vecindario a 2 saltos y C los candidatos.
+     */
+    public List<Cliente> recomendarAmigos(String nombre, int k) throws ClienteNoEncontradoException {
+        Cliente cliente = clienteMap.get(nombre);
+        if (cliente == null) throw new ClienteNoEncontradoException(nombre);
+        if (k < 0) throw new IllegalArgumentException("La cantidad de recomendaciones no puede ser negativa.");
+
+        List<Cliente> recomendados = new ArrayList<>();
+        if (k == 0) return recomendados;
+
+        EspacioBFS espacio = tomarEspacio();
+        try {
+            // Excluidos: el propio cliente y sus amigos. Los candidatos se cuentan por id sin boxing.
+            espacio.marcarObjetivo(cliente.getId());
+            for (Cliente amigo : cliente.getAmigos()) espacio.marcarObjetivo(amigo.getId());
+            for (Cliente amigo : cliente.getAmigos()) {
+                for (Cliente candidato : amigo.getAmigos()) {
+                    if (!espacio.esObjetivo(candidato.getId())) espacio.contar(candidato.getId());
+                }
+            }
 
-                if (sol != null && obj != null) {
-                    boolean borrado = sol.getSiguiendo().remove(obj);
-                    if(borrado) System.out.println("LOG: Se dejó de seguir a " + objeto);
+            // Heap acotado de mínimos: la raíz es el peor de los k mejores vistos hasta ahora
+            Comparator<Cliente> orden = Comparator
+                    .comparingInt((Cliente c) -> espacio.getCuenta(c.getId()))
+                    .thenComparingInt(Cliente::getScoring)
+                    .thenComparing(Cliente::getNombre, Comparator.reverseOrder());
+            // Capacidad según los candidatos reales: k puede ser enorme ("todos")
+            int candidatos = espacio.encolados();
+            PriorityQueue<Cliente> mejores = new PriorityQueue<>(Math.max(1, Math.min(k, candidatos)), orden);
+            while (!espacio.colaVacia()) {
+                Cliente candidato = clientesPorId.get(espacio.desencolar());
+                if (mejores.size() < k) {
+                    mejores.add(candidato);
+                } else if (orden.compare(candidato, mejores.peek()) > 0) {
+                    mejores.poll();
+                    mejores.add(candidato);
                 }
-                break;
+            }
+
+            while (!mejores.isEmpty()) recomendados.add(mejores.poll());
+            Collections.reverse(recomendados);
+            return recomendados;
+        } finally {
+            devolverEspacio(espacio);
+        }
+    }
+
+    // ==========================================
+    // --- ANALÍTICA DE GRAFOS (FOTO INDEXADA + FORK/JOIN) ---
+    // ==========================================
 
-            case ELIMINAR_CLIENTE:
-                // Memento (Resurrección)
-                String nombreResucitar = ultima.getSujeto();
-                BackupData datos = (BackupData) ultima.getRespaldo();
+    /**
+     * Triángulos por cliente, total y coeficientes de clustering de la red de amistades.
+     */
+    public ContadorTriangulos.Resultado analizarTriangulos() {
+        GrafoIndexado grafo = fotoAmistades();
+        return new ContadorTriangulos().contar(grafo);
+    }
+
+    public RankingInfluencia.Resultado calcularInfluencia() {
+        return calcularInfluencia(null);
+    }
 
-                if (datos != null) {
-                    try {
-                        agregarCliente(nombreResucitar, datos.scoring);
-                        history.deshacer(); // Borrar evento AGREGAR generado arriba
+    /**
+     * Ranking de influencia sobre los seguimientos. Con el resultado anterior (aunque sea de otra
+     * foto) se arranca en caliente desde sus rangos y, tras pocos cambios, converge mucho antes.
+     */
+    public RankingInfluencia.Resultado calcularInfluencia(RankingInfluencia.Resultado previo) {
+        GrafoIndexado grafo = fotoSeguimientos();
+        return new RankingInfluencia().calcular(grafo, previo);
+    }
 
-                        Cliente resucitado = clienteMap.get(nombreResucitar);
+    /**
+     * Grupos que se siguen en ciclo (componentes fuertemente conexas) y, para cada cliente, a cuántos
+     * otros llega siguiendo cadenas de seguimientos.
+     */
+    public ComponentesFuertes.Resultado analizarComponentesSeguimiento() {
+        GrafoIndexado grafo = fotoSeguimientos();
+        return new ComponentesFuertes().analizar(grafo);
+    }
 
-                        // Restaurar Salientes (Seguidores Iteración 2)
-                        for (Cliente aSeguir : datos.aQuienSeguia) {
-                            if (clienteMap.containsKey(aSeguir.getNombre())) {
-                                resucitado.agregarSeguido(aSeguir);
+    public DeteccionComunidades.Resultado detectarComunidades() {
+        return detectarComunidades(DeteccionComunidades.Metodo.PROPAGACION_ETIQUETAS, null).join();
+    }
+
+    /**
+     * Comunidades de la red de amistades. La foto se toma en el momento de la llamada y el cálculo
+     * corre en el pool, así que la red puede seguir cambiando mientras tanto. Con el resultado
+     * anterior se parte de sus comunidades y solo se reevalúan los clientes cuyas amistades cambiaron.
+     */
+    public CompletableFuture<DeteccionComunidades.Resultado> detectarComunidades(DeteccionComunidades.Metodo metodo,
+                                                                               DeteccionComunidades.Resultado previo) {
+        GrafoIndexado grafo = fotoAmistades();
+        return new DeteccionComunidades().detectarAsync(grafo, metodo, previo);
+    }
+
+    // ==========================================
+    // --- REQ 2: HISTORIAL, DESHACER Y MEMENTO ---
+    // ==========================================
+
+    @Override
+    public void deshacerUltimaAccion() {
+        if (history.isEmpty()) {
+            informar("Info: El historial está vacío.");
+            return;
+        }
+
+        List<Cliente> tocados = new ArrayList<>();
+        iniciarEscritura();
+        try {
+            Accion ultima = history.deshacer();
+            informar("Deshaciendo: " + ultima);
+
+            switch (ultima.getTipo()) {
+                case AGREGAR_CLIENTE:
+                    Cliente c = clienteMap.get(ultima.getSujeto());
+                    if (c != null) {
+                        // Pudo ganar amigos o seguidores después del alta: mismo borrado en cascada que eliminarClienteTotalmente
+                        tocados.addAll(quitarVinculos(c));
+                        tocados.addAll(c.getSiguiendo());
+                        scoringTree.eliminar(c.getScoring(), c);
+                        clienteMap.remove(ultima.getSujeto());
+                        desvincular(c);
+                        informar("LOG: Cliente eliminado por deshacer.");
+                    }
+                    break;
+
+                case SEGUIR_USUARIO:
+                    String sujeto = ultima.getSujeto();
+                    String objeto = ultima.getObjeto();
+                    Cliente sol = clienteMap.get(sujeto);
+                    Cliente obj = clienteMap.get(objeto);
+
+                    if (sol != null && obj != null) {
+                        tocados.add(sol);
+                        boolean borrado = sol.eliminarSeguido(obj);
+                        if(borrado) informar("LOG: Se dejó de seguir a " + objeto);
+                    }
+                    break;
+
+                case ELIMINAR_CLIENTE:
+                    // Memento (Resurrección)
+                    String nombreResucitar = ultima.getSujeto();
+                    BackupData datos = (BackupData) ultima.getRespaldo();
+
+                    if (datos != null) {
+                        try {
+                            agregarCliente(nombreResucitar, datos.scoring);
+                            history.deshacer(); // Borrar evento AGREGAR generado arriba
+
+                            Cliente resucitado = clienteMap.get(nombreResucitar);
+                            tocados.add(resucitado);
+
+                            // Restaurar Salientes (Seguidores Iteración 2)
+                            for (Cliente aSeguir : datos.aQuienSeguia) {
+                                if (clienteMap.containsKey(aSeguir.getNombre())) {
+                                    resucitado.agregarSeguido(aSeguir);
+                                }
                             }
-                        }
 
-                        // Restaurar Entrantes (Seguidores Iteración 2)
-                        for (String nombreSeguidor : datos.quienesLoSeguian) {
-                            Cliente seguidor = clienteMap.get(nombreSeguidor);
-                            if (seguidor != null) {
-                                seguidor.agregarSeguido(resucitado);
+                            // Restaurar Entrantes (Seguidores Iteración 2)
+                            for (String nombreSeguidor : datos.quienesLoSeguian) {
+                                Cliente seguidor = clienteMap.get(nombreSeguidor);
+                                if (seguidor != null) {
+                                    tocados.add(seguidor);
+                                    seguidor.agregarSeguido(resucitado);
+                                }
                             }
-                        }
 
-                        // Restaurar Amistades (Iteración 3)
-                        for (String nombreAmigo : datos.amigos) {
-                            Cliente amigo = clienteMap.get(nombreAmigo);
-                            if (amigo != null) {
-                                resucitado.agregarAmigo(amigo);
-                                amigo.agregarAmigo(resucitado);
+                            // Restaurar Amistades (Iteración 3)
+                            for (String nombreAmigo : datos.amigos) {
+                                Cliente amigo = clienteMap.get(nombreAmigo);
+                                if (amigo != null) {
+                                    tocados.add(amigo);
+                                    resucitado.agregarAmigo(amigo);
+                                    amigo.agregarAmigo(resucitado);
+                                }
                             }
-                        }
-                        System.out.println("✨ ÉXITO: " + nombreResucitar + " ha sido restaurado con todas sus conexiones.");
+                            informar("✨ ÉXITO: " + nombreResucitar + " ha sido restaurado con todas sus conexiones.");
 
-                    } catch (Exception e) {
-                        System.out.println("⚠️ Error al intentar restaurar: " + e.getMessage());
+                        } catch (Exception e) {
+                            informar("⚠️ Error al intentar restaurar: " + e.getMessage());
+                        }
                     }
-                }
-                break;
+                    break;
+
+                case ACTUALIZAR_SCORING:
+                    @SuppressWarnings("unchecked")
+                    Map<String, Integer> anteriores = (Map<String, Integer>) ultima.getRespaldo();
+                    aplicarScorings(anteriores);
+                    tocados.addAll(clientesDe(anteriores.keySet()));
+                    informar("LOG: Scoring restaurado para " + anteriores.size() + " cliente(s).");
+                    break;
+            }
+        } finally {
+            finalizarEscritura();
         }
-        assert repOK();
+        assert verificar(tocados);
     }
 
     @Override
@@ -330,7 +1038,7 @@ public class SocialNetwork implements ISocialNetwork {
         // 1. Memento (Backup Completo)
         List<String> seguidores = new ArrayList<>();
         for (Cliente otro : clienteMap.values()) {
-            if (otro.getSiguiendo().contains(aBorrar)) {
+            if (otro.sigueA(aBorrar)) {
                 seguidores.add(otro.getNombre());
             }
         }
@@ -341,27 +1049,28 @@ public class SocialNetwork implements ISocialNetwork {
 
         BackupData backup = new BackupData(aBorrar.getScoring(), aBorrar.getSiguiendo(), seguidores, nombresAmigos);
 
-        // 2. BORRADO EN CASCADA
-
-        // A. Quitar referencias de "Seguidores" (Iteración 2)
-        for (Cliente otro : clienteMap.values()) {
-            otro.getSiguiendo().remove(aBorrar);
-        }
+        iniciarEscritura();
+        try {
+            // 2. BORRADO EN CASCADA (A. seguidores y B. amistades)
+            quitarVinculos(aBorrar);
 
-        // B. Quitar referencias de "Amistades" (Iteración 3 - Bidireccional)
-        for (Cliente amigo : aBorrar.getAmigos()) {
-            amigo.eliminarAmigo(aBorrar);
-        }
+            // C. Quitar del Árbol AVL
+            scoringTree.eliminar(aBorrar.getScoring(), aBorrar);
 
-        // C. Quitar del Árbol AVL
-        scoringTree.eliminar(aBorrar.getScoring(), aBorrar);
+            // D. Quitar del Mapa Principal
+            clienteMap.remove(nombre);
+            desvincular(aBorrar);
 
-        // D. Quitar del Mapa Principal
-        clienteMap.remove(nombre);
+            history.registrarAccion(new Accion(Accion.TipoAccion.ELIMINAR_CLIENTE, nombre, backup));
+            informar("🗑️ Cliente '" + nombre + "' eliminado de todas las redes.");
+        } finally {
+            finalizarEscritura();
+        }
 
-        history.registrarAccion(new Accion(Accion.TipoAccion.ELIMINAR_CLIENTE, nombre, backup));
-        System.out.println("🗑️ Cliente '" + nombre + "' eliminado de todas las redes.");
-        assert repOK();
+        // Los vecinos no deben conservar referencias al eliminado
+        List<Cliente> tocados = new ArrayList<>(aBorrar.getAmigos());
+        tocados.addAll(clientesDe(seguidores));
+        assert verificar(tocados);
     }
 
     // ==========================================
@@ -373,89 +1082,393 @@ public class SocialNetwork implements ISocialNetwork {
         Cliente c = clienteMap.get(nombre);
         if (c == null) throw new ClienteNoEncontradoException(nombre);
 
-        System.out.println("\n=== PERFIL DE: " + c.getNombre().toUpperCase() + " ===");
-        System.out.println("📊 Scoring actual: " + c.getScoring());
+        consola().println("\n=== PERFIL DE: " + c.getNombre().toUpperCase() + " ===");
+        consola().println("📊 Scoring actual: " + c.getScoring());
 
         // AMISTADES GENERALES (Iteración 3)
-        System.out.println("\n--- 🤝 AMISTADES GENERALES (No Dirigidas) ---");
+        consola().println("\n--- 🤝 AMISTADES GENERALES (No Dirigidas) ---");
         Set<Cliente> amigos = c.getAmigos();
         if (amigos.isEmpty()) {
-            System.out.println("   No tiene amigos agregados.");
+            consola().println("   No tiene amigos agregados.");
         } else {
-            System.out.println("   Amigos (" + amigos.size() + "):");
+            consola().println("   Amigos (" + amigos.size() + "):");
             for (Cliente amigo : amigos) {
-                System.out.println("   - " + amigo.getNombre() + " (Score: " + amigo.getScoring() + ")");
+                consola().println("   - " + amigo.getNombre() + " (Score: " + amigo.getScoring() + ")");
             }
         }
 
         // SEGUIDORES (Iteración 2)
-        System.out.println("\n--- 📱 RED DE SEGUIMIENTO (Dirigida) ---");
+        consola().println("\n--- 📱 RED DE SEGUIMIENTO (Dirigida) ---");
 
         List<Cliente> sigueA = c.getSiguiendo();
         if (sigueA.isEmpty()) {
-            System.out.println("➡  No sigue a nadie.");
+            consola().println("➡  No sigue a nadie.");
         } else {
-            System.out.println("➡  Sigue a (" + sigueA.size() + "/2):");
+            consola().println("➡  Sigue a (" + sigueA.size() + "/2):");
             for (Cliente seguido : sigueA) {
-                System.out.println("   - " + seguido.getNombre());
+                consola().println("   - " + seguido.getNombre());
             }
         }
 
         List<String> seguidores = new ArrayList<>();
         for (Cliente otro : clienteMap.values()) {
-            if (otro.getSiguiendo().contains(c)) seguidores.add(otro.getNombre());
+            if (otro.sigueA(c)) seguidores.add(otro.getNombre());
         }
 
         if (seguidores.isEmpty()) {
-            System.out.println("⬅  No tiene seguidores.");
+            consola().println("⬅  No tiene seguidores.");
         } else {
-            System.out.println("⬅  Seguido por (" + seguidores.size() + "):");
-            for (String seguidor : seguidores) System.out.println("   - " + seguidor);
+            consola().println("⬅  Seguido por (" + seguidores.size() + "):");
+            for (String seguidor : seguidores) consola().println("   - " + seguidor);
         }
-        System.out.println("==========================================");
+        consola().println("==========================================");
     }
 
     @Override
     public void mostrarEstadoGeneral() {
         if (clienteMap.isEmpty()) {
-            System.out.println("❌ No hay clientes en el sistema.");
+            consola().println("❌ No hay clientes en el sistema.");
             return;
         }
 
-        System.out.println("\n--- ESTADO GENERAL DE LA RED SOCIAL ---");
+        consola().println("\n--- ESTADO GENERAL DE LA RED SOCIAL ---");
         for (Cliente c : clienteMap.values()) {
-            System.out.println("👤 " + c.getNombre() + " (Scoring: " + c.getScoring() + ")");
+            consola().println("👤 " + c.getNombre() + " (Scoring: " + c.getScoring() + ")");
 
             if (!c.getAmigos().isEmpty()) {
-                System.out.print("   🤝 Amigos: ");
-                for (Cliente amigo : c.getAmigos()) System.out.print(amigo.getNombre() + ", ");
-                System.out.println();
+                consola().print("   🤝 Amigos: ");
+                for (Cliente amigo : c.getAmigos()) consola().print(amigo.getNombre() + ", ");
+                consola().println();
             }
 
             if (!c.getSolicitudesRecibidas().isEmpty()) {
-                System.out.println("   📩 Buzón: " + c.getSolicitudesRecibidas().size() + " pendientes");
+                consola().println("   📩 Buzón: " + c.getSolicitudesRecibidas().size() + " pendientes");
             }
 
             if (c.getSiguiendo().isEmpty()) {
-                System.out.println("   ➡ Sigue a: (Nadie)");
+                consola().println("   ➡ Sigue a: (Nadie)");
             } else {
-                System.out.print("   ➡ Sigue a: ");
-                for (Cliente seguido : c.getSiguiendo()) System.out.print(seguido.getNombre() + ", ");
-                System.out.println();
+                consola().print("   ➡ Sigue a: ");
+                for (Cliente seguido : c.getSiguiendo()) consola().print(seguido.getNombre() + ", ");
+                consola().println();
             }
-            System.out.println("---------------------------------------");
+            consola().println("---------------------------------------");
+        }
+    }
+
+    /**
+     * Visita todos los clientes sin copiarlos: en el orden del mapa o, si se pide, por scoring
+     * creciente recorriendo el AVL en orden. Pensado para exportar redes grandes en streaming.
+     */
+    public void recorrerClientes(boolean ordenadoPorScoring, Consumer<Cliente> visitante) {
+        if (ordenadoPorScoring) {
+            scoringTree.recorrerInOrder(visitante);
+        } else {
+            clienteMap.values().forEach(visitante);
         }
     }
 
     @Override
     public void verHistorial() {
-        history.mostrarHistorialCompleto();
+        history.mostrarHistorialCompleto(consola());
+    }
+
+    /**
+     * Historial de acciones, para consultarlo por rango de tiempo, tipo o cliente sin imprimirlo.
+     */
+    public ActionHistory getHistorial() {
+        return history;
+    }
+
+    // ==========================================
+    // --- SNAPSHOTS DE LECTURA (MVCC) ---
+    // ==========================================
+
+    /**
+     * Vista inmutable de la red en la última versión publicada. Las lecturas sobre el snapshot no
+     * bloquean a los escritores ni ven escrituras posteriores; cerrarlo libera las versiones viejas.
+     * Se puede pedir desde cualquier hilo, una vez que el escritor llamó a habilitarSnapshots().
+     *
+     * @throws IllegalStateException si el versionado no está activo.
+     */
+    public SnapshotRed snapshot() {
+        AlmacenVersiones almacen = versiones;
+        if (almacen == null) {
+            throw new IllegalStateException("Los snapshots no están habilitados: llamar a habilitarSnapshots() desde el hilo que escribe.");
+        }
+        return new SnapshotRed(almacen);
+    }
+
+    /**
+     * Activa el versionado (copia inicial O(n)). A partir de acá cada escritura publica una versión
+     * nueva de los clientes que tocó (O(grado) por cliente). Es una escritura más: se invoca desde
+     * el hilo que escribe, antes de repartir la red a los lectores.
+     */
+    public void habilitarSnapshots() {
+        if (versiones != null) return;
+        iniciarEscritura();
+        try {
+            versiones = new AlmacenVersiones();
+            pendientesDePublicar.addAll(clienteMap.keySet());
+        } finally {
+            finalizarEscritura();
+        }
+    }
+
+    /**
+     * Cantidad de versiones de clientes retenidas (0 si no hay versionado).
+     */
+    public int versionesRetenidas() {
+        return (versiones == null) ? 0 : versiones.cantidadEslabones();
+    }
+
+    // ==========================================
+    // --- REGISTRO DE CAMBIOS (DELTAS) ---
+    // ==========================================
+
+    /**
+     * Activa el registro de cambios por adelantado (el primer getCheckpoint lo activa solo). Desde
+     * acá cada cliente tocado ocupa una entrada hasta que se olvida con olvidarCambiosHasta.
+     */
+    public void habilitarRegistroCambios() {
+        if (ultimoCambio != null) return;
+        ultimoCambio = new HashMap<>();
+        cambiosPorSecuencia = new TreeMap<>();
+        // Lo anterior no quedó registrado; el salto separa este punto del 0 de la red completa
+        cambiosOlvidadosHasta = ++secuenciaCambios;
+    }
+
+    /**
+     * Número de secuencia del último cambio. Exportar desde este valor más adelante trae solo lo
+     * que cambió en el medio. El primer checkpoint activa el registro de cambios.
+     */
+    public long getCheckpoint() {
+        habilitarRegistroCambios();
+        return secuenciaCambios;
+    }
+
+    /**
+     * Visita, en orden de secuencia, cada cliente agregado, modificado (scoring, seguidos o amigos)
+     * o eliminado después del checkpoint. Los eliminados llegan con Cliente null.
+     * Complejidad: O(k log n) con k = clientes cambiados, independiente del tamaño de la red.
+     * Con checkpoint 0 (sincronización inicial de una réplica vacía) visita todos los clientes
+     * actuales en O(n), sin bajas, esté o no activo el registro.
+     */
+    public void recorrerCambiosDesde(long checkpoint, BiConsumer<String, Cliente> visitante) {
+        if (checkpoint == 0) {
+            for (Map.Entry<String, Cliente> e : clienteMap.entrySet()) visitante.accept(e.getKey(), e.getValue());
+            return;
+        }
+        if (ultimoCambio == null || checkpoint < cambiosOlvidadosHasta) {
+            throw new IllegalArgumentException("Los cambios anteriores a " + secuenciaCambios
+                    + " no están registrados: hay que exportar la red completa.");
+        }
+        for (String nombre : cambiosPorSecuencia.tailMap(checkpoint, false).values()) {
+            visitante.accept(nombre, clienteMap.get(nombre));
+        }
+    }
+
+    /**
+     * Descarta el registro hasta el checkpoint (inclusive), una vez que todos los consumidores lo
+     * pasaron. Libera sobre todo las marcas de clientes eliminados.
+     */
+    public void olvidarCambiosHasta(long checkpoint) {
+        if (ultimoCambio == null) return;
+        SortedMap<Long, String> viejos = cambiosPorSecuencia.headMap(checkpoint, true);
+        for (String nombre : viejos.values()) ultimoCambio.remove(nombre);
+        viejos.clear();
+        cambiosOlvidadosHasta = Math.max(cambiosOlvidadosHasta, Math.min(checkpoint, secuenciaCambios));
+    }
+
+    // Descarta las fotos, anota el cambio para los deltas (si el registro está activo) y lo deja
+    // para publicar
+    private void marcarModificado(String nombre) {
+        fotoAmistades = null;
+        fotoSeguimientos = null;
+        if (ultimoCambio != null) {
+            Long anterior = ultimoCambio.put(nombre, ++secuenciaCambios);
+            if (anterior != null) cambiosPorSecuencia.remove(anterior);
+            cambiosPorSecuencia.put(secuenciaCambios, nombre);
+        }
+        marcarParaPublicar(nombre);
+    }
+
+    // Con versionado activo deja el cliente para publicar. Los cambios hechos fuera de una escritura
+    // de la red (p. ej. sobre el Cliente) se publican al instante. El buzón solo pasa por acá: no
+    // está en los deltas ni en las fotos, pero la ficha de cada versión lleva los pendientes.
+    private void marcarParaPublicar(String nombre) {
+        if (versiones == null) return;
+        pendientesDePublicar.add(nombre);
+        if (profundidadEscritura == 0) publicarVersiones();
+    }
+
+    // Todos los clientes tocados por la escritura quedan visibles juntos, en una sola versión
+    private void publicarVersiones() {
+        if (versiones == null || pendientesDePublicar.isEmpty()) return;
+        Map<String, FichaCliente> cambios = new HashMap<>();
+        for (String nombre : pendientesDePublicar) {
+            Cliente c = clienteMap.get(nombre);
+            cambios.put(nombre, (c == null) ? null : FichaCliente.de(c));
+        }
+        pendientesDePublicar.clear();
+        versiones.publicar(cambios);
+    }
+
+    // ==========================================
+    // --- VENCIMIENTO DE SOLICITUDES (TTL) ---
+    // ==========================================
+
+    /**
+     * Quita de los buzones las solicitudes que superaron el TTL. También se hace solo al enviar y
+     * al procesar solicitudes; llamarlo periódicamente acota la memoria de redes sin actividad.
+     * @return Cantidad de solicitudes vencidas en esta llamada.
+     */
+    public int vencerSolicitudes() {
+        iniciarEscritura();
+        try {
+            long antes = solicitudesVencidas;
+            vencimientos.avanzar(reloj.millis(), this::vencerSolicitud);
+            return (int) (solicitudesVencidas - antes);
+        } finally {
+            finalizarEscritura();
+        }
+    }
+
+    public long getSolicitudesVencidas() {
+        return solicitudesVencidas;
+    }
+
+    /**
+     * Solicitudes pendientes con vencimiento programado.
+     */
+    public int getSolicitudesProgramadas() {
+        return vencimientos.cantidad();
+    }
+
+    /**
+     * TTL de las solicitudes enviadas desde ahora (las ya pendientes conservan el suyo).
+     * Null, cero o negativo: no vencen.
+     */
+    public void setTtlSolicitudes(Duration ttl) {
+        this.ttlSolicitudesMs = (ttl == null) ? 0 : ttl.toMillis();
+    }
+
+    /**
+     * Reloj usado para los vencimientos (en tests, uno controlable).
+     */
+    public void setReloj(Clock reloj) {
+        this.reloj = Objects.requireNonNull(reloj);
+    }
+
+    private void vencerSolicitud(Solicitud solicitud) {
+        Cliente destino = clienteMap.get(solicitud.getSolicitado());
+        if (destino != null && destino.quitarSolicitud(solicitud)) solicitudesVencidas++;
+    }
+
+    // ==========================================
+    // --- CONFIGURACIÓN DE BFS PARALELA ---
+    // ==========================================
+
+    public int getUmbralParalelo() {
+        return umbralParalelo;
+    }
+
+    /**
+     * Cantidad de clientes a partir de la cual calcularDistancia y analizarNivel usan la BFS paralela.
+     * Con 0 siempre se usa; con Integer.MAX_VALUE nunca.
+     */
+    public void setUmbralParalelo(int umbralParalelo) {
+        if (umbralParalelo < 0) {
+            throw new IllegalArgumentException("El umbral no puede ser negativo.");
+        }
+        this.umbralParalelo = umbralParalelo;
+    }
+
+    // La foto se reutiliza entre consultas hasta el próximo cambio: armarla es O(n + m) y una
+    // consulta de un salto no debe pagarla cada vez. Dos lectores concurrentes pueden armarla a la
+    // vez; ambos obtienen la misma foto inmutable.
+    private GrafoIndexado fotoAmistades() {
+        GrafoIndexado foto = fotoAmistades;
+        if (foto == null) fotoAmistades = foto = GrafoIndexado.deAmistades(clienteMap.values(), clientesPorId.size());
+        return foto;
+    }
+
+    private GrafoIndexado fotoSeguimientos() {
+        GrafoIndexado foto = fotoSeguimientos;
+        if (foto == null) fotoSeguimientos = foto = GrafoIndexado.deSeguimientos(clienteMap.values(), clientesPorId.size());
+        return foto;
+    }
+
+    private boolean usarBFSParalela() {
+        return clienteMap.size() >= umbralParalelo;
     }
 
     // ==========================================
     // --- ESTRUCTURAS INTERNAS Y VALIDACIÓN ---
     // ==========================================
 
+    // Asigna id denso y engancha el observador que mantiene los índices
+    private void vincular(Cliente c) {
+        c.setObservador(observadorIndices);
+        marcarModificado(c.getNombre());
+        if (idsLibres.isEmpty()) {
+            c.setId(clientesPorId.size());
+            clientesPorId.add(c);
+        } else {
+            int id = idsLibres.pop();
+            c.setId(id);
+            clientesPorId.set(id, c);
+        }
+        indiceAmigos.invalidar(c.getId());
+    }
+
+    private EspacioBFS tomarEspacio() {
+        EspacioBFS espacio = espaciosLibres.poll();
+        if (espacio == null) espacio = new EspacioBFS();
+        espacio.preparar(clientesPorId.size());
+        return espacio;
+    }
+
+    private void devolverEspacio(EspacioBFS espacio) {
+        espaciosLibres.offer(espacio);
+    }
+
+    private CaminosPonderados tomarDijkstra() {
+        CaminosPonderados dijkstra = dijkstrasLibres.poll();
+        return (dijkstra != null) ? dijkstra : new CaminosPonderados();
+    }
+
+    /**
+     * Borrado en cascada de las aristas que apuntan a c: nadie lo sigue ni lo tiene de amigo.
+     * c conserva sus propias listas (el memento y los "tocados" las usan).
+     * @return Los clientes que cambiaron.
+     */
+    private List<Cliente> quitarVinculos(Cliente c) {
+        List<Cliente> tocados = new ArrayList<>();
+
+        // A. Quitar referencias de "Seguidores" (Iteración 2)
+        for (Cliente otro : clienteMap.values()) {
+            if (otro.eliminarSeguido(c)) tocados.add(otro);
+        }
+
+        // B. Quitar referencias de "Amistades" (Iteración 3 - Bidireccional)
+        for (Cliente amigo : c.getAmigos()) {
+            amigo.eliminarAmigo(c);
+            tocados.add(amigo);
+        }
+        return tocados;
+    }
+
+    private void desvincular(Cliente c) {
+        for (Solicitud s : c.getSolicitudesRecibidas()) vencimientos.cancelar(s.getVencimiento());
+        c.setObservador(null);
+        marcarModificado(c.getNombre());
+        clientesPorId.set(c.getId(), null);
+        indiceAmigos.invalidar(c.getId());
+        idsLibres.push(c.getId());
+        c.setId(-1);
+    }
+
     private class BackupData {
         int scoring;
         List<Cliente> aQuienSeguia;
@@ -470,12 +1483,116 @@ public class SocialNetwork implements ISocialNetwork {
         }
     }
 
+    // ==========================================
+    // --- VERIFICACIÓN DEL INVARIANTE ---
+    // ==========================================
+
+    public VerificadorInvariantes getVerificador() {
+        return verificador;
+    }
+
+    /**
+     * Lanza la auditoría completa periódica en segundo plano (ver VerificadorInvariantes).
+     */
+    public void iniciarAuditoriaPeriodica(long periodoMs) {
+        verificador.iniciarAuditoria(periodoMs, () -> secuenciaEscritura);
+    }
+
+    public void detenerAuditoriaPeriodica() {
+        verificador.detenerAuditoria();
+    }
+
+    // Marcan el inicio y fin de una mutación (anidables, p. ej. deshacer que re-agrega un cliente)
+    private void iniciarEscritura() {
+        if (profundidadEscritura++ == 0) secuenciaEscritura++;
+    }
+
+    private void finalizarEscritura() {
+        if (--profundidadEscritura == 0) {
+            publicarVersiones();
+            secuenciaEscritura++;
+        }
+    }
+
+    private boolean verificar(Cliente... tocados) {
+        return verificar(Arrays.asList(tocados));
+    }
+
+    private boolean verificar(Collection<Cliente> tocados) {
+        return verificador.verificar(tocados);
+    }
+
+    private List<Cliente> clientesDe(Collection<String> nombres) {
+        List<Cliente> clientes = new ArrayList<>(nombres.size());
+        for (String nombre : nombres) {
+            Cliente c = clienteMap.get(nombre);
+            if (c != null) clientes.add(c);
+        }
+        return clientes;
+    }
+
+    private Cliente clienteAlAzar() {
+        if (clienteMap.isEmpty()) return null;
+        // Los huecos del registro son minoría: unos pocos intentos alcanzan
+        for (int intento = 0; intento < 8; intento++) {
+            Cliente c = clientesPorId.get(azarMuestreo.nextInt(clientesPorId.size()));
+            if (c != null) return c;
+        }
+        return null;
+    }
+
+    /**
+     * IREP completo: cada cliente, el registro de ids y el acuerdo entre clienteMap y el ArbolAVL.
+     * Complejidad: O(n + m).
+     */
     public boolean repOK() {
         if (clienteMap == null || scoringTree == null || history == null) return false;
+        if (!repOKGlobalRapido()) return false;
 
         for (Cliente c : clienteMap.values()) {
-            if (!c.repOK()) return false;
+            if (!repOKLocal(c)) return false;
+        }
+
+        // Índice secundario: AVL válido, misma cantidad de clientes y cada entrada es un cliente vivo
+        // con el scoring de su nodo. Con ids únicos se descartan duplicados en el árbol.
+        if (!scoringTree.repOK()) return false;
+        if (scoringTree.cantidadClientes() != clienteMap.size()) return false;
+        BitSet vistos = new BitSet(clientesPorId.size());
+        return scoringTree.cumplenTodos((scoring, c) -> {
+            if (clienteMap.get(c.getNombre()) != c || c.getScoring() != scoring) return false;
+            if (vistos.get(c.getId())) return false;
+            vistos.set(c.getId());
+            return true;
+        });
+    }
+
+    // Chequeos O(1) de tamaños entre índices
+    private boolean repOKGlobalRapido() {
+        return clientesPorId.size() - idsLibres.size() == clienteMap.size();
+    }
+
+    /**
+     * IREP de un cliente y sus referencias directas: está registrado en ambos índices,
+     * sus amistades son simétricas y todos sus vecinos siguen vivos en la red.
+     * Complejidad: O(grado); el grupo de scoring se consulta en O(log 101) sin recorrerlo.
+     */
+    private boolean repOKLocal(Cliente c) {
+        if (!c.repOK()) return false;
+
+        if (clienteMap.get(c.getNombre()) != c) {
+            // Cliente que ya no pertenece a la red: no debe conservar un id asignado
+            return c.getId() == -1;
+        }
+        if (c.getId() < 0 || c.getId() >= clientesPorId.size() || clientesPorId.get(c.getId()) != c) return false;
+        if (!scoringTree.contiene(c.getScoring(), c)) return false;
+
+        for (Cliente amigo : c.getAmigos()) {
+            if (clienteMap.get(amigo.getNombre()) != amigo) return false;
+            if (!amigo.esAmigoDe(c)) return false;
+        }
+        for (Cliente seguido : c.getSiguiendo()) {
+            if (clienteMap.get(seguido.getNombre()) != seguido) return false;
         }
         return true;
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,320 @@
+package services;
+
+import models.Cliente;
+import utils.Ejecutores;
+
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Function;
+
+/**
+ * Fachada asíncrona de {@link ISocialNetwork}: cada operación devuelve un {@link CompletableFuture}
+ * y el hilo que la invoca nunca se bloquea.
+ *
+ * - Las escrituras entran a una cola y las aplica un único hilo escritor. Las que se acumulan
+ *   mientras tanto se ejecutan como un lote bajo una sola toma del lock de escritura.
+ * - Las lecturas corren en paralelo bajo el lock de lectura, en hilos virtuales si la JVM los
+ *   tiene (Java 21+) o en un pool de hilos de plataforma si no.
+ *
+ * Los {@link Cliente} devueltos son los objetos vivos de la red: leerlos fuera de la fachada
+ * puede cruzarse con escrituras. Para lecturas largas consistentes usar SocialNetwork.snapshot().
+ */
+public class SocialNetworkAsync implements AutoCloseable {
+    private static final int LOTE_MAXIMO = 256;
+
+    private final ISocialNetwork red;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final ExecutorService lectores;
+    private final BlockingQueue<Escritura<?>> escrituras = new LinkedBlockingQueue<>();
+    private final Escritura<Void> fin = new Escritura<>(r -> null); // Marca de cierre para el escritor
+    private final Thread escritor;
+    private final Object cierre = new Object(); // Encolar y cerrar son atómicos entre sí
+    private boolean cerrada = false;
+
+    private final AtomicLong lotesAplicados = new AtomicLong();
+    private final AtomicLong escriturasAplicadas = new AtomicLong();
+
+    /**
+     * Una operación sobre la red; puede lanzar las excepciones chequeadas de la interfaz.
+     */
+    @FunctionalInterface
+    private interface Operacion<T> {
+        T ejecutar(ISocialNetwork red) throws Exception;
+    }
+
+    private static final class Escritura<T> {
+        final Operacion<T> operacion;
+        final CompletableFuture<T> resultado = new CompletableFuture<>();
+        private T valor;
+        private Throwable error;
+
+        Escritura(Operacion<T> operacion) {
+            this.operacion = operacion;
+        }
+
+        // Se aplica bajo el lock de escritura; el futuro se completa después, fuera del lock
+        void aplicar(ISocialNetwork red) {
+            try {
+                valor = operacion.ejecutar(red);
+            } catch (Throwable e) {
+                error = e;
+            }
+        }
+
+        void completar() {
+            if (error != null) resultado.completeExceptionally(error);
+            else resultado.complete(valor);
+        }
+    }
+
+    public SocialNetworkAsync(ISocialNetwork red) {
+        this(red, Ejecutores.porTarea("lector-red"));
+    }
+
+    public SocialNetworkAsync(ISocialNetwork red, ExecutorService lectores) {
+        this.red = red;
+        this.lectores = lectores;
+        this.escritor = new Thread(this::bucleEscritor, "escritor-red");
+        this.escritor.setDaemon(true);
+        this.escritor.start();
+    }
+
+    public long getLotesAplicados() {
+        return lotesAplicados.get();
+    }
+
+    public long getEscriturasAplicadas() {
+        return escriturasAplicadas.get();
+    }
+
+    // ==========================================
+    // --- ESCRITURAS (UN SOLO ESCRITOR) ---
+    // ==========================================
+
+    public CompletableFuture<Void> agregarCliente(String nombre, int scoring) {
+        return escribir(r -> {
+            r.agregarCliente(nombre, scoring);
+            return null;
+        });
+    }
+
+    public CompletableFuture<Void> actualizarScoring(String nombre, int nuevoScoring) {
+        return escribir(r -> {
+            r.actualizarScoring(nombre, nuevoScoring);
+            return null;
+        });
+    }
+
+    public CompletableFuture<Void> actualizarScorings(Map<String, Integer> nuevosScorings) {
+        Map<String, Integer> copia = new HashMap<>(nuevosScorings);
+        return escribir(r -> {
+            r.actualizarScorings(copia);
+            return null;
+        });
+    }
+
+    public CompletableFuture<Void> enviarSolicitud(String solicitante, String solicitado) {
+        return escribir(r -> {
+            r.enviarSolicitud(solicitante, solicitado);
+            return null;
+        });
+    }
+
+    public CompletableFuture<List<String>> procesarSolicitudes() {
+        return escribir(ISocialNetwork::procesarSolicitudes);
+    }
+
+    public CompletableFuture<Void> deshacerUltimaAccion() {
+        return escribir(r -> {
+            r.deshacerUltimaAccion();
+            return null;
+        });
+    }
+
+    public CompletableFuture<Void> eliminarClienteTotalmente(String nombre) {
+        return escribir(r -> {
+            r.eliminarClienteTotalmente(nombre);
+            return null;
+        });
+    }
+
+    public CompletableFuture<Void> crearAmistad(String nombre1, String nombre2) {
+        return escribir(r -> {
+            r.crearAmistad(nombre1, nombre2);
+            return null;
+        });
+    }
+
+    // ==========================================
+    // --- LECTURAS (EN PARALELO) ---
+    // ==========================================
+
+    public CompletableFuture<Cliente> buscarPorNombre(String nombre) {
+        return leer(r -> r.buscarPorNombre(nombre));
+    }
+
+    public CompletableFuture<List<Cliente>> buscarPorScoring(int scoring) {
+        // Copia: la lista del índice cambia con las escrituras siguientes
+        return leer(r -> new ArrayList<>(r.buscarPorScoring(scoring)));
+    }
+
+    public CompletableFuture<List<Cliente>> clientesEnNivel(String nombreOrigen, int nivelObjetivo) {
+        return leer(r -> r.clientesEnNivel(nombreOrigen, nivelObjetivo));
+    }
+
+    public CompletableFuture<Integer> calcularDistancia(String origen, String destino) {
+        return leer(r -> r.calcularDistancia(origen, destino));
+    }
+
+    public CompletableFuture<List<String>> calcularCamino(String origen, String destino) {
+        return leer(r -> r.calcularCamino(origen, destino));
+    }
+
+    public CompletableFuture<Map<String, Integer>> calcularDistancias(String origen, Collection<String> destinos) {
+        List<String> copia = new ArrayList<>(destinos);
+        return leer(r -> r.calcularDistancias(origen, copia));
+    }
+
+    public CompletableFuture<Double> calcularDistanciaPonderada(String origen, String destino, EstrategiaPeso peso) {
+        return leer(r -> r.calcularDistanciaPonderada(origen, destino, peso));
+    }
+
+    public CompletableFuture<List<String>> calcularCaminoPonderado(String origen, String destino, EstrategiaPeso peso) {
+        return leer(r -> r.calcularCaminoPonderado(origen, destino, peso));
+    }
+
+    public CompletableFuture<List<String>> amigosEnComun(String nombre1, String nombre2) {
+        return leer(r -> r.amigosEnComun(nombre1, nombre2));
+    }
+
+    public CompletableFuture<Integer> cantidadAmigosEnComun(String nombre1, String nombre2) {
+        return leer(r -> r.cantidadAmigosEnComun(nombre1, nombre2));
+    }
+
+    public CompletableFuture<Map<String, Integer>> cantidadAmigosEnComun(String nombre, Collection<String> otros) {
+        List<String> copia = new ArrayList<>(otros);
+        return leer(r -> r.cantidadAmigosEnComun(nombre, copia));
+    }
+
+    /**
+     * Lectura arbitraria bajo el lock de lectura, para armar respuestas que recorren los clientes
+     * (por ejemplo copiarlos a {@link models.FichaCliente}) sin cruzarse con escrituras.
+     */
+    public <T> CompletableFuture<T> consultar(Function<ISocialNetwork, T> consulta) {
+        return leer(consulta::apply);
+    }
+
+    public CompletableFuture<Void> mostrarEstadoGeneral() {
+        return leer(r -> {
+            r.mostrarEstadoGeneral();
+            return null;
+        });
+    }
+
+    public CompletableFuture<Void> mostrarConexionesDe(String nombre) {
+        return leer(r -> {
+            r.mostrarConexionesDe(nombre);
+            return null;
+        });
+    }
+
+    public CompletableFuture<Void> analizarNivel(String nombreOrigen, int nivelObjetivo) {
+        return leer(r -> {
+            r.analizarNivel(nombreOrigen, nivelObjetivo);
+            return null;
+        });
+    }
+
+    public CompletableFuture<Void> verHistorial() {
+        return leer(r -> {
+            r.verHistorial();
+            return null;
+        });
+    }
+
+    // ==========================================
+    // --- DESPACHO ---
+    // ==========================================
+
+    private <T> CompletableFuture<T> escribir(Operacion<T> operacion) {
+        Escritura<T> escritura = new Escritura<>(operacion);
+        synchronized (cierre) {
+            // Con el mismo monitor que close(): nada puede encolarse detrás de la marca de cierre
+            if (!cerrada) {
+                escrituras.add(escritura);
+                return escritura.resultado;
+            }
+        }
+        escritura.resultado.completeExceptionally(new RejectedExecutionException("La red asíncrona está cerrada."));
+        return escritura.resultado;
+    }
+
+    private <T> CompletableFuture<T> leer(Operacion<T> operacion) {
+        CompletableFuture<T> resultado = new CompletableFuture<>();
+        try {
+            lectores.execute(() -> {
+                lock.readLock().lock();
+                try {
+                    resultado.complete(operacion.ejecutar(red));
+                } catch (Throwable e) {
+                    resultado.completeExceptionally(e);
+                } finally {
+                    lock.readLock().unlock();
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            resultado.completeExceptionally(e);
+        }
+        return resultado;
+    }
+
+    // Toma todo lo encolado hasta el momento y lo aplica con una sola adquisición del lock
+    private void bucleEscritor() {
+        List<Escritura<?>> lote = new ArrayList<>();
+        boolean terminar = false;
+        while (!terminar) {
+            try {
+                lote.add(escrituras.take());
+            } catch (InterruptedException e) {
+                continue; // Solo se termina con la marca de cierre
+            }
+            escrituras.drainTo(lote, LOTE_MAXIMO - 1);
+            terminar = lote.remove(fin);
+
+            if (!lote.isEmpty()) {
+                lock.writeLock().lock();
+                try {
+                    for (Escritura<?> escritura : lote) escritura.aplicar(red);
+                } finally {
+                    lock.writeLock().unlock();
+                }
+                // Los contadores antes que los futuros: quien espera un resultado ya ve su lote contado
+                lotesAplicados.incrementAndGet();
+                escriturasAplicadas.addAndGet(lote.size());
+                for (Escritura<?> escritura : lote) escritura.completar();
+                lote.clear();
+            }
+        }
+    }
+
+    /**
+     * Deja de aceptar escrituras, espera a que se apliquen las encoladas y libera los hilos.
+     */
+    @Override
+    public void close() {
+        synchronized (cierre) {
+            if (cerrada) return;
+            cerrada = true;
+            escrituras.add(fin);
+        }
+        try {
+            escritor.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        lectores.shutdown();
+    }
+}
@@ -0,0 +1,215 @@
+package services;
+
+import models.Cliente;
+
+import java.io.*;
+import java.util.*;
+
+/**
+ * Formato binario de las trazas de operaciones.
+ *
+ * Cabecera: entero MAGIA. Luego un registro por llamada:
+ *   código (byte) | instante desde el inicio en ns (varlong) | argumentos según la firma |
+ *   duración en ns (varlong) | huella del resultado (int)
+ * Los textos van en UTF modificado (writeUTF) y los enteros chicos en varint, así una llamada
+ * típica ocupa entre 10 y 30 bytes.
+ */
+final class TrazaBinaria {
+    static final int MAGIA = 0x54525A31; // "TRZ1"
+
+    // Códigos de las estrategias de peso reconocibles; el resto se reproduce como uniforme
+    static final int PESO_UNIFORME = 0;
+    static final int PESO_LINEAL = 1;
+    static final int PESO_INVERSA = 2;
+    static final int PESO_DESCONOCIDO = 255;
+
+    // Resultado de las operaciones void
+    static final Object VACIO = new Object();
+
+    private TrazaBinaria() {
+    }
+
+    static final class Registro {
+        final OperacionTraza operacion;
+        final long instante;
+        final Object[] argumentos;
+        final long duracion;
+        final int huella;
+
+        Registro(OperacionTraza operacion, long instante, Object[] argumentos, long duracion, int huella) {
+            this.operacion = operacion;
+            this.instante = instante;
+            this.argumentos = argumentos;
+            this.duracion = duracion;
+            this.huella = huella;
+        }
+    }
+
+    // ==========================================
+    // --- ESCRITURA ---
+    // ==========================================
+
+    static void escribir(DataOutputStream out, Registro r) throws IOException {
+        out.writeByte(r.operacion.codigo);
+        escribirVarLong(out, r.instante);
+        String firma = r.operacion.firma;
+        for (int i = 0; i < firma.length(); i++) escribirArgumento(out, firma.charAt(i), r.argumentos[i]);
+        escribirVarLong(out, r.duracion);
+        out.writeInt(r.huella);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static void escribirArgumento(DataOutputStream out, char tipo, Object valor) throws IOException {
+        switch (tipo) {
+            case 'S':
+                out.writeUTF((String) valor);
+                break;
+            case 'I':
+                escribirVarLong(out, zigzag((Integer) valor));
+                break;
+            case 'E':
+                out.writeByte((Integer) valor);
+                break;
+            case 'L': {
+                Collection<String> lista = (Collection<String>) valor;
+                escribirVarLong(out, lista.size());
+                for (String s : lista) out.writeUTF(s);
+                break;
+            }
+            case 'M': {
+                Map<String, Integer> mapa = (Map<String, Integer>) valor;
+                escribirVarLong(out, mapa.size());
+                for (Map.Entry<String, Integer> e : mapa.entrySet()) {
+                    out.writeUTF(e.getKey());
+                    escribirVarLong(out, zigzag(e.getValue()));
+                }
+                break;
+            }
+            default:
+                throw new IllegalStateException("Tipo de argumento inválido: " + tipo);
+        }
+    }
+
+    // ==========================================
+    // --- LECTURA ---
+    // ==========================================
+
+    /**
+     * @return El siguiente registro, o null al final de la traza.
+     */
+    static Registro leer(DataInputStream in) throws IOException {
+        int codigo = in.read();
+        if (codigo < 0) return null;
+        OperacionTraza op = OperacionTraza.desdeCodigo(codigo);
+        long instante = leerVarLong(in);
+        Object[] argumentos = new Object[op.firma.length()];
+        for (int i = 0; i < argumentos.length; i++) argumentos[i] = leerArgumento(in, op.firma.charAt(i));
+        long duracion = leerVarLong(in);
+        int huella = in.readInt();
+        return new Registro(op, instante, argumentos, duracion, huella);
+    }
+
+    private static Object leerArgumento(DataInputStream in, char tipo) throws IOException {
+        switch (tipo) {
+            case 'S':
+                return in.readUTF();
+            case 'I':
+                return deszigzag(leerVarLong(in));
+            case 'E':
+                return in.readUnsignedByte();
+            case 'L': {
+                int n = (int) leerVarLong(in);
+                List<String> lista = new ArrayList<>(n);
+                for (int i = 0; i < n; i++) lista.add(in.readUTF());
+                return lista;
+            }
+            case 'M': {
+                int n = (int) leerVarLong(in);
+                Map<String, Integer> mapa = new LinkedHashMap<>();
+                for (int i = 0; i < n; i++) mapa.put(in.readUTF(), deszigzag(leerVarLong(in)));
+                return mapa;
+            }
+            default:
+                throw new IllegalStateException("Tipo de argumento inválido: " + tipo);
+        }
+    }
+
+    // ==========================================
+    // --- CODIFICACIÓN ---
+    // ==========================================
+
+    // Varint LEB128: 7 bits por byte, el bit alto indica que sigue otro byte
+    private static void escribirVarLong(DataOutputStream out, long v) throws IOException {
+        while ((v & ~0x7FL) != 0) {
+            out.writeByte((int) ((v & 0x7F) | 0x80));
+            v >>>= 7;
+        }
+        out.writeByte((int) v);
+    }
+
+    private static long leerVarLong(DataInputStream in) throws IOException {
+        long v = 0;
+        for (int corrimiento = 0; corrimiento < 64; corrimiento += 7) {
+            int b = in.readUnsignedByte();
+            v |= (long) (b & 0x7F) << corrimiento;
+            if ((b & 0x80) == 0) return v;
+        }
+        throw new IOException("Varint mal formado en la traza.");
+    }
+
+    private static long zigzag(int v) {
+        return ((v << 1) ^ (v >> 31)) & 0xFFFFFFFFL; // Los negativos chicos también ocupan pocos bytes
+    }
+
+    private static int deszigzag(long v) {
+        int u = (int) v;
+        return (u >>> 1) ^ -(u & 1);
+    }
+
+    static int codigoPeso(EstrategiaPeso peso) {
+        if (peso == EstrategiaPeso.uniforme()) return PESO_UNIFORME;
+        if (peso == EstrategiaPeso.confianzaLineal()) return PESO_LINEAL;
+        if (peso == EstrategiaPeso.confianzaInversa()) return PESO_INVERSA;
+        return PESO_DESCONOCIDO;
+    }
+
+    static EstrategiaPeso pesoDesdeCodigo(int codigo) {
+        if (codigo == PESO_LINEAL) return EstrategiaPeso.confianzaLineal();
+        if (codigo == PESO_INVERSA) return EstrategiaPeso.confianzaInversa();
+        return EstrategiaPeso.uniforme();
+    }
+
+    /**
+     * Huella del resultado para detectar divergencias al reproducir. Las listas de clientes se
+     * comparan sin orden (cada implementación puede devolverlas en otro orden válido) y los
+     * costos con 9 decimales.
+     */
+    static int huella(Object resultado) {
+        return canonico(resultado).hashCode();
+    }
+
+    static String canonico(Object resultado) {
+        if (resultado == VACIO) return "ok";
+        if (resultado == null) return "null";
+        if (resultado instanceof Throwable) return "!" + resultado.getClass().getSimpleName();
+        if (resultado instanceof Cliente) {
+            Cliente c = (Cliente) resultado;
+            return c.getNombre() + ":" + c.getScoring();
+        }
+        if (resultado instanceof Double) return String.format(Locale.ROOT, "%.9f", (Double) resultado);
+        if (resultado instanceof List && !((List<?>) resultado).isEmpty() && ((List<?>) resultado).get(0) instanceof Cliente) {
+            List<String> partes = new ArrayList<>();
+            for (Object o : (List<?>) resultado) partes.add(canonico(o));
+            Collections.sort(partes);
+            return partes.toString();
+        }
+        if (resultado instanceof Map) {
+            // Por clave ordenada: el orden de iteración depende de la implementación del mapa
+            List<String> partes = new ArrayList<>();
+            for (Map.Entry<?, ?> e : ((Map<?, ?>) resultado).entrySet()) partes.add(e.getKey() + "=" + canonico(e.getValue()));
+            Collections.sort(partes);
+            return partes.toString();
+        }
+        return String.valueOf(resultado);
+    }
+}
@@ -0,0 +1,152 @@
+package services;
+
+import models.Cliente;
+
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BooleanSupplier;
+import java.util.function.LongSupplier;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+/**
+ * Decide cuánto del invariante de representación se verifica tras cada mutación.
+ *
+ * - COMPLETO: recorre toda la red (O(n + m)); es el comportamiento histórico de repOK.
+ * - INCREMENTAL: valida solo los clientes que tocó la mutación y sus vecinos directos. Cuesta
+ *   O(suma de grados de los tocados) por mutación: no depende de n, pero tampoco es constante.
+ * - MUESTREO: valida una muestra aleatoria de clientes, sin importar cuáles se tocaron.
+ *
+ * Además puede correr una auditoría COMPLETA periódica en un hilo de fondo. Como la red no
+ * bloquea a sus escritores, la auditoría usa la secuencia de escritura de la red al estilo
+ * seqlock: si hubo (o hay) una escritura mientras verificaba, el resultado se descarta.
+ */
+public class VerificadorInvariantes {
+
+    public enum Modo { COMPLETO, INCREMENTAL, MUESTREO }
+
+    private final BooleanSupplier chequeoCompleto;
+    private final Predicate<Cliente> chequeoLocal;
+    private final Supplier<Cliente> muestra;
+    private final BooleanSupplier chequeoGlobalRapido;
+
+    private volatile Modo modo;
+    private volatile int tamanioMuestra = 16;
+
+    // --- Auditoría de fondo ---
+    private ScheduledExecutorService auditor;
+    private final AtomicLong auditoriasRealizadas = new AtomicLong();
+    private final AtomicLong auditoriasDescartadas = new AtomicLong();
+    private final AtomicLong fallasDetectadas = new AtomicLong();
+
+    /**
+     * @param chequeoCompleto     invariante completo de la red
+     * @param chequeoLocal        invariante de un cliente y sus referencias directas
+     * @param muestra             devuelve un cliente al azar de la red (o null si está vacía)
+     * @param chequeoGlobalRapido verificaciones O(1) que se hacen siempre (tamaños de índices)
+     */
+    public VerificadorInvariantes(BooleanSupplier chequeoCompleto, Predicate<Cliente> chequeoLocal,
+                                  Supplier<Cliente> muestra, BooleanSupplier chequeoGlobalRapido) {
+        this.chequeoCompleto = chequeoCompleto;
+        this.chequeoLocal = chequeoLocal;
+        this.muestra = muestra;
+        this.chequeoGlobalRapido = chequeoGlobalRapido;
+        this.modo = Modo.valueOf(System.getProperty("red.invariantes", Modo.INCREMENTAL.name()).toUpperCase());
+    }
+
+    public Modo getModo() { return modo; }
+
+    public void setModo(Modo modo) { this.modo = modo; }
+
+    public int getTamanioMuestra() { return tamanioMuestra; }
+
+    public void setTamanioMuestra(int tamanioMuestra) {
+        if (tamanioMuestra < 1) throw new IllegalArgumentException("La muestra debe tener al menos un cliente.");
+        this.tamanioMuestra = tamanioMuestra;
+    }
+
+    /**
+     * Verifica el invariante según el modo actual. Pensado para usarse dentro de un assert.
+     */
+    public boolean verificar(Iterable<Cliente> tocados) {
+        switch (modo) {
+            case COMPLETO:
+                return chequeoCompleto.getAsBoolean();
+
+            case INCREMENTAL:
+                if (!chequeoGlobalRapido.getAsBoolean()) return false;
+                for (Cliente c : tocados) {
+                    if (c != null && !chequeoLocal.test(c)) return false;
+                }
+                return true;
+
+            case MUESTREO:
+                if (!chequeoGlobalRapido.getAsBoolean()) return false;
+                for (int i = 0; i < tamanioMuestra; i++) {
+                    Cliente c = muestra.get();
+                    if (c != null && !chequeoLocal.test(c)) return false;
+                }
+                return true;
+
+            default:
+                return true;
+        }
+    }
+
+    // ==========================================
+    // --- AUDITORÍA PERIÓDICA EN SEGUNDO PLANO ---
+    // ==========================================
+
+    /**
+     * Lanza una auditoría completa cada {@code periodoMs} en un hilo demonio.
+     * @param secuenciaEscritura secuencia de la red: impar mientras hay una escritura en curso.
+     */
+    public synchronized void iniciarAuditoria(long periodoMs, LongSupplier secuenciaEscritura) {
+        if (periodoMs <= 0) throw new IllegalArgumentException("El período debe ser positivo.");
+        detenerAuditoria();
+        auditor = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "auditoria-invariantes");
+            t.setDaemon(true);
+            return t;
+        });
+        auditor.scheduleWithFixedDelay(() -> auditar(secuenciaEscritura), periodoMs, periodoMs, TimeUnit.MILLISECONDS);
+    }
+
+    public synchronized void detenerAuditoria() {
+        if (auditor != null) {
+            auditor.shutdownNow();
+            auditor = null;
+        }
+    }
+
+    private void auditar(LongSupplier secuenciaEscritura) {
+        long antes = secuenciaEscritura.getAsLong();
+        if ((antes & 1) != 0) {
+            auditoriasDescartadas.incrementAndGet(); // Hay una escritura en curso
+            return;
+        }
+        boolean ok;
+        try {
+            ok = chequeoCompleto.getAsBoolean();
+        } catch (RuntimeException e) {
+            ok = false; // Típicamente ConcurrentModificationException: se decide abajo
+        }
+        if (secuenciaEscritura.getAsLong() != antes) {
+            auditoriasDescartadas.incrementAndGet(); // La red cambió durante la verificación
+            return;
+        }
+        auditoriasRealizadas.incrementAndGet();
+        if (!ok) {
+            fallasDetectadas.incrementAndGet();
+            System.out.println("⚠️ AUDITORÍA: El invariante de la red no se cumple.");
+        }
+    }
+
+    public long getAuditoriasRealizadas() { return auditoriasRealizadas.get(); }
+
+    public long getAuditoriasDescartadas() { return auditoriasDescartadas.get(); }
+
+    public long getFallasDetectadas() { return fallasDetectadas.get(); }
+}
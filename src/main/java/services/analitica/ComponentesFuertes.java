@@ -0,0 +1,253 @@
+package services.analitica;
+
+import models.Cliente;
+import utils.TDA.GrafoIndexado;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Componentes fuertemente conexas de la red de seguimientos (grupos que se siguen en ciclo) y
+ * cantidad de clientes que cada uno alcanza siguiendo cadenas de seguimientos.
+ *
+ * 1. Tarjan iterativo (pilas explícitas, sin recursión): O(n + m). Numera las componentes en
+ *    orden topológico inverso, así los sucesores de una componente siempre tienen número menor.
+ * 2. DAG de condensación sin aristas repetidas: O(n + m).
+ * 3. Alcances exactos sobre el DAG. Sumar los alcances de los sucesores contaría dos veces lo que
+ *    se alcanza por dos caminos, así que se propaga la unión como bitset: cada pasada lineal
+ *    cubre 64 componentes destino a la vez y memoiza la máscara de cada componente en orden
+ *    topológico inverso. Las pasadas son independientes y se reparten con fork/join, y cada una
+ *    arranca desde su primer destino (las componentes menores no pueden alcanzarlo).
+ *    Trabajo: O((c / 64) * (c + e)) operaciones de palabra, con c componentes y e aristas del DAG,
+ *    en lugar de una BFS por cliente.
+ */
+public class ComponentesFuertes {
+    private static final int SIN_VISITAR = -1;
+
+    private final ForkJoinPool pool;
+
+    public ComponentesFuertes() {
+        this(ForkJoinPool.commonPool());
+    }
+
+    public ComponentesFuertes(ForkJoinPool pool) {
+        this.pool = pool;
+    }
+
+    /**
+     * Componente y alcance por cliente, en arreglos indexados como la foto del grafo.
+     */
+    public static final class Resultado {
+        private final GrafoIndexado grafo;
+        private final int[] componente;
+        private final int[] tamanios;
+        private final int[] alcances;
+
+        private Resultado(GrafoIndexado grafo, int[] componente, int[] tamanios, int[] alcances) {
+            this.grafo = grafo;
+            this.componente = componente;
+            this.tamanios = tamanios;
+            this.alcances = alcances;
+        }
+
+        public GrafoIndexado getGrafo() { return grafo; }
+
+        public int cantidadComponentes() { return tamanios.length; }
+
+        /**
+         * Número de componente de cada nodo (orden topológico inverso del DAG de condensación).
+         */
+        public int[] getComponentes() { return componente; }
+
+        public int[] getTamanios() { return tamanios; }
+
+        /**
+         * Cantidad de otros clientes que cada nodo alcanza por seguimientos (directos o indirectos).
+         */
+        public int[] getAlcances() { return alcances; }
+
+        public int componenteDe(Cliente c) {
+            int i = grafo.indiceDe(c);
+            return (i < 0) ? -1 : componente[i];
+        }
+
+        public int alcanceDe(Cliente c) {
+            int i = grafo.indiceDe(c);
+            return (i < 0) ? 0 : alcances[i];
+        }
+
+        public boolean mismoCiclo(Cliente a, Cliente b) {
+            int i = grafo.indiceDe(a), j = grafo.indiceDe(b);
+            return i >= 0 && j >= 0 && componente[i] == componente[j];
+        }
+
+        /**
+         * Grupos de dos o más clientes que se siguen en ciclo, del más grande al más chico.
+         */
+        public List<List<Cliente>> ciclos() {
+            List<List<Cliente>> grupos = new ArrayList<>();
+            int[] posicion = new int[tamanios.length];
+            Arrays.fill(posicion, -1);
+            for (int v = 0; v < componente.length; v++) {
+                int c = componente[v];
+                if (tamanios[c] < 2) continue;
+                if (posicion[c] < 0) {
+                    posicion[c] = grupos.size();
+                    grupos.add(new ArrayList<>(tamanios[c]));
+                }
+                grupos.get(posicion[c]).add(grafo.getCliente(v));
+            }
+            grupos.sort((x, y) -> Integer.compare(y.size(), x.size()));
+            return grupos;
+        }
+    }
+
+    public Resultado analizar(GrafoIndexado grafo) {
+        int n = grafo.cantidadNodos();
+        int[] componente = new int[n];
+        int c = tarjan(grafo, componente);
+
+        int[] tamanios = new int[c];
+        for (int v = 0; v < n; v++) tamanios[componente[v]]++;
+
+        // DAG de condensación en CSR, sin aristas repetidas ni lazos
+        int[] inicio = new int[c + 1];
+        int[] sucesores = condensar(grafo, componente, c, inicio);
+
+        long[] alcancePorComponente = alcances(c, tamanios, inicio, sucesores);
+        int[] alcances = new int[n];
+        for (int v = 0; v < n; v++) alcances[v] = (int) (alcancePorComponente[componente[v]] - 1);
+        return new Resultado(grafo, componente, tamanios, alcances);
+    }
+
+    // ==========================================
+    // --- TARJAN ITERATIVO ---
+    // ==========================================
+
+    // Llena componente[] y devuelve la cantidad de componentes
+    private static int tarjan(GrafoIndexado grafo, int[] componente) {
+        int n = grafo.cantidadNodos();
+        int[] indice = new int[n];
+        int[] bajo = new int[n];
+        int[] cursor = new int[n];     // próxima arista a explorar de cada nodo
+        int[] llamadas = new int[n];   // pila que reemplaza a la recursión
+        int[] pila = new int[n];       // pila de Tarjan
+        Arrays.fill(indice, SIN_VISITAR);
+        Arrays.fill(componente, SIN_VISITAR);
+
+        int contador = 0, componentes = 0, tope = 0;
+        for (int origen = 0; origen < n; origen++) {
+            if (indice[origen] != SIN_VISITAR) continue;
+
+            int profundidad = 0;
+            indice[origen] = bajo[origen] = contador++;
+            cursor[origen] = grafo.inicioSalida(origen);
+            pila[tope++] = origen;
+            llamadas[profundidad++] = origen;
+
+            while (profundidad > 0) {
+                int v = llamadas[profundidad - 1];
+                if (cursor[v] < grafo.finSalida(v)) {
+                    int w = grafo.vecinoSalida(cursor[v]++);
+                    if (indice[w] == SIN_VISITAR) {
+                        indice[w] = bajo[w] = contador++;
+                        cursor[w] = grafo.inicioSalida(w);
+                        pila[tope++] = w;
+                        llamadas[profundidad++] = w;
+                    } else if (componente[w] == SIN_VISITAR) {
+                        bajo[v] = Math.min(bajo[v], indice[w]); // w sigue en la pila de Tarjan
+                    }
+                    continue;
+                }
+
+                // v terminó: si es raíz se cierra su componente
+                profundidad--;
+                if (bajo[v] == indice[v]) {
+                    int w;
+                    do {
+                        w = pila[--tope];
+                        componente[w] = componentes;
+                    } while (w != v);
+                    componentes++;
+                }
+                if (profundidad > 0) {
+                    int padre = llamadas[profundidad - 1];
+                    bajo[padre] = Math.min(bajo[padre], bajo[v]);
+                }
+            }
+        }
+        return componentes;
+    }
+
+    private static int[] condensar(GrafoIndexado grafo, int[] componente, int c, int[] inicio) {
+        int n = grafo.cantidadNodos();
+
+        // Nodos agrupados por componente (conteo), para recorrer cada componente de corrido
+        int[] inicioMiembros = new int[c + 1];
+        for (int v = 0; v < n; v++) inicioMiembros[componente[v] + 1]++;
+        for (int k = 0; k < c; k++) inicioMiembros[k + 1] += inicioMiembros[k];
+        int[] miembros = new int[n];
+        int[] cursor = Arrays.copyOf(inicioMiembros, c);
+        for (int v = 0; v < n; v++) miembros[cursor[componente[v]]++] = v;
+
+        int[] marca = new int[c];
+        Arrays.fill(marca, SIN_VISITAR);
+        int[] sucesores = new int[Math.max(1, grafo.cantidadAristas())];
+        int total = 0;
+        for (int k = 0; k < c; k++) {
+            inicio[k] = total;
+            for (int p = inicioMiembros[k]; p < inicioMiembros[k + 1]; p++) {
+                int v = miembros[p];
+                for (int e = grafo.inicioSalida(v); e < grafo.finSalida(v); e++) {
+                    int d = componente[grafo.vecinoSalida(e)];
+                    if (d != k && marca[d] != k) {
+                        marca[d] = k;
+                        sucesores[total++] = d;
+                    }
+                }
+            }
+        }
+        inicio[c] = total;
+        return Arrays.copyOf(sucesores, total);
+    }
+
+    // ==========================================
+    // --- ALCANCES (BITSETS POR PASADAS DE 64) ---
+    // ==========================================
+
+    // Cantidad de clientes alcanzables desde cada componente, incluida ella misma
+    private long[] alcances(int c, int[] tamanios, int[] inicio, int[] sucesores) {
+        AtomicLongArray acumulado = new AtomicLongArray(c);
+        int pasadas = (c + 63) >>> 6;
+        // Varias pasadas por tarea para reutilizar el arreglo de máscaras, pero las suficientes tareas para todos los hilos
+        int porTarea = Math.max(1, pasadas / (4 * pool.getParallelism()));
+        RepartoParalelo.en(pool, pasadas, porTarea, (desde, hasta) -> {
+            long[] mascara = new long[c];
+            for (int pasada = desde; pasada < hasta; pasada++) {
+                int primero = pasada << 6, ultimo = Math.min(c, primero + 64);
+                // Sucesores con número menor: recorriendo en orden creciente ya están calculados
+                for (int k = primero; k < c; k++) {
+                    long m = (k < ultimo) ? 1L << (k - primero) : 0L;
+                    for (int e = inicio[k]; e < inicio[k + 1]; e++) {
+                        int d = sucesores[e];
+                        if (d >= primero) m |= mascara[d];
+                    }
+                    mascara[k] = m;
+                    if (m == 0) continue;
+                    long suma = 0;
+                    for (long bits = m; bits != 0; bits &= bits - 1) {
+                        suma += tamanios[primero + Long.numberOfTrailingZeros(bits)];
+                    }
+                    acumulado.getAndAdd(k, suma);
+                }
+            }
+        });
+
+        long[] resultado = new long[c];
+        for (int k = 0; k < c; k++) resultado[k] = acumulado.get(k);
+        return resultado;
+    }
+}
@@ -0,0 +1,164 @@
+package services.analitica;
+
+import models.Cliente;
+import utils.TDA.GrafoIndexado;
+
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Conteo de triángulos y coeficientes de clustering sobre la foto de amistades ({@link GrafoIndexado}).
+ *
+ * Los nodos se ordenan por grado y cada arista se orienta del nodo de menor rango al de mayor
+ * rango, así cada triángulo se encuentra una sola vez (desde su vértice de menor rango) y ninguna
+ * lista orientada supera O(sqrt(m)) vecinos. Cada nodo interseca su lista con la de cada vecino
+ * (mezcla de listas ordenadas) y los nodos se reparten entre hilos con fork/join.
+ * Complejidad: O(m sqrt(m)) de trabajo total, memoria O(n + m) en arreglos primitivos.
+ */
+public class ContadorTriangulos {
+    private static final int UMBRAL_TAREA = 256;
+
+    private final ForkJoinPool pool;
+
+    public ContadorTriangulos() {
+        this(ForkJoinPool.commonPool());
+    }
+
+    public ContadorTriangulos(ForkJoinPool pool) {
+        this.pool = pool;
+    }
+
+    /**
+     * Resultado por cliente en arreglos indexados como la foto del grafo (no se copian al leerlos).
+     */
+    public static final class Resultado {
+        private final GrafoIndexado grafo;
+        private final long[] triangulos;
+        private final double[] coeficientes;
+        private final long total;
+        private final long caminosDeDos; // Pares de vecinos por nodo: d * (d - 1) / 2
+
+        private Resultado(GrafoIndexado grafo, long[] triangulos, double[] coeficientes, long total, long caminosDeDos) {
+            this.grafo = grafo;
+            this.triangulos = triangulos;
+            this.coeficientes = coeficientes;
+            this.total = total;
+            this.caminosDeDos = caminosDeDos;
+        }
+
+        public GrafoIndexado getGrafo() { return grafo; }
+
+        public long[] getTriangulosPorNodo() { return triangulos; }
+
+        public double[] getCoeficientes() { return coeficientes; }
+
+        public long getTotalTriangulos() { return total; }
+
+        public long triangulosDe(Cliente c) {
+            int i = grafo.indiceDe(c);
+            return (i < 0) ? 0 : triangulos[i];
+        }
+
+        /**
+         * Coeficiente de clustering local: fracción de pares de amigos que también son amigos entre sí.
+         */
+        public double coeficienteDe(Cliente c) {
+            int i = grafo.indiceDe(c);
+            return (i < 0) ? 0.0 : coeficientes[i];
+        }
+
+        /**
+         * Promedio de los coeficientes locales (los nodos con menos de dos amigos cuentan como 0).
+         */
+        public double coeficientePromedio() {
+            if (coeficientes.length == 0) return 0.0;
+            double suma = 0;
+            for (double c : coeficientes) suma += c;
+            return suma / coeficientes.length;
+        }
+
+        /**
+         * Coeficiente global (transitividad): 3 * triángulos / caminos de longitud dos.
+         */
+        public double transitividad() {
+            return (caminosDeDos == 0) ? 0.0 : 3.0 * total / caminosDeDos;
+        }
+    }
+
+    public Resultado contar(GrafoIndexado grafo) {
+        int n = grafo.cantidadNodos();
+
+        // 1. Rango por grado (desempate por índice): clave = grado en los 32 bits altos
+        long[] claves = new long[n];
+        for (int i = 0; i < n; i++) claves[i] = ((long) grafo.gradoSalida(i) << 32) | i;
+        Arrays.parallelSort(claves);
+        int[] orden = new int[n];  // rango -> índice
+        int[] rango = new int[n];  // índice -> rango
+        for (int r = 0; r < n; r++) {
+            orden[r] = (int) claves[r];
+            rango[orden[r]] = r;
+        }
+
+        // 2. CSR orientado en el espacio de rangos: solo los vecinos de rango mayor, ordenados
+        int[] inicio = new int[n + 1];
+        for (int r = 0; r < n; r++) {
+            int v = orden[r], mayores = 0;
+            for (int k = grafo.inicioSalida(v); k < grafo.finSalida(v); k++) {
+                if (rango[grafo.vecinoSalida(k)] > r) mayores++;
+            }
+            inicio[r + 1] = inicio[r] + mayores;
+        }
+        int[] vecinos = new int[inicio[n]];
+        RepartoParalelo.en(pool, n, UMBRAL_TAREA, (desde, hasta) -> {
+            for (int r = desde; r < hasta; r++) {
+                int v = orden[r], k = inicio[r];
+                for (int e = grafo.inicioSalida(v); e < grafo.finSalida(v); e++) {
+                    int w = rango[grafo.vecinoSalida(e)];
+                    if (w > r) vecinos[k++] = w;
+                }
+                Arrays.sort(vecinos, inicio[r], inicio[r + 1]);
+            }
+        });
+
+        // 3. Cada triángulo r < s < t aparece una vez: t está en las listas de r y de s
+        AtomicLongArray porRango = new AtomicLongArray(n);
+        RepartoParalelo.en(pool, n, UMBRAL_TAREA, (desde, hasta) -> {
+            for (int r = desde; r < hasta; r++) {
+                long propios = 0;
+                int fin = inicio[r + 1];
+                for (int k = inicio[r]; k < fin; k++) {
+                    int s = vecinos[k];
+                    // Los t > s de r están después de s en su lista
+                    int i = k + 1, j = inicio[s], finS = inicio[s + 1];
+                    while (i < fin && j < finS) {
+                        if (vecinos[i] < vecinos[j]) i++;
+                        else if (vecinos[i] > vecinos[j]) j++;
+                        else {
+                            propios++;
+                            porRango.getAndIncrement(s);
+                            porRango.getAndIncrement(vecinos[i]);
+                            i++;
+                            j++;
+                        }
+                    }
+                }
+                if (propios != 0) porRango.getAndAdd(r, propios);
+            }
+        });
+
+        // 4. De vuelta a los índices de la foto
+        long[] triangulos = new long[n];
+        double[] coeficientes = new double[n];
+        long suma = 0, caminosDeDos = 0;
+        for (int i = 0; i < n; i++) {
+            triangulos[i] = porRango.get(rango[i]);
+            long d = grafo.gradoSalida(i);
+            long pares = d * (d - 1) / 2;
+            coeficientes[i] = (pares == 0) ? 0.0 : (double) triangulos[i] / pares;
+            suma += triangulos[i];
+            caminosDeDos += pares;
+        }
+        return new Resultado(grafo, triangulos, coeficientes, suma / 3, caminosDeDos);
+    }
+}
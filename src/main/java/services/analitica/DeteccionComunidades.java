@@ -0,0 +1,603 @@
+package services.analitica;
+
+import models.Cliente;
+import utils.TDA.GrafoIndexado;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Detección de comunidades sobre la foto de amistades ({@link GrafoIndexado}).
+ *
+ * - Propagación de etiquetas (por defecto): cada cliente adopta la etiqueta más común entre sus
+ *   amigos. Para que el resultado sea determinista aun en paralelo, el grafo se colorea (greedy,
+ *   con un orden sorteado a partir de la semilla) y cada clase de color se actualiza en paralelo:
+ *   sus nodos no son vecinos entre sí, así que el resultado es el de un recorrido secuencial.
+ *   Solo se reevalúan los nodos "activos" (con algún vecino que cambió en la vuelta anterior),
+ *   que se llevan en una lista de trabajo: cada vuelta cuesta O(a log a) con a = activos, no O(n).
+ * - Louvain (opcional): movimientos locales que maximizan la modularidad, agregando cada
+ *   comunidad en un nodo y repitiendo. Los mejores movimientos de una clase de color se calculan
+ *   en paralelo y se aplican en orden de índice.
+ *
+ * Incremental: con el resultado anterior, cada cliente arranca con su comunidad previa (los nuevos,
+ * con una etiqueta propia) y la propagación solo activa a los clientes cuyas amistades cambiaron
+ * y a sus vecinos; el coloreo anterior se reutiliza y solo se recolorean esos clientes. Así, tras
+ * un crearAmistad o un lote de bajas, las vueltas de propagación trabajan sobre la zona afectada.
+ * La corrida igual hace unas pocas pasadas lineales O(n + m), una vez cada una: copiar la foto,
+ * compararla con la anterior, separar las comunidades partidas y calcular la modularidad (el mismo
+ * orden que tomar la foto). Si la foto es la misma del resultado anterior, se devuelve ese
+ * resultado sin recalcular. Louvain usa la partición previa como punto de partida.
+ *
+ * Al final las comunidades que quedaron partidas en varios pedazos se separan y los ids se
+ * compactan a [0, k) en orden de aparición.
+ */
+public class DeteccionComunidades {
+    public enum Metodo { PROPAGACION_ETIQUETAS, LOUVAIN }
+
+    public static final int ITERACIONES_POR_DEFECTO = 50;
+
+    private static final int UMBRAL_TAREA = 1024;
+
+    private final long semilla;
+    private final int iteracionesMaximas;
+    private final ForkJoinPool pool;
+
+    public DeteccionComunidades() {
+        this(0L, ITERACIONES_POR_DEFECTO, ForkJoinPool.commonPool());
+    }
+
+    public DeteccionComunidades(long semilla, int iteracionesMaximas, ForkJoinPool pool) {
+        if (iteracionesMaximas <= 0) throw new IllegalArgumentException("Debe haber al menos una iteración.");
+        this.semilla = semilla;
+        this.iteracionesMaximas = iteracionesMaximas;
+        this.pool = pool;
+    }
+
+    /**
+     * Comunidad por cliente, en arreglos indexados como la foto del grafo.
+     */
+    public static final class Resultado {
+        private final GrafoIndexado grafo;
+        private final Metodo metodo;
+        private final int[] comunidad;
+        private final int[] tamanios;
+        private final double modularidad;
+        private final int iteraciones;
+        private final int reevaluados;
+        private final int[] color; // Coloreo usado por la propagación (null con Louvain)
+
+        private Resultado(GrafoIndexado grafo, Metodo metodo, int[] comunidad, int[] tamanios,
+                          double modularidad, int iteraciones, int reevaluados, int[] color) {
+            this.grafo = grafo;
+            this.metodo = metodo;
+            this.comunidad = comunidad;
+            this.tamanios = tamanios;
+            this.modularidad = modularidad;
+            this.iteraciones = iteraciones;
+            this.reevaluados = reevaluados;
+            this.color = color;
+        }
+
+        public GrafoIndexado getGrafo() { return grafo; }
+
+        public Metodo getMetodo() { return metodo; }
+
+        public int[] getComunidades() { return comunidad; }
+
+        public int[] getTamanios() { return tamanios; }
+
+        public int cantidadComunidades() { return tamanios.length; }
+
+        public double getModularidad() { return modularidad; }
+
+        public int getIteraciones() { return iteraciones; }
+
+        /**
+         * Evaluaciones de nodos hechas por la propagación (mide el trabajo de una corrida incremental).
+         */
+        public int getReevaluados() { return reevaluados; }
+
+        public int comunidadDe(Cliente c) {
+            int i = grafo.indiceDe(c);
+            return (i < 0) ? -1 : comunidad[i];
+        }
+
+        public List<Cliente> miembrosDe(int id) {
+            List<Cliente> miembros = new ArrayList<>();
+            for (int v = 0; v < comunidad.length; v++) {
+                if (comunidad[v] == id) miembros.add(grafo.getCliente(v));
+            }
+            return miembros;
+        }
+    }
+
+    /**
+     * Corre la detección en el pool. La foto ya es inmutable, así que la red puede seguir cambiando.
+     */
+    public CompletableFuture<Resultado> detectarAsync(GrafoIndexado grafo, Metodo metodo, Resultado previo) {
+        return CompletableFuture.supplyAsync(() -> detectar(grafo, metodo, previo), pool);
+    }
+
+    /**
+     * @param previo Resultado anterior (de otra foto) para continuar desde sus comunidades, o null.
+     */
+    public Resultado detectar(GrafoIndexado grafo, Metodo metodo, Resultado previo) {
+        if (previo != null && previo.grafo == grafo && previo.metodo == metodo && metodo == Metodo.PROPAGACION_ETIQUETAS) {
+            // Misma foto: la propagación no tendría ningún nodo activo
+            return new Resultado(grafo, metodo, previo.comunidad, previo.tamanios, previo.modularidad, 0, 0, previo.color);
+        }
+
+        Ponderado g = Ponderado.desde(grafo);
+        int n = g.n;
+        int[] etiqueta = new int[n];
+        byte[] activo = new byte[n];
+        int[] indicePrevio = new int[n];
+        inicializar(grafo, previo, etiqueta, activo, indicePrevio);
+
+        int[] contadores = new int[2]; // {iteraciones, reevaluados}
+        int[] color = null;
+        if (metodo == Metodo.LOUVAIN) {
+            louvain(g, etiqueta, contadores);
+        } else {
+            color = (previo != null && previo.color != null)
+                    ? recolorear(g, previo.color, indicePrevio, activo)
+                    : colorear(g, semilla);
+            int cantidad = 0;
+            int[] activos = new int[n];
+            for (int v = 0; v < n; v++) if (activo[v] != 0) activos[cantidad++] = v;
+            propagar(g, color, etiqueta, activos, cantidad, contadores);
+        }
+
+        int k = separarYCompactar(g, etiqueta);
+        int[] tamanios = new int[k];
+        for (int c : etiqueta) tamanios[c]++;
+        return new Resultado(grafo, metodo, etiqueta, tamanios, modularidad(g, etiqueta, k), contadores[0], contadores[1], color);
+    }
+
+    // Etiquetas iniciales y nodos activos: todos, o con un resultado previo los que cambiaron (2)
+    // y sus vecinos (1). indicePrevio[i] queda con el índice del nodo en la foto previa (-1 si es nuevo).
+    private static void inicializar(GrafoIndexado grafo, Resultado previo, int[] etiqueta, byte[] activo, int[] indicePrevio) {
+        int n = grafo.cantidadNodos();
+        if (previo == null) {
+            for (int i = 0; i < n; i++) etiqueta[i] = i;
+            Arrays.fill(activo, (byte) 1);
+            return;
+        }
+
+        GrafoIndexado viejo = previo.grafo;
+        int base = previo.cantidadComunidades();
+        int[] marca = new int[viejo.cantidadNodos()];
+        Arrays.fill(marca, -1);
+        for (int i = 0; i < n; i++) {
+            int j = viejo.indiceDe(grafo.getCliente(i));
+            indicePrevio[i] = j;
+            boolean cambio;
+            if (j < 0) {
+                etiqueta[i] = base + i; // Cliente nuevo: etiqueta propia
+                cambio = true;
+            } else {
+                etiqueta[i] = previo.comunidad[j];
+                cambio = grafo.gradoSalida(i) != viejo.gradoSalida(j);
+                for (int e = viejo.inicioSalida(j); e < viejo.finSalida(j) && !cambio; e++) marca[viejo.vecinoSalida(e)] = i;
+                for (int e = grafo.inicioSalida(i); e < grafo.finSalida(i) && !cambio; e++) {
+                    int anterior = viejo.indiceDe(grafo.getCliente(grafo.vecinoSalida(e)));
+                    cambio = anterior < 0 || marca[anterior] != i;
+                }
+            }
+            if (cambio) {
+                activo[i] = 2;
+                for (int e = grafo.inicioSalida(i); e < grafo.finSalida(i); e++) {
+                    int u = grafo.vecinoSalida(e);
+                    if (activo[u] == 0) activo[u] = 1;
+                }
+            }
+        }
+    }
+
+    // ==========================================
+    // --- PROPAGACIÓN DE ETIQUETAS ---
+    // ==========================================
+
+    // Cada vuelta ordena los activos por color y recorre las clases en orden; los vecinos de los que
+    // cambiaron de etiqueta forman la lista de la vuelta siguiente (activos tiene lugar para n)
+    private void propagar(Ponderado g, int[] color, int[] etiqueta, int[] activos, int cantidad, int[] contadores) {
+        int[] enLista = new int[g.n]; // Vuelta (+1) en la que el nodo ya entró a la lista siguiente
+
+        for (int iteracion = 0; iteracion < iteracionesMaximas && cantidad > 0; iteracion++) {
+            long[] claves = new long[cantidad];
+            for (int p = 0; p < cantidad; p++) claves[p] = ((long) color[activos[p]] << 32) | activos[p];
+            Arrays.sort(claves);
+            int[] orden = new int[cantidad];
+            for (int p = 0; p < cantidad; p++) orden[p] = (int) claves[p];
+
+            byte[] cambio = new byte[cantidad];
+            for (int inicioClase = 0; inicioClase < cantidad; ) {
+                int finClase = inicioClase;
+                while (finClase < cantidad && (claves[finClase] >>> 32) == (claves[inicioClase] >>> 32)) finClase++;
+                int base = inicioClase;
+                RepartoParalelo.en(pool, finClase - inicioClase, UMBRAL_TAREA, (desde, hasta) -> {
+                    int[] vecinas = new int[g.gradoMaximo(orden, base + desde, base + hasta)];
+                    for (int p = base + desde; p < base + hasta; p++) {
+                        int v = orden[p];
+                        int nueva = etiquetaMayoritaria(g, v, etiqueta, vecinas);
+                        if (nueva != etiqueta[v]) {
+                            etiqueta[v] = nueva;
+                            cambio[p] = 1;
+                        }
+                    }
+                });
+                inicioClase = finClase;
+            }
+            contadores[0]++;
+            contadores[1] += cantidad;
+
+            int siguientes = 0;
+            for (int p = 0; p < cantidad; p++) {
+                if (cambio[p] == 0) continue;
+                int v = orden[p];
+                for (int e = g.inicio[v]; e < g.inicio[v + 1]; e++) {
+                    int u = g.vecino[e];
+                    if (enLista[u] == iteracion + 1) continue;
+                    enLista[u] = iteracion + 1;
+                    activos[siguientes++] = u;
+                }
+            }
+            cantidad = siguientes;
+        }
+    }
+
+    // La más frecuente entre los vecinos; si la actual empata con la máxima se conserva, si no
+    // el empate se rompe con un hash de la etiqueta y la semilla
+    private int etiquetaMayoritaria(Ponderado g, int v, int[] etiqueta, int[] vecinas) {
+        int grado = g.inicio[v + 1] - g.inicio[v];
+        if (grado == 0) return etiqueta[v];
+        for (int e = g.inicio[v], k = 0; e < g.inicio[v + 1]; e++) vecinas[k++] = etiqueta[g.vecino[e]];
+        Arrays.sort(vecinas, 0, grado);
+
+        int actual = etiqueta[v], cuentaActual = 0;
+        int mejor = actual, cuentaMejor = 0;
+        long hashMejor = Long.MAX_VALUE;
+        for (int i = 0; i < grado; ) {
+            int j = i;
+            while (j < grado && vecinas[j] == vecinas[i]) j++;
+            int etiquetaRun = vecinas[i], cuenta = j - i;
+            if (etiquetaRun == actual) cuentaActual = cuenta;
+            long h = mezclar(etiquetaRun ^ semilla);
+            if (cuenta > cuentaMejor || (cuenta == cuentaMejor && h < hashMejor)) {
+                mejor = etiquetaRun;
+                cuentaMejor = cuenta;
+                hashMejor = h;
+            }
+            i = j;
+        }
+        return (cuentaActual == cuentaMejor) ? actual : mejor;
+    }
+
+    // ==========================================
+    // --- LOUVAIN ---
+    // ==========================================
+
+    private void louvain(Ponderado g0, int[] etiqueta, int[] contadores) {
+        int n0 = g0.n;
+        int[] nodoEnNivel = new int[n0];   // nodo original -> nodo del nivel actual
+        for (int i = 0; i < n0; i++) nodoEnNivel[i] = i;
+
+        Ponderado g = g0;
+        int[] comunidad = Arrays.copyOf(etiqueta, n0);
+        compactar(comunidad);
+        while (true) {
+            moverLocal(g, comunidad, contadores);
+            int k = compactar(comunidad);
+            for (int i = 0; i < n0; i++) nodoEnNivel[i] = comunidad[nodoEnNivel[i]];
+            if (k == g.n) break; // Nada se agrupó: no hay más niveles
+            g = agregar(g, comunidad, k);
+            comunidad = new int[k];
+            for (int c = 0; c < k; c++) comunidad[c] = c;
+        }
+        System.arraycopy(nodoEnNivel, 0, etiqueta, 0, n0);
+    }
+
+    private void moverLocal(Ponderado g, int[] comunidad, int[] contadores) {
+        double m2 = 0;
+        double[] total = new double[g.n];
+        for (int v = 0; v < g.n; v++) {
+            m2 += g.grado[v];
+            total[comunidad[v]] += g.grado[v];
+        }
+        if (m2 == 0) return;
+        int[][] clases = clases(colorear(g, semilla));
+        final double dobleM = m2;
+
+        for (int iteracion = 0; iteracion < iteracionesMaximas; iteracion++) {
+            int movidos = 0;
+            for (int[] clase : clases) {
+                int[] destino = new int[clase.length];
+                RepartoParalelo.en(pool, clase.length, UMBRAL_TAREA, (desde, hasta) -> {
+                    long[] claves = new long[g.gradoMaximo(clase, desde, hasta)];
+                    for (int p = desde; p < hasta; p++) {
+                        destino[p] = mejorComunidad(g, clase[p], comunidad, total, dobleM, claves);
+                    }
+                });
+                // Se aplican en orden: el resultado no depende de cómo se repartió la clase
+                for (int p = 0; p < clase.length; p++) {
+                    int v = clase[p], d = destino[p];
+                    if (d == comunidad[v]) continue;
+                    total[comunidad[v]] -= g.grado[v];
+                    total[d] += g.grado[v];
+                    comunidad[v] = d;
+                    movidos++;
+                }
+                contadores[1] += clase.length;
+            }
+            contadores[0]++;
+            if (movidos == 0) return;
+        }
+    }
+
+    // Comunidad vecina con mayor ganancia de modularidad; ante empates se queda donde está
+    private static int mejorComunidad(Ponderado g, int v, int[] comunidad, double[] total, double m2, long[] claves) {
+        int actual = comunidad[v];
+        double kv = g.grado[v];
+        int cantidad = 0;
+        for (int e = g.inicio[v]; e < g.inicio[v + 1]; e++) {
+            if (g.vecino[e] != v) claves[cantidad++] = ((long) comunidad[g.vecino[e]] << 32) | e;
+        }
+        Arrays.sort(claves, 0, cantidad);
+
+        // Ganancia de entrar a c (con v ya sacado de la suya): peso hacia c - total[c] * kv / 2m
+        double pesoActual = 0, mejorGanancia = Double.NEGATIVE_INFINITY;
+        int mejor = actual;
+        for (int i = 0; i < cantidad; ) {
+            int c = (int) (claves[i] >>> 32);
+            double peso = 0;
+            for (; i < cantidad && (int) (claves[i] >>> 32) == c; i++) peso += g.peso[(int) claves[i]];
+            if (c == actual) {
+                pesoActual = peso;
+                continue;
+            }
+            double ganancia = peso - total[c] * kv / m2;
+            if (ganancia > mejorGanancia) {
+                mejor = c;
+                mejorGanancia = ganancia;
+            }
+        }
+        return (mejorGanancia > pesoActual - (total[actual] - kv) * kv / m2 + 1e-12) ? mejor : actual;
+    }
+
+    // Cada comunidad pasa a ser un nodo; las aristas internas quedan como lazo (peso = suma de ambos sentidos)
+    private static Ponderado agregar(Ponderado g, int[] comunidad, int k) {
+        int[] inicioMiembros = new int[k + 1];
+        for (int v = 0; v < g.n; v++) inicioMiembros[comunidad[v] + 1]++;
+        for (int c = 0; c < k; c++) inicioMiembros[c + 1] += inicioMiembros[c];
+        int[] miembros = new int[g.n];
+        int[] cursor = Arrays.copyOf(inicioMiembros, k);
+        for (int v = 0; v < g.n; v++) miembros[cursor[comunidad[v]]++] = v;
+
+        int[] inicio = new int[k + 1];
+        int[] vecino = new int[g.vecino.length];
+        double[] peso = new double[g.vecino.length];
+        int[] marca = new int[k];
+        int[] posicion = new int[k];
+        Arrays.fill(marca, -1);
+        int total = 0;
+        for (int c = 0; c < k; c++) {
+            inicio[c] = total;
+            for (int p = inicioMiembros[c]; p < inicioMiembros[c + 1]; p++) {
+                int v = miembros[p];
+                for (int e = g.inicio[v]; e < g.inicio[v + 1]; e++) {
+                    int d = comunidad[g.vecino[e]];
+                    if (marca[d] != c) {
+                        marca[d] = c;
+                        posicion[d] = total;
+                        vecino[total] = d;
+                        peso[total++] = 0;
+                    }
+                    peso[posicion[d]] += g.peso[e];
+                }
+            }
+        }
+        inicio[k] = total;
+        return new Ponderado(k, inicio, Arrays.copyOf(vecino, total), Arrays.copyOf(peso, total));
+    }
+
+    // ==========================================
+    // --- AUXILIARES ---
+    // ==========================================
+
+    /**
+     * Coloreo greedy en un orden sorteado con la semilla: color por nodo, y dos nodos del mismo
+     * color nunca son vecinos.
+     */
+    private static int[] colorear(Ponderado g, long semilla) {
+        int n = g.n;
+        int[] orden = new int[n];
+        for (int i = 0; i < n; i++) orden[i] = i;
+        Random azar = new Random(semilla);
+        for (int i = n - 1; i > 0; i--) {
+            int j = azar.nextInt(i + 1);
+            int t = orden[i];
+            orden[i] = orden[j];
+            orden[j] = t;
+        }
+
+        int[] color = new int[n];
+        Arrays.fill(color, -1);
+        int[] usado = new int[g.gradoMaximo() + 2];
+        Arrays.fill(usado, -1);
+        for (int v : orden) {
+            for (int e = g.inicio[v]; e < g.inicio[v + 1]; e++) {
+                int u = g.vecino[e];
+                if (u != v && color[u] >= 0) usado[color[u]] = v;
+            }
+            int c = 0;
+            while (usado[c] == v) c++;
+            color[v] = c;
+        }
+        return color;
+    }
+
+    /**
+     * Coloreo a partir del de la foto anterior: solo los nodos que cambiaron (activo == 2, los
+     * únicos con aristas nuevas) se recolorean, en orden de índice, si chocan con un vecino.
+     * Complejidad: O(n) para copiar más O(grado) por nodo cambiado.
+     */
+    private static int[] recolorear(Ponderado g, int[] colorPrevio, int[] indicePrevio, byte[] activo) {
+        int[] color = new int[g.n];
+        for (int v = 0; v < g.n; v++) color[v] = (indicePrevio[v] < 0) ? -1 : colorPrevio[indicePrevio[v]];
+        for (int v = 0; v < g.n; v++) {
+            if (activo[v] != 2) continue;
+            int grado = g.inicio[v + 1] - g.inicio[v];
+            boolean choca = color[v] < 0;
+            for (int e = g.inicio[v]; e < g.inicio[v + 1] && !choca; e++) {
+                choca = g.vecino[e] != v && color[g.vecino[e]] == color[v];
+            }
+            if (!choca) continue;
+
+            boolean[] usado = new boolean[grado + 1];
+            for (int e = g.inicio[v]; e < g.inicio[v + 1]; e++) {
+                int c = color[g.vecino[e]];
+                if (g.vecino[e] != v && c >= 0 && c <= grado) usado[c] = true;
+            }
+            int c = 0;
+            while (usado[c]) c++;
+            color[v] = c;
+        }
+        return color;
+    }
+
+    // Nodos de cada color en orden creciente
+    private static int[][] clases(int[] color) {
+        int colores = 0;
+        for (int c : color) colores = Math.max(colores, c + 1);
+        int n = color.length;
+
+        int[] tamanio = new int[colores];
+        for (int v = 0; v < n; v++) tamanio[color[v]]++;
+        int[][] clases = new int[colores][];
+        for (int c = 0; c < colores; c++) clases[c] = new int[tamanio[c]];
+        int[] llenos = new int[colores];
+        for (int v = 0; v < n; v++) clases[color[v]][llenos[color[v]]++] = v;
+        return clases;
+    }
+
+    // Parte las etiquetas que quedaron en pedazos no conectados y compacta los ids a [0, k)
+    private static int separarYCompactar(Ponderado g, int[] etiqueta) {
+        int[] nueva = new int[g.n];
+        Arrays.fill(nueva, -1);
+        int[] cola = new int[g.n];
+        int k = 0;
+        for (int origen = 0; origen < g.n; origen++) {
+            if (nueva[origen] >= 0) continue;
+            int frente = 0, fin = 0;
+            nueva[origen] = k;
+            cola[fin++] = origen;
+            while (frente < fin) {
+                int v = cola[frente++];
+                for (int e = g.inicio[v]; e < g.inicio[v + 1]; e++) {
+                    int u = g.vecino[e];
+                    if (nueva[u] < 0 && etiqueta[u] == etiqueta[origen]) {
+                        nueva[u] = k;
+                        cola[fin++] = u;
+                    }
+                }
+            }
+            k++;
+        }
+        System.arraycopy(nueva, 0, etiqueta, 0, g.n);
+        return k;
+    }
+
+    // Renumera las etiquetas a [0, k) en orden de aparición
+    private static int compactar(int[] etiqueta) {
+        int maximo = -1;
+        for (int e : etiqueta) maximo = Math.max(maximo, e);
+        int[] id = new int[maximo + 1];
+        Arrays.fill(id, -1);
+        int k = 0;
+        for (int i = 0; i < etiqueta.length; i++) {
+            if (id[etiqueta[i]] < 0) id[etiqueta[i]] = k++;
+            etiqueta[i] = id[etiqueta[i]];
+        }
+        return k;
+    }
+
+    // Q = suma por comunidad de (peso interno / 2m) - (grado total / 2m)^2
+    private static double modularidad(Ponderado g, int[] comunidad, int k) {
+        double m2 = 0;
+        double[] interno = new double[k];
+        double[] total = new double[k];
+        for (int v = 0; v < g.n; v++) {
+            m2 += g.grado[v];
+            total[comunidad[v]] += g.grado[v];
+            for (int e = g.inicio[v]; e < g.inicio[v + 1]; e++) {
+                if (comunidad[g.vecino[e]] == comunidad[v]) interno[comunidad[v]] += g.peso[e];
+            }
+        }
+        if (m2 == 0) return 0.0;
+        double q = 0;
+        for (int c = 0; c < k; c++) q += interno[c] / m2 - (total[c] / m2) * (total[c] / m2);
+        return q;
+    }
+
+    // SplitMix64: dispersa las etiquetas para desempatar sin sesgo hacia las de menor número
+    private static long mezclar(long x) {
+        x += 0x9E3779B97F4A7C15L;
+        x = (x ^ (x >>> 30)) * 0xBF58476D1CE4E5B9L;
+        x = (x ^ (x >>> 27)) * 0x94D049BB133111EBL;
+        return x ^ (x >>> 31);
+    }
+
+    /**
+     * Grafo no dirigido con pesos en CSR. Cada arista aparece en las listas de sus dos extremos;
+     * los lazos (solo tras agregar) una vez, con la suma de ambos sentidos. grado[v] = suma de su lista.
+     */
+    private static final class Ponderado {
+        final int n;
+        final int[] inicio;
+        final int[] vecino;
+        final double[] peso;
+        final double[] grado;
+
+        Ponderado(int n, int[] inicio, int[] vecino, double[] peso) {
+            this.n = n;
+            this.inicio = inicio;
+            this.vecino = vecino;
+            this.peso = peso;
+            this.grado = new double[n];
+            for (int v = 0; v < n; v++) {
+                for (int e = inicio[v]; e < inicio[v + 1]; e++) grado[v] += peso[e];
+            }
+        }
+
+        static Ponderado desde(GrafoIndexado grafo) {
+            int n = grafo.cantidadNodos();
+            int[] inicio = new int[n + 1];
+            int[] vecino = new int[grafo.cantidadAristas()];
+            for (int v = 0, k = 0; v < n; v++) {
+                for (int e = grafo.inicioSalida(v); e < grafo.finSalida(v); e++) vecino[k++] = grafo.vecinoSalida(e);
+                inicio[v + 1] = k;
+            }
+            double[] peso = new double[vecino.length];
+            Arrays.fill(peso, 1.0);
+            return new Ponderado(n, inicio, vecino, peso);
+        }
+
+        int gradoMaximo() {
+            return gradoMaximo(null, 0, n);
+        }
+
+        // Grado máximo entre los nodos del rango (de la clase dada, o de todos si es null)
+        int gradoMaximo(int[] nodos, int desde, int hasta) {
+            int maximo = 0;
+            for (int p = desde; p < hasta; p++) {
+                int v = (nodos == null) ? p : nodos[p];
+                maximo = Math.max(maximo, inicio[v + 1] - inicio[v]);
+            }
+            return maximo;
+        }
+    }
+}
@@ -0,0 +1,243 @@
+package services.analitica;
+
+import models.Cliente;
+import utils.TDA.GrafoIndexado;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Ranking de influencia estilo PageRank sobre la red de seguimientos, por iteración de potencias
+ * en paralelo sobre arreglos double.
+ *
+ * Como cada cliente sigue a lo sumo a 2, las aristas salientes se guardan planas en un int[2 * n]
+ * (posiciones 2v y 2v + 1, -1 si están libres) sin arreglo de inicios. En cada iteración:
+ *   1. cada nodo calcula su aporte (rango / grado de salida) y se suma la masa de los nodos sin
+ *      salidas, que se reparte uniforme,
+ *   2. cada nodo junta los aportes de sus seguidores (transpuesta armada una vez por conteo),
+ *      sin escrituras compartidas entre hilos.
+ * Corta cuando la diferencia L1 entre iteraciones baja de la tolerancia. Con un resultado previo
+ * se arranca en caliente desde esos rangos: tras cambios chicos converge en pocas iteraciones.
+ */
+public class RankingInfluencia {
+    public static final double AMORTIGUACION_POR_DEFECTO = 0.85;
+    public static final double TOLERANCIA_POR_DEFECTO = 1e-10;
+    public static final int ITERACIONES_POR_DEFECTO = 200;
+
+    private static final int UMBRAL_TAREA = 4096;
+    private static final int SIN_SEGUIDO = -1;
+
+    private final double amortiguacion;
+    private final double tolerancia;
+    private final int iteracionesMaximas;
+    private final ForkJoinPool pool;
+
+    public RankingInfluencia() {
+        this(AMORTIGUACION_POR_DEFECTO, TOLERANCIA_POR_DEFECTO, ITERACIONES_POR_DEFECTO, ForkJoinPool.commonPool());
+    }
+
+    public RankingInfluencia(double amortiguacion, double tolerancia, int iteracionesMaximas, ForkJoinPool pool) {
+        if (amortiguacion < 0 || amortiguacion >= 1) throw new IllegalArgumentException("La amortiguación debe estar en [0, 1).");
+        if (tolerancia <= 0) throw new IllegalArgumentException("La tolerancia debe ser positiva.");
+        if (iteracionesMaximas <= 0) throw new IllegalArgumentException("Debe haber al menos una iteración.");
+        this.amortiguacion = amortiguacion;
+        this.tolerancia = tolerancia;
+        this.iteracionesMaximas = iteracionesMaximas;
+        this.pool = pool;
+    }
+
+    /**
+     * Rangos por cliente (suman 1), indexados como la foto del grafo.
+     */
+    public static final class Resultado {
+        private final GrafoIndexado grafo;
+        private final double[] rangos;
+        private final int iteraciones;
+        private final double diferencia;
+        private final boolean convergio;
+
+        private Resultado(GrafoIndexado grafo, double[] rangos, int iteraciones, double diferencia, boolean convergio) {
+            this.grafo = grafo;
+            this.rangos = rangos;
+            this.iteraciones = iteraciones;
+            this.diferencia = diferencia;
+            this.convergio = convergio;
+        }
+
+        public GrafoIndexado getGrafo() { return grafo; }
+
+        public double[] getRangos() { return rangos; }
+
+        public int getIteraciones() { return iteraciones; }
+
+        /**
+         * Diferencia L1 entre las dos últimas iteraciones.
+         */
+        public double getDiferencia() { return diferencia; }
+
+        public boolean convergio() { return convergio; }
+
+        public double rangoDe(Cliente c) {
+            int i = grafo.indiceDe(c);
+            return (i < 0) ? 0.0 : rangos[i];
+        }
+
+        /**
+         * Los k clientes de mayor rango, de mayor a menor (desempate por índice).
+         * Complejidad: O(n log k) con un heap acotado de índices int, sin boxing.
+         */
+        public List<Cliente> masInfluyentes(int k) {
+            if (k < 0) throw new IllegalArgumentException("La cantidad no puede ser negativa.");
+            List<Cliente> resultado = new ArrayList<>();
+            int capacidad = Math.min(k, rangos.length); // k puede ser enorme ("todos")
+            if (capacidad == 0) return resultado;
+
+            // Heap de mínimos: la raíz es el menos influyente de los k retenidos
+            int[] heap = new int[capacidad];
+            int tamanio = 0;
+            for (int i = 0; i < rangos.length; i++) {
+                if (tamanio < capacidad) {
+                    heap[tamanio] = i;
+                    subir(heap, tamanio++);
+                } else if (rangos[i] > rangos[heap[0]]) {
+                    heap[0] = i;
+                    bajar(heap, 0, tamanio);
+                }
+            }
+            // Heapsort en el lugar: cada mínimo va al final, queda de mayor a menor
+            for (int fin = tamanio - 1; fin > 0; fin--) {
+                int raiz = heap[0];
+                heap[0] = heap[fin];
+                heap[fin] = raiz;
+                bajar(heap, 0, fin);
+            }
+            for (int i : heap) resultado.add(grafo.getCliente(i));
+            return resultado;
+        }
+
+        // a es menos influyente que b; a igual rango, el de índice mayor
+        private boolean menor(int a, int b) {
+            int c = Double.compare(rangos[a], rangos[b]);
+            return (c != 0) ? c < 0 : a > b;
+        }
+
+        private void subir(int[] heap, int pos) {
+            while (pos > 0) {
+                int padre = (pos - 1) >>> 1;
+                if (!menor(heap[pos], heap[padre])) return;
+                int t = heap[pos];
+                heap[pos] = heap[padre];
+                heap[padre] = t;
+                pos = padre;
+            }
+        }
+
+        private void bajar(int[] heap, int pos, int tamanio) {
+            while (true) {
+                int menorHijo = 2 * pos + 1;
+                if (menorHijo >= tamanio) return;
+                if (menorHijo + 1 < tamanio && menor(heap[menorHijo + 1], heap[menorHijo])) menorHijo++;
+                if (!menor(heap[menorHijo], heap[pos])) return;
+                int t = heap[pos];
+                heap[pos] = heap[menorHijo];
+                heap[menorHijo] = t;
+                pos = menorHijo;
+            }
+        }
+    }
+
+    /**
+     * @param previo Resultado anterior para arrancar en caliente (puede ser de otra foto); null
+     *               arranca del reparto uniforme.
+     */
+    public Resultado calcular(GrafoIndexado grafo, Resultado previo) {
+        int n = grafo.cantidadNodos();
+        if (n == 0) return new Resultado(grafo, new double[0], 0, 0.0, true);
+
+        int[] seguidos = aplanar(grafo);
+        double[] actual = inicial(grafo, previo);
+        double[] siguiente = new double[n];
+        double[] aporte = new double[n];
+
+        // Transpuesta por conteo: seguidores de cada nodo
+        int[] inicio = new int[n + 1];
+        for (int destino : seguidos) if (destino != SIN_SEGUIDO) inicio[destino + 1]++;
+        for (int v = 0; v < n; v++) inicio[v + 1] += inicio[v];
+        int[] seguidores = new int[inicio[n]];
+        int[] cursor = Arrays.copyOf(inicio, n);
+        for (int e = 0; e < seguidos.length; e++) {
+            if (seguidos[e] != SIN_SEGUIDO) seguidores[cursor[seguidos[e]]++] = e >>> 1;
+        }
+
+        int iteraciones = 0;
+        double diferencia = Double.MAX_VALUE;
+        while (iteraciones < iteracionesMaximas && diferencia >= tolerancia) {
+            double[] rango = actual, nuevo = siguiente;
+
+            double sinSalidas = RepartoParalelo.sumar(pool, n, UMBRAL_TAREA, (desde, hasta) -> {
+                double masa = 0;
+                for (int u = desde; u < hasta; u++) {
+                    int grado = ((seguidos[2 * u] != SIN_SEGUIDO) ? 1 : 0) + ((seguidos[2 * u + 1] != SIN_SEGUIDO) ? 1 : 0);
+                    if (grado == 0) masa += rango[u];
+                    else aporte[u] = rango[u] / grado;
+                }
+                return masa;
+            });
+
+            double base = (1 - amortiguacion) / n + amortiguacion * sinSalidas / n;
+            diferencia = RepartoParalelo.sumar(pool, n, UMBRAL_TAREA, (desde, hasta) -> {
+                double dif = 0;
+                for (int v = desde; v < hasta; v++) {
+                    double recibido = 0;
+                    for (int k = inicio[v]; k < inicio[v + 1]; k++) recibido += aporte[seguidores[k]];
+                    nuevo[v] = base + amortiguacion * recibido;
+                    dif += Math.abs(nuevo[v] - rango[v]);
+                }
+                return dif;
+            });
+
+            actual = nuevo;
+            siguiente = rango;
+            iteraciones++;
+        }
+        return new Resultado(grafo, actual, iteraciones, diferencia, diferencia < tolerancia);
+    }
+
+    /**
+     * Aristas salientes en el formato plano int[2 * n] (-1 en las posiciones libres).
+     */
+    public static int[] aplanar(GrafoIndexado grafo) {
+        int n = grafo.cantidadNodos();
+        int[] seguidos = new int[2 * n];
+        Arrays.fill(seguidos, SIN_SEGUIDO);
+        for (int v = 0; v < n; v++) {
+            if (grafo.gradoSalida(v) > 2) {
+                throw new IllegalArgumentException("El cliente " + grafo.getCliente(v).getNombre() + " sigue a más de 2.");
+            }
+            for (int k = grafo.inicioSalida(v), slot = 2 * v; k < grafo.finSalida(v); k++) {
+                seguidos[slot++] = grafo.vecinoSalida(k);
+            }
+        }
+        return seguidos;
+    }
+
+    // Rangos del resultado previo para los clientes que siguen en la foto; los nuevos arrancan en 1/n
+    private static double[] inicial(GrafoIndexado grafo, Resultado previo) {
+        int n = grafo.cantidadNodos();
+        double[] rangos = new double[n];
+        if (previo == null) {
+            Arrays.fill(rangos, 1.0 / n);
+            return rangos;
+        }
+        double suma = 0;
+        for (int i = 0; i < n; i++) {
+            int j = previo.grafo.indiceDe(grafo.getCliente(i));
+            rangos[i] = (j >= 0) ? previo.rangos[j] : 1.0 / n;
+            suma += rangos[i];
+        }
+        for (int i = 0; i < n; i++) rangos[i] /= suma;
+        return rangos;
+    }
+}
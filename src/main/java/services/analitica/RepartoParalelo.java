@@ -0,0 +1,89 @@
+package services.analitica;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Reparto de rangos de índices [0, total) entre los hilos de un ForkJoinPool, igual que en
+ * {@link services.BFSParalelo}: se divide a la mitad hasta llegar al umbral y el resto lo
+ * equilibra el robo de tareas. Por debajo del umbral todo corre en el hilo que llama.
+ */
+final class RepartoParalelo {
+
+    @FunctionalInterface
+    interface Bloque {
+        void ejecutar(int desde, int hasta);
+    }
+
+    @FunctionalInterface
+    interface BloqueSuma {
+        double sumar(int desde, int hasta);
+    }
+
+    private RepartoParalelo() {
+    }
+
+    static void en(ForkJoinPool pool, int total, int umbral, Bloque bloque) {
+        if (total <= umbral) {
+            bloque.ejecutar(0, total);
+        } else {
+            pool.invoke(new TareaRango(0, total, umbral, bloque));
+        }
+    }
+
+    /**
+     * Suma los parciales de cada bloque. Los cortes dependen solo de total y umbral, así que el
+     * orden de las sumas (y el resultado en punto flotante) es el mismo en cada ejecución.
+     */
+    static double sumar(ForkJoinPool pool, int total, int umbral, BloqueSuma bloque) {
+        if (total <= umbral) return bloque.sumar(0, total);
+        return pool.invoke(new TareaSuma(0, total, umbral, bloque));
+    }
+
+    @SuppressWarnings("serial") // Tarea de fork/join, nunca se serializa
+    private static class TareaSuma extends RecursiveTask<Double> {
+        private final int desde, hasta, umbral;
+        private final BloqueSuma bloque;
+
+        TareaSuma(int desde, int hasta, int umbral, BloqueSuma bloque) {
+            this.desde = desde;
+            this.hasta = hasta;
+            this.umbral = umbral;
+            this.bloque = bloque;
+        }
+
+        @Override
+        protected Double compute() {
+            if (hasta - desde <= umbral) return bloque.sumar(desde, hasta);
+            int medio = (desde + hasta) >>> 1;
+            TareaSuma derecha = new TareaSuma(medio, hasta, umbral, bloque);
+            derecha.fork();
+            double izquierda = new TareaSuma(desde, medio, umbral, bloque).compute();
+            return izquierda + derecha.join();
+        }
+    }
+
+    @SuppressWarnings("serial") // Tarea de fork/join, nunca se serializa
+    private static class TareaRango extends RecursiveAction {
+        private final int desde, hasta, umbral;
+        private final Bloque bloque;
+
+        TareaRango(int desde, int hasta, int umbral, Bloque bloque) {
+            this.desde = desde;
+            this.hasta = hasta;
+            this.umbral = umbral;
+            this.bloque = bloque;
+        }
+
+        @Override
+        protected void compute() {
+            if (hasta - desde <= umbral) {
+                bloque.ejecutar(desde, hasta);
+                return;
+            }
+            int medio = (desde + hasta) >>> 1;
+            invokeAll(new TareaRango(desde, medio, umbral, bloque), new TareaRango(medio, hasta, umbral, bloque));
+        }
+    }
+}
@@ -0,0 +1,453 @@
+package services.particion;
+
+import models.Cliente;
+import models.FichaCliente;
+import models.ObservadorCliente;
+import services.EstrategiaPeso;
+import utils.TDA.ArbolAVL;
+
+import java.util.*;
+
+/**
+ * Una porción de la red: sus clientes, su propio índice AVL por scoring y las aristas que salen
+ * hacia otras particiones (guardadas como {@link ReferenciaRemota}).
+ *
+ * Las aristas entre clientes de la misma partición siguen siendo referencias a {@link Cliente};
+ * solo lo que cruza particiones se resuelve por nombre. No es thread-safe: el transporte garantiza
+ * que cada partición procesa una operación por vez. Hacia afuera solo salen datos (nombres,
+ * números, {@link FichaCliente}): ningún Cliente de la partición se entrega al coordinador.
+ */
+public class Particion implements ObservadorCliente {
+    private final int numero;
+    private final Map<String, Cliente> clienteMap = new HashMap<>();
+    private final ArbolAVL scoringTree = new ArbolAVL();
+
+    // Aristas que cruzan a otra partición
+    private final Map<String, Set<ReferenciaRemota>> amigosRemotos = new HashMap<>();
+    private final Map<String, List<ReferenciaRemota>> seguidosRemotos = new HashMap<>();
+
+    // Estado de las BFS distribuidas en curso: consulta -> (visitado -> padre)
+    private final Map<Long, Map<String, String>> consultas = new HashMap<>();
+
+    public Particion(int numero) {
+        this.numero = numero;
+    }
+
+    public int getNumero() {
+        return numero;
+    }
+
+    /**
+     * Ejecuta una petición del coordinador. La invoca el transporte, en el hilo de la partición.
+     */
+    public Respuesta atender(Peticion p) {
+        List<String> n = p.getNombres();
+        switch (p.getOperacion()) {
+            case AGREGAR: return Respuesta.de(agregar(p.getNombre(), p.getNumero()));
+            case CONTIENE: return Respuesta.de(contiene(p.getNombre()));
+            case CANTIDAD: return Respuesta.deNumero(cantidadClientes());
+            case FICHAS: return Respuesta.deFichas(fichas());
+            case FICHAS_DE: return Respuesta.deFichas(fichasDe(n));
+            case POR_SCORING: return Respuesta.deFichas(buscarPorScoring(p.getNumero()));
+            case SCORINGS: return Respuesta.deScorings(scorings(n));
+            case ACTUALIZAR_SCORING: return Respuesta.deNumero(actualizarScoring(p.getNombre(), p.getNumero()));
+            case APLICAR_SCORINGS: return Respuesta.deScorings(aplicarScorings(p.getScorings()));
+            case PRIMER_FALTANTE: return Respuesta.deTexto(primerFaltante(n));
+            case ELIMINAR: {
+                FichaCliente ficha = eliminar(p.getNombre());
+                return Respuesta.deFichas((ficha == null) ? Collections.emptyList() : List.of(ficha));
+            }
+            case RECIBIR_SOLICITUD:
+                recibirSolicitud(n.get(0), n.get(1));
+                return Respuesta.VACIA;
+            case DRENAR_BUZONES: return Respuesta.dePares(drenarBuzones());
+            case SEGUIR: return Respuesta.deTexto(seguir(p.getNombre(), p.getDestinos().get(0)));
+            case SEGUIR_TODOS: return Respuesta.deNombres(seguirTodos(p.getPares(), p.getDestinos()));
+            case DEJAR_DE_SEGUIR: return Respuesta.de(dejarDeSeguir(n.get(0), n.get(1)));
+            case SEGUIDORES_DE: return Respuesta.deNombres(seguidoresDe(p.getNombre()));
+            case DEJAR_DE_SEGUIR_A_TODOS:
+                dejarDeSeguirATodos(p.getNombre());
+                return Respuesta.VACIA;
+            case AMISTAD_LOCAL:
+                agregarAmistadLocal(n.get(0), n.get(1));
+                return Respuesta.VACIA;
+            case AMISTAD_REMOTA:
+                agregarAmistadRemota(p.getNombre(), p.getDestinos().get(0));
+                return Respuesta.VACIA;
+            case ELIMINAR_AMISTAD:
+                eliminarAmistad(n.get(0), n.get(1));
+                return Respuesta.VACIA;
+            case AMIGOS_POR_PARTICION: return Respuesta.dePorParticion(amigosPorParticion(p.getNombre()));
+            case PESOS: return pesos(n.get(0), p.getNumero(), n.subList(1, n.size()), p.getPeso());
+            case EXPANDIR: return expandir(p.getConsulta(), p.getPares(), p.isAmistades(), p.isConVecinos());
+            case PADRE_EN: return Respuesta.deTexto(padreEn(p.getConsulta(), p.getNombre()));
+            case TERMINAR_CONSULTA:
+                terminarConsulta(p.getConsulta());
+                return Respuesta.VACIA;
+            default:
+                throw new IllegalArgumentException("Operación desconocida: " + p.getOperacion());
+        }
+    }
+
+    // ==========================================
+    // --- CLIENTES E ÍNDICE ---
+    // ==========================================
+
+    public boolean agregar(String nombre, int scoring) {
+        if (clienteMap.containsKey(nombre)) return false;
+        Cliente nuevo = new Cliente(nombre, scoring);
+        nuevo.setObservador(this);
+        clienteMap.put(nombre, nuevo);
+        scoringTree.insertar(scoring, nuevo);
+        return true;
+    }
+
+    public boolean contiene(String nombre) {
+        return clienteMap.containsKey(nombre);
+    }
+
+    public int cantidadClientes() {
+        return clienteMap.size();
+    }
+
+    public List<FichaCliente> buscarPorScoring(int scoring) {
+        List<FichaCliente> fichas = new ArrayList<>();
+        for (Cliente c : scoringTree.buscar(scoring)) fichas.add(ficha(c.getNombre()));
+        return fichas;
+    }
+
+    /**
+     * Scoring de los nombres que viven en esta partición (los demás se omiten).
+     */
+    public Map<String, Integer> scorings(Collection<String> nombres) {
+        Map<String, Integer> scorings = new HashMap<>();
+        for (String nombre : nombres) {
+            Cliente c = clienteMap.get(nombre);
+            if (c != null) scorings.put(nombre, c.getScoring());
+        }
+        return scorings;
+    }
+
+    /**
+     * @return Scoring anterior, o null si el cliente no está en esta partición.
+     */
+    public Integer actualizarScoring(String nombre, int nuevoScoring) {
+        Cliente c = clienteMap.get(nombre);
+        if (c == null) return null;
+        int anterior = c.getScoring();
+        c.setScoring(nuevoScoring); // El observador reubica al cliente en el AVL
+        return anterior;
+    }
+
+    /**
+     * Aplica un lote de scorings de clientes de esta partición.
+     * @return Valores anteriores de los que efectivamente cambiaron.
+     */
+    public Map<String, Integer> aplicarScorings(Map<String, Integer> nuevosScorings) {
+        Map<String, Integer> anteriores = new HashMap<>();
+        for (Map.Entry<String, Integer> e : nuevosScorings.entrySet()) {
+            Cliente c = clienteMap.get(e.getKey());
+            if (c == null || c.getScoring() == e.getValue()) continue;
+            anteriores.put(e.getKey(), c.getScoring());
+            c.setScoring(e.getValue());
+        }
+        return anteriores;
+    }
+
+    /**
+     * @return El primer nombre que no está en esta partición, o null si están todos.
+     */
+    public String primerFaltante(Collection<String> nombres) {
+        for (String nombre : nombres) {
+            if (!clienteMap.containsKey(nombre)) return nombre;
+        }
+        return null;
+    }
+
+    @Override
+    public void scoringCambiado(Cliente cliente, int scoringAnterior) {
+        scoringTree.eliminar(scoringAnterior, cliente);
+        scoringTree.insertar(cliente.getScoring(), cliente);
+    }
+
+    /**
+     * Quita al cliente junto con las aristas locales que lo involucran.
+     * Las aristas que otras particiones tengan hacia él las limpia el coordinador.
+     * @return Ficha previa al borrado, o null si no estaba.
+     */
+    public FichaCliente eliminar(String nombre) {
+        Cliente c = clienteMap.get(nombre);
+        if (c == null) return null;
+        FichaCliente ficha = ficha(nombre);
+
+        dejarDeSeguirATodos(nombre);
+        for (Cliente amigo : new ArrayList<>(c.getAmigos())) amigo.eliminarAmigo(c);
+
+        scoringTree.eliminar(c.getScoring(), c);
+        clienteMap.remove(nombre);
+        c.setObservador(null);
+        amigosRemotos.remove(nombre);
+        seguidosRemotos.remove(nombre);
+        return ficha;
+    }
+
+    // ==========================================
+    // --- SEGUIMIENTOS (MAX 2, LOCALES + REMOTOS) ---
+    // ==========================================
+
+    public void recibirSolicitud(String solicitado, String solicitante) {
+        clienteMap.get(solicitado).recibirSolicitud(solicitante);
+    }
+
+    /**
+     * Vacía todos los buzones de la partición.
+     * @return Pares {solicitante, solicitado} en el orden en que se recibieron por buzón.
+     */
+    public List<String[]> drenarBuzones() {
+        List<String[]> pares = new ArrayList<>();
+        for (Cliente destino : clienteMap.values()) {
+            String solicitante;
+            while ((solicitante = destino.tomarSolicitud()) != null) {
+                pares.add(new String[]{solicitante, destino.getNombre()});
+            }
+        }
+        return pares;
+    }
+
+    /**
+     * Hace que el solicitante (de esta partición) siga al destino, respetando el máximo de 2
+     * entre seguidos locales y remotos.
+     * @return null si se aceptó, o el motivo del rechazo.
+     */
+    public String seguir(String solicitante, ReferenciaRemota destino) {
+        Cliente c = clienteMap.get(solicitante);
+        if (c == null) return "El cliente " + solicitante + " ya no existe.";
+
+        List<ReferenciaRemota> remotos = seguidosRemotos.getOrDefault(solicitante, Collections.emptyList());
+        if (c.cantidadSeguidos() + remotos.size() >= 2) {
+            return "El cliente " + solicitante + " ya sigue al máximo de 2 personas.";
+        }
+
+        if (destino.getParticion() == numero) {
+            Cliente local = clienteMap.get(destino.getNombre());
+            if (local == null) return "El cliente " + destino.getNombre() + " ya no existe.";
+            try {
+                c.agregarSeguido(local);
+            } catch (IllegalStateException e) {
+                return e.getMessage();
+            }
+        } else if (!remotos.contains(destino)) {
+            seguidosRemotos.computeIfAbsent(solicitante, k -> new ArrayList<>(2)).add(destino);
+        }
+        return null;
+    }
+
+    /**
+     * Procesa en orden un lote de pares {solicitante, solicitado} cuyos solicitantes viven aquí.
+     * @return Por cada par, null si se aceptó o el motivo del rechazo.
+     */
+    public List<String> seguirTodos(List<String[]> pares, List<ReferenciaRemota> destinos) {
+        List<String> resultados = new ArrayList<>(pares.size());
+        for (int i = 0; i < pares.size(); i++) resultados.add(seguir(pares.get(i)[0], destinos.get(i)));
+        return resultados;
+    }
+
+    public boolean dejarDeSeguir(String solicitante, String seguido) {
+        Cliente c = clienteMap.get(solicitante);
+        if (c == null) return false;
+        if (c.eliminarSeguido(clienteMap.get(seguido))) return true;
+
+        List<ReferenciaRemota> remotos = seguidosRemotos.get(solicitante);
+        if (remotos == null) return false;
+        boolean borrado = remotos.removeIf(r -> r.getNombre().equals(seguido));
+        if (remotos.isEmpty()) seguidosRemotos.remove(solicitante);
+        return borrado;
+    }
+
+    /**
+     * Clientes de esta partición que siguen al nombre indicado (esté donde esté).
+     */
+    public List<String> seguidoresDe(String nombre) {
+        List<String> seguidores = new ArrayList<>();
+        Cliente local = clienteMap.get(nombre);
+        for (Cliente otro : clienteMap.values()) {
+            if (local != null && otro.sigueA(local)) seguidores.add(otro.getNombre());
+        }
+        for (Map.Entry<String, List<ReferenciaRemota>> e : seguidosRemotos.entrySet()) {
+            for (ReferenciaRemota r : e.getValue()) {
+                if (r.getNombre().equals(nombre)) seguidores.add(e.getKey());
+            }
+        }
+        return seguidores;
+    }
+
+    public void dejarDeSeguirATodos(String nombre) {
+        for (String seguidor : seguidoresDe(nombre)) dejarDeSeguir(seguidor, nombre);
+    }
+
+    // ==========================================
+    // --- AMISTADES ---
+    // ==========================================
+
+    public void agregarAmistadLocal(String nombre1, String nombre2) {
+        Cliente c1 = clienteMap.get(nombre1);
+        Cliente c2 = clienteMap.get(nombre2);
+        c1.agregarAmigo(c2);
+        c2.agregarAmigo(c1);
+    }
+
+    /**
+     * Registra la mitad local de una amistad que cruza particiones.
+     */
+    public void agregarAmistadRemota(String nombre, ReferenciaRemota amigo) {
+        amigosRemotos.computeIfAbsent(nombre, k -> new HashSet<>()).add(amigo);
+    }
+
+    public void eliminarAmistad(String nombre, String amigo) {
+        Cliente c = clienteMap.get(nombre);
+        if (c == null) return;
+        Cliente local = clienteMap.get(amigo);
+        if (local != null) {
+            c.eliminarAmigo(local);
+            local.eliminarAmigo(c);
+            return;
+        }
+        Set<ReferenciaRemota> remotos = amigosRemotos.get(nombre);
+        if (remotos == null) return;
+        remotos.removeIf(r -> r.getNombre().equals(amigo));
+        if (remotos.isEmpty()) amigosRemotos.remove(nombre);
+    }
+
+    /**
+     * Amigos del cliente (locales y remotos) agrupados por partición dueña.
+     */
+    public Map<Integer, List<String>> amigosPorParticion(String nombre) {
+        Map<Integer, List<String>> resultado = new HashMap<>();
+        Cliente c = clienteMap.get(nombre);
+        if (c == null) return resultado;
+        for (Cliente amigo : c.getAmigos()) {
+            resultado.computeIfAbsent(numero, k -> new ArrayList<>()).add(amigo.getNombre());
+        }
+        for (ReferenciaRemota r : amigosRemotos.getOrDefault(nombre, Collections.emptySet())) {
+            resultado.computeIfAbsent(r.getParticion(), k -> new ArrayList<>()).add(r.getNombre());
+        }
+        return resultado;
+    }
+
+    /**
+     * Pesos de las aristas desde un cliente hacia vecinos de esta partición, calculados acá para
+     * que la estrategia lea los clientes en su propio hilo. Si el origen vive en otra partición,
+     * la estrategia recibe una copia con su nombre y scoring.
+     */
+    public Respuesta pesos(String desde, int scoringDesde, List<String> vecinos, EstrategiaPeso peso) {
+        Cliente origen = clienteMap.get(desde);
+        if (origen == null) origen = new Cliente(desde, scoringDesde);
+
+        List<String> existentes = new ArrayList<>(vecinos.size());
+        double[] pesos = new double[vecinos.size()];
+        Map<String, Integer> scorings = new HashMap<>();
+        for (String nombre : vecinos) {
+            Cliente vecino = clienteMap.get(nombre);
+            if (vecino == null) continue; // Se borró entre la consulta de amigos y esta
+            pesos[existentes.size()] = peso.peso(origen, vecino);
+            existentes.add(nombre);
+            scorings.put(nombre, vecino.getScoring());
+        }
+        return Respuesta.dePesos(existentes, Arrays.copyOf(pesos, existentes.size()), scorings);
+    }
+
+    // ==========================================
+    // --- BFS DISTRIBUIDA (INTERCAMBIO DE FRONTERA) ---
+    // ==========================================
+
+    /**
+     * Un paso de BFS sobre esta partición: marca como visitados los candidatos que todavía no lo
+     * estaban y, si se pide, devuelve sus vecinos agrupados por partición para el próximo nivel.
+     *
+     * @param candidatos Pares {nombre, padre} recibidos en este nivel.
+     * @param amistades  true para recorrer amistades, false para seguimientos.
+     * @return Los nombres recién visitados y sus vecinos {nombre, padre} por partición dueña.
+     */
+    public Respuesta expandir(long consulta, List<String[]> candidatos, boolean amistades, boolean conVecinos) {
+        Map<String, String> visitados = consultas.computeIfAbsent(consulta, k -> new HashMap<>());
+        Expansion expansion = new Expansion();
+
+        for (String[] candidato : candidatos) {
+            String nombre = candidato[0];
+            Cliente c = clienteMap.get(nombre);
+            if (c == null || visitados.containsKey(nombre)) continue;
+            visitados.put(nombre, candidato[1]);
+            expansion.nuevos.add(nombre);
+            if (!conVecinos) continue;
+
+            if (amistades) {
+                for (Cliente amigo : c.getAmigos()) expansion.agregarVecino(numero, amigo.getNombre(), nombre);
+                for (ReferenciaRemota r : amigosRemotos.getOrDefault(nombre, Collections.emptySet())) {
+                    expansion.agregarVecino(r.getParticion(), r.getNombre(), nombre);
+                }
+            } else {
+                for (Cliente seguido : c.getSiguiendo()) expansion.agregarVecino(numero, seguido.getNombre(), nombre);
+                for (ReferenciaRemota r : seguidosRemotos.getOrDefault(nombre, Collections.emptyList())) {
+                    expansion.agregarVecino(r.getParticion(), r.getNombre(), nombre);
+                }
+            }
+        }
+        return Respuesta.deExpansion(expansion.nuevos, expansion.vecinos);
+    }
+
+    public String padreEn(long consulta, String nombre) {
+        Map<String, String> visitados = consultas.get(consulta);
+        return (visitados == null) ? null : visitados.get(nombre);
+    }
+
+    public void terminarConsulta(long consulta) {
+        consultas.remove(consulta);
+    }
+
+    // Lo que junta un paso de BFS antes de volverse respuesta
+    private static final class Expansion {
+        private final List<String> nuevos = new ArrayList<>();
+        private final Map<Integer, List<String[]>> vecinos = new HashMap<>();
+
+        private void agregarVecino(int particion, String nombre, String padre) {
+            vecinos.computeIfAbsent(particion, k -> new ArrayList<>()).add(new String[]{nombre, padre});
+        }
+    }
+
+    // ==========================================
+    // --- REPORTES ---
+    // ==========================================
+
+    public FichaCliente ficha(String nombre) {
+        Cliente c = clienteMap.get(nombre);
+        if (c == null) return null;
+
+        List<String> amigos = new ArrayList<>();
+        for (Cliente amigo : c.getAmigos()) amigos.add(amigo.getNombre());
+        for (ReferenciaRemota r : amigosRemotos.getOrDefault(nombre, Collections.emptySet())) amigos.add(r.getNombre());
+
+        List<String> siguiendo = new ArrayList<>();
+        for (Cliente seguido : c.getSiguiendo()) siguiendo.add(seguido.getNombre());
+        for (ReferenciaRemota r : seguidosRemotos.getOrDefault(nombre, Collections.emptyList())) siguiendo.add(r.getNombre());
+
+        return new FichaCliente(nombre, c.getScoring(), amigos, siguiendo, c.getSolicitudesRecibidas().size());
+    }
+
+    /**
+     * Fichas de los nombres que viven en esta partición, en el orden pedido.
+     */
+    public List<FichaCliente> fichasDe(Collection<String> nombres) {
+        List<FichaCliente> fichas = new ArrayList<>(nombres.size());
+        for (String nombre : nombres) {
+            FichaCliente f = ficha(nombre);
+            if (f != null) fichas.add(f);
+        }
+        return fichas;
+    }
+
+    public List<FichaCliente> fichas() {
+        List<FichaCliente> fichas = new ArrayList<>(clienteMap.size());
+        for (String nombre : clienteMap.keySet()) fichas.add(ficha(nombre));
+        return fichas;
+    }
+}
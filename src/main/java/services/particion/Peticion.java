@@ -0,0 +1,215 @@
+package services.particion;
+
+import services.EstrategiaPeso;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Mensaje del coordinador a una partición: una operación y sus argumentos, solo datos (nombres,
+ * números, referencias por nombre). Es inmutable, así que la misma petición se puede mandar a
+ * todas las particiones.
+ *
+ * La única excepción es la estrategia de peso de {@link Operacion#PESOS}, que no viaja serializada:
+ * un transporte de red tendría que mandarla por código, como la traza de operaciones, y solo
+ * podría ofrecer las predefinidas.
+ */
+public final class Peticion implements Serializable {
+    private static final long serialVersionUID = 1L;
+
+    public enum Operacion {
+        AGREGAR, CONTIENE, CANTIDAD, FICHAS, FICHAS_DE, POR_SCORING, SCORINGS,
+        ACTUALIZAR_SCORING, APLICAR_SCORINGS, PRIMER_FALTANTE, ELIMINAR,
+        RECIBIR_SOLICITUD, DRENAR_BUZONES, SEGUIR, SEGUIR_TODOS, DEJAR_DE_SEGUIR, SEGUIDORES_DE, DEJAR_DE_SEGUIR_A_TODOS,
+        AMISTAD_LOCAL, AMISTAD_REMOTA, ELIMINAR_AMISTAD, AMIGOS_POR_PARTICION, PESOS,
+        EXPANDIR, PADRE_EN, TERMINAR_CONSULTA
+    }
+
+    private final Operacion operacion;
+    private final List<String> nombres;
+    private final int numero;
+    private final long consulta;
+    private final boolean amistades;
+    private final boolean conVecinos;
+    private final Map<String, Integer> scorings;
+    private final List<String[]> pares;
+    private final List<ReferenciaRemota> destinos;
+    private final transient EstrategiaPeso peso;
+
+    private Peticion(Operacion operacion, List<String> nombres, int numero, long consulta, boolean amistades,
+                     boolean conVecinos, Map<String, Integer> scorings, List<String[]> pares,
+                     List<ReferenciaRemota> destinos, EstrategiaPeso peso) {
+        this.operacion = operacion;
+        this.nombres = nombres;
+        this.numero = numero;
+        this.consulta = consulta;
+        this.amistades = amistades;
+        this.conVecinos = conVecinos;
+        this.scorings = scorings;
+        this.pares = pares;
+        this.destinos = destinos;
+        this.peso = peso;
+    }
+
+    private static Peticion de(Operacion operacion, List<String> nombres) {
+        return new Peticion(operacion, nombres, 0, 0, false, false, null, null, null, null);
+    }
+
+    private static Peticion de(Operacion operacion, List<String> nombres, int numero) {
+        return new Peticion(operacion, nombres, numero, 0, false, false, null, null, null, null);
+    }
+
+    // ==========================================
+    // --- CLIENTES E ÍNDICE ---
+    // ==========================================
+
+    public static Peticion agregar(String nombre, int scoring) {
+        return de(Operacion.AGREGAR, List.of(nombre), scoring);
+    }
+
+    public static Peticion contiene(String nombre) {
+        return de(Operacion.CONTIENE, List.of(nombre));
+    }
+
+    public static Peticion cantidad() {
+        return de(Operacion.CANTIDAD, Collections.emptyList());
+    }
+
+    public static Peticion fichas() {
+        return de(Operacion.FICHAS, Collections.emptyList());
+    }
+
+    /** Fichas de los nombres que viven en la partición, en el orden pedido. */
+    public static Peticion fichasDe(List<String> nombres) {
+        return de(Operacion.FICHAS_DE, List.copyOf(nombres));
+    }
+
+    public static Peticion porScoring(int scoring) {
+        return de(Operacion.POR_SCORING, Collections.emptyList(), scoring);
+    }
+
+    /** Scoring actual de los nombres que viven en la partición. */
+    public static Peticion scorings(List<String> nombres) {
+        return de(Operacion.SCORINGS, List.copyOf(nombres));
+    }
+
+    public static Peticion actualizarScoring(String nombre, int scoring) {
+        return de(Operacion.ACTUALIZAR_SCORING, List.of(nombre), scoring);
+    }
+
+    public static Peticion aplicarScorings(Map<String, Integer> nuevos) {
+        return new Peticion(Operacion.APLICAR_SCORINGS, Collections.emptyList(), 0, 0, false, false,
+                Map.copyOf(nuevos), null, null, null);
+    }
+
+    public static Peticion primerFaltante(List<String> nombres) {
+        return de(Operacion.PRIMER_FALTANTE, List.copyOf(nombres));
+    }
+
+    public static Peticion eliminar(String nombre) {
+        return de(Operacion.ELIMINAR, List.of(nombre));
+    }
+
+    // ==========================================
+    // --- SEGUIMIENTOS ---
+    // ==========================================
+
+    public static Peticion recibirSolicitud(String solicitado, String solicitante) {
+        return de(Operacion.RECIBIR_SOLICITUD, List.of(solicitado, solicitante));
+    }
+
+    public static Peticion drenarBuzones() {
+        return de(Operacion.DRENAR_BUZONES, Collections.emptyList());
+    }
+
+    public static Peticion seguir(String solicitante, ReferenciaRemota destino) {
+        return new Peticion(Operacion.SEGUIR, List.of(solicitante), 0, 0, false, false, null, null, List.of(destino), null);
+    }
+
+    /** Pares {solicitante, solicitado} con la referencia de cada solicitado, en el mismo orden. */
+    public static Peticion seguirTodos(List<String[]> pares, List<ReferenciaRemota> destinos) {
+        return new Peticion(Operacion.SEGUIR_TODOS, Collections.emptyList(), 0, 0, false, false, null,
+                List.copyOf(pares), List.copyOf(destinos), null);
+    }
+
+    public static Peticion dejarDeSeguir(String solicitante, String seguido) {
+        return de(Operacion.DEJAR_DE_SEGUIR, List.of(solicitante, seguido));
+    }
+
+    public static Peticion seguidoresDe(String nombre) {
+        return de(Operacion.SEGUIDORES_DE, List.of(nombre));
+    }
+
+    public static Peticion dejarDeSeguirATodos(String nombre) {
+        return de(Operacion.DEJAR_DE_SEGUIR_A_TODOS, List.of(nombre));
+    }
+
+    // ==========================================
+    // --- AMISTADES Y PESOS ---
+    // ==========================================
+
+    public static Peticion amistadLocal(String nombre1, String nombre2) {
+        return de(Operacion.AMISTAD_LOCAL, List.of(nombre1, nombre2));
+    }
+
+    public static Peticion amistadRemota(String nombre, ReferenciaRemota amigo) {
+        return new Peticion(Operacion.AMISTAD_REMOTA, List.of(nombre), 0, 0, false, false, null, null, List.of(amigo), null);
+    }
+
+    public static Peticion eliminarAmistad(String nombre, String amigo) {
+        return de(Operacion.ELIMINAR_AMISTAD, List.of(nombre, amigo));
+    }
+
+    public static Peticion amigosPorParticion(String nombre) {
+        return de(Operacion.AMIGOS_POR_PARTICION, List.of(nombre));
+    }
+
+    /**
+     * Peso de las aristas desde un cliente (que puede vivir en otra partición, por eso va su
+     * scoring) hacia vecinos que viven en la partición destino.
+     */
+    public static Peticion pesos(String desde, int scoringDesde, List<String> vecinos, EstrategiaPeso peso) {
+        List<String> nombres = new ArrayList<>(vecinos.size() + 1);
+        nombres.add(desde);
+        nombres.addAll(vecinos);
+        return new Peticion(Operacion.PESOS, List.copyOf(nombres), scoringDesde, 0, false, false, null, null, null, peso);
+    }
+
+    // ==========================================
+    // --- BFS DISTRIBUIDA ---
+    // ==========================================
+
+    /** Candidatos {nombre, padre} de un nivel. */
+    public static Peticion expandir(long consulta, List<String[]> candidatos, boolean amistades, boolean conVecinos) {
+        return new Peticion(Operacion.EXPANDIR, Collections.emptyList(), 0, consulta, amistades, conVecinos, null,
+                List.copyOf(candidatos), null, null);
+    }
+
+    public static Peticion padreEn(long consulta, String nombre) {
+        return new Peticion(Operacion.PADRE_EN, List.of(nombre), 0, consulta, false, false, null, null, null, null);
+    }
+
+    public static Peticion terminarConsulta(long consulta) {
+        return new Peticion(Operacion.TERMINAR_CONSULTA, Collections.emptyList(), 0, consulta, false, false, null, null, null, null);
+    }
+
+    public Operacion getOperacion() { return operacion; }
+    public List<String> getNombres() { return nombres; }
+    public String getNombre() { return nombres.get(0); }
+    public int getNumero() { return numero; }
+    public long getConsulta() { return consulta; }
+    public boolean isAmistades() { return amistades; }
+    public boolean isConVecinos() { return conVecinos; }
+    public Map<String, Integer> getScorings() { return scorings; }
+    public List<String[]> getPares() { return pares; }
+    public List<ReferenciaRemota> getDestinos() { return destinos; }
+    public EstrategiaPeso getPeso() { return peso; }
+
+    @Override
+    public String toString() {
+        return operacion + " " + nombres;
+    }
+}
@@ -0,0 +1,40 @@
+package services.particion;
+
+import java.io.Serializable;
+import java.util.Objects;
+
+/**
+ * Referencia a un cliente que vive en otra partición: se guarda por nombre, nunca por objeto.
+ */
+public final class ReferenciaRemota implements Serializable {
+    private static final long serialVersionUID = 1L;
+
+    private final int particion;
+    private final String nombre;
+
+    public ReferenciaRemota(int particion, String nombre) {
+        this.particion = particion;
+        this.nombre = nombre;
+    }
+
+    public int getParticion() { return particion; }
+    public String getNombre() { return nombre; }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof ReferenciaRemota)) return false;
+        ReferenciaRemota otra = (ReferenciaRemota) o;
+        return particion == otra.particion && nombre.equals(otra.nombre);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(particion, nombre);
+    }
+
+    @Override
+    public String toString() {
+        return nombre + "@" + particion;
+    }
+}
@@ -0,0 +1,109 @@
+package services.particion;
+
+import models.FichaCliente;
+
+import java.io.Serializable;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Respuesta de una partición a una {@link Peticion}: solo datos (nombres, números, fichas),
+ * nunca un {@link models.Cliente}, que no sale del hilo de su partición. Cada operación llena
+ * los campos que le corresponden; el resto queda vacío.
+ */
+public final class Respuesta implements Serializable {
+    private static final long serialVersionUID = 1L;
+
+    static final Respuesta VACIA = new Respuesta();
+
+    private boolean ok;
+    private Integer numero;
+    private String texto;
+    private List<String> nombres = Collections.emptyList();
+    private List<FichaCliente> fichas = Collections.emptyList();
+    private Map<String, Integer> scorings = Collections.emptyMap();
+    private Map<Integer, List<String>> porParticion = Collections.emptyMap();
+    private Map<Integer, List<String[]>> vecinos = Collections.emptyMap();
+    private List<String[]> pares = Collections.emptyList();
+    private double[] pesos = new double[0];
+
+    private Respuesta() {
+    }
+
+    static Respuesta de(boolean ok) {
+        Respuesta r = new Respuesta();
+        r.ok = ok;
+        return r;
+    }
+
+    static Respuesta deNumero(Integer numero) {
+        Respuesta r = new Respuesta();
+        r.numero = numero;
+        return r;
+    }
+
+    static Respuesta deTexto(String texto) {
+        Respuesta r = new Respuesta();
+        r.texto = texto;
+        return r;
+    }
+
+    static Respuesta deNombres(List<String> nombres) {
+        Respuesta r = new Respuesta();
+        r.nombres = nombres;
+        return r;
+    }
+
+    static Respuesta deFichas(List<FichaCliente> fichas) {
+        Respuesta r = new Respuesta();
+        r.fichas = fichas;
+        return r;
+    }
+
+    static Respuesta deScorings(Map<String, Integer> scorings) {
+        Respuesta r = new Respuesta();
+        r.scorings = scorings;
+        return r;
+    }
+
+    static Respuesta dePorParticion(Map<Integer, List<String>> porParticion) {
+        Respuesta r = new Respuesta();
+        r.porParticion = porParticion;
+        return r;
+    }
+
+    static Respuesta dePares(List<String[]> pares) {
+        Respuesta r = new Respuesta();
+        r.pares = pares;
+        return r;
+    }
+
+    /** Paso de BFS: los visitados nuevos y sus vecinos {nombre, padre} por partición dueña. */
+    static Respuesta deExpansion(List<String> nuevos, Map<Integer, List<String[]>> vecinos) {
+        Respuesta r = new Respuesta();
+        r.nombres = nuevos;
+        r.vecinos = vecinos;
+        return r;
+    }
+
+    /** Vecinos que siguen existiendo, el peso de la arista hacia cada uno y sus scorings. */
+    static Respuesta dePesos(List<String> vecinos, double[] pesos, Map<String, Integer> scorings) {
+        Respuesta r = new Respuesta();
+        r.nombres = vecinos;
+        r.pesos = pesos;
+        r.scorings = scorings;
+        return r;
+    }
+
+    public boolean isOk() { return ok; }
+    public Integer getNumero() { return numero; }
+    public String getTexto() { return texto; }
+    public List<String> getNombres() { return nombres; }
+    public List<FichaCliente> getFichas() { return fichas; }
+    public Map<String, Integer> getScorings() { return scorings; }
+    public Map<Integer, List<String>> getPorParticion() { return porParticion; }
+    public Map<Integer, List<String[]>> getVecinos() { return vecinos; }
+    public List<String[]> getPares() { return pares; }
+    public double[] getPesos() { return pesos; }
+}
@@ -0,0 +1,844 @@
+package services.particion;
+
+import exceptions.ClienteNoEncontradoException;
+import exceptions.ClienteYaExisteException;
+import exceptions.OperacionInvalidaException;
+import exceptions.SocialNetworkException;
+import models.Accion;
+import models.Cliente;
+import models.FichaCliente;
+import services.ActionHistory;
+import services.EstrategiaPeso;
+import services.ISocialNetwork;
+import utils.TDA.HeapIndexado;
+
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+/**
+ * Red social repartida en N particiones por hash del nombre. Este coordinador no guarda clientes:
+ * enruta cada operación a la partición dueña a través del {@link Transporte}.
+ *
+ * - buscarPorScoring se resuelve por scatter-gather (cada partición consulta su propio AVL).
+ * - Las BFS (distancias, caminos, niveles) avanzan nivel por nivel intercambiando la frontera:
+ *   cada partición marca sus visitados y devuelve los vecinos agrupados por partición dueña.
+ * - Dijkstra corre en el coordinador y pide a las particiones los vecinos de cada nodo que fija,
+ *   con el peso de cada arista ya calculado por la partición dueña del vecino.
+ *
+ * Con las particiones solo se intercambian mensajes de datos ({@link Peticion}, {@link Respuesta}).
+ * Los {@link Cliente} que devuelven las consultas son copias armadas desde las fichas: tienen todas
+ * sus amistades y seguidos (también los que cruzan particiones), sus vecinos son copias con nombre
+ * y scoring, y modificarlos no cambia la red. clientesEnNivel devuelve el nivel agrupado por
+ * partición, no en el orden de una BFS secuencial.
+ */
+public class SocialNetworkParticionada implements ISocialNetwork, AutoCloseable {
+    private final Transporte transporte;
+    private final ActionHistory history;
+
+    // Identificador de cada BFS distribuida (las particiones guardan sus visitados por consulta)
+    private final AtomicLong consultas = new AtomicLong();
+
+    public SocialNetworkParticionada(int cantidadParticiones) {
+        this(new TransporteLocal(cantidadParticiones));
+    }
+
+    public SocialNetworkParticionada(Transporte transporte) {
+        this.transporte = transporte;
+        this.history = new ActionHistory();
+    }
+
+    public int cantidadParticiones() {
+        return transporte.cantidadParticiones();
+    }
+
+    public int particionDe(String nombre) {
+        return Math.floorMod(nombre.hashCode(), transporte.cantidadParticiones());
+    }
+
+    public int cantidadClientes() {
+        int total = 0;
+        for (Respuesta r : enTodas(Peticion.cantidad())) total += r.getNumero();
+        return total;
+    }
+
+    @Override
+    public void close() {
+        transporte.close();
+    }
+
+    // ==========================================
+    // --- GESTIÓN BÁSICA DE CLIENTES ---
+    // ==========================================
+
+    @Override
+    public void agregarCliente(String nombre, int scoring) throws ClienteYaExisteException {
+        validarScoring(scoring);
+        if (!en(nombre, Peticion.agregar(nombre, scoring)).isOk()) {
+            throw new ClienteYaExisteException(nombre);
+        }
+        history.registrarAccion(new Accion(Accion.TipoAccion.AGREGAR_CLIENTE, nombre, null));
+        System.out.println("LOG: Cliente agregado -> " + nombre + " (partición " + particionDe(nombre) + ")");
+    }
+
+    @Override
+    public Cliente buscarPorNombre(String nombre) {
+        List<FichaCliente> fichas = en(nombre, Peticion.fichasDe(List.of(nombre))).getFichas();
+        return fichas.isEmpty() ? null : copias(fichas).get(0);
+    }
+
+    @Override
+    public List<Cliente> buscarPorScoring(int scoring) {
+        List<FichaCliente> fichas = new ArrayList<>();
+        for (Respuesta parcial : enTodas(Peticion.porScoring(scoring))) fichas.addAll(parcial.getFichas());
+        return copias(fichas);
+    }
+
+    @Override
+    public void actualizarScoring(String nombre, int nuevoScoring) throws ClienteNoEncontradoException {
+        validarScoring(nuevoScoring);
+        Integer anterior = en(nombre, Peticion.actualizarScoring(nombre, nuevoScoring)).getNumero();
+        if (anterior == null) throw new ClienteNoEncontradoException(nombre);
+        if (anterior == nuevoScoring) return;
+
+        Map<String, Integer> respaldo = new HashMap<>();
+        respaldo.put(nombre, anterior);
+        history.registrarAccion(new Accion(Accion.TipoAccion.ACTUALIZAR_SCORING, nombre, respaldo));
+        System.out.println("LOG: Scoring de " + nombre + " actualizado " + anterior + " -> " + nuevoScoring);
+    }
+
+    @Override
+    public void actualizarScorings(Map<String, Integer> nuevosScorings) throws ClienteNoEncontradoException {
+        // Validamos el lote completo antes de tocar nada (todo o nada)
+        for (Integer scoring : nuevosScorings.values()) validarScoring(scoring);
+        exigirTodos(nuevosScorings.keySet());
+
+        Map<String, Integer> anteriores = aplicarScorings(nuevosScorings);
+        if (anteriores.isEmpty()) return;
+
+        history.registrarAccion(new Accion(Accion.TipoAccion.ACTUALIZAR_SCORING, anteriores.size() + " clientes", anteriores));
+        System.out.println("LOG: Re-scoring en lote de " + anteriores.size() + " clientes.");
+    }
+
+    private Map<String, Integer> aplicarScorings(Map<String, Integer> nuevosScorings) {
+        Map<Integer, Map<String, Integer>> porParticion = new TreeMap<>();
+        for (Map.Entry<String, Integer> e : nuevosScorings.entrySet()) {
+            porParticion.computeIfAbsent(particionDe(e.getKey()), k -> new HashMap<>()).put(e.getKey(), e.getValue());
+        }
+
+        List<CompletableFuture<Respuesta>> parciales = new ArrayList<>();
+        for (Map.Entry<Integer, Map<String, Integer>> e : porParticion.entrySet()) {
+            parciales.add(transporte.enviar(e.getKey(), Peticion.aplicarScorings(e.getValue())));
+        }
+
+        Map<String, Integer> anteriores = new HashMap<>();
+        for (CompletableFuture<Respuesta> parcial : parciales) anteriores.putAll(esperar(parcial).getScorings());
+        return anteriores;
+    }
+
+    private void validarScoring(int scoring) {
+        if (scoring < 0 || scoring > 100) {
+            throw new IllegalArgumentException("El scoring debe estar entre 0 y 100.");
+        }
+    }
+
+    // ==============================================================
+    // --- GESTIÓN DE SEGUIMIENTOS (DIRIGIDO, MAX 2) ---
+    // ==============================================================
+
+    @Override
+    public void enviarSolicitud(String solicitante, String solicitado) throws SocialNetworkException {
+        if (solicitante.equals(solicitado)) {
+            throw new OperacionInvalidaException("Un usuario no puede enviarse solicitud a sí mismo.");
+        }
+        exigir(solicitante);
+        exigir(solicitado);
+
+        en(solicitado, Peticion.recibirSolicitud(solicitado, solicitante));
+        history.registrarAccion(new Accion(Accion.TipoAccion.SEGUIR_USUARIO, solicitante, solicitado));
+        System.out.println("LOG: Solicitud enviada al buzón de " + solicitado);
+    }
+
+    @Override
+    public List<String> procesarSolicitudes() {
+        List<String> procesados = new ArrayList<>();
+        System.out.println("\n--- Procesando Solicitudes (Buzones por Partición) ---");
+
+        // 1. Cada partición vacía sus buzones
+        List<String[]> pares = new ArrayList<>();
+        for (Respuesta parcial : enTodas(Peticion.drenarBuzones())) pares.addAll(parcial.getPares());
+
+        // 2. Se agrupan por la partición del solicitante, que es quien controla su cupo de 2
+        Map<Integer, List<String[]>> porParticion = new TreeMap<>();
+        for (String[] par : pares) porParticion.computeIfAbsent(particionDe(par[0]), k -> new ArrayList<>()).add(par);
+
+        Map<Integer, CompletableFuture<Respuesta>> resultados = new TreeMap<>();
+        for (Map.Entry<Integer, List<String[]>> e : porParticion.entrySet()) {
+            List<String[]> lote = e.getValue();
+            List<ReferenciaRemota> destinos = new ArrayList<>(lote.size());
+            for (String[] par : lote) destinos.add(referencia(par[1]));
+            resultados.put(e.getKey(), transporte.enviar(e.getKey(), Peticion.seguirTodos(lote, destinos)));
+        }
+
+        for (Map.Entry<Integer, CompletableFuture<Respuesta>> e : resultados.entrySet()) {
+            List<String[]> lote = porParticion.get(e.getKey());
+            List<String> motivos = esperar(e.getValue()).getNombres();
+            for (int i = 0; i < lote.size(); i++) {
+                if (motivos.get(i) == null) {
+                    String log = "✅ Aceptada: " + lote.get(i)[0] + " -> " + lote.get(i)[1];
+                    System.out.println(log);
+                    procesados.add(log);
+                } else {
+                    System.out.println("⚠️ Solicitud rechazada para " + lote.get(i)[0] + ": " + motivos.get(i));
+                }
+            }
+        }
+        return procesados;
+    }
+
+    @Override
+    public void analizarNivel(String nombreOrigen, int nivelObjetivo) {
+        List<Cliente> nivelEncontrado;
+        try {
+            nivelEncontrado = clientesEnNivel(nombreOrigen, nivelObjetivo);
+        } catch (ClienteNoEncontradoException e) {
+            System.out.println("Cliente no encontrado.");
+            return;
+        } catch (IllegalArgumentException e) {
+            System.out.println(e.getMessage());
+            return;
+        }
+
+        System.out.println("\n--- ANÁLISIS DE RED (SEGUIDORES): NIVEL " + nivelObjetivo + " desde " + nombreOrigen + " ---");
+
+        if (nivelEncontrado.isEmpty()) {
+            System.out.println("No hay nadie en el nivel " + nivelObjetivo + ".");
+        } else {
+            System.out.println("Clientes en el nivel " + nivelObjetivo + ":");
+            for (Cliente c : nivelEncontrado) {
+                System.out.println(" -> " + c.getNombre() + " (Scoring: " + c.getScoring() + ")");
+            }
+        }
+    }
+
+    @Override
+    public List<Cliente> clientesEnNivel(String nombreOrigen, int nivelObjetivo) throws ClienteNoEncontradoException {
+        exigir(nombreOrigen);
+        if (nivelObjetivo < 0) {
+            throw new IllegalArgumentException("El nivel no puede ser negativo.");
+        }
+
+        List<String> nivelEncontrado = new ArrayList<>();
+        long consulta = consultas.incrementAndGet();
+        try {
+            recorrer(consulta, nombreOrigen, false, nivelObjetivo, (nivel, nuevos) -> {
+                if (nivel == nivelObjetivo) nivelEncontrado.addAll(nuevos);
+                return false;
+            });
+        } finally {
+            terminarConsulta(consulta);
+        }
+        return copias(fichasDe(nivelEncontrado));
+    }
+
+    // ==============================================================
+    // --- GRAFOS GENERALES (AMISTADES Y DISTANCIAS) ---
+    // ==============================================================
+
+    @Override
+    public void crearAmistad(String nombre1, String nombre2) throws ClienteNoEncontradoException {
+        if (nombre1.equals(nombre2)) {
+            throw new IllegalArgumentException("Un usuario no puede ser amigo de sí mismo.");
+        }
+        exigir(nombre1);
+        exigir(nombre2);
+
+        vincularAmigos(nombre1, nombre2);
+        System.out.println("🤝 Nueva amistad creada: " + nombre1 + " y " + nombre2);
+    }
+
+    // La misma partición usa referencias directas; si cruza, cada lado guarda la referencia remota
+    private void vincularAmigos(String nombre1, String nombre2) {
+        int p1 = particionDe(nombre1);
+        int p2 = particionDe(nombre2);
+        if (p1 == p2) {
+            en(nombre1, Peticion.amistadLocal(nombre1, nombre2));
+            return;
+        }
+        CompletableFuture<Respuesta> lado1 = transporte.enviar(p1, Peticion.amistadRemota(nombre1, new ReferenciaRemota(p2, nombre2)));
+        CompletableFuture<Respuesta> lado2 = transporte.enviar(p2, Peticion.amistadRemota(nombre2, new ReferenciaRemota(p1, nombre1)));
+        esperar(lado1);
+        esperar(lado2);
+    }
+
+    @Override
+    public int calcularDistancia(String origen, String destino) throws ClienteNoEncontradoException {
+        if (origen.equals(destino)) return 0; // Distancia a sí mismo es 0
+        exigir(origen);
+        exigir(destino);
+
+        int[] distancia = {-1};
+        long consulta = consultas.incrementAndGet();
+        try {
+            recorrer(consulta, origen, true, Integer.MAX_VALUE, (nivel, nuevos) -> {
+                if (!nuevos.contains(destino)) return false;
+                distancia[0] = nivel;
+                return true;
+            });
+        } finally {
+            terminarConsulta(consulta);
+        }
+        return distancia[0];
+    }
+
+    @Override
+    public List<String> calcularCamino(String origen, String destino) throws ClienteNoEncontradoException {
+        exigir(origen);
+        exigir(destino);
+
+        boolean[] encontrado = {false};
+        long consulta = consultas.incrementAndGet();
+        try {
+            recorrer(consulta, origen, true, Integer.MAX_VALUE, (nivel, nuevos) -> {
+                encontrado[0] = nuevos.contains(destino);
+                return encontrado[0];
+            });
+
+            List<String> camino = new ArrayList<>();
+            if (!encontrado[0]) return camino; // No hay ruta que los conecte
+
+            // Cada partición recuerda el padre de sus visitados: se reconstruye salto a salto
+            for (String actual = destino; actual != null; ) {
+                camino.add(actual);
+                String nombre = actual;
+                actual = en(nombre, Peticion.padreEn(consulta, nombre)).getTexto();
+            }
+            Collections.reverse(camino);
+            return camino;
+        } finally {
+            terminarConsulta(consulta);
+        }
+    }
+
+    @Override
+    public Map<String, Integer> calcularDistancias(String origen, Collection<String> destinos) throws ClienteNoEncontradoException {
+        exigir(origen);
+        exigirTodos(destinos);
+
+        Map<String, Integer> resultado = new LinkedHashMap<>();
+        Set<String> pendientes = new HashSet<>();
+        for (String nombre : destinos) {
+            resultado.put(nombre, -1);
+            pendientes.add(nombre);
+        }
+        if (pendientes.isEmpty()) return resultado;
+
+        long consulta = consultas.incrementAndGet();
+        try {
+            recorrer(consulta, origen, true, Integer.MAX_VALUE, (nivel, nuevos) -> {
+                for (String nombre : nuevos) {
+                    if (pendientes.remove(nombre)) resultado.put(nombre, nivel);
+                }
+                return pendientes.isEmpty();
+            });
+        } finally {
+            terminarConsulta(consulta);
+        }
+        return resultado;
+    }
+
+    /**
+     * Se invoca una vez por nivel con los nombres de los clientes descubiertos en él.
+     */
+    private interface VisitaNivel {
+        /** @return true para cortar el recorrido. */
+        boolean visitar(int nivel, List<String> nuevos);
+    }
+
+    /**
+     * BFS sincronizada por niveles con intercambio de frontera: en cada ronda todas las particiones
+     * involucradas expanden en paralelo y el coordinador redistribuye los vecinos a sus dueñas.
+     * Los vecinos del último nivel pedido no se calculan.
+     */
+    private void recorrer(long consulta, String origen, boolean amistades, int nivelMaximo, VisitaNivel visita) {
+        Map<Integer, List<String[]>> frontera = new TreeMap<>();
+        frontera.put(particionDe(origen), Collections.singletonList(new String[]{origen, null}));
+
+        for (int nivel = 0; !frontera.isEmpty(); nivel++) {
+            boolean ultimo = nivel >= nivelMaximo;
+
+            List<CompletableFuture<Respuesta>> pasos = new ArrayList<>(frontera.size());
+            for (Map.Entry<Integer, List<String[]>> e : frontera.entrySet()) {
+                pasos.add(transporte.enviar(e.getKey(), Peticion.expandir(consulta, e.getValue(), amistades, !ultimo)));
+            }
+
+            List<String> nuevos = new ArrayList<>();
+            Map<Integer, List<String[]>> siguiente = new TreeMap<>();
+            for (CompletableFuture<Respuesta> paso : pasos) {
+                Respuesta expansion = esperar(paso);
+                nuevos.addAll(expansion.getNombres());
+                for (Map.Entry<Integer, List<String[]>> e : expansion.getVecinos().entrySet()) {
+                    siguiente.computeIfAbsent(e.getKey(), k -> new ArrayList<>()).addAll(e.getValue());
+                }
+            }
+
+            if (visita.visitar(nivel, nuevos) || ultimo) return;
+            frontera = siguiente;
+        }
+    }
+
+    private void terminarConsulta(long consulta) {
+        enTodas(Peticion.terminarConsulta(consulta));
+    }
+
+    @Override
+    public double calcularDistanciaPonderada(String origen, String destino, EstrategiaPeso peso) throws ClienteNoEncontradoException {
+        RutaPonderada ruta = dijkstra(origen, destino, peso);
+        return (ruta == null) ? -1 : ruta.costo;
+    }
+
+    @Override
+    public List<String> calcularCaminoPonderado(String origen, String destino, EstrategiaPeso peso) throws ClienteNoEncontradoException {
+        RutaPonderada ruta = dijkstra(origen, destino, peso);
+        return (ruta == null) ? new ArrayList<>() : ruta.nombres;
+    }
+
+    private static final class RutaPonderada {
+        final double costo;
+        final List<String> nombres;
+
+        RutaPonderada(double costo, List<String> nombres) {
+            this.costo = costo;
+            this.nombres = nombres;
+        }
+    }
+
+    /**
+     * Dijkstra dirigido por el coordinador. Los clientes se numeran a medida que se descubren, y
+     * por cada nodo fijado se piden a las particiones sus amigos con el peso de cada arista.
+     * @return null si el destino no es alcanzable.
+     */
+    private RutaPonderada dijkstra(String origen, String destino, EstrategiaPeso peso) throws ClienteNoEncontradoException {
+        Integer scoringOrigen = en(origen, Peticion.scorings(List.of(origen))).getScorings().get(origen);
+        if (scoringOrigen == null) throw new ClienteNoEncontradoException(origen);
+        exigir(destino);
+
+        Map<String, Integer> ids = new HashMap<>();
+        List<String> nombres = new ArrayList<>();
+        int[] scoring = new int[16];
+        double[] distancia = new double[16];
+        int[] padre = new int[16];
+        boolean[] fijado = new boolean[16];
+        HeapIndexado heap = new HeapIndexado(16);
+
+        ids.put(origen, 0);
+        nombres.add(origen);
+        scoring[0] = scoringOrigen;
+        padre[0] = -1;
+        heap.insertarOReducir(0, 0);
+
+        while (!heap.estaVacio()) {
+            int actual = heap.extraerMinimo();
+            fijado[actual] = true;
+            String desde = nombres.get(actual);
+            if (desde.equals(destino)) {
+                List<String> camino = new ArrayList<>();
+                for (int id = actual; id != -1; id = padre[id]) camino.add(nombres.get(id));
+                Collections.reverse(camino);
+                return new RutaPonderada(distancia[actual], camino);
+            }
+
+            for (Respuesta parte : pesosDesde(desde, scoring[actual], peso)) {
+                List<String> vecinos = parte.getNombres();
+                for (int k = 0; k < vecinos.size(); k++) {
+                    String vecino = vecinos.get(k);
+                    Integer id = ids.get(vecino);
+                    if (id != null && fijado[id]) continue;
+
+                    double w = parte.getPesos()[k];
+                    if (w < 0 || Double.isNaN(w)) {
+                        throw new IllegalArgumentException("La estrategia devolvió un peso inválido (" + w + ") entre "
+                                + desde + " y " + vecino + ".");
+                    }
+
+                    double candidata = distancia[actual] + w;
+                    if (id == null) {
+                        id = nombres.size();
+                        ids.put(vecino, id);
+                        nombres.add(vecino);
+                        if (id == distancia.length) {
+                            scoring = Arrays.copyOf(scoring, id * 2);
+                            distancia = Arrays.copyOf(distancia, id * 2);
+                            padre = Arrays.copyOf(padre, id * 2);
+                            fijado = Arrays.copyOf(fijado, id * 2);
+                        }
+                        scoring[id] = parte.getScorings().get(vecino);
+                        heap.asegurarCapacidad(id + 1);
+                    } else if (candidata >= distancia[id]) {
+                        continue;
+                    }
+                    distancia[id] = candidata;
+                    padre[id] = actual;
+                    heap.insertarOReducir(id, candidata);
+                }
+            }
+        }
+        return null;
+    }
+
+    // ==========================================
+    // --- AMIGOS EN COMÚN ---
+    // ==========================================
+    // Solo hacen falta los nombres, que la partición dueña de cada cliente ya conoce (una consulta por cliente)
+
+    @Override
+    public List<String> amigosEnComun(String nombre1, String nombre2) throws ClienteNoEncontradoException {
+        exigir(nombre1);
+        exigir(nombre2);
+        Set<String> amigos1 = nombresDeAmigos(nombre1);
+        List<String> comunes = new ArrayList<>();
+        for (String amigo : nombresDeAmigos(nombre2)) {
+            if (amigos1.contains(amigo)) comunes.add(amigo);
+        }
+        return comunes;
+    }
+
+    @Override
+    public int cantidadAmigosEnComun(String nombre1, String nombre2) throws ClienteNoEncontradoException {
+        return amigosEnComun(nombre1, nombre2).size();
+    }
+
+    @Override
+    public Map<String, Integer> cantidadAmigosEnComun(String nombre, Collection<String> otros) throws ClienteNoEncontradoException {
+        exigir(nombre);
+        exigirTodos(otros);
+        Set<String> amigos = nombresDeAmigos(nombre);
+        Map<String, Integer> resultado = new LinkedHashMap<>();
+        for (String otro : otros) {
+            int comunes = 0;
+            for (String amigo : nombresDeAmigos(otro)) {
+                if (amigos.contains(amigo)) comunes++;
+            }
+            resultado.put(otro, comunes);
+        }
+        return resultado;
+    }
+
+    private Set<String> nombresDeAmigos(String nombre) {
+        Set<String> nombres = new HashSet<>();
+        for (List<String> parte : en(nombre, Peticion.amigosPorParticion(nombre)).getPorParticion().values()) nombres.addAll(parte);
+        return nombres;
+    }
+
+    // Pesos hacia todos los amigos (locales y remotos): cada partición dueña calcula los de sus
+    // clientes, en paralelo. Respuestas en orden de partición.
+    private List<Respuesta> pesosDesde(String nombre, int scoring, EstrategiaPeso peso) {
+        Map<Integer, List<String>> porParticion = en(nombre, Peticion.amigosPorParticion(nombre)).getPorParticion();
+        List<CompletableFuture<Respuesta>> partes = new ArrayList<>();
+        for (Map.Entry<Integer, List<String>> e : new TreeMap<>(porParticion).entrySet()) {
+            partes.add(transporte.enviar(e.getKey(), Peticion.pesos(nombre, scoring, e.getValue(), peso)));
+        }
+        List<Respuesta> respuestas = new ArrayList<>(partes.size());
+        for (CompletableFuture<Respuesta> parte : partes) respuestas.add(esperar(parte));
+        return respuestas;
+    }
+
+    // ==========================================
+    // --- HISTORIAL, DESHACER Y MEMENTO ---
+    // ==========================================
+
+    @Override
+    public void deshacerUltimaAccion() {
+        if (history.isEmpty()) {
+            System.out.println("Info: El historial está vacío.");
+            return;
+        }
+
+        Accion ultima = history.deshacer();
+        System.out.println("Deshaciendo: " + ultima);
+
+        switch (ultima.getTipo()) {
+            case AGREGAR_CLIENTE:
+                if (eliminarEnCascada(ultima.getSujeto()) != null) {
+                    System.out.println("LOG: Cliente eliminado por deshacer.");
+                }
+                break;
+
+            case SEGUIR_USUARIO:
+                String sujeto = ultima.getSujeto();
+                String objeto = ultima.getObjeto();
+                if (en(sujeto, Peticion.dejarDeSeguir(sujeto, objeto)).isOk()) {
+                    System.out.println("LOG: Se dejó de seguir a " + objeto);
+                }
+                break;
+
+            case ELIMINAR_CLIENTE:
+                String nombre = ultima.getSujeto();
+                Respaldo datos = (Respaldo) ultima.getRespaldo();
+                if (datos != null && en(nombre, Peticion.agregar(nombre, datos.ficha.getScoring())).isOk()) {
+                    ReferenciaRemota resucitado = referencia(nombre);
+                    for (String seguido : datos.ficha.getSiguiendo()) {
+                        if (contiene(seguido)) en(nombre, Peticion.seguir(nombre, referencia(seguido)));
+                    }
+                    for (String seguidor : datos.seguidores) {
+                        en(seguidor, Peticion.seguir(seguidor, resucitado));
+                    }
+                    for (String amigo : datos.ficha.getAmigos()) {
+                        if (contiene(amigo)) vincularAmigos(nombre, amigo);
+                    }
+                    System.out.println("✨ ÉXITO: " + nombre + " ha sido restaurado con todas sus conexiones.");
+                }
+                break;
+
+            case ACTUALIZAR_SCORING:
+                @SuppressWarnings("unchecked")
+                Map<String, Integer> anteriores = (Map<String, Integer>) ultima.getRespaldo();
+                aplicarScorings(anteriores);
+                System.out.println("LOG: Scoring restaurado para " + anteriores.size() + " cliente(s).");
+                break;
+        }
+    }
+
+    @Override
+    public void eliminarClienteTotalmente(String nombre) throws ClienteNoEncontradoException {
+        // 1. Memento: la ficha tiene amigos y seguidos; los seguidores se juntan de todas las particiones
+        List<String> seguidores = new ArrayList<>();
+        for (Respuesta parcial : enTodas(Peticion.seguidoresDe(nombre))) seguidores.addAll(parcial.getNombres());
+
+        FichaCliente ficha = eliminarEnCascada(nombre);
+        if (ficha == null) throw new ClienteNoEncontradoException(nombre);
+
+        history.registrarAccion(new Accion(Accion.TipoAccion.ELIMINAR_CLIENTE, nombre, new Respaldo(ficha, seguidores)));
+        System.out.println("🗑️ Cliente '" + nombre + "' eliminado de todas las redes.");
+    }
+
+    /**
+     * Borra al cliente y todas las aristas que lo apuntan, estén en la partición que estén.
+     * @return La ficha previa al borrado, o null si no existía.
+     */
+    private FichaCliente eliminarEnCascada(String nombre) {
+        List<FichaCliente> previa = en(nombre, Peticion.fichasDe(List.of(nombre))).getFichas();
+        if (previa.isEmpty()) return null;
+
+        // A. Seguimientos entrantes (en cualquier partición)
+        enTodas(Peticion.dejarDeSeguirATodos(nombre));
+
+        // B. Mitades remotas de las amistades
+        int propia = particionDe(nombre);
+        for (String amigo : previa.get(0).getAmigos()) {
+            if (particionDe(amigo) != propia) en(amigo, Peticion.eliminarAmistad(amigo, nombre));
+        }
+
+        // C. El cliente, su índice y sus aristas locales
+        List<FichaCliente> borrada = en(nombre, Peticion.eliminar(nombre)).getFichas();
+        return borrada.isEmpty() ? null : borrada.get(0);
+    }
+
+    private static final class Respaldo {
+        final FichaCliente ficha;
+        final List<String> seguidores;
+
+        Respaldo(FichaCliente ficha, List<String> seguidores) {
+            this.ficha = ficha;
+            this.seguidores = new ArrayList<>(seguidores);
+        }
+    }
+
+    // ==========================================
+    // --- CONSULTAS Y REPORTES DE CONSOLA ---
+    // ==========================================
+
+    @Override
+    public void mostrarConexionesDe(String nombre) throws ClienteNoEncontradoException {
+        List<FichaCliente> fichas = en(nombre, Peticion.fichasDe(List.of(nombre))).getFichas();
+        if (fichas.isEmpty()) throw new ClienteNoEncontradoException(nombre);
+        FichaCliente c = fichas.get(0);
+
+        System.out.println("\n=== PERFIL DE: " + c.getNombre().toUpperCase() + " ===");
+        System.out.println("📊 Scoring actual: " + c.getScoring() + " (partición " + particionDe(nombre) + ")");
+
+        System.out.println("\n--- 🤝 AMISTADES GENERALES (No Dirigidas) ---");
+        Map<String, Integer> scoringAmigos = scoringsDe(c.getAmigos());
+        List<String> amigos = new ArrayList<>(c.getAmigos());
+        amigos.retainAll(scoringAmigos.keySet());
+        if (amigos.isEmpty()) {
+            System.out.println("   No tiene amigos agregados.");
+        } else {
+            System.out.println("   Amigos (" + amigos.size() + "):");
+            for (String amigo : amigos) {
+                System.out.println("   - " + amigo + " (Score: " + scoringAmigos.get(amigo) + ")");
+            }
+        }
+
+        System.out.println("\n--- 📱 RED DE SEGUIMIENTO (Dirigida) ---");
+        List<String> sigueA = c.getSiguiendo();
+        if (sigueA.isEmpty()) {
+            System.out.println("➡  No sigue a nadie.");
+        } else {
+            System.out.println("➡  Sigue a (" + sigueA.size() + "/2):");
+            for (String seguido : sigueA) System.out.println("   - " + seguido);
+        }
+
+        List<String> seguidores = new ArrayList<>();
+        for (Respuesta parcial : enTodas(Peticion.seguidoresDe(nombre))) seguidores.addAll(parcial.getNombres());
+        if (seguidores.isEmpty()) {
+            System.out.println("⬅  No tiene seguidores.");
+        } else {
+            System.out.println("⬅  Seguido por (" + seguidores.size() + "):");
+            for (String seguidor : seguidores) System.out.println("   - " + seguidor);
+        }
+        System.out.println("==========================================");
+    }
+
+    @Override
+    public void mostrarEstadoGeneral() {
+        List<FichaCliente> fichas = new ArrayList<>();
+        for (Respuesta parcial : enTodas(Peticion.fichas())) fichas.addAll(parcial.getFichas());
+
+        if (fichas.isEmpty()) {
+            System.out.println("❌ No hay clientes en el sistema.");
+            return;
+        }
+
+        System.out.println("\n--- ESTADO GENERAL DE LA RED SOCIAL (" + cantidadParticiones() + " particiones) ---");
+        for (FichaCliente c : fichas) {
+            System.out.println("👤 " + c.getNombre() + " (Scoring: " + c.getScoring() + ")");
+
+            if (!c.getAmigos().isEmpty()) {
+                System.out.println("   🤝 Amigos: " + String.join(", ", c.getAmigos()));
+            }
+            if (c.getPendientes() > 0) {
+                System.out.println("   📩 Buzón: " + c.getPendientes() + " pendientes");
+            }
+            if (c.getSiguiendo().isEmpty()) {
+                System.out.println("   ➡ Sigue a: (Nadie)");
+            } else {
+                System.out.println("   ➡ Sigue a: " + String.join(", ", c.getSiguiendo()));
+            }
+            System.out.println("---------------------------------------");
+        }
+    }
+
+    @Override
+    public void verHistorial() {
+        history.mostrarHistorialCompleto();
+    }
+
+    /**
+     * Historial de acciones, para consultarlo por rango de tiempo, tipo o cliente sin imprimirlo.
+     */
+    public ActionHistory getHistorial() {
+        return history;
+    }
+
+    // ==========================================
+    // --- ENRUTAMIENTO ---
+    // ==========================================
+
+    private ReferenciaRemota referencia(String nombre) {
+        return new ReferenciaRemota(particionDe(nombre), nombre);
+    }
+
+    private boolean contiene(String nombre) {
+        return en(nombre, Peticion.contiene(nombre)).isOk();
+    }
+
+    private void exigir(String nombre) throws ClienteNoEncontradoException {
+        if (!contiene(nombre)) throw new ClienteNoEncontradoException(nombre);
+    }
+
+    // Verifica la existencia de todos los nombres con una consulta por partición
+    private void exigirTodos(Collection<String> nombres) throws ClienteNoEncontradoException {
+        for (Respuesta r : porDuenia(nombres, Peticion::primerFaltante)) {
+            if (r.getTexto() != null) throw new ClienteNoEncontradoException(r.getTexto());
+        }
+    }
+
+    // Scoring actual de los nombres que siguen existiendo
+    private Map<String, Integer> scoringsDe(Collection<String> nombres) {
+        Map<String, Integer> scorings = new HashMap<>();
+        for (Respuesta r : porDuenia(nombres, Peticion::scorings)) scorings.putAll(r.getScorings());
+        return scorings;
+    }
+
+    // Fichas de los nombres que siguen existiendo, agrupadas por partición
+    private List<FichaCliente> fichasDe(Collection<String> nombres) {
+        List<FichaCliente> fichas = new ArrayList<>(nombres.size());
+        for (Respuesta r : porDuenia(nombres, Peticion::fichasDe)) fichas.addAll(r.getFichas());
+        return fichas;
+    }
+
+    /**
+     * Copias desacopladas para devolver por la interfaz: cada cliente con todas sus amistades y
+     * seguidos, también los que cruzan particiones. Los vecinos que no están entre las fichas son
+     * copias con nombre y scoring, sin aristas propias.
+     */
+    private List<Cliente> copias(List<FichaCliente> fichas) {
+        Map<String, Cliente> porNombre = new HashMap<>();
+        for (FichaCliente f : fichas) porNombre.put(f.getNombre(), new Cliente(f.getNombre(), f.getScoring()));
+        Set<String> vecinos = new LinkedHashSet<>();
+        for (FichaCliente f : fichas) {
+            for (String amigo : f.getAmigos()) if (!porNombre.containsKey(amigo)) vecinos.add(amigo);
+            for (String seguido : f.getSiguiendo()) if (!porNombre.containsKey(seguido)) vecinos.add(seguido);
+        }
+        for (Map.Entry<String, Integer> e : scoringsDe(vecinos).entrySet()) {
+            porNombre.put(e.getKey(), new Cliente(e.getKey(), e.getValue()));
+        }
+
+        List<Cliente> copias = new ArrayList<>(fichas.size());
+        for (FichaCliente f : fichas) {
+            Cliente c = porNombre.get(f.getNombre());
+            for (String amigo : f.getAmigos()) {
+                Cliente copia = porNombre.get(amigo);
+                if (copia != null) c.agregarAmigo(copia); // null: se borró entre una consulta y otra
+            }
+            for (String seguido : f.getSiguiendo()) {
+                Cliente copia = porNombre.get(seguido);
+                if (copia != null) c.agregarSeguido(copia);
+            }
+            copias.add(c);
+        }
+        return copias;
+    }
+
+    private Respuesta en(String nombre, Peticion peticion) {
+        return esperar(transporte.enviar(particionDe(nombre), peticion));
+    }
+
+    // Scatter-gather: la misma petición a todas las particiones, respuestas en orden de partición
+    private List<Respuesta> enTodas(Peticion peticion) {
+        int n = transporte.cantidadParticiones();
+        List<CompletableFuture<Respuesta>> pendientes = new ArrayList<>(n);
+        for (int i = 0; i < n; i++) pendientes.add(transporte.enviar(i, peticion));
+
+        List<Respuesta> resultados = new ArrayList<>(n);
+        for (CompletableFuture<Respuesta> pendiente : pendientes) resultados.add(esperar(pendiente));
+        return resultados;
+    }
+
+    // Una petición por partición con los nombres que viven en ella, en paralelo y en orden de partición
+    private List<Respuesta> porDuenia(Collection<String> nombres, Function<List<String>, Peticion> armar) {
+        Map<Integer, List<String>> porParticion = new TreeMap<>();
+        for (String nombre : nombres) porParticion.computeIfAbsent(particionDe(nombre), k -> new ArrayList<>()).add(nombre);
+
+        List<CompletableFuture<Respuesta>> pendientes = new ArrayList<>(porParticion.size());
+        for (Map.Entry<Integer, List<String>> e : porParticion.entrySet()) {
+            pendientes.add(transporte.enviar(e.getKey(), armar.apply(e.getValue())));
+        }
+        List<Respuesta> resultados = new ArrayList<>(pendientes.size());
+        for (CompletableFuture<Respuesta> pendiente : pendientes) resultados.add(esperar(pendiente));
+        return resultados;
+    }
+
+    private static <T> T esperar(CompletableFuture<T> futuro) {
+        try {
+            return futuro.join();
+        } catch (CompletionException e) {
+            // Se relanzan tal cual los errores de la partición (p. ej. IllegalStateException)
+            if (e.getCause() instanceof RuntimeException) throw (RuntimeException) e.getCause();
+            throw e;
+        }
+    }
+}
@@ -0,0 +1,21 @@
+package services.particion;
+
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Canal entre el coordinador y las particiones.
+ *
+ * Lo que viaja son mensajes de datos ({@link Peticion} y {@link Respuesta}): la implementación en
+ * proceso los entrega a la partición en su propio hilo; una de red los serializaría tal cual.
+ * Cada partición procesa sus operaciones de a una (como lo haría un nodo independiente) y ningún
+ * cliente sale de su partición.
+ */
+public interface Transporte extends AutoCloseable {
+
+    int cantidadParticiones();
+
+    CompletableFuture<Respuesta> enviar(int particion, Peticion peticion);
+
+    @Override
+    void close();
+}
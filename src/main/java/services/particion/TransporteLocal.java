@@ -0,0 +1,45 @@
+package services.particion;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Transporte en proceso: cada partición tiene su propio hilo, así las operaciones de una misma
+ * partición quedan serializadas y las de particiones distintas corren en paralelo.
+ */
+public class TransporteLocal implements Transporte {
+    private final Particion[] particiones;
+    private final ExecutorService[] hilos;
+
+    public TransporteLocal(int cantidad) {
+        if (cantidad < 1) throw new IllegalArgumentException("Debe haber al menos una partición.");
+        particiones = new Particion[cantidad];
+        hilos = new ExecutorService[cantidad];
+        for (int i = 0; i < cantidad; i++) {
+            particiones[i] = new Particion(i);
+            final int numero = i;
+            hilos[i] = Executors.newSingleThreadExecutor(r -> {
+                Thread t = new Thread(r, "particion-" + numero);
+                t.setDaemon(true);
+                return t;
+            });
+        }
+    }
+
+    @Override
+    public int cantidadParticiones() {
+        return particiones.length;
+    }
+
+    @Override
+    public CompletableFuture<Respuesta> enviar(int particion, Peticion peticion) {
+        Particion destino = particiones[particion];
+        return CompletableFuture.supplyAsync(() -> destino.atender(peticion), hilos[particion]);
+    }
+
+    @Override
+    public void close() {
+        for (ExecutorService hilo : hilos) hilo.shutdown();
+    }
+}
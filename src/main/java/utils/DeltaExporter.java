@@ -0,0 +1,71 @@
+package utils;
+
+import models.Cliente;
+import services.SocialNetwork;
+
+import java.io.*;
+
+/**
+ * Exporta solo lo que cambió en la red desde un checkpoint: altas, modificaciones (con sus
+ * seguidos y amigos actuales) y bajas, en el formato binario de {@link FormatoDelta}.
+ * El costo es proporcional a la cantidad de clientes cambiados, no al tamaño de la red.
+ *
+ * Uso típico: guardar el checkpoint devuelto y pasarlo en la próxima sincronización. La red
+ * empieza a registrar cambios con la primera exportación; desde 0 siempre va la red completa.
+ */
+public class DeltaExporter {
+    private static final int TAMANIO_BUFFER = 1 << 16;
+
+    /**
+     * @return El checkpoint hasta el que llega el delta (el "desde" de la próxima exportación).
+     */
+    public static long exportar(SocialNetwork red, long desde, String rutaArchivo) throws IOException {
+        try (OutputStream out = new FileOutputStream(rutaArchivo)) {
+            return exportar(red, desde, out);
+        }
+    }
+
+    /**
+     * Escribe el delta en el stream dado. Lo vacía pero no lo cierra.
+     */
+    public static long exportar(SocialNetwork red, long desde, OutputStream destino) throws IOException {
+        DataOutputStream out = new DataOutputStream(new BufferedOutputStream(destino, TAMANIO_BUFFER));
+        long hasta = red.getCheckpoint();
+        out.writeInt(FormatoDelta.MAGIA);
+        FormatoDelta.escribirVarLong(out, desde);
+        FormatoDelta.escribirVarLong(out, hasta);
+
+        try {
+            red.recorrerCambiosDesde(desde, (nombre, c) -> {
+                try {
+                    if (c == null) {
+                        out.writeByte(FormatoDelta.BAJA);
+                        out.writeUTF(nombre);
+                    } else {
+                        escribirCliente(out, c);
+                    }
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+
+        out.writeByte(FormatoDelta.FIN);
+        out.flush();
+        return hasta;
+    }
+
+    private static void escribirCliente(DataOutputStream out, Cliente c) throws IOException {
+        out.writeByte(FormatoDelta.CLIENTE);
+        out.writeUTF(c.getNombre());
+        FormatoDelta.escribirVarLong(out, c.getScoring());
+
+        FormatoDelta.escribirVarLong(out, c.getSiguiendo().size());
+        for (Cliente seguido : c.getSiguiendo()) out.writeUTF(seguido.getNombre());
+
+        FormatoDelta.escribirVarLong(out, c.cantidadAmigos());
+        for (Cliente amigo : c.getAmigos()) out.writeUTF(amigo.getNombre());
+    }
+}
@@ -0,0 +1,147 @@
+package utils;
+
+import exceptions.ClienteNoEncontradoException;
+import models.Cliente;
+import services.SocialNetwork;
+
+import java.io.*;
+import java.util.*;
+
+/**
+ * Aplica sobre una réplica un delta generado por {@link DeltaExporter}.
+ *
+ * Igual que {@link JsonLoader} trabaja en dos fases: primero bajas, altas y re-scorings (en lote),
+ * después las aristas, cuando ya existen todos los clientes del delta. Los seguidos y amigos de
+ * cada cliente del delta quedan exactamente como en el origen.
+ */
+public class DeltaLoader {
+
+    /**
+     * @return El checkpoint del origen hasta el que llega el delta aplicado.
+     */
+    public static long aplicar(String rutaArchivo, SocialNetwork red) throws IOException {
+        try (InputStream in = new FileInputStream(rutaArchivo)) {
+            return aplicar(in, red);
+        }
+    }
+
+    public static long aplicar(InputStream origen, SocialNetwork red) throws IOException {
+        DataInputStream in = new DataInputStream(new BufferedInputStream(origen, 1 << 16));
+        if (in.readInt() != FormatoDelta.MAGIA) throw new IOException("El archivo no es un delta de la red.");
+        FormatoDelta.leerVarLong(in); // desde: solo informativo
+        long hasta = FormatoDelta.leerVarLong(in);
+
+        List<String> bajas = new ArrayList<>();
+        List<ClienteDelta> cambios = new ArrayList<>();
+        for (int tipo = in.readUnsignedByte(); tipo != FormatoDelta.FIN; tipo = in.readUnsignedByte()) {
+            if (tipo == FormatoDelta.BAJA) {
+                bajas.add(in.readUTF());
+            } else if (tipo == FormatoDelta.CLIENTE) {
+                cambios.add(leerCliente(in));
+            } else {
+                throw new IOException("Registro de delta desconocido: " + tipo);
+            }
+        }
+
+        // --- FASE 1: NODOS (bajas, altas y re-scorings en lote) ---
+        for (String nombre : bajas) {
+            if (red.buscarPorNombre(nombre) == null) continue;
+            try {
+                red.eliminarClienteTotalmente(nombre);
+            } catch (ClienteNoEncontradoException e) {
+                // Ya no estaba: nada que borrar
+            }
+        }
+
+        Map<String, Integer> nuevos = new LinkedHashMap<>();
+        Map<String, Integer> rescorings = new LinkedHashMap<>();
+        for (ClienteDelta d : cambios) {
+            Cliente actual = red.buscarPorNombre(d.nombre);
+            if (actual == null) {
+                nuevos.put(d.nombre, d.scoring);
+            } else if (actual.getScoring() != d.scoring) {
+                rescorings.put(d.nombre, d.scoring);
+            }
+        }
+        for (String rechazado : red.agregarClientes(nuevos)) {
+            System.out.println("⚠️ Saltando cliente inválido del delta: " + rechazado);
+        }
+        if (!rescorings.isEmpty()) {
+            try {
+                red.actualizarScorings(rescorings);
+            } catch (ClienteNoEncontradoException e) {
+                throw new IllegalStateException("Cliente del delta desaparecido durante la aplicación", e);
+            }
+        }
+
+        // --- FASE 2: ARISTAS (quedan iguales a las del origen) ---
+        for (ClienteDelta d : cambios) {
+            Cliente c = red.buscarPorNombre(d.nombre);
+            if (c == null) continue;
+            sincronizarSeguidos(red, c, d.siguiendo);
+            sincronizarAmigos(red, c, d.amigos);
+        }
+        return hasta;
+    }
+
+    private static void sincronizarSeguidos(SocialNetwork red, Cliente c, List<String> objetivo) {
+        Set<String> quedan = new HashSet<>(objetivo);
+        for (Cliente seguido : new ArrayList<>(c.getSiguiendo())) {
+            if (!quedan.contains(seguido.getNombre())) c.eliminarSeguido(seguido);
+        }
+        for (String nombre : objetivo) {
+            Cliente destino = red.buscarPorNombre(nombre);
+            if (destino == null) {
+                System.out.println("⚠️ Error: " + c.getNombre() + " intenta seguir a " + nombre + " (No existe)");
+            } else if (!c.sigueA(destino)) {
+                c.agregarSeguido(destino);
+            }
+        }
+    }
+
+    private static void sincronizarAmigos(SocialNetwork red, Cliente c, List<String> objetivo) {
+        Set<String> quedan = new HashSet<>(objetivo);
+        for (Cliente amigo : new ArrayList<>(c.getAmigos())) {
+            if (!quedan.contains(amigo.getNombre())) {
+                c.eliminarAmigo(amigo);
+                amigo.eliminarAmigo(c);
+            }
+        }
+        for (String nombre : objetivo) {
+            Cliente amigo = red.buscarPorNombre(nombre);
+            if (amigo == null) {
+                System.out.println("⚠️ Error al crear amistad entre " + c.getNombre() + " y " + nombre + ": no existe");
+            } else if (!c.esAmigoDe(amigo)) {
+                try {
+                    red.crearAmistad(c.getNombre(), nombre);
+                } catch (ClienteNoEncontradoException e) {
+                    throw new IllegalStateException(e);
+                }
+            }
+        }
+    }
+
+    private static ClienteDelta leerCliente(DataInputStream in) throws IOException {
+        ClienteDelta d = new ClienteDelta();
+        d.nombre = in.readUTF();
+        d.scoring = (int) FormatoDelta.leerVarLong(in);
+        d.siguiendo = leerNombres(in);
+        d.amigos = leerNombres(in);
+        return d;
+    }
+
+    private static List<String> leerNombres(DataInputStream in) throws IOException {
+        int n = (int) FormatoDelta.leerVarLong(in);
+        List<String> nombres = new ArrayList<>(n);
+        for (int i = 0; i < n; i++) nombres.add(in.readUTF());
+        return nombres;
+    }
+
+    // Estado de un cliente tal como viene en el delta
+    private static class ClienteDelta {
+        String nombre;
+        int scoring;
+        List<String> siguiendo;
+        List<String> amigos;
+    }
+}
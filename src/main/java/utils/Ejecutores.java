@@ -0,0 +1,23 @@
+package utils;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+public class Ejecutores {
+
+    /**
+     * Un hilo por tarea: virtuales si la JVM los ofrece (Java 21+); en Java 17 cae a un pool de
+     * hilos daemon que crece según la demanda. Se resuelve por reflexión para compilar con 17.
+     */
+    public static ExecutorService porTarea(String nombreHilos) {
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (ReflectiveOperationException e) {
+            return Executors.newCachedThreadPool(r -> {
+                Thread t = new Thread(r, nombreHilos);
+                t.setDaemon(true);
+                return t;
+            });
+        }
+    }
+}
@@ -0,0 +1,43 @@
+package utils;
+
+import java.io.*;
+
+/**
+ * Formato binario de los deltas de la red (ver {@link DeltaExporter} y {@link DeltaLoader}).
+ *
+ * Cabecera: MAGIA (int) | checkpoint desde (varlong) | checkpoint hasta (varlong)
+ * Registros:
+ *   CLIENTE: tipo | nombre (UTF) | scoring (varint) | cant. seguidos + nombres | cant. amigos + nombres
+ *   BAJA:    tipo | nombre (UTF)
+ *   FIN:     tipo
+ * Cada cliente lleva su estado completo de aristas, así aplicar un delta no depende del orden.
+ */
+final class FormatoDelta {
+    static final int MAGIA = 0x444C5431; // "DLT1"
+
+    static final int FIN = 0;
+    static final int CLIENTE = 1;
+    static final int BAJA = 2;
+
+    private FormatoDelta() {
+    }
+
+    // Varint LEB128: 7 bits por byte, el bit alto indica que sigue otro byte
+    static void escribirVarLong(DataOutputStream out, long v) throws IOException {
+        while ((v & ~0x7FL) != 0) {
+            out.writeByte((int) ((v & 0x7F) | 0x80));
+            v >>>= 7;
+        }
+        out.writeByte((int) v);
+    }
+
+    static long leerVarLong(DataInputStream in) throws IOException {
+        long v = 0;
+        for (int corrimiento = 0; corrimiento < 64; corrimiento += 7) {
+            int b = in.readUnsignedByte();
+            v |= (long) (b & 0x7F) << corrimiento;
+            if ((b & 0x80) == 0) return v;
+        }
+        throw new IOException("Varint mal formado en el delta.");
+    }
+}
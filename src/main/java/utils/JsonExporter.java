@@ -0,0 +1,75 @@
+package utils;
+
+import com.google.gson.stream.JsonWriter;
+import models.Cliente;
+import services.SocialNetwork;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Exporta la red al mismo formato que lee {@link JsonLoader} (lista de ClienteDTO con nombre,
+ * scoring, siguiendo y amigos).
+ *
+ * Escribe en streaming con el JsonWriter de Gson sobre un BufferedWriter: cada cliente se vuelca
+ * apenas se visita, así la memoria extra no depende del tamaño de la red. Opcionalmente comprime
+ * con gzip y ordena por scoring recorriendo el AVL en orden.
+ */
+public class JsonExporter {
+    private static final int TAMANIO_BUFFER = 1 << 16;
+
+    public static void exportar(SocialNetwork red, String rutaArchivo) throws IOException {
+        exportar(red, rutaArchivo, false, false);
+    }
+
+    /**
+     * @param comprimir          Si es true el archivo queda en gzip (JsonLoader lo detecta solo).
+     * @param ordenadoPorScoring Si es true los clientes salen por scoring creciente.
+     */
+    public static void exportar(SocialNetwork red, String rutaArchivo, boolean comprimir, boolean ordenadoPorScoring) throws IOException {
+        OutputStream destino = new FileOutputStream(rutaArchivo);
+        if (comprimir) destino = new GZIPOutputStream(destino, TAMANIO_BUFFER);
+        try (Writer writer = new BufferedWriter(new OutputStreamWriter(destino, StandardCharsets.UTF_8), TAMANIO_BUFFER)) {
+            exportar(red, writer, ordenadoPorScoring);
+        }
+    }
+
+    /**
+     * Escribe la red en el writer dado. No lo cierra; sí vacía el JsonWriter al terminar.
+     */
+    public static void exportar(SocialNetwork red, Writer destino, boolean ordenadoPorScoring) throws IOException {
+        JsonWriter json = new JsonWriter(destino);
+        json.setIndent("  ");
+        json.beginArray();
+        try {
+            red.recorrerClientes(ordenadoPorScoring, c -> {
+                try {
+                    escribirCliente(json, c);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        json.endArray();
+        json.flush();
+    }
+
+    private static void escribirCliente(JsonWriter json, Cliente c) throws IOException {
+        json.beginObject();
+        json.name("nombre").value(c.getNombre());
+        json.name("scoring").value(c.getScoring());
+
+        json.name("siguiendo").beginArray();
+        for (Cliente seguido : c.getSiguiendo()) json.value(seguido.getNombre());
+        json.endArray();
+
+        json.name("amigos").beginArray();
+        for (Cliente amigo : c.getAmigos()) json.value(amigo.getNombre());
+        json.endArray();
+
+        json.endObject();
+    }
+}
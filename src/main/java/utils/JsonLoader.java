@@ -5,39 +5,52 @@ import com.google.gson.reflect.TypeToken;
 import models.Cliente;
 import services.SocialNetwork;
 
-import java.io.FileReader;
-import java.io.IOException;
-import java.io.Reader;
+import java.io.*;
 import java.lang.reflect.Type;
+import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.zip.GZIPInputStream;
 
 public class JsonLoader {
 
     public static void cargar(String rutaArchivo, SocialNetwork red) {
+        cargar(rutaArchivo, red, System.out);
+    }
+
+    /**
+     * Igual que cargar, con los avisos de la carga (fases, saltos, errores) en otro destino.
+     */
+    public static void cargar(String rutaArchivo, SocialNetwork red, PrintStream avisos) {
         Gson gson = new Gson();
 
-        try (Reader reader = new FileReader(rutaArchivo)) {
+        try (Reader reader = abrir(rutaArchivo)) {
             // 1. Definimos el tipo de dato que vamos a leer (Lista de DTOs)
             Type listaTipo = new TypeToken<List<ClienteDTO>>() {}.getType();
             List<ClienteDTO> dtos = gson.fromJson(reader, listaTipo);
 
             if (dtos == null) {
-                System.out.println("El archivo JSON está vacío o tiene un formato incorrecto.");
+                avisos.println("El archivo JSON está vacío o tiene un formato incorrecto.");
                 return;
             }
 
-            System.out.println("--- INICIO CARGA DE DATOS ---");
+            avisos.println("--- INICIO CARGA DE DATOS ---");
 
             // --- FASE 1: CARGAR NODOS (Crear los clientes) ---
+            // Se dan de alta en lote para que el índice AVL se construya balanceado en O(n)
+            Map<String, Integer> nuevos = new LinkedHashMap<>();
             for (ClienteDTO dto : dtos) {
-                try {
-                    // Delegamos en la red para que lo meta en el HashMap y en el Árbol AVL
-                    red.agregarCliente(dto.nombre, dto.scoring);
-                } catch (Exception e) {
-                    System.out.println("⚠️ Saltando cliente duplicado o inválido: " + dto.nombre);
+                if (dto.nombre == null || nuevos.containsKey(dto.nombre)) {
+                    avisos.println("⚠️ Saltando cliente duplicado o inválido: " + dto.nombre);
+                } else {
+                    nuevos.put(dto.nombre, dto.scoring);
                 }
             }
-            System.out.println("✅ Fase 1 completada: Clientes cargados.");
+            for (String rechazado : red.agregarClientes(nuevos)) {
+                avisos.println("⚠️ Saltando cliente duplicado o inválido: " + rechazado);
+            }
+            avisos.println("✅ Fase 1 completada: Clientes cargados.");
 
             // --- FASE 2: CARGAR ARISTAS (Crear las relaciones y amistades) ---
             for (ClienteDTO dto : dtos) {
@@ -52,10 +65,10 @@ public class JsonLoader {
                                 try {
                                     origen.agregarSeguido(destino);
                                 } catch (IllegalStateException e) {
-                                    System.out.println("⚠️ " + e.getMessage() + " (en carga de " + dto.nombre + ")");
+                                    avisos.println("⚠️ " + e.getMessage() + " (en carga de " + dto.nombre + ")");
                                 }
                             } else {
-                                System.out.println("⚠️ Error: " + dto.nombre + " intenta seguir a " + nombreDestino + " (No existe)");
+                                avisos.println("⚠️ Error: " + dto.nombre + " intenta seguir a " + nombreDestino + " (No existe)");
                             }
                         }
                     }
@@ -68,19 +81,29 @@ public class JsonLoader {
                             // Usamos el método de la red que garantiza la bidireccionalidad
                             red.crearAmistad(dto.nombre, nombreAmigo);
                         } catch (Exception e) {
-                            System.out.println("⚠️ Error al crear amistad entre " + dto.nombre + " y " + nombreAmigo + ": " + e.getMessage());
+                            avisos.println("⚠️ Error al crear amistad entre " + dto.nombre + " y " + nombreAmigo + ": " + e.getMessage());
                         }
                     }
                 }
             }
-            System.out.println("✅ Fase 2 completada: Relaciones y amistades establecidas.");
-            System.out.println("-----------------------------");
+            avisos.println("✅ Fase 2 completada: Relaciones y amistades establecidas.");
+            avisos.println("-----------------------------");
 
         } catch (IOException e) {
-            System.out.println("❌ Error al leer el archivo JSON: " + e.getMessage());
+            avisos.println("❌ Error al leer el archivo JSON: " + e.getMessage());
         }
     }
 
+    // Acepta tanto JSON plano como comprimido con gzip (lo que genera JsonExporter), según los bytes mágicos
+    private static Reader abrir(String rutaArchivo) throws IOException {
+        InputStream in = new BufferedInputStream(new FileInputStream(rutaArchivo));
+        in.mark(2);
+        int b0 = in.read(), b1 = in.read();
+        in.reset();
+        if (b0 == 0x1f && b1 == 0x8b) in = new GZIPInputStream(in);
+        return new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8));
+    }
+
     // --- CLASE INTERNA (DTO) ---
     // Data Transfer Object: Sirve solo para mapear la estructura del JSON
     // sin ensuciar la lógica de negocio del modelo real.
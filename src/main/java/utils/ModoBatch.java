@@ -0,0 +1,266 @@
+package utils;
+
+import exceptions.SocialNetworkException;
+import models.Cliente;
+import services.EstrategiaPeso;
+import services.ISocialNetwork;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+
+/**
+ * Modo no interactivo de Main: ejecuta un guion de comandos (archivo o stdin), uno por línea, con
+ * las mismas operaciones que el menú.
+ *
+ * - Entrada y salida con buffer: la salida solo se vuelca al llenarse o al terminar.
+ * - Los mensajes de cada operación se apagan en la red (configurarConsola), sin tocar System.out:
+ *   solo salen los resultados de las consultas, los errores (con su número de línea) y un resumen
+ *   con tiempos al final. Al terminar la red vuelve a imprimir en System.out.
+ * - Guion y salida en UTF-8, igual que los JSON, sin depender del charset de la plataforma.
+ * - Líneas vacías y las que empiezan con '#' se ignoran. Los nombres con espacios van entre comillas.
+ *
+ * Comandos:
+ *   agregar N S | actualizar N S | buscar N | scoring S | solicitud A B | procesar | deshacer
+ *   eliminar N | amistad A B | distancia A B | camino A B | ponderada A B [uniforme|lineal|inversa]
+ *   nivel N K | estado | historial | conexiones N | comunes A B
+ */
+public final class ModoBatch {
+
+    private ModoBatch() {
+    }
+
+    /**
+     * Ejecuta el guion indicado ("-" es stdin) y escribe los resultados en la salida estándar.
+     */
+    public static Resumen ejecutar(ISocialNetwork red, String archivo) throws IOException {
+        InputStream origen = archivo.equals("-") ? System.in : new FileInputStream(archivo);
+        try (BufferedReader entrada = new BufferedReader(new InputStreamReader(origen, StandardCharsets.UTF_8), 1 << 16)) {
+            PrintWriter salida = new PrintWriter(new BufferedWriter(
+                    new OutputStreamWriter(System.out, StandardCharsets.UTF_8), 1 << 16));
+            Resumen resumen = ejecutar(red, entrada, salida);
+            salida.println(resumen);
+            salida.flush();
+            return resumen;
+        }
+    }
+
+    /**
+     * Ejecuta cada línea de la entrada contra la red, con los mensajes de las operaciones apagados.
+     */
+    public static Resumen ejecutar(ISocialNetwork red, BufferedReader entrada, PrintWriter salida) throws IOException {
+        red.configurarConsola(null, false);
+        Resumen resumen = new Resumen();
+        long inicio = System.nanoTime();
+        try {
+            String linea;
+            int numero = 0;
+            while ((linea = entrada.readLine()) != null) {
+                numero++;
+                List<String> partes = separar(linea);
+                if (partes.isEmpty() || partes.get(0).startsWith("#")) continue;
+
+                String comando = partes.get(0).toLowerCase(Locale.ROOT);
+                long t0 = System.nanoTime();
+                boolean ok = ejecutarComando(red, comando, partes, numero, salida);
+                resumen.registrar(comando, System.nanoTime() - t0, ok);
+            }
+        } finally {
+            red.configurarConsola(null, true);
+            resumen.nanosTotales = System.nanoTime() - inicio;
+        }
+        return resumen;
+    }
+
+    // Misma política de errores que el menú: el guion sigue aunque falle un comando
+    private static boolean ejecutarComando(ISocialNetwork red, String comando, List<String> p, int linea, PrintWriter salida) {
+        try {
+            switch (comando) {
+                case "agregar":
+                    red.agregarCliente(arg(p, 1), entero(p, 2));
+                    break;
+                case "actualizar":
+                    red.actualizarScoring(arg(p, 1), entero(p, 2));
+                    break;
+                case "buscar": {
+                    String nombre = arg(p, 1);
+                    Cliente c = red.buscarPorNombre(nombre);
+                    salida.println("buscar " + nombre + " = " + (c == null ? "(no existe)" : c.getScoring()));
+                    break;
+                }
+                case "scoring": {
+                    int s = entero(p, 1);
+                    List<String> nombres = new ArrayList<>();
+                    for (Cliente c : red.buscarPorScoring(s)) nombres.add(c.getNombre());
+                    salida.println("scoring " + s + " = " + nombres);
+                    break;
+                }
+                case "solicitud":
+                    red.enviarSolicitud(arg(p, 1), arg(p, 2));
+                    break;
+                case "procesar":
+                    salida.println("procesar = " + red.procesarSolicitudes().size() + " aceptadas");
+                    break;
+                case "deshacer":
+                    red.deshacerUltimaAccion();
+                    break;
+                case "eliminar":
+                    red.eliminarClienteTotalmente(arg(p, 1));
+                    break;
+                case "amistad":
+                    red.crearAmistad(arg(p, 1), arg(p, 2));
+                    break;
+                case "distancia": {
+                    String origen = arg(p, 1), destino = arg(p, 2);
+                    salida.println("distancia " + origen + " " + destino + " = " + red.calcularDistancia(origen, destino));
+                    break;
+                }
+                case "camino": {
+                    String origen = arg(p, 1), destino = arg(p, 2);
+                    salida.println("camino " + origen + " " + destino + " = " + red.calcularCamino(origen, destino));
+                    break;
+                }
+                case "ponderada": {
+                    String origen = arg(p, 1), destino = arg(p, 2);
+                    EstrategiaPeso peso = estrategia(p.size() > 3 ? p.get(3) : "uniforme");
+                    salida.println(String.format(Locale.ROOT, "ponderada %s %s = %.3f", origen, destino,
+                            red.calcularDistanciaPonderada(origen, destino, peso)));
+                    break;
+                }
+                case "nivel": {
+                    String origen = arg(p, 1);
+                    int nivel = entero(p, 2);
+                    List<String> nombres = new ArrayList<>();
+                    for (Cliente c : red.clientesEnNivel(origen, nivel)) nombres.add(c.getNombre());
+                    salida.println("nivel " + origen + " " + nivel + " = " + nombres);
+                    break;
+                }
+                case "estado":
+                    mostrar(red, red::mostrarEstadoGeneral, salida);
+                    break;
+                case "historial":
+                    mostrar(red, red::verHistorial, salida);
+                    break;
+                case "comunes": {
+                    String nombre1 = arg(p, 1), nombre2 = arg(p, 2);
+                    salida.println("comunes " + nombre1 + " " + nombre2 + " = " + red.amigosEnComun(nombre1, nombre2));
+                    break;
+                }
+                case "conexiones": {
+                    String nombre = arg(p, 1);
+                    mostrar(red, () -> red.mostrarConexionesDe(nombre), salida);
+                    break;
+                }
+                default:
+                    salida.println("línea " + linea + ": Comando desconocido: " + comando);
+                    return false;
+            }
+            return true;
+        } catch (NumberFormatException e) {
+            salida.println("línea " + linea + ": ⚠️ Error: Debe ingresar un número entero válido.");
+        } catch (SocialNetworkException e) {
+            salida.println("línea " + linea + ": ⛔ Error de Negocio: " + e.getMessage());
+        } catch (IllegalArgumentException e) {
+            salida.println("línea " + linea + ": 🚫 Datos Inválidos: " + e.getMessage());
+        } catch (Exception e) {
+            salida.println("línea " + linea + ": ☠️ Error Inesperado del Sistema: " + e.getMessage());
+        }
+        return false;
+    }
+
+    // Los comandos que solo muestran información sí escriben su listado en la salida del guion
+    @FunctionalInterface
+    private interface Listado {
+        void mostrar() throws SocialNetworkException;
+    }
+
+    private static void mostrar(ISocialNetwork red, Listado listado, PrintWriter salida) throws SocialNetworkException {
+        ByteArrayOutputStream capturado = new ByteArrayOutputStream();
+        red.configurarConsola(new PrintStream(capturado, true, StandardCharsets.UTF_8), false);
+        try {
+            listado.mostrar();
+        } finally {
+            red.configurarConsola(null, false);
+        }
+        salida.print(capturado.toString(StandardCharsets.UTF_8));
+    }
+
+    private static String arg(List<String> partes, int i) {
+        if (i >= partes.size()) throw new IllegalArgumentException("Faltan argumentos para '" + partes.get(0) + "'.");
+        return partes.get(i);
+    }
+
+    private static int entero(List<String> partes, int i) {
+        return Integer.parseInt(arg(partes, i));
+    }
+
+    private static EstrategiaPeso estrategia(String nombre) {
+        switch (nombre.toLowerCase(Locale.ROOT)) {
+            case "uniforme": return EstrategiaPeso.uniforme();
+            case "lineal": return EstrategiaPeso.confianzaLineal();
+            case "inversa": return EstrategiaPeso.confianzaInversa();
+            default: throw new IllegalArgumentException("Estrategia de peso desconocida: " + nombre);
+        }
+    }
+
+    // Separa por espacios respetando los tramos entre comillas dobles
+    static List<String> separar(String linea) {
+        List<String> partes = new ArrayList<>();
+        StringBuilder actual = new StringBuilder();
+        boolean entreComillas = false, hayToken = false;
+        for (int i = 0; i < linea.length(); i++) {
+            char ch = linea.charAt(i);
+            if (ch == '"') {
+                entreComillas = !entreComillas;
+                hayToken = true;
+            } else if (Character.isWhitespace(ch) && !entreComillas) {
+                if (hayToken) partes.add(actual.toString());
+                actual.setLength(0);
+                hayToken = false;
+            } else {
+                actual.append(ch);
+                hayToken = true;
+            }
+        }
+        if (hayToken) partes.add(actual.toString());
+        return partes;
+    }
+
+    /**
+     * Totales de la corrida: comandos, errores y tiempo acumulado por tipo de comando.
+     */
+    public static final class Resumen {
+        private long comandos = 0;
+        private long errores = 0;
+        private long nanosTotales = 0;
+        private final Map<String, long[]> porComando = new TreeMap<>(); // {cantidad, nanos}
+
+        Resumen() {
+        }
+
+        private void registrar(String comando, long nanos, boolean ok) {
+            comandos++;
+            if (!ok) errores++;
+            long[] totales = porComando.computeIfAbsent(comando, k -> new long[2]);
+            totales[0]++;
+            totales[1] += nanos;
+        }
+
+        public long getComandos() { return comandos; }
+        public long getErrores() { return errores; }
+        public long getNanosTotales() { return nanosTotales; }
+
+        @Override
+        public String toString() {
+            StringBuilder sb = new StringBuilder();
+            sb.append(String.format(Locale.ROOT, "=== RESUMEN BATCH: %d comandos (%d con error) en %.1f ms | %.0f cmd/s ===%n",
+                    comandos, errores, nanosTotales / 1e6, nanosTotales == 0 ? 0 : comandos / (nanosTotales / 1e9)));
+            for (Map.Entry<String, long[]> e : porComando.entrySet()) {
+                long[] t = e.getValue();
+                sb.append(String.format(Locale.ROOT, "  %-11s x%-7d %9.2f ms (%.1f µs/cmd)%n",
+                        e.getKey(), t[0], t[1] / 1e6, t[1] / 1e3 / t[0]));
+            }
+            return sb.toString();
+        }
+    }
+}
@@ -3,24 +3,41 @@ package utils.TDA;
 import models.Cliente;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.function.BiPredicate;
+import java.util.function.Consumer;
 
 public class ArbolAVL {
+    public static final int SCORING_MAXIMO = 100;
+
     private NodoAVL raiz;
 
+    // Agregados de la distribución de scorings, al día con cada alta y baja del árbol.
+    // Los scorings fuera de [0, SCORING_MAXIMO] cuentan en los extremos del histograma.
+    private int cantidad = 0;
+    private long suma = 0;
+    private long[] frecuencias = new long[SCORING_MAXIMO + 1];
+    private ArbolFenwick acumuladas = new ArbolFenwick(SCORING_MAXIMO + 1);
+    private boolean quitado;  // Resultado de la última eliminación recursiva
+    private boolean agregado; // Resultado de la última inserción recursiva (un grupo no repite clientes)
+
     // --- MÉTODOS PÚBLICOS (La Interfaz del Árbol) ---
 
     public void insertar(int scoring, Cliente c) {
+        agregado = true;
         raiz = insertar(raiz, scoring, c);
+        if (agregado) contabilizar(scoring, 1);
     }
 
     public void eliminar(int scoring, Cliente c) {
+        quitado = false;
         raiz = eliminar(raiz, scoring, c);
+        if (quitado) contabilizar(scoring, -1);
     }
 
     public List<Cliente> buscar(int scoring) {
         NodoAVL nodo = buscar(raiz, scoring);
         if (nodo != null) {
-            return nodo.getClientes(); // Retorna la lista de clientes con ese puntaje
+            return new ArrayList<>(nodo.getClientes()); // Copia del grupo, en orden de inserción
         }
         return new ArrayList<>(); // Retorna lista vacía si no encuentra
     }
@@ -30,6 +47,228 @@ public class ArbolAVL {
         imprimirInOrder(raiz);
     }
 
+    /**
+     * Visita cada cliente en orden de scoring creciente sin armar listas intermedias.
+     * Memoria extra: la pila de la recursión, O(log n) por ser un AVL.
+     */
+    public void recorrerInOrder(Consumer<Cliente> visitante) {
+        recorrerInOrder(raiz, visitante);
+    }
+
+    public int getAltura() {
+        return altura(raiz);
+    }
+
+    /**
+     * Indica si el cliente está en el nodo de ese scoring (por nombre: la red no los repite). O(log n).
+     */
+    public boolean contiene(int scoring, Cliente c) {
+        NodoAVL nodo = buscar(raiz, scoring);
+        return nodo != null && nodo.contieneCliente(c);
+    }
+
+    // --- DISTRIBUCIÓN DE SCORINGS ---
+
+    /**
+     * Cantidad total de clientes indexados. O(1).
+     */
+    public int cantidadClientes() {
+        return cantidad;
+    }
+
+    /**
+     * Suma de los scorings de todos los clientes. O(1).
+     */
+    public long sumaScorings() {
+        return suma;
+    }
+
+    /**
+     * Scoring promedio, o 0 si el árbol está vacío. O(1).
+     */
+    public double promedioScoring() {
+        return (cantidad == 0) ? 0.0 : (double) suma / cantidad;
+    }
+
+    /**
+     * Cantidad de clientes con exactamente ese scoring. O(1).
+     */
+    public int cantidadConScoring(int scoring) {
+        if (scoring < 0 || scoring > SCORING_MAXIMO) return 0;
+        return (int) frecuencias[scoring];
+    }
+
+    /**
+     * Cantidad de clientes con scoring en [minimo, maximo]. O(log 101).
+     */
+    public int cantidadEntreScorings(int minimo, int maximo) {
+        int desde = Math.max(0, minimo), hasta = Math.min(SCORING_MAXIMO, maximo);
+        return (int) acumuladas.rango(desde, hasta);
+    }
+
+    /**
+     * Copia del histograma: la posición s tiene la cantidad de clientes con scoring s. O(101).
+     */
+    public int[] histograma() {
+        int[] copia = new int[SCORING_MAXIMO + 1];
+        for (int s = 0; s <= SCORING_MAXIMO; s++) copia[s] = (int) frecuencias[s];
+        return copia;
+    }
+
+    /**
+     * Cuantil por rango más cercano: el menor scoring s tal que al menos ceil(p * n) clientes
+     * tienen scoring <= s (con p = 0 es el mínimo). Devuelve -1 si el árbol está vacío. O(log 101).
+     */
+    public int cuantil(double p) {
+        if (p < 0 || p > 1 || Double.isNaN(p)) throw new IllegalArgumentException("El cuantil debe estar entre 0 y 1.");
+        if (cantidad == 0) return -1;
+        long rango = Math.max(1, (long) Math.ceil(p * cantidad));
+        return acumuladas.buscarPrefijo(rango - 1);
+    }
+
+    public int mediana() {
+        return cuantil(0.5);
+    }
+
+    /**
+     * Evalúa la condición sobre cada par (scoring del nodo, cliente), en orden. Corta en el primer false.
+     */
+    public boolean cumplenTodos(BiPredicate<Integer, Cliente> condicion) {
+        return cumplenTodos(raiz, condicion);
+    }
+
+    /**
+     * Invariante del AVL: orden de BST, alturas correctas, balance en [-1, 1] y sin nodos vacíos.
+     */
+    public boolean repOK() {
+        if (alturaValidada(raiz, Integer.MIN_VALUE, Integer.MAX_VALUE) < 0) return false;
+        return agregadosValidos();
+    }
+
+    // --- CONSTRUCCIÓN EN LOTE ---
+
+    /**
+     * Construye un AVL perfectamente balanceado a partir de grupos de clientes ya ordenados
+     * de forma estrictamente creciente por scoring (grupos.get(i) tiene scoring scorings[i]).
+     * Complejidad: O(n) sin rotaciones; las alturas quedan calculadas de abajo hacia arriba.
+     */
+    public static ArbolAVL desdeGruposOrdenados(int[] scorings, List<List<Cliente>> grupos) {
+        validarGrupos(scorings, grupos);
+        ArbolAVL arbol = new ArbolAVL();
+        NodoAVL[] nodos = new NodoAVL[scorings.length];
+        for (int i = 0; i < scorings.length; i++) {
+            nodos[i] = new NodoAVL(scorings[i], grupos.get(i));
+            int agregados = nodos[i].cantidadClientes();
+            arbol.cantidad += agregados;
+            arbol.suma += (long) scorings[i] * agregados;
+            arbol.frecuencias[cubeta(scorings[i])] += agregados;
+        }
+        arbol.raiz = construir(nodos, 0, nodos.length - 1);
+        arbol.acumuladas = ArbolFenwick.desdeFrecuencias(arbol.frecuencias);
+        return arbol;
+    }
+
+    /**
+     * Inserta un lote de grupos ordenados por scoring en el árbol existente, con k los clientes
+     * del lote y n los del árbol. Si el lote es chico se inserta cliente a cliente (O(k log n), sin
+     * recorrer el árbol); si no, se aplana el árbol en orden, se intercala con el lote y se
+     * reconstruye balanceado en O(n + k).
+     */
+    public void fusionar(int[] scorings, List<List<Cliente>> grupos) {
+        validarGrupos(scorings, grupos);
+        long lote = 0;
+        for (List<Cliente> grupo : grupos) lote += grupo.size();
+        double log = Math.log(cantidad + 2) / Math.log(2);
+        if (lote * log < cantidad) {
+            for (int i = 0; i < scorings.length; i++) {
+                for (Cliente c : grupos.get(i)) insertar(scorings[i], c);
+            }
+            return;
+        }
+
+        List<NodoAVL> existentes = new ArrayList<>();
+        aplanar(raiz, existentes);
+        int n = existentes.size();
+
+        // Intercalado de dos secuencias ordenadas (los nodos existentes conservan su lista)
+        NodoAVL[] nodos = new NodoAVL[n + scorings.length];
+        int[] agregados = new int[scorings.length];
+        int i = 0, j = 0, k = 0;
+        while (i < n || j < scorings.length) {
+            if (j == scorings.length || (i < n && existentes.get(i).scoring < scorings[j])) {
+                nodos[k++] = existentes.get(i++);
+            } else if (i == n || scorings[j] < existentes.get(i).scoring) {
+                nodos[k] = new NodoAVL(scorings[j], grupos.get(j));
+                agregados[j++] = nodos[k++].cantidadClientes();
+            } else {
+                NodoAVL mismo = existentes.get(i++);
+                for (Cliente c : grupos.get(j)) if (mismo.agregarCliente(c)) agregados[j]++;
+                j++;
+                nodos[k++] = mismo;
+            }
+        }
+        raiz = construir(nodos, 0, k - 1);
+        for (int g = 0; g < scorings.length; g++) contabilizar(scorings[g], agregados[g]);
+    }
+
+    private void contabilizar(int scoring, int delta) {
+        cantidad += delta;
+        suma += (long) scoring * delta;
+        frecuencias[cubeta(scoring)] += delta;
+        acumuladas.sumar(cubeta(scoring), delta);
+    }
+
+    private static int cubeta(int scoring) {
+        return Math.max(0, Math.min(SCORING_MAXIMO, scoring));
+    }
+
+    // Recalcula los agregados desde los nodos y los compara con los mantenidos. O(n + 101)
+    private boolean agregadosValidos() {
+        long[] reales = new long[SCORING_MAXIMO + 1];
+        long[] totales = new long[2]; // {cantidad, suma}
+        cumplenTodos(raiz, (scoring, c) -> {
+            reales[cubeta(scoring)]++;
+            totales[0]++;
+            totales[1] += scoring;
+            return true;
+        });
+        if (totales[0] != cantidad || totales[1] != suma) return false;
+        for (int s = 0; s <= SCORING_MAXIMO; s++) {
+            if (reales[s] != frecuencias[s] || acumuladas.rango(s, s) != reales[s]) return false;
+        }
+        return true;
+    }
+
+    private static NodoAVL construir(NodoAVL[] nodos, int desde, int hasta) {
+        if (desde > hasta) return null;
+        int medio = (desde + hasta) >>> 1;
+        NodoAVL nodo = nodos[medio];
+        nodo.izquierdo = construir(nodos, desde, medio - 1);
+        nodo.derecho = construir(nodos, medio + 1, hasta);
+        int hIzq = (nodo.izquierdo == null) ? 0 : nodo.izquierdo.altura;
+        int hDer = (nodo.derecho == null) ? 0 : nodo.derecho.altura;
+        nodo.altura = 1 + Math.max(hIzq, hDer);
+        return nodo;
+    }
+
+    private static void validarGrupos(int[] scorings, List<List<Cliente>> grupos) {
+        if (scorings.length != grupos.size()) {
+            throw new IllegalArgumentException("Debe haber un grupo de clientes por cada scoring.");
+        }
+        for (int i = 1; i < scorings.length; i++) {
+            if (scorings[i - 1] >= scorings[i]) {
+                throw new IllegalArgumentException("Los scorings deben venir en orden estrictamente creciente.");
+            }
+        }
+    }
+
+    private void aplanar(NodoAVL nodo, List<NodoAVL> destino) {
+        if (nodo == null) return;
+        aplanar(nodo.izquierdo, destino);
+        destino.add(nodo);
+        aplanar(nodo.derecho, destino);
+    }
+
     // --- MÉTODOS PRIVADOS (Lógica Recursiva y Rotaciones) ---
 
     // 1. Inserción con Balanceo
@@ -44,7 +283,7 @@ public class ArbolAVL {
             nodo.derecho = insertar(nodo.derecho, scoring, c);
         } else {
             // El scoring ya existe en el árbol, solo agregamos el cliente a la lista del nodo
-            nodo.agregarCliente(c);
+            agregado = nodo.agregarCliente(c);
             return nodo; // No cambia la altura, no necesitamos balancear
         }
 
@@ -89,7 +328,7 @@ public class ArbolAVL {
             nodo.derecho = eliminar(nodo.derecho, scoring, c);
         } else {
             // Encontramos el nodo. Eliminamos al cliente de la lista.
-            nodo.eliminarCliente(c);
+            quitado = nodo.eliminarCliente(c);
 
             // Si aún quedan clientes con este puntaje, no borramos el nodo físico del árbol
             if (!nodo.estaVacio()) {
@@ -106,20 +345,29 @@ public class ArbolAVL {
                     nodo = temp;
                 }
             } else {
-                // Nodo con dos hijos: buscar sucesor (menor del subárbol derecho)
-                NodoAVL temp = valorMinimo(nodo.derecho);
-                nodo.scoring = temp.scoring;
-                nodo.clientes = temp.clientes; // Copiamos la lista entera
-                // Eliminamos el sucesor antiguo
-                // (Nota: Esta parte es compleja si hay duplicados, para simplificar en TPO
-                // asumimos que al borrar nodo físico rebalanceamos lo básico)
-                nodo.derecho = eliminar(nodo.derecho, temp.scoring, temp.getClientes().get(0));
+                // Nodo con dos hijos: el sucesor (menor del subárbol derecho) ocupa su lugar.
+                // Se mueve su lista completa y se desengancha el nodo físico sin tocar sus clientes.
+                NodoAVL sucesor = valorMinimo(nodo.derecho);
+                nodo.scoring = sucesor.scoring;
+                nodo.clientes = sucesor.clientes;
+                nodo.derecho = eliminarMinimo(nodo.derecho);
             }
         }
 
         if (nodo == null) return null;
 
         // Re-balanceo tras eliminación
+        return balancear(nodo);
+    }
+
+    // Quita el nodo mínimo del subárbol (sin importar su lista de clientes) y rebalancea el camino
+    private NodoAVL eliminarMinimo(NodoAVL nodo) {
+        if (nodo.izquierdo == null) return nodo.derecho;
+        nodo.izquierdo = eliminarMinimo(nodo.izquierdo);
+        return balancear(nodo);
+    }
+
+    private NodoAVL balancear(NodoAVL nodo) {
         nodo.altura = Math.max(altura(nodo.izquierdo), altura(nodo.derecho)) + 1;
         int balance = getBalance(nodo);
 
@@ -185,6 +433,35 @@ public class ArbolAVL {
         return actual;
     }
 
+    private boolean cumplenTodos(NodoAVL nodo, BiPredicate<Integer, Cliente> condicion) {
+        if (nodo == null) return true;
+        if (!cumplenTodos(nodo.izquierdo, condicion)) return false;
+        for (Cliente c : nodo.getClientes()) {
+            if (!condicion.test(nodo.scoring, c)) return false;
+        }
+        return cumplenTodos(nodo.derecho, condicion);
+    }
+
+    // Devuelve la altura real del subárbol, o -1 si viola algún invariante
+    private int alturaValidada(NodoAVL nodo, int minimo, int maximo) {
+        if (nodo == null) return 0;
+        if (nodo.scoring <= minimo || nodo.scoring >= maximo) return -1;
+        if (nodo.estaVacio()) return -1;
+        int hIzq = alturaValidada(nodo.izquierdo, minimo, nodo.scoring);
+        int hDer = alturaValidada(nodo.derecho, nodo.scoring, maximo);
+        if (hIzq < 0 || hDer < 0) return -1;
+        if (Math.abs(hIzq - hDer) > 1) return -1;
+        int h = 1 + Math.max(hIzq, hDer);
+        return (h == nodo.altura) ? h : -1;
+    }
+
+    private void recorrerInOrder(NodoAVL nodo, Consumer<Cliente> visitante) {
+        if (nodo == null) return;
+        recorrerInOrder(nodo.izquierdo, visitante);
+        for (Cliente c : nodo.getClientes()) visitante.accept(c);
+        recorrerInOrder(nodo.derecho, visitante);
+    }
+
     private void imprimirInOrder(NodoAVL node) {
         if (node != null) {
             imprimirInOrder(node.izquierdo);
@@ -0,0 +1,83 @@
+package utils.TDA;
+
+/**
+ * Árbol de Fenwick (Binary Indexed Tree) sobre el dominio acotado [0, tamanio).
+ *
+ * Mantiene frecuencias enteras y responde sumas de prefijos y búsquedas por prefijo:
+ *   - sumar y prefijo son O(log tamanio),
+ *   - buscarPrefijo (el menor índice cuyo prefijo supera un valor) es O(log tamanio) por
+ *     descenso binario, sin búsqueda binaria sobre prefijo().
+ *
+ * Las posiciones se guardan con base 1 internamente (arbol[0] no se usa).
+ */
+public class ArbolFenwick {
+    private final long[] arbol;
+    private final int tamanio;
+
+    public ArbolFenwick(int tamanio) {
+        if (tamanio <= 0) throw new IllegalArgumentException("El tamaño debe ser positivo.");
+        this.tamanio = tamanio;
+        this.arbol = new long[tamanio + 1];
+    }
+
+    /**
+     * Construye el árbol a partir de las frecuencias dadas en O(tamanio), sin tamanio inserciones.
+     */
+    public static ArbolFenwick desdeFrecuencias(long[] frecuencias) {
+        ArbolFenwick f = new ArbolFenwick(frecuencias.length);
+        for (int i = 1; i <= f.tamanio; i++) {
+            f.arbol[i] += frecuencias[i - 1];
+            int padre = i + (i & -i);
+            if (padre <= f.tamanio) f.arbol[padre] += f.arbol[i];
+        }
+        return f;
+    }
+
+    public int getTamanio() {
+        return tamanio;
+    }
+
+    public void sumar(int indice, long delta) {
+        validar(indice);
+        for (int i = indice + 1; i <= tamanio; i += i & -i) arbol[i] += delta;
+    }
+
+    /**
+     * Suma de las frecuencias en [0, indice]. Con indice < 0 es 0.
+     */
+    public long prefijo(int indice) {
+        long suma = 0;
+        for (int i = Math.min(indice, tamanio - 1) + 1; i > 0; i -= i & -i) suma += arbol[i];
+        return suma;
+    }
+
+    /**
+     * Suma de las frecuencias en [desde, hasta].
+     */
+    public long rango(int desde, int hasta) {
+        if (desde > hasta) return 0;
+        return prefijo(hasta) - prefijo(desde - 1);
+    }
+
+    /**
+     * Menor índice i tal que prefijo(i) > k, o tamanio si no existe.
+     * Requiere frecuencias no negativas.
+     */
+    public int buscarPrefijo(long k) {
+        int pos = 0;
+        for (int paso = Integer.highestOneBit(tamanio); paso > 0; paso >>= 1) {
+            int siguiente = pos + paso;
+            if (siguiente <= tamanio && arbol[siguiente] <= k) {
+                pos = siguiente;
+                k -= arbol[siguiente];
+            }
+        }
+        return pos; // pos (base 1) es el último índice con prefijo <= k; en base 0 es el siguiente
+    }
+
+    private void validar(int indice) {
+        if (indice < 0 || indice >= tamanio) {
+            throw new IndexOutOfBoundsException("Índice fuera del dominio: " + indice);
+        }
+    }
+}
@@ -0,0 +1,111 @@
+package utils.TDA;
+
+import java.util.Arrays;
+
+/**
+ * Arreglos de trabajo reutilizables para BFS indexadas por id de cliente.
+ *
+ * En lugar de limpiar los arreglos en cada búsqueda se usa una "época": una posición solo es
+ * válida si su marca coincide con la época actual. Así preparar una búsqueda es O(1) y el costo
+ * total queda proporcional a la parte del grafo efectivamente visitada.
+ */
+public class EspacioBFS {
+    private int[] marca = new int[0];          // época en que se visitó cada id
+    private int[] padre = new int[0];          // id del padre en el árbol BFS (-1 para el origen); en los conteos, la cuenta
+    private int[] marcaObjetivo = new int[0];  // época en que el id se marcó como objetivo
+    private int[] cola = new int[0];
+    private int epoca = 0;
+
+    private int frente;
+    private int fin;
+
+    /**
+     * Prepara el espacio para una nueva búsqueda sobre ids en [0, capacidad).
+     */
+    public void preparar(int capacidad) {
+        if (marca.length < capacidad) {
+            int nueva = Math.max(capacidad, marca.length * 2);
+            marca = Arrays.copyOf(marca, nueva);
+            padre = Arrays.copyOf(padre, nueva);
+            marcaObjetivo = Arrays.copyOf(marcaObjetivo, nueva);
+            cola = Arrays.copyOf(cola, nueva);
+        }
+        if (++epoca == Integer.MAX_VALUE) {
+            // Desborde de la época: se limpia una única vez
+            Arrays.fill(marca, 0);
+            Arrays.fill(marcaObjetivo, 0);
+            epoca = 1;
+        }
+        frente = 0;
+        fin = 0;
+    }
+
+    // --- VISITADOS Y PADRES ---
+
+    public boolean visitado(int id) {
+        return marca[id] == epoca;
+    }
+
+    /**
+     * Marca el id como visitado, guarda su padre y lo encola.
+     */
+    public void visitar(int id, int idPadre) {
+        marca[id] = epoca;
+        padre[id] = idPadre;
+        cola[fin++] = id;
+    }
+
+    public int getPadre(int id) {
+        return padre[id];
+    }
+
+    // --- OBJETIVOS (búsquedas con varios destinos) ---
+
+    public void marcarObjetivo(int id) {
+        marcaObjetivo[id] = epoca;
+    }
+
+    public boolean esObjetivo(int id) {
+        return marcaObjetivo[id] == epoca;
+    }
+
+    // --- CONTEOS (mapa id -> entero sin boxing) ---
+
+    /**
+     * Suma uno a la cuenta del id. La primera vez lo marca como visitado y lo encola, así los ids
+     * contados se recorren luego con la cola. Reutiliza el arreglo de padres como contador.
+     * @return La cuenta actualizada.
+     */
+    public int contar(int id) {
+        if (marca[id] != epoca) {
+            visitar(id, 1);
+            return 1;
+        }
+        return ++padre[id];
+    }
+
+    public int getCuenta(int id) {
+        return (marca[id] == epoca) ? padre[id] : 0;
+    }
+
+    // --- COLA FIFO ---
+
+    public boolean colaVacia() {
+        return frente == fin;
+    }
+
+    public int desencolar() {
+        return cola[frente++];
+    }
+
+    /**
+     * Cantidad de ids encolados hasta el momento (sirve para delimitar niveles).
+     */
+    public int encolados() {
+        return fin;
+    }
+
+    public int desencolados() {
+        return frente;
+    }
+}
@@ -0,0 +1,136 @@
+package utils.TDA;
+
+import models.Cliente;
+
+import java.util.Arrays;
+import java.util.Collection;
+
+/**
+ * Foto inmutable de un grafo de clientes con índices enteros compactos [0, n).
+ * Las adyacencias se guardan en formato CSR (arreglos de inicio + arreglo plano de vecinos),
+ * lo que permite recorrerlas con arreglos primitivos y repartirlas entre varios hilos.
+ * El orden de los vecinos respeta el orden de iteración de las colecciones de cada cliente.
+ */
+public class GrafoIndexado {
+    private final Cliente[] clientes;      // índice -> cliente
+    private final int[] indicePorId;       // id del cliente -> índice (-1 si no está en la foto)
+
+    // Aristas salientes (CSR)
+    private final int[] inicioSalida;
+    private final int[] salida;
+
+    // Aristas entrantes (CSR transpuesto). En grafos no dirigidos son las mismas que las salientes.
+    private final int[] inicioEntrada;
+    private final int[] entrada;
+
+    private GrafoIndexado(Cliente[] clientes, int[] indicePorId, int[] inicioSalida, int[] salida,
+                          int[] inicioEntrada, int[] entrada) {
+        this.clientes = clientes;
+        this.indicePorId = indicePorId;
+        this.inicioSalida = inicioSalida;
+        this.salida = salida;
+        this.inicioEntrada = inicioEntrada;
+        this.entrada = entrada;
+    }
+
+    /**
+     * Construye la foto del grafo no dirigido de amistades.
+     * Complejidad: O(n + m).
+     */
+    public static GrafoIndexado deAmistades(Collection<Cliente> todos, int capacidadIds) {
+        Cliente[] clientes = todos.toArray(new Cliente[0]);
+        int[] indicePorId = indexar(clientes, capacidadIds);
+
+        int[] inicio = new int[clientes.length + 1];
+        for (int i = 0; i < clientes.length; i++) {
+            inicio[i + 1] = inicio[i] + clientes[i].getAmigos().size();
+        }
+        int[] vecinos = new int[inicio[clientes.length]];
+        for (int i = 0; i < clientes.length; i++) {
+            int k = inicio[i];
+            for (Cliente amigo : clientes[i].getAmigos()) {
+                vecinos[k++] = indicePorId[amigo.getId()];
+            }
+        }
+        return new GrafoIndexado(clientes, indicePorId, inicio, vecinos, inicio, vecinos);
+    }
+
+    /**
+     * Construye la foto del grafo dirigido de seguimientos (con su transpuesto).
+     * Complejidad: O(n + m).
+     */
+    public static GrafoIndexado deSeguimientos(Collection<Cliente> todos, int capacidadIds) {
+        Cliente[] clientes = todos.toArray(new Cliente[0]);
+        int[] indicePorId = indexar(clientes, capacidadIds);
+        int n = clientes.length;
+
+        int[] inicioSalida = new int[n + 1];
+        for (int i = 0; i < n; i++) {
+            inicioSalida[i + 1] = inicioSalida[i] + clientes[i].getSiguiendo().size();
+        }
+        int[] salida = new int[inicioSalida[n]];
+        int[] gradoEntrada = new int[n];
+        for (int i = 0; i < n; i++) {
+            int k = inicioSalida[i];
+            for (Cliente seguido : clientes[i].getSiguiendo()) {
+                int j = indicePorId[seguido.getId()];
+                salida[k++] = j;
+                gradoEntrada[j]++;
+            }
+        }
+
+        int[] inicioEntrada = new int[n + 1];
+        for (int i = 0; i < n; i++) {
+            inicioEntrada[i + 1] = inicioEntrada[i] + gradoEntrada[i];
+        }
+        int[] entrada = new int[salida.length];
+        int[] cursor = Arrays.copyOf(inicioEntrada, n);
+        for (int i = 0; i < n; i++) {
+            for (int k = inicioSalida[i]; k < inicioSalida[i + 1]; k++) {
+                entrada[cursor[salida[k]]++] = i;
+            }
+        }
+        return new GrafoIndexado(clientes, indicePorId, inicioSalida, salida, inicioEntrada, entrada);
+    }
+
+    private static int[] indexar(Cliente[] clientes, int capacidadIds) {
+        int[] indicePorId = new int[capacidadIds];
+        Arrays.fill(indicePorId, -1);
+        for (int i = 0; i < clientes.length; i++) {
+            int id = clientes[i].getId();
+            if (id < 0 || id >= capacidadIds) {
+                throw new IllegalArgumentException("El cliente " + clientes[i].getNombre() + " no tiene un id válido en la red.");
+            }
+            indicePorId[id] = i;
+        }
+        return indicePorId;
+    }
+
+    // --- CONSULTAS ---
+
+    public int cantidadNodos() { return clientes.length; }
+
+    public int cantidadAristas() { return salida.length; }
+
+    public Cliente getCliente(int indice) { return clientes[indice]; }
+
+    /**
+     * Devuelve el índice del cliente en la foto, o -1 si no pertenece a ella.
+     */
+    public int indiceDe(Cliente c) {
+        int id = c.getId();
+        if (id < 0 || id >= indicePorId.length) return -1;
+        int indice = indicePorId[id];
+        return (indice >= 0 && clientes[indice] == c) ? indice : -1;
+    }
+
+    public int inicioSalida(int v) { return inicioSalida[v]; }
+    public int finSalida(int v) { return inicioSalida[v + 1]; }
+    public int vecinoSalida(int k) { return salida[k]; }
+    public int gradoSalida(int v) { return inicioSalida[v + 1] - inicioSalida[v]; }
+
+    public int inicioEntrada(int v) { return inicioEntrada[v]; }
+    public int finEntrada(int v) { return inicioEntrada[v + 1]; }
+    public int vecinoEntrada(int k) { return entrada[k]; }
+    public int gradoEntrada(int v) { return inicioEntrada[v + 1] - inicioEntrada[v]; }
+}
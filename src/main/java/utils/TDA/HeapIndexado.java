@@ -0,0 +1,118 @@
+package utils.TDA;
+
+import java.util.Arrays;
+
+/**
+ * Heap binario de mínimos sobre ids enteros con prioridades double, sin objetos intermedios.
+ *
+ * Cada id ocupa a lo sumo una posición y se conoce su ubicación en el heap, por lo que
+ * disminuir su prioridad (decrease-key) cuesta O(log n) sin duplicar entradas.
+ */
+public class HeapIndexado {
+    private int[] heap;          // posición -> id
+    private int[] posicion;      // id -> posición en el heap (-1 si no está)
+    private double[] prioridad;  // id -> prioridad (válida solo mientras está en el heap)
+    private int tamanio;
+
+    public HeapIndexado(int capacidad) {
+        heap = new int[capacidad];
+        posicion = new int[capacidad];
+        prioridad = new double[capacidad];
+        Arrays.fill(posicion, -1);
+    }
+
+    /**
+     * Amplía la capacidad para ids en [0, capacidad).
+     */
+    public void asegurarCapacidad(int capacidad) {
+        if (posicion.length >= capacidad) return;
+        int nueva = Math.max(capacidad, posicion.length * 2);
+        int anterior = posicion.length;
+        heap = Arrays.copyOf(heap, nueva);
+        prioridad = Arrays.copyOf(prioridad, nueva);
+        posicion = Arrays.copyOf(posicion, nueva);
+        Arrays.fill(posicion, anterior, nueva, -1);
+    }
+
+    public boolean estaVacio() { return tamanio == 0; }
+
+    public int tamanio() { return tamanio; }
+
+    public boolean contiene(int id) { return posicion[id] >= 0; }
+
+    public double prioridadDe(int id) { return prioridad[id]; }
+
+    /**
+     * Inserta el id o, si ya está, baja su prioridad cuando la nueva es menor.
+     * Complejidad: O(log n).
+     */
+    public void insertarOReducir(int id, double nuevaPrioridad) {
+        int pos = posicion[id];
+        if (pos < 0) {
+            prioridad[id] = nuevaPrioridad;
+            heap[tamanio] = id;
+            posicion[id] = tamanio;
+            subir(tamanio++);
+        } else if (nuevaPrioridad < prioridad[id]) {
+            prioridad[id] = nuevaPrioridad;
+            subir(pos);
+        }
+    }
+
+    /**
+     * Extrae el id de menor prioridad. Complejidad: O(log n).
+     */
+    public int extraerMinimo() {
+        if (tamanio == 0) throw new IllegalStateException("El heap está vacío.");
+        int minimo = heap[0];
+        posicion[minimo] = -1;
+        if (--tamanio > 0) {
+            heap[0] = heap[tamanio];
+            posicion[heap[0]] = 0;
+            bajar(0);
+        }
+        return minimo;
+    }
+
+    /**
+     * Vacía el heap en O(tamaño), dejándolo listo para reutilizarse.
+     */
+    public void vaciar() {
+        for (int i = 0; i < tamanio; i++) posicion[heap[i]] = -1;
+        tamanio = 0;
+    }
+
+    // --- UTILIDADES DEL HEAP ---
+
+    private void subir(int i) {
+        int id = heap[i];
+        double p = prioridad[id];
+        while (i > 0) {
+            int padre = (i - 1) >>> 1;
+            int idPadre = heap[padre];
+            if (prioridad[idPadre] <= p) break;
+            heap[i] = idPadre;
+            posicion[idPadre] = i;
+            i = padre;
+        }
+        heap[i] = id;
+        posicion[id] = i;
+    }
+
+    private void bajar(int i) {
+        int id = heap[i];
+        double p = prioridad[id];
+        while (true) {
+            int hijo = 2 * i + 1;
+            if (hijo >= tamanio) break;
+            if (hijo + 1 < tamanio && prioridad[heap[hijo + 1]] < prioridad[heap[hijo]]) hijo++;
+            int idHijo = heap[hijo];
+            if (prioridad[idHijo] >= p) break;
+            heap[i] = idHijo;
+            posicion[idHijo] = i;
+            i = hijo;
+        }
+        heap[i] = id;
+        posicion[id] = i;
+    }
+}
@@ -0,0 +1,163 @@
+package utils.TDA;
+
+import models.Cliente;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.IntConsumer;
+
+/**
+ * Adyacencia de amistades por id denso para intersecar vecindarios sin tocar los Sets de Cliente.
+ *
+ * Cada nodo se arma a demanda con la representación que le conviene:
+ *   - ralo: arreglo ordenado de ids; la intersección es una mezcla lineal o, si un lado es mucho
+ *     más chico, búsqueda galopante (exponencial + binaria) del chico sobre el grande,
+ *   - hub: bitset de long[], cuando no ocupa más que el arreglo (grado >= capacidad / 32);
+ *     contra un ralo se prueba bit a bit y contra otro hub se hace AND + popcount por palabra.
+ *
+ * Las entradas publicadas son inmutables y se comparten entre lecturas concurrentes; la red llama
+ * a invalidar (desde el escritor) cada vez que cambian las amistades de un cliente.
+ */
+public class IndiceAmigos {
+    static final int GRADO_MINIMO_HUB = 64;
+    private static final int RAZON_GALLOPING = 8;
+
+    private volatile AtomicReferenceArray<Object> porId = new AtomicReferenceArray<>(16);
+
+    /**
+     * Descarta la representación del id (y amplía la tabla si es un id nuevo).
+     */
+    public void invalidar(int id) {
+        if (id < 0) return;
+        AtomicReferenceArray<Object> tabla = porId;
+        if (id >= tabla.length()) {
+            AtomicReferenceArray<Object> nueva = new AtomicReferenceArray<>(Math.max(id + 1, tabla.length() * 2));
+            for (int i = 0; i < tabla.length(); i++) nueva.set(i, tabla.get(i));
+            porId = nueva;
+            return;
+        }
+        tabla.set(id, null);
+    }
+
+    /**
+     * Cantidad de amigos en común. 'capacidad' es una cota estricta de los ids vigentes.
+     */
+    public int contarComunes(Cliente a, Cliente b, int capacidad) {
+        Object ra = representacion(a, capacidad);
+        Object rb = representacion(b, capacidad);
+        if (ra instanceof long[] && rb instanceof long[]) {
+            long[] x = (long[]) ra, y = (long[]) rb;
+            int total = 0;
+            for (int w = 0, n = Math.min(x.length, y.length); w < n; w++) total += Long.bitCount(x[w] & y[w]);
+            return total;
+        }
+        int[] total = {0};
+        intersecar(ra, rb, id -> total[0]++);
+        return total[0];
+    }
+
+    /**
+     * Entrega los ids de los amigos en común (en orden creciente).
+     */
+    public void recorrerComunes(Cliente a, Cliente b, int capacidad, IntConsumer visita) {
+        intersecar(representacion(a, capacidad), representacion(b, capacidad), visita);
+    }
+
+    // --- REPRESENTACIONES ---
+
+    private Object representacion(Cliente c, int capacidad) {
+        int id = c.getId();
+        AtomicReferenceArray<Object> tabla = porId;
+        Object r = (id >= 0 && id < tabla.length()) ? tabla.get(id) : null;
+        if (r == null) {
+            r = construir(c, capacidad);
+            if (id >= 0 && id < tabla.length()) tabla.set(id, r); // Si dos lecturas la arman a la vez, gana cualquiera
+        }
+        return r;
+    }
+
+    private static Object construir(Cliente c, int capacidad) {
+        int grado = c.cantidadAmigos();
+        if (grado >= GRADO_MINIMO_HUB && grado >= capacidad / 32) {
+            long[] bits = new long[(capacidad + 63) >>> 6];
+            for (Cliente amigo : c.getAmigos()) {
+                int id = amigo.getId();
+                bits[id >>> 6] |= 1L << id;
+            }
+            return bits;
+        }
+        int[] ids = new int[grado];
+        int i = 0;
+        for (Cliente amigo : c.getAmigos()) ids[i++] = amigo.getId();
+        Arrays.sort(ids);
+        return ids;
+    }
+
+    // --- INTERSECCIONES ---
+
+    private static void intersecar(Object ra, Object rb, IntConsumer visita) {
+        if (ra instanceof long[] && rb instanceof long[]) {
+            long[] x = (long[]) ra, y = (long[]) rb;
+            for (int w = 0, n = Math.min(x.length, y.length); w < n; w++) {
+                for (long palabra = x[w] & y[w]; palabra != 0; palabra &= palabra - 1) {
+                    visita.accept((w << 6) + Long.numberOfTrailingZeros(palabra));
+                }
+            }
+        } else if (ra instanceof long[]) {
+            filtrarPorBits((int[]) rb, (long[]) ra, visita);
+        } else if (rb instanceof long[]) {
+            filtrarPorBits((int[]) ra, (long[]) rb, visita);
+        } else {
+            intersecarOrdenados((int[]) ra, (int[]) rb, visita);
+        }
+    }
+
+    private static void filtrarPorBits(int[] ids, long[] bits, IntConsumer visita) {
+        for (int id : ids) {
+            int w = id >>> 6;
+            if (w < bits.length && (bits[w] & (1L << id)) != 0) visita.accept(id);
+        }
+    }
+
+    private static void intersecarOrdenados(int[] x, int[] y, IntConsumer visita) {
+        if (x.length > y.length) {
+            int[] t = x;
+            x = y;
+            y = t;
+        }
+        if (x.length == 0) return;
+
+        if ((long) x.length * RAZON_GALLOPING < y.length) {
+            // Muy desparejos: O(|x| log(|y| / |x|)) en lugar de O(|x| + |y|)
+            int desde = 0;
+            for (int v : x) {
+                desde = galopar(y, desde, v);
+                if (desde == y.length) return;
+                if (y[desde] == v) visita.accept(y[desde++]);
+            }
+            return;
+        }
+
+        int i = 0, j = 0;
+        while (i < x.length && j < y.length) {
+            if (x[i] < y[j]) i++;
+            else if (x[i] > y[j]) j++;
+            else {
+                visita.accept(x[i]);
+                i++;
+                j++;
+            }
+        }
+    }
+
+    // Primer índice >= desde con y[i] >= v: saltos de 1, 2, 4... y búsqueda binaria en el último tramo
+    private static int galopar(int[] y, int desde, int v) {
+        int hasta = desde;
+        for (int paso = 1; hasta < y.length && y[hasta] < v; paso <<= 1) {
+            desde = hasta + 1;
+            hasta += paso;
+        }
+        int i = Arrays.binarySearch(y, desde, Math.min(hasta, y.length), v);
+        return (i >= 0) ? i : -i - 1;
+    }
+}
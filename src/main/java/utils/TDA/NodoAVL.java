@@ -1,15 +1,18 @@
 package utils.TDA;
 
 import models.Cliente;
-import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Set;
 
 public class NodoAVL {
     // El dato clave por el cual ordenamos (Scoring)
     int scoring;
 
-    // La lista de clientes que tienen este scoring (Manejo de duplicados)
-    List<Cliente> clientes;
+    // Los clientes que tienen este scoring (Manejo de duplicados). Conjunto con orden de
+    // inserción: quitar o buscar un cliente es O(1) aunque el grupo tenga n / 101 clientes.
+    Set<Cliente> clientes;
 
     // Estructura del árbol
     NodoAVL izquierdo;
@@ -18,25 +21,40 @@ public class NodoAVL {
 
     public NodoAVL(int scoring, Cliente c) {
         this.scoring = scoring;
-        this.clientes = new ArrayList<>();
+        this.clientes = new LinkedHashSet<>();
         this.clientes.add(c);
         this.altura = 1; // Altura inicial de una hoja
     }
 
+    // Nodo con un grupo completo de clientes (construcción en lote)
+    public NodoAVL(int scoring, List<Cliente> grupo) {
+        this.scoring = scoring;
+        this.clientes = new LinkedHashSet<>(grupo);
+        this.altura = 1;
+    }
+
     // Métodos auxiliares para agregar más clientes al mismo nodo (mismo scoring)
-    public void agregarCliente(Cliente c) {
-        this.clientes.add(c);
+    public boolean agregarCliente(Cliente c) {
+        return this.clientes.add(c);
     }
 
-    public void eliminarCliente(Cliente c) {
-        this.clientes.remove(c);
+    public boolean eliminarCliente(Cliente c) {
+        return this.clientes.remove(c);
+    }
+
+    public boolean contieneCliente(Cliente c) {
+        return this.clientes.contains(c);
     }
 
     public boolean estaVacio() {
         return clientes.isEmpty();
     }
 
-    public List<Cliente> getClientes() {
+    public int cantidadClientes() {
+        return clientes.size();
+    }
+
+    public Collection<Cliente> getClientes() {
         return clientes;
     }
 }
\ No newline at end of file
@@ -0,0 +1,168 @@
+package utils.TDA;
+
+import java.util.function.Consumer;
+
+/**
+ * Rueda de temporizadores jerárquica (estilo kernel de Linux) con NIVELES ruedas de 64 ranuras.
+ *
+ * El nivel 0 tiene una ranura por tick; cada nivel superior cubre 64 veces más tiempo y, cuando
+ * el nivel inferior da una vuelta, "cascadea" una de sus ranuras hacia abajo. Cada ranura es una
+ * lista doblemente enlazada circular con centinela, así:
+ *   - programar y cancelar son O(1),
+ *   - avanzar cuesta O(1) amortizado por tick transcurrido más O(1) por temporizador vencido
+ *     (cada temporizador se cascadea a lo sumo NIVELES - 1 veces).
+ *
+ * Los tiempos se expresan en milisegundos absolutos; el reloj lo maneja quien la usa.
+ */
+public class RuedaTemporizadora<T> {
+    private static final int BITS = 6;
+    private static final int RANURAS = 1 << BITS;
+    private static final int MASCARA = RANURAS - 1;
+    private static final int NIVELES = 4; // 64^4 ticks: con ticks de 100 ms, ~19 días de horizonte
+
+    private final long msPorTick;
+    private final Temporizador<T>[][] ranuras;
+    private final int[] ocupadosPorNivel = new int[NIVELES];
+    private long tickActual = 0;
+    private int cantidad = 0;
+
+    /**
+     * Temporizador programado. Es el propio nodo de la lista de su ranura.
+     */
+    public static final class Temporizador<T> {
+        private final T valor;
+        private long tickVencimiento;
+        private Temporizador<T> anterior, siguiente;
+        private int nivel = -1; // -1 si no está en la rueda (vencido o cancelado)
+
+        private Temporizador(T valor) {
+            this.valor = valor;
+        }
+
+        public T getValor() { return valor; }
+
+        public boolean estaActivo() { return nivel >= 0; }
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    public RuedaTemporizadora(long msPorTick) {
+        if (msPorTick <= 0) throw new IllegalArgumentException("El tick debe ser positivo.");
+        this.msPorTick = msPorTick;
+        this.ranuras = new Temporizador[NIVELES][RANURAS];
+        for (int n = 0; n < NIVELES; n++) {
+            for (int r = 0; r < RANURAS; r++) {
+                Temporizador<T> centinela = new Temporizador<>(null);
+                centinela.anterior = centinela.siguiente = centinela;
+                ranuras[n][r] = centinela;
+            }
+        }
+    }
+
+    public int cantidad() {
+        return cantidad;
+    }
+
+    /**
+     * Programa el valor para vencer 'duracionMs' después de 'ahoraMs'. Conviene avanzar la rueda
+     * hasta 'ahoraMs' antes de programar. Complejidad: O(1).
+     */
+    public Temporizador<T> programar(T valor, long ahoraMs, long duracionMs) {
+        // Rueda vacía: se alinea al presente sin recorrer los ticks intermedios
+        if (cantidad == 0) tickActual = Math.max(tickActual, Math.floorDiv(ahoraMs, msPorTick));
+
+        Temporizador<T> t = new Temporizador<>(valor);
+        // Redondeo hacia arriba (nunca vence antes de tiempo) y como mínimo en el próximo tick
+        long vencimientoMs = ahoraMs + Math.max(0, duracionMs);
+        t.tickVencimiento = Math.max(tickActual + 1, Math.floorDiv(vencimientoMs + msPorTick - 1, msPorTick));
+        ubicar(t);
+        cantidad++;
+        return t;
+    }
+
+    /**
+     * Quita el temporizador si sigue activo. Complejidad: O(1).
+     */
+    public boolean cancelar(Temporizador<T> t) {
+        if (t == null || !t.estaActivo()) return false;
+        desenlazar(t);
+        cantidad--;
+        return true;
+    }
+
+    /**
+     * Avanza la rueda hasta el instante dado y entrega cada valor vencido, en orden de tick.
+     * @return Cantidad de temporizadores vencidos.
+     */
+    public int avanzar(long ahoraMs, Consumer<T> alVencer) {
+        long objetivo = Math.floorDiv(ahoraMs, msPorTick);
+        int vencidos = 0;
+        while (tickActual < objetivo) {
+            if (cantidad == 0) {
+                tickActual = objetivo; // Nada programado: se salta directo
+                break;
+            }
+            if (ocupadosPorNivel[0] == 0 && (tickActual & MASCARA) != MASCARA) {
+                // Sin nada en el nivel 0 no hay vencimientos hasta la próxima cascada
+                tickActual = Math.min(objetivo, tickActual | MASCARA);
+                continue;
+            }
+
+            tickActual++;
+            cascadear(1);
+            vencidos += vencerRanura((int) (tickActual & MASCARA), alVencer);
+        }
+        return vencidos;
+    }
+
+    // Al completar una vuelta del nivel inferior, se redistribuye la ranura correspondiente del nivel n
+    private void cascadear(int nivel) {
+        if (nivel >= NIVELES) return;
+        if ((tickActual & ((1L << (BITS * nivel)) - 1)) != 0) return;
+        cascadear(nivel + 1); // Primero lo más grueso, así lo que baja puede volver a bajar en este tick
+        int r = (int) ((tickActual >>> (BITS * nivel)) & MASCARA);
+        Temporizador<T> centinela = ranuras[nivel][r];
+        while (centinela.siguiente != centinela) {
+            Temporizador<T> t = centinela.siguiente;
+            desenlazar(t);
+            ubicar(t);
+        }
+    }
+
+    private int vencerRanura(int r, Consumer<T> alVencer) {
+        Temporizador<T> centinela = ranuras[0][r];
+        int vencidos = 0;
+        while (centinela.siguiente != centinela) {
+            Temporizador<T> t = centinela.siguiente;
+            desenlazar(t);
+            cantidad--;
+            vencidos++;
+            alVencer.accept(t.valor);
+        }
+        return vencidos;
+    }
+
+    // Elige el nivel según cuánto falta: el más bajo cuyo rango lo cubre
+    private void ubicar(Temporizador<T> t) {
+        long falta = Math.max(0, t.tickVencimiento - tickActual);
+        int nivel = 0;
+        while (nivel < NIVELES - 1 && falta >= (1L << (BITS * (nivel + 1)))) nivel++;
+        long tick = (falta >= (1L << (BITS * NIVELES))) ? tickActual + (1L << (BITS * NIVELES)) - 1 : t.tickVencimiento;
+        int r = (int) ((tick >>> (BITS * nivel)) & MASCARA);
+
+        Temporizador<T> centinela = ranuras[nivel][r];
+        t.siguiente = centinela;
+        t.anterior = centinela.anterior;
+        centinela.anterior.siguiente = t;
+        centinela.anterior = t;
+        t.nivel = nivel;
+        ocupadosPorNivel[nivel]++;
+    }
+
+    private void desenlazar(Temporizador<T> t) {
+        t.anterior.siguiente = t.siguiente;
+        t.siguiente.anterior = t.anterior;
+        t.anterior = t.siguiente = null;
+        ocupadosPorNivel[t.nivel]--;
+        t.nivel = -1;
+    }
+}
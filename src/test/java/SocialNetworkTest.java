@@ -2,14 +2,81 @@ import exceptions.ClienteNoEncontradoException;
 import exceptions.ClienteYaExisteException;
 import exceptions.OperacionInvalidaException;
 import exceptions.SocialNetworkException;
+import models.Accion;
 import models.Cliente;
+import models.FichaCliente;
+import models.Solicitud;
+import api.GeneradorCarga;
+import api.ServidorRed;
+import services.ActionHistory;
+import services.EstrategiaPeso;
+import services.GrabadorOperaciones;
+import services.PoliticaSolicitudes;
+import services.ReproductorTraza;
+import services.ISocialNetwork;
+import services.SnapshotRed;
+import services.SocialNetworkAsync;
 import services.SocialNetwork;
+import services.VerificadorInvariantes;
+import services.analitica.ComponentesFuertes;
+import services.analitica.ContadorTriangulos;
+import services.analitica.DeteccionComunidades;
+import services.analitica.RankingInfluencia;
+import services.particion.SocialNetworkParticionada;
+import utils.DeltaExporter;
+import utils.DeltaLoader;
+import utils.JsonExporter;
+import utils.JsonLoader;
+import utils.ModoBatch;
+import utils.TDA.ArbolAVL;
+import utils.TDA.ArbolFenwick;
+import com.google.gson.JsonArray;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
 import java.io.PrintStream;
+import java.io.PrintWriter;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -17,9 +84,22 @@ public class SocialNetworkTest {
 
     private SocialNetwork red;
 
+    private PrintStream consola;
+
     @BeforeEach
     public void setUp() {
         red = new SocialNetwork();
+        consola = System.out;
+    }
+
+    @AfterEach
+    public void restaurarConsola() {
+        System.setOut(consola);
+    }
+
+    // Para las pruebas que ejercitan código que imprime mucho; @AfterEach devuelve la consola
+    private void silenciarConsola() {
+        System.setOut(new PrintStream(new ByteArrayOutputStream()));
     }
 
     // ==========================================
@@ -107,6 +187,28 @@ public class SocialNetworkTest {
         assertDoesNotThrow(() -> red.deshacerUltimaAccion());
     }
 
+    @Test
+    public void testDeshacerAlta_BorraEnCascadaAmistadesYSeguimientos() throws Exception {
+        red.agregarCliente("A", 10);
+        red.agregarCliente("B", 20);
+        red.agregarCliente("C", 30);
+        red.crearAmistad("A", "B");
+        red.buscarPorNombre("A").agregarSeguido(red.buscarPorNombre("C"));
+
+        red.deshacerUltimaAccion(); // Alta de C
+        red.deshacerUltimaAccion(); // Alta de B
+
+        Cliente a = red.buscarPorNombre("A");
+        assertTrue(a.getAmigos().isEmpty(), "No debe quedar amistad con B");
+        assertTrue(a.getSiguiendo().isEmpty(), "No debe quedar el seguimiento a C");
+        assertEquals(0, red.calcularDistancia("A", "A"));
+        assertEquals(List.of("A"), red.calcularCamino("A", "A"));
+        assertTrue(red.clientesEnNivel("A", 1).isEmpty());
+        assertTrue(red.recomendarAmigos("A", 3).isEmpty());
+        assertEquals(0, red.analizarTriangulos().getTotalTriangulos());
+        assertEquals(1, red.analizarComponentesSeguimiento().cantidadComponentes());
+    }
+
     // ==========================================
     // --- ITERACION 2: NUEVOS REQUERIMIENTOS ---
     // ==========================================
@@ -233,4 +335,1496 @@ public class SocialNetworkTest {
         int saltos = red.calcularDistancia("A", "D");
         assertEquals(-1, saltos, "Si no hay conexión, debe retornar -1");
     }
-}
\ No newline at end of file
+
+    // ==========================================
+    // --- BFS PARALELA (FORK/JOIN)            ---
+    // ==========================================
+
+    /**
+     * Arma una red aleatoria (semilla fija) con amistades y seguimientos.
+     */
+    private void armarRedAleatoria(SocialNetwork red, int n, long semilla) throws Exception {
+        Random rnd = new Random(semilla);
+        for (int i = 0; i < n; i++) red.agregarCliente("C" + i, rnd.nextInt(101));
+        for (int i = 0; i < n * 2; i++) {
+            int a = rnd.nextInt(n), b = rnd.nextInt(n);
+            if (a != b) red.crearAmistad("C" + a, "C" + b);
+        }
+        for (int i = 0; i < n; i++) {
+            Cliente c = red.buscarPorNombre("C" + i);
+            for (int j = 0; j < 2; j++) {
+                int b = rnd.nextInt(n);
+                if (b != i && c.getSiguiendo().size() < 2) c.agregarSeguido(red.buscarPorNombre("C" + b));
+            }
+        }
+    }
+
+    @Test
+    public void testBFSParalela_MismosResultadosQueSecuencial() throws Exception {
+        silenciarConsola();
+        armarRedAleatoria(red, 3000, 42);
+
+        for (int destino = 0; destino < 3000; destino += 97) {
+            red.setUmbralParalelo(Integer.MAX_VALUE);
+            int secuencial = red.calcularDistancia("C0", "C" + destino);
+            red.setUmbralParalelo(0);
+            int paralela = red.calcularDistancia("C0", "C" + destino);
+            assertEquals(secuencial, paralela, "Distancia distinta hacia C" + destino);
+        }
+
+        for (int nivel = 0; nivel <= 12; nivel++) {
+            red.setUmbralParalelo(Integer.MAX_VALUE);
+            List<Cliente> secuencial = red.clientesEnNivel("C7", nivel);
+            red.setUmbralParalelo(0);
+            List<Cliente> paralela = red.clientesEnNivel("C7", nivel);
+            assertEquals(secuencial, paralela, "El nivel " + nivel + " debe coincidir (mismo orden)");
+        }
+    }
+
+    @Test
+    public void testBFSParalela_SinConexion() throws Exception {
+        red.agregarCliente("A", 10);
+        red.agregarCliente("B", 10);
+        red.agregarCliente("C", 10);
+        red.crearAmistad("A", "B");
+        red.setUmbralParalelo(0);
+
+        assertEquals(1, red.calcularDistancia("A", "B"));
+        assertEquals(-1, red.calcularDistancia("A", "C"));
+        assertTrue(red.clientesEnNivel("A", 1).isEmpty());
+
+        // La foto queda cacheada entre consultas, pero cualquier cambio la descarta
+        red.crearAmistad("B", "C");
+        red.buscarPorNombre("A").agregarSeguido(red.buscarPorNombre("C"));
+        assertEquals(2, red.calcularDistancia("A", "C"));
+        assertEquals(List.of(red.buscarPorNombre("C")), red.clientesEnNivel("A", 1));
+    }
+
+    // ==========================================
+    // --- CAMINOS Y DISTANCIAS MÚLTIPLES      ---
+    // ==========================================
+
+    @Test
+    public void testCalcularCamino_ReconstruyeRutaMinima() throws Exception {
+        // A - B - C - D, con atajo A - E - D
+        for (String n : new String[]{"A", "B", "C", "D", "E", "F"}) red.agregarCliente(n, 10);
+        red.crearAmistad("A", "B");
+        red.crearAmistad("B", "C");
+        red.crearAmistad("C", "D");
+        red.crearAmistad("A", "E");
+        red.crearAmistad("E", "D");
+
+        assertEquals(List.of("A", "E", "D"), red.calcularCamino("A", "D"));
+        assertEquals(List.of("C"), red.calcularCamino("C", "C"));
+        assertTrue(red.calcularCamino("A", "F").isEmpty(), "Sin conexión el camino es vacío");
+        assertThrows(ClienteNoEncontradoException.class, () -> red.calcularCamino("A", "Fantasma"));
+    }
+
+    @Test
+    public void testCalcularDistancias_UnaBFSVariosDestinos() throws Exception {
+        silenciarConsola();
+        armarRedAleatoria(red, 500, 7);
+        List<String> destinos = List.of("C0", "C3", "C99", "C250", "C499");
+
+        Map<String, Integer> distancias = red.calcularDistancias("C0", destinos);
+
+        assertEquals(destinos, List.copyOf(distancias.keySet()), "Respeta el orden de los destinos");
+        for (String d : destinos) {
+            assertEquals(red.calcularDistancia("C0", d), distancias.get(d), "Distancia hacia " + d);
+        }
+    }
+
+    // ==========================================
+    // --- CAMINOS PONDERADOS (DIJKSTRA)       ---
+    // ==========================================
+
+    @Test
+    public void testDistanciaPonderada_EvitaClientesDeBajoScoring() throws Exception {
+        // A - Bajo - D (2 saltos por un cliente poco confiable) y A - X - Y - D (3 saltos confiables)
+        red.agregarCliente("A", 100);
+        red.agregarCliente("Bajo", 0);
+        red.agregarCliente("X", 100);
+        red.agregarCliente("Y", 100);
+        red.agregarCliente("D", 100);
+        red.crearAmistad("A", "Bajo");
+        red.crearAmistad("Bajo", "D");
+        red.crearAmistad("A", "X");
+        red.crearAmistad("X", "Y");
+        red.crearAmistad("Y", "D");
+
+        assertEquals(2.0, red.calcularDistanciaPonderada("A", "D", EstrategiaPeso.uniforme()), 1e-9);
+        assertEquals(List.of("A", "X", "Y", "D"),
+                red.calcularCaminoPonderado("A", "D", EstrategiaPeso.confianzaInversa()));
+        assertEquals(3.0, red.calcularDistanciaPonderada("A", "D", EstrategiaPeso.confianzaLineal()), 1e-9);
+    }
+
+    @Test
+    public void testDistanciaPonderada_UniformeCoincideConBFS() throws Exception {
+        silenciarConsola();
+        armarRedAleatoria(red, 400, 3);
+        for (int destino = 0; destino < 400; destino += 37) {
+            int saltos = red.calcularDistancia("C1", "C" + destino);
+            double ponderada = red.calcularDistanciaPonderada("C1", "C" + destino, EstrategiaPeso.uniforme());
+            assertEquals(saltos, ponderada, 1e-9, "Con pesos uniformes Dijkstra debe igualar a la BFS");
+        }
+        assertThrows(IllegalArgumentException.class,
+                () -> red.calcularDistanciaPonderada("C1", "C2", (desde, hacia) -> -1.0));
+    }
+
+    // ==========================================
+    // --- ACTUALIZACIÓN DE SCORING            ---
+    // ==========================================
+
+    @Test
+    public void testActualizarScoring_MueveEnElAVLYSeDeshace() throws Exception {
+        red.agregarCliente("A", 50);
+        red.agregarCliente("B", 50);
+
+        red.actualizarScoring("A", 80);
+        assertEquals(List.of(red.buscarPorNombre("B")), red.buscarPorScoring(50));
+        assertEquals(List.of(red.buscarPorNombre("A")), red.buscarPorScoring(80));
+
+        red.deshacerUltimaAccion();
+        assertEquals(50, red.buscarPorNombre("A").getScoring());
+        assertEquals(2, red.buscarPorScoring(50).size());
+        assertTrue(red.buscarPorScoring(80).isEmpty());
+
+        assertThrows(IllegalArgumentException.class, () -> red.actualizarScoring("A", 101));
+        assertThrows(ClienteNoEncontradoException.class, () -> red.actualizarScoring("Nadie", 10));
+    }
+
+    @Test
+    public void testArbolAVL_GrupoGrandeQuitaSinRecorrerYConservaOrden() {
+        ArbolAVL arbol = new ArbolAVL();
+        List<Cliente> grupo = new ArrayList<>();
+        for (int i = 0; i < 5000; i++) {
+            Cliente c = new Cliente("G" + i, 50);
+            grupo.add(c);
+            arbol.insertar(50, c);
+        }
+        arbol.insertar(50, grupo.get(7)); // Repetido: no se duplica ni altera los agregados
+        for (int i = 0; i < 5000; i += 2) arbol.eliminar(50, grupo.get(i));
+
+        assertEquals(2500, arbol.cantidadClientes());
+        assertEquals(2500, arbol.cantidadConScoring(50));
+        assertTrue(arbol.contiene(50, grupo.get(7)));
+        assertFalse(arbol.contiene(50, grupo.get(8)));
+        List<Cliente> restantes = arbol.buscar(50);
+        for (int k = 0; k < restantes.size(); k++) assertSame(grupo.get(2 * k + 1), restantes.get(k), "Orden de inserción");
+        assertTrue(arbol.repOK());
+    }
+
+    @Test
+    public void testSetScoringDirecto_NoDesincronizaElIndice() throws Exception {
+        red.agregarCliente("A", 10);
+        red.buscarPorNombre("A").setScoring(90);
+
+        assertTrue(red.buscarPorScoring(10).isEmpty(), "No debe quedar en el nodo viejo");
+        assertEquals(1, red.buscarPorScoring(90).size());
+        assertDoesNotThrow(() -> red.eliminarClienteTotalmente("A"));
+        assertTrue(red.buscarPorScoring(90).isEmpty(), "El borrado debe encontrarlo en el nodo correcto");
+    }
+
+    @Test
+    public void testActualizarScorings_LoteGrandeReconstruyeYSeDeshace() throws Exception {
+        silenciarConsola();
+        Map<String, Integer> lote = new HashMap<>();
+        for (int i = 0; i < 200; i++) {
+            red.agregarCliente("C" + i, i % 101);
+            lote.put("C" + i, 100 - (i % 101));
+        }
+
+        red.actualizarScorings(lote);
+        for (int i = 0; i < 200; i++) {
+            Cliente c = red.buscarPorNombre("C" + i);
+            assertEquals(100 - (i % 101), c.getScoring());
+            assertTrue(red.buscarPorScoring(c.getScoring()).contains(c));
+        }
+
+        red.deshacerUltimaAccion();
+        for (int i = 0; i < 200; i++) {
+            Cliente c = red.buscarPorNombre("C" + i);
+            assertEquals(i % 101, c.getScoring());
+            assertTrue(red.buscarPorScoring(i % 101).contains(c));
+        }
+
+        // Todo o nada: un nombre inexistente no aplica ningún cambio
+        assertThrows(ClienteNoEncontradoException.class,
+                () -> red.actualizarScorings(Map.of("C1", 5, "Fantasma", 5)));
+        assertEquals(1, red.buscarPorNombre("C1").getScoring());
+    }
+
+    // ==========================================
+    // --- CONSTRUCCIÓN EN LOTE DEL AVL        ---
+    // ==========================================
+
+    @Test
+    public void testArbolAVL_ConstruccionEnLoteBalanceada() {
+        int[] scorings = new int[100];
+        List<List<Cliente>> grupos = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            scorings[i] = i;
+            grupos.add(List.of(new Cliente("C" + i, i)));
+        }
+
+        ArbolAVL arbol = ArbolAVL.desdeGruposOrdenados(scorings, grupos);
+        assertEquals(7, arbol.getAltura(), "100 nodos perfectamente balanceados tienen altura 7");
+        for (int i = 0; i < 100; i++) assertEquals("C" + i, arbol.buscar(i).get(0).getNombre());
+
+        assertThrows(IllegalArgumentException.class,
+                () -> ArbolAVL.desdeGruposOrdenados(new int[]{5, 5}, List.of(List.of(), List.of())));
+    }
+
+    @Test
+    public void testArbolAVL_FusionarLote() {
+        ArbolAVL arbol = new ArbolAVL();
+        Cliente existente = new Cliente("Existente", 50);
+        arbol.insertar(50, existente);
+
+        Cliente a = new Cliente("A", 10), b = new Cliente("B", 50), c = new Cliente("C", 90);
+        arbol.fusionar(new int[]{10, 50, 90}, List.of(List.of(a), List.of(b), List.of(c)));
+
+        assertEquals(List.of(a), arbol.buscar(10));
+        assertEquals(List.of(existente, b), arbol.buscar(50));
+        assertEquals(List.of(c), arbol.buscar(90));
+        assertEquals(2, arbol.getAltura());
+
+        // Lote chico frente a muchos clientes: se inserta cliente a cliente y el árbol sigue válido
+        int[] scorings = new int[100];
+        List<List<Cliente>> grupos = new ArrayList<>();
+        for (int s = 0; s < 100; s++) {
+            scorings[s] = s;
+            List<Cliente> grupo = new ArrayList<>();
+            for (int i = 0; i < 20; i++) grupo.add(new Cliente("G" + s + "_" + i, s));
+            grupos.add(grupo);
+        }
+        ArbolAVL grande = ArbolAVL.desdeGruposOrdenados(scorings, grupos);
+        Cliente nuevo = new Cliente("Nuevo", 30);
+        grande.fusionar(new int[]{30}, List.of(List.of(nuevo)));
+        assertEquals(2001, grande.cantidadClientes());
+        assertEquals(nuevo, grande.buscar(30).get(20));
+        assertTrue(grande.repOK());
+    }
+
+    @Test
+    public void testAgregarClientes_AltaMasiva() throws Exception {
+        red.agregarCliente("Previo", 40);
+        Map<String, Integer> nuevos = new LinkedHashMap<>();
+        nuevos.put("A", 40);
+        nuevos.put("B", 70);
+        nuevos.put("Previo", 10);
+        nuevos.put("Invalido", 500);
+
+        List<String> rechazados = red.agregarClientes(nuevos);
+
+        assertEquals(List.of("Previo", "Invalido"), rechazados);
+        assertEquals(2, red.buscarPorScoring(40).size());
+        assertEquals("B", red.buscarPorScoring(70).get(0).getNombre());
+        assertEquals(40, red.buscarPorNombre("Previo").getScoring(), "El existente no se pisa");
+    }
+
+    @Test
+    public void testJsonLoader_CargaEnRedVacia() {
+        JsonLoader.cargar("datos.json", red);
+        assertNotNull(red.buscarPorNombre("Kevin"));
+        assertEquals(1, red.buscarPorScoring(100).size());
+        assertTrue(red.buscarPorNombre("Kevin").getSiguiendo().contains(red.buscarPorNombre("Alice")));
+    }
+
+    // ==========================================
+    // --- CLIENTE COMPACTO EN MEMORIA         ---
+    // ==========================================
+
+    @Test
+    public void testClienteCompacto_AmigosPasanDeArregloAHashSet() {
+        Cliente c = new Cliente("Hub", 50);
+        List<Cliente> otros = new ArrayList<>();
+        for (int i = 0; i < 20; i++) otros.add(new Cliente("O" + i, 50));
+
+        for (int i = 0; i < 20; i++) {
+            c.agregarAmigo(otros.get(i));
+            c.agregarAmigo(otros.get(i)); // duplicado ignorado
+            assertEquals(i + 1, c.getAmigos().size());
+            assertTrue(c.getAmigos().contains(new Cliente("O" + i, 0)), "equals por nombre");
+        }
+        for (int i = 0; i < 20; i += 2) c.eliminarAmigo(otros.get(i));
+        assertEquals(10, c.getAmigos().size());
+        assertFalse(c.esAmigoDe(otros.get(0)));
+        assertTrue(c.esAmigoDe(otros.get(1)));
+        assertThrows(UnsupportedOperationException.class, () -> c.getAmigos().add(otros.get(0)));
+    }
+
+    @Test
+    public void testClienteCompacto_SeguidosYBuzonPerezoso() {
+        Cliente c = new Cliente("C", 50);
+        Cliente a = new Cliente("A", 50), b = new Cliente("B", 50);
+
+        assertTrue(c.getSolicitudesRecibidas().isEmpty());
+        c.recibirSolicitud("A");
+        c.recibirSolicitud("A");
+        assertEquals(1, c.getSolicitudesRecibidas().size());
+        assertEquals("A", c.tomarSolicitud());
+        assertNull(c.tomarSolicitud());
+
+        // Buzón grande: los solicitantes quedan indexados y el descarte de repetidos sigue igual
+        for (int i = 0; i < 1000; i++) c.recibirSolicitud("S" + (i % 500));
+        assertEquals(500, c.getSolicitudesRecibidas().size());
+        assertThrows(UnsupportedOperationException.class, () -> c.getSolicitudesRecibidas().poll());
+        assertThrows(UnsupportedOperationException.class, () -> c.getSolicitudesRecibidas().add(new Solicitud("X", "C")));
+        assertThrows(UnsupportedOperationException.class, () -> c.getSolicitudesRecibidas().iterator().remove());
+        assertEquals("S0", c.tomarSolicitud());
+        assertTrue(c.recibirSolicitud("S0"), "Tras tomarla puede volver a pedirla");
+        assertFalse(c.recibirSolicitud("S1"));
+        for (int i = 0; i < 500; i++) assertNotNull(c.tomarSolicitud());
+        assertNull(c.tomarSolicitud());
+
+        c.agregarSeguido(a);
+        c.agregarSeguido(b);
+        assertEquals(List.of(a, b), c.getSiguiendo());
+        assertTrue(c.eliminarSeguido(a));
+        assertEquals(List.of(b), c.getSiguiendo());
+        assertFalse(c.eliminarSeguido(a));
+    }
+
+    // ==========================================
+    // --- VERIFICACIÓN DEL INVARIANTE         ---
+    // ==========================================
+
+    @Test
+    public void testInvariante_CompletoDetectaDesincronizacionEntreIndices() throws Exception {
+        red.agregarCliente("A", 10);
+        red.agregarCliente("B", 20);
+        assertTrue(red.repOK());
+
+        // Amistad unidireccional hecha "por afuera" de la red
+        red.buscarPorNombre("A").agregarAmigo(red.buscarPorNombre("B"));
+        assertFalse(red.repOK(), "La amistad debe ser simétrica");
+    }
+
+    @Test
+    public void testInvariante_IncrementalValidaSoloLosTocados() throws Exception {
+        red.getVerificador().setModo(VerificadorInvariantes.Modo.INCREMENTAL);
+        red.agregarCliente("A", 10);
+        red.agregarCliente("B", 20);
+        red.agregarCliente("C", 30);
+        red.buscarPorNombre("A").agregarAmigo(red.buscarPorNombre("B"));
+
+        // Una mutación que no toca a A ni a B no los revisa
+        assertDoesNotThrow(() -> red.crearAmistad("C", "B"));
+        // Tocar a A sí dispara la verificación (los tests corren con -ea)
+        assertThrows(AssertionError.class, () -> red.actualizarScoring("A", 50));
+    }
+
+    @Test
+    public void testInvariante_AuditoriaPeriodicaEnSegundoPlano() throws Exception {
+        red.agregarCliente("A", 10);
+        red.agregarCliente("B", 20);
+        red.iniciarAuditoriaPeriodica(5);
+        try {
+            long limite = System.currentTimeMillis() + 5000;
+            while (red.getVerificador().getAuditoriasRealizadas() < 2 && System.currentTimeMillis() < limite) {
+                Thread.sleep(5);
+            }
+            assertTrue(red.getVerificador().getAuditoriasRealizadas() >= 2);
+            assertEquals(0, red.getVerificador().getFallasDetectadas());
+
+            red.buscarPorNombre("A").agregarAmigo(red.buscarPorNombre("B"));
+            while (red.getVerificador().getFallasDetectadas() == 0 && System.currentTimeMillis() < limite) {
+                Thread.sleep(5);
+            }
+            assertTrue(red.getVerificador().getFallasDetectadas() > 0, "La auditoría debe detectar la asimetría");
+        } finally {
+            red.detenerAuditoriaPeriodica();
+        }
+    }
+
+    // ==========================================
+    // --- RED PARTICIONADA (COORDINADOR)      ---
+    // ==========================================
+
+    // Misma red en cualquier implementación, usando solo la interfaz (a lo sumo 2 solicitudes por cliente)
+    private void armarRedEspejo(ISocialNetwork red, int n, long semilla) throws Exception {
+        Random rnd = new Random(semilla);
+        for (int i = 0; i < n; i++) red.agregarCliente("C" + i, rnd.nextInt(101));
+        for (int i = 0; i < n * 2; i++) {
+            int a = rnd.nextInt(n), b = rnd.nextInt(n);
+            if (a != b) red.crearAmistad("C" + a, "C" + b);
+        }
+        for (int i = 0; i < n; i++) {
+            int b1 = rnd.nextInt(n), b2 = rnd.nextInt(n);
+            if (b1 != i) red.enviarSolicitud("C" + i, "C" + b1);
+            if (b2 != i && b2 != b1) red.enviarSolicitud("C" + i, "C" + b2);
+        }
+        red.procesarSolicitudes();
+    }
+
+    private Set<String> nombresDe(List<Cliente> clientes) {
+        Set<String> nombres = new HashSet<>();
+        for (Cliente c : clientes) nombres.add(c.getNombre());
+        return nombres;
+    }
+
+    @Test
+    public void testParticionada_ConsultasCoincidenConRedUnica() throws Exception {
+        silenciarConsola();
+        try (SocialNetworkParticionada particionada = new SocialNetworkParticionada(4)) {
+            armarRedEspejo(red, 150, 7L);
+            armarRedEspejo(particionada, 150, 7L);
+            assertEquals(150, particionada.cantidadClientes());
+
+            for (int s = 0; s <= 100; s += 10) {
+                assertEquals(nombresDe(red.buscarPorScoring(s)), nombresDe(particionada.buscarPorScoring(s)));
+            }
+            for (int i = 1; i < 150; i += 7) {
+                String destino = "C" + i;
+                assertEquals(red.calcularDistancia("C0", destino), particionada.calcularDistancia("C0", destino));
+                assertEquals(red.calcularCamino("C0", destino).size(), particionada.calcularCamino("C0", destino).size());
+                assertEquals(red.calcularDistanciaPonderada("C0", destino, EstrategiaPeso.confianzaInversa()),
+                        particionada.calcularDistanciaPonderada("C0", destino, EstrategiaPeso.confianzaInversa()), 1e-9);
+
+                // Las copias devueltas traen también las aristas que cruzan particiones
+                Cliente esperado = red.buscarPorNombre(destino);
+                Cliente copia = particionada.buscarPorNombre(destino);
+                assertEquals(nombresDe(new ArrayList<>(esperado.getAmigos())), nombresDe(new ArrayList<>(copia.getAmigos())));
+                assertEquals(nombresDe(esperado.getSiguiendo()), nombresDe(copia.getSiguiendo()));
+            }
+            for (int nivel = 0; nivel <= 4; nivel++) {
+                assertEquals(nombresDe(red.clientesEnNivel("C3", nivel)), nombresDe(particionada.clientesEnNivel("C3", nivel)));
+            }
+            assertEquals(red.calcularDistancias("C5", List.of("C1", "C2", "C99")),
+                    particionada.calcularDistancias("C5", List.of("C1", "C2", "C99")));
+        }
+    }
+
+    @Test
+    public void testParticionada_CaminoCruzaParticiones() throws Exception {
+        try (SocialNetworkParticionada particionada = new SocialNetworkParticionada(3)) {
+            for (int i = 0; i < 6; i++) particionada.agregarCliente("P" + i, 50);
+            for (int i = 0; i < 5; i++) particionada.crearAmistad("P" + i, "P" + (i + 1));
+
+            assertEquals(List.of("P0", "P1", "P2", "P3", "P4", "P5"), particionada.calcularCamino("P0", "P5"));
+            assertEquals(5, particionada.calcularDistancia("P0", "P5"));
+            assertThrows(ClienteNoEncontradoException.class, () -> particionada.calcularDistancia("P0", "X"));
+        }
+    }
+
+    @Test
+    public void testParticionada_EliminarYDeshacerRestauraAristasRemotas() throws Exception {
+        silenciarConsola();
+        try (SocialNetworkParticionada particionada = new SocialNetworkParticionada(4)) {
+            armarRedEspejo(particionada, 60, 11L);
+            int distanciaAntes = particionada.calcularDistancia("C1", "C2");
+            List<Cliente> nivelAntes = particionada.clientesEnNivel("C4", 2);
+
+            particionada.eliminarClienteTotalmente("C0");
+            assertNull(particionada.buscarPorNombre("C0"));
+            assertThrows(ClienteNoEncontradoException.class, () -> particionada.calcularDistancia("C1", "C0"));
+
+            particionada.deshacerUltimaAccion();
+            assertNotNull(particionada.buscarPorNombre("C0"));
+            assertEquals(distanciaAntes, particionada.calcularDistancia("C1", "C2"));
+            assertEquals(nombresDe(nivelAntes), nombresDe(particionada.clientesEnNivel("C4", 2)));
+        }
+    }
+
+    // ==========================================
+    // --- SNAPSHOTS MVCC                      ---
+    // ==========================================
+
+    @Test
+    public void testSnapshot_NoVeEscriturasPosteriores() throws Exception {
+        red.agregarCliente("A", 10);
+        red.agregarCliente("B", 20);
+        red.agregarCliente("C", 30);
+        red.crearAmistad("A", "B");
+        assertThrows(IllegalStateException.class, () -> red.snapshot());
+        red.habilitarSnapshots();
+
+        try (SnapshotRed antes = red.snapshot()) {
+            red.crearAmistad("B", "C");
+            red.actualizarScoring("B", 90);
+            red.eliminarClienteTotalmente("A");
+
+            assertNotNull(antes.buscarPorNombre("A"));
+            assertEquals(20, antes.buscarPorNombre("B").getScoring());
+            assertEquals(List.of("A"), antes.buscarPorNombre("B").getAmigos());
+            assertEquals(-1, antes.calcularDistancia("A", "C"));
+
+            try (SnapshotRed despues = red.snapshot()) {
+                assertTrue(despues.getVersion() > antes.getVersion());
+                assertNull(despues.buscarPorNombre("A"));
+                assertEquals(90, despues.buscarPorNombre("B").getScoring());
+                assertEquals(1, despues.calcularDistancia("B", "C"));
+                assertEquals(2, despues.cantidadClientes());
+                assertEquals("B", despues.buscarPorScoring(90).get(0).getNombre());
+                assertTrue(despues.buscarPorScoring(20).isEmpty());
+            }
+            assertEquals(3, antes.cantidadClientes());
+            assertEquals(1, antes.buscarPorScoring(20).size());
+            assertTrue(antes.buscarPorScoring(90).isEmpty());
+        }
+    }
+
+    @Test
+    public void testSnapshot_LecturasConcurrentesSiempreConsistentes() throws Exception {
+        silenciarConsola();
+        for (int i = 0; i < 40; i++) red.agregarCliente("C" + i, i);
+        red.habilitarSnapshots();
+
+        AtomicBoolean fin = new AtomicBoolean(false);
+        AtomicReference<Throwable> error = new AtomicReference<>();
+        Thread lector = new Thread(() -> {
+            try {
+                while (!fin.get()) {
+                    try (SnapshotRed snap = red.snapshot()) {
+                        // Cada versión publicada es una escritura completa: las amistades son simétricas
+                        for (FichaCliente c : snap.clientes()) {
+                            for (String amigo : c.getAmigos()) {
+                                if (!snap.buscarPorNombre(amigo).getAmigos().contains(c.getNombre())) {
+                                    throw new AssertionError("Amistad asimétrica en la versión " + snap.getVersion());
+                                }
+                            }
+                        }
+                    }
+                }
+            } catch (Throwable t) {
+                error.set(t);
+            }
+        });
+
+        silenciarConsola();
+        lector.start();
+        try {
+            Random rnd = new Random(3);
+            for (int i = 0; i < 2000 && error.get() == null; i++) {
+                int a = rnd.nextInt(40), b = rnd.nextInt(40);
+                if (a != b) red.crearAmistad("C" + a, "C" + b);
+                if (i % 50 == 0) {
+                    red.eliminarClienteTotalmente("C" + a);
+                    red.deshacerUltimaAccion();
+                }
+            }
+        } finally {
+            fin.set(true);
+            lector.join();
+        }
+        assertNull(error.get(), () -> "Falla del lector: " + error.get());
+    }
+
+    @Test
+    public void testSnapshot_VersionesViejasSeLiberanAlCerrar() throws Exception {
+        red.agregarCliente("A", 10);
+        red.agregarCliente("B", 20);
+        red.habilitarSnapshots();
+
+        SnapshotRed viejo = red.snapshot();
+        for (int s = 0; s <= 50; s++) red.actualizarScoring("A", s);
+        assertTrue(red.versionesRetenidas() > 2, "Mientras el snapshot esté abierto se retiene la historia");
+        assertEquals(10, viejo.buscarPorNombre("A").getScoring());
+
+        viejo.close();
+        red.actualizarScoring("B", 21);
+        assertEquals(2, red.versionesRetenidas());
+        assertThrows(IllegalStateException.class, () -> viejo.buscarPorNombre("A"));
+        try (SnapshotRed nuevo = red.snapshot()) {
+            assertEquals(2, nuevo.cantidadClientes());
+            assertEquals(1, nuevo.buscarPorScoring(50).size());
+            assertTrue(nuevo.buscarPorScoring(10).isEmpty());
+        }
+    }
+
+    // ==========================================
+    // --- FACHADA ASÍNCRONA                   ---
+    // ==========================================
+
+    @Test
+    public void testAsync_EscriturasEncoladasSeAplicanEnUnLote() throws Exception {
+        CountDownLatch entro = new CountDownLatch(1);
+        CountDownLatch liberar = new CountDownLatch(1);
+        SocialNetwork lenta = new SocialNetwork() {
+            @Override
+            public void agregarCliente(String nombre, int scoring) throws ClienteYaExisteException {
+                if (nombre.equals("BLOQUEO")) {
+                    entro.countDown();
+                    try {
+                        liberar.await();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                }
+                super.agregarCliente(nombre, scoring);
+            }
+        };
+
+        try (SocialNetworkAsync async = new SocialNetworkAsync(lenta)) {
+            CompletableFuture<Void> primera = async.agregarCliente("BLOQUEO", 1);
+            entro.await();
+
+            List<CompletableFuture<Void>> resto = new ArrayList<>();
+            for (int i = 0; i < 10; i++) resto.add(async.agregarCliente("C" + i, i));
+            liberar.countDown();
+
+            primera.get();
+            CompletableFuture.allOf(resto.toArray(new CompletableFuture[0])).get();
+            assertEquals(11, async.getEscriturasAplicadas());
+            assertEquals(2, async.getLotesAplicados(), "Las 10 escrituras encoladas van en un solo lote");
+            assertEquals(1, async.buscarPorScoring(5).get().size());
+        }
+    }
+
+    @Test
+    public void testAsync_ErroresYLecturasConcurrentes() throws Exception {
+        try (SocialNetworkAsync async = new SocialNetworkAsync(red)) {
+            async.agregarCliente("A", 10);
+            async.agregarCliente("B", 20);
+            async.crearAmistad("A", "B").get();
+
+            ExecutionException e = assertThrows(ExecutionException.class,
+                    () -> async.agregarCliente("A", 30).get());
+            assertInstanceOf(ClienteYaExisteException.class, e.getCause());
+
+            List<CompletableFuture<Integer>> lecturas = new ArrayList<>();
+            for (int i = 0; i < 50; i++) lecturas.add(async.calcularDistancia("A", "B"));
+            for (CompletableFuture<Integer> lectura : lecturas) assertEquals(1, lectura.get());
+        }
+    }
+
+    @Test
+    public void testAsync_EscriturasQueCompitenConElCierreSiempreTerminan() throws Exception {
+        for (int ronda = 0; ronda < 20; ronda++) {
+            SocialNetworkAsync async = new SocialNetworkAsync(new SocialNetwork());
+            List<CompletableFuture<Void>> futuros = new CopyOnWriteArrayList<>();
+            int r = ronda;
+            Thread productor = new Thread(() -> {
+                for (int i = 0; i < 200; i++) futuros.add(async.agregarCliente("R" + r + "_" + i, i % 100));
+            });
+            productor.start();
+            async.close();
+            productor.join();
+
+            // Cada escritura se aplica o se rechaza: ninguna queda colgada tras el cierre
+            for (CompletableFuture<Void> f : futuros) {
+                try {
+                    f.get(5, TimeUnit.SECONDS);
+                } catch (ExecutionException e) {
+                    assertInstanceOf(RejectedExecutionException.class, e.getCause());
+                }
+            }
+        }
+    }
+
+    // ==========================================
+    // --- API HTTP Y GENERADOR DE CARGA       ---
+    // ==========================================
+
+    private HttpResponse<String> pedir(HttpClient http, int puerto, String metodo,
+                                                     String ruta, String cuerpo) throws Exception {
+        HttpRequest.Builder b = HttpRequest.newBuilder(
+                URI.create("http://localhost:" + puerto + "/" + ruta));
+        b.method(metodo, cuerpo == null ? HttpRequest.BodyPublishers.noBody()
+                : HttpRequest.BodyPublishers.ofString(cuerpo));
+        return http.send(b.build(), HttpResponse.BodyHandlers.ofString());
+    }
+
+    @Test
+    public void testServidorHttp_EndpointsYCodigosDeError() throws Exception {
+        silenciarConsola();
+        try (ServidorRed servidor = new ServidorRed(red, 0)) {
+            servidor.iniciar();
+            int puerto = servidor.getPuerto();
+            HttpClient http = HttpClient.newHttpClient();
+
+            assertEquals(201, pedir(http, puerto, "POST", "clientes", "{\"nombre\":\"Ana\",\"scoring\":70}").statusCode());
+            assertEquals(201, pedir(http, puerto, "POST", "clientes", "{\"nombre\":\"Beto\",\"scoring\":40}").statusCode());
+            assertEquals(409, pedir(http, puerto, "POST", "clientes", "{\"nombre\":\"Ana\",\"scoring\":1}").statusCode());
+            assertEquals(201, pedir(http, puerto, "POST", "amistades", "{\"nombre1\":\"Ana\",\"nombre2\":\"Beto\"}").statusCode());
+
+            HttpResponse<String> perfil = pedir(http, puerto, "GET", "clientes/Ana", null);
+            assertEquals(200, perfil.statusCode());
+            JsonObject ana = JsonParser.parseString(perfil.body()).getAsJsonObject();
+            assertEquals(70, ana.get("scoring").getAsInt());
+            assertEquals("Beto", ana.getAsJsonArray("amigos").get(0).getAsString());
+
+            assertEquals("{\"distancia\":1}", pedir(http, puerto, "GET", "distancia?origen=Ana&destino=Beto", null).body());
+            assertEquals("[\"Ana\",\"Beto\"]", pedir(http, puerto, "GET", "camino?origen=Ana&destino=Beto", null).body());
+            assertEquals(200, pedir(http, puerto, "PUT", "clientes/Beto/scoring", "{\"scoring\":90}").statusCode());
+            assertEquals(1, JsonParser.parseString(
+                    pedir(http, puerto, "GET", "clientes?scoring=90", null).body()).getAsJsonArray().size());
+            JsonArray todos = JsonParser.parseString(pedir(http, puerto, "GET", "clientes", null).body()).getAsJsonArray();
+            assertEquals(2, todos.size());
+            assertEquals("Ana", todos.get(0).getAsJsonObject().get("nombre").getAsString()); // Por scoring: 70 antes que 90
+
+            assertEquals(404, pedir(http, puerto, "GET", "clientes/Nadie", null).statusCode());
+            assertEquals(400, pedir(http, puerto, "GET", "nivel?origen=Ana&nivel=-1", null).statusCode());
+            assertEquals(404, pedir(http, puerto, "GET", "inexistente", null).statusCode());
+        }
+    }
+
+    @Test
+    public void testGeneradorCarga_ReportaThroughputYPercentiles() throws Exception {
+        silenciarConsola();
+        try (ServidorRed servidor = new ServidorRed(red, 0)) {
+            servidor.iniciar();
+            GeneradorCarga carga = new GeneradorCarga("http://localhost:" + servidor.getPuerto(), 50, 1L);
+            carga.preparar();
+            GeneradorCarga.ResultadoCarga resultado = carga.ejecutar(4, 300, Duration.ofSeconds(30));
+
+            assertEquals(300, resultado.getPedidos());
+            assertEquals(0, resultado.getErrores());
+            assertTrue(resultado.getPedidosPorSegundo() > 0);
+            assertTrue(resultado.percentilMs(50) <= resultado.percentilMs(90));
+            assertTrue(resultado.percentilMs(90) <= resultado.percentilMs(99));
+        }
+    }
+
+    // ==========================================
+    // --- TRAZA: GRABAR Y REPRODUCIR          ---
+    // ==========================================
+
+    // Sesión variada: altas, errores, solicitudes, amistades, consultas y un deshacer
+    private void grabarSesion(ISocialNetwork destino) {
+        try { destino.agregarCliente("Ana", 80); } catch (Exception ignored) {}
+        try { destino.agregarCliente("Beto", 60); } catch (Exception ignored) {}
+        try { destino.agregarCliente("Caro", 60); } catch (Exception ignored) {}
+        try { destino.agregarCliente("Ana", 10); } catch (Exception ignored) {}
+        try { destino.enviarSolicitud("Ana", "Beto"); } catch (Exception ignored) {}
+        destino.procesarSolicitudes();
+        try { destino.crearAmistad("Ana", "Beto"); } catch (Exception ignored) {}
+        try { destino.crearAmistad("Beto", "Caro"); } catch (Exception ignored) {}
+        destino.buscarPorScoring(60);
+        destino.buscarPorNombre("Nadie");
+        try { destino.calcularDistancia("Ana", "Caro"); } catch (Exception ignored) {}
+        try { destino.calcularCaminoPonderado("Ana", "Caro", EstrategiaPeso.confianzaInversa()); } catch (Exception ignored) {}
+        try { destino.calcularDistancias("Ana", List.of("Beto", "Caro")); } catch (Exception ignored) {}
+        try { destino.actualizarScoring("Nadie", 5); } catch (Exception ignored) {}
+        destino.deshacerUltimaAccion();
+        try { destino.clientesEnNivel("Ana", 1); } catch (Exception ignored) {}
+    }
+
+    @Test
+    public void testTraza_ReproduccionSinDivergencias() throws Exception {
+        silenciarConsola();
+        ByteArrayOutputStream traza = new ByteArrayOutputStream();
+        try (GrabadorOperaciones grabador = new GrabadorOperaciones(red, traza)) {
+            grabarSesion(grabador);
+            assertEquals(16, grabador.getOperacionesGrabadas());
+        }
+        assertTrue(traza.size() < 16 * 40, "La traza debería ser compacta: " + traza.size() + " bytes");
+
+        ReproductorTraza.Reporte reporte = new ReproductorTraza(new SocialNetwork(), ReproductorTraza.Modo.MAXIMA_VELOCIDAD)
+                .reproducir(new ByteArrayInputStream(traza.toByteArray()));
+        assertEquals(16, reporte.getOperaciones());
+        assertEquals(0, reporte.getDivergencias(), reporte.getEjemplosDivergencia().toString());
+        assertTrue(reporte.percentilMicros(50) <= reporte.percentilMicros(99));
+
+        // Contra la red particionada también tiene que coincidir
+        try (SocialNetworkParticionada particionada = new SocialNetworkParticionada(3)) {
+            ReproductorTraza.Reporte otro = new ReproductorTraza(particionada, ReproductorTraza.Modo.TIEMPO_ORIGINAL)
+                    .reproducir(new ByteArrayInputStream(traza.toByteArray()));
+            assertEquals(0, otro.getDivergencias(), otro.getEjemplosDivergencia().toString());
+        }
+    }
+
+    @Test
+    public void testTraza_LlamadasConcurrentesSeReproducenEnOrden() throws Exception {
+        silenciarConsola();
+        ByteArrayOutputStream traza = new ByteArrayOutputStream();
+        try (GrabadorOperaciones grabador = new GrabadorOperaciones(red, traza)) {
+            // Mismos nombres desde varios hilos: qué alta falla depende del orden real de ejecución
+            List<Thread> hilos = new ArrayList<>();
+            for (int h = 0; h < 4; h++) {
+                hilos.add(new Thread(() -> {
+                    for (int i = 0; i < 200; i++) {
+                        try { grabador.agregarCliente("C" + (i % 50), i % 101); } catch (Exception ignored) {}
+                        try { grabador.eliminarClienteTotalmente("C" + ((i + 7) % 50)); } catch (Exception ignored) {}
+                        try { grabador.calcularDistancias("C0", List.of("C1", "C2", "C3")); } catch (Exception ignored) {}
+                    }
+                }));
+            }
+            for (Thread t : hilos) t.start();
+            for (Thread t : hilos) t.join();
+        }
+
+        // La otra implementación devuelve los mapas en otro orden: la huella no depende de eso
+        SocialNetwork otroOrden = new SocialNetwork() {
+            @Override
+            public Map<String, Integer> calcularDistancias(String origen, Collection<String> destinos)
+                    throws ClienteNoEncontradoException {
+                Map<String, Integer> invertido = new TreeMap<>(Comparator.reverseOrder());
+                invertido.putAll(super.calcularDistancias(origen, destinos));
+                return invertido;
+            }
+        };
+        ReproductorTraza.Reporte reporte = new ReproductorTraza(otroOrden, ReproductorTraza.Modo.MAXIMA_VELOCIDAD)
+                .reproducir(new ByteArrayInputStream(traza.toByteArray()));
+        assertEquals(4 * 200 * 3, reporte.getOperaciones());
+        assertEquals(0, reporte.getDivergencias(), reporte.getEjemplosDivergencia().toString());
+    }
+
+    @Test
+    public void testTraza_DetectaDivergencias() throws Exception {
+        silenciarConsola();
+        ByteArrayOutputStream traza = new ByteArrayOutputStream();
+        try (GrabadorOperaciones grabador = new GrabadorOperaciones(red, traza)) {
+            grabarSesion(grabador);
+        }
+
+        // Una red que ya tiene a "Ana": el alta falla y los resultados dependientes cambian
+        SocialNetwork distinta = new SocialNetwork();
+        distinta.agregarCliente("Ana", 5);
+        ReproductorTraza.Reporte reporte = new ReproductorTraza(distinta, ReproductorTraza.Modo.MAXIMA_VELOCIDAD)
+                .reproducir(new ByteArrayInputStream(traza.toByteArray()));
+        assertTrue(reporte.getDivergencias() > 0);
+        assertTrue(reporte.getEjemplosDivergencia().get(0).contains("AGREGAR_CLIENTE"));
+    }
+
+    // ==========================================
+    // --- MODO BATCH                          ---
+    // ==========================================
+
+    @Test
+    public void testModoBatch_EjecutaGuionYResumen() throws Exception {
+        String guion = String.join("\n",
+                "# alta de clientes",
+                "agregar Ana 80",
+                "agregar Beto 60",
+                "agregar \"Caro Diaz\" 60",
+                "agregar Ana 10",
+                "",
+                "solicitud Ana Beto",
+                "procesar",
+                "amistad Ana Beto",
+                "amistad Beto \"Caro Diaz\"",
+                "distancia Ana \"Caro Diaz\"",
+                "nivel Ana 1",
+                "scoring 60",
+                "buscar Nadie",
+                "actualizar Beto x",
+                "volar Ana",
+                "conexiones \"Caro Diaz\"");
+        StringWriter salida = new StringWriter();
+        ByteArrayOutputStream impreso = new ByteArrayOutputStream();
+        PrintStream propia = new PrintStream(impreso);
+        System.setOut(propia);
+
+        ModoBatch.Resumen resumen = ModoBatch.ejecutar(red,
+                new BufferedReader(new StringReader(guion)), new PrintWriter(salida));
+
+        assertSame(propia, System.out, "No debe reemplazar System.out");
+        assertEquals(0, impreso.size(), "Los mensajes de cada operación se apagan en la red: " + impreso);
+        String texto = salida.toString();
+        assertTrue(texto.contains("procesar = 1 aceptadas"), texto);
+        assertTrue(texto.contains("distancia Ana Caro Diaz = 2"), texto);
+        assertTrue(texto.contains("nivel Ana 1 = [Beto]"), texto);
+        assertTrue(texto.contains("scoring 60 = ["), texto);
+        assertTrue(texto.contains("buscar Nadie = (no existe)"), texto);
+        assertTrue(texto.contains("línea 5: ⛔"), texto);
+        assertTrue(texto.contains("línea 16: Comando desconocido"), texto);
+        assertFalse(texto.contains("✅"), "Los mensajes de cada operación no deben salir: " + texto);
+        assertTrue(texto.contains("PERFIL DE: CARO DIAZ"), "Los listados van a la salida del guion: " + texto);
+
+        assertEquals(15, resumen.getComandos());
+        assertEquals(3, resumen.getErrores());
+        assertEquals(2, red.buscarPorScoring(60).size());
+        assertTrue(resumen.toString().contains("RESUMEN BATCH"));
+
+        red.agregarCliente("Dani", 50);
+        assertTrue(impreso.toString().contains("Cliente agregado -> Dani"), "Al terminar vuelve a informar");
+    }
+
+    // ==========================================
+    // --- EXPORTACIÓN JSON                    ---
+    // ==========================================
+
+    @Test
+    public void testJsonExporter_GzipOrdenadoSeVuelveACargar() throws Exception {
+        silenciarConsola();
+        Path archivo = Files.createTempFile("red", ".json.gz");
+        try {
+            red.agregarCliente("Ana", 80);
+            red.agregarCliente("Beto", 20);
+            red.agregarCliente("Caro", 50);
+            red.enviarSolicitud("Ana", "Beto");
+            red.enviarSolicitud("Ana", "Caro");
+            red.procesarSolicitudes();
+            red.crearAmistad("Beto", "Caro");
+
+            SocialNetwork origen = (SocialNetwork) red;
+            JsonExporter.exportar(origen, archivo.toString(), true, true);
+            byte[] bytes = Files.readAllBytes(archivo);
+            assertEquals(0x1f, bytes[0] & 0xff, "Debe quedar comprimido con gzip");
+
+            SocialNetwork copia = new SocialNetwork();
+            JsonLoader.cargar(archivo.toString(), copia);
+            assertEquals(80, copia.buscarPorNombre("Ana").getScoring());
+            assertEquals(Set.of("Beto", "Caro"), nombresDe(copia.buscarPorNombre("Ana").getSiguiendo()));
+            assertEquals(1, copia.calcularDistancia("Beto", "Caro"));
+            assertEquals(-1, copia.calcularDistancia("Ana", "Beto"));
+
+            // Sin comprimir y ordenado: los scorings salen crecientes
+            StringWriter texto = new StringWriter();
+            JsonExporter.exportar(origen, texto, true);
+            String json = texto.toString();
+            int beto = json.indexOf("\"nombre\": \"Beto\""), caro = json.indexOf("\"nombre\": \"Caro\""), ana = json.indexOf("\"nombre\": \"Ana\"");
+            assertTrue(0 <= beto && beto < caro && caro < ana, json);
+        } finally {
+            Files.deleteIfExists(archivo);
+        }
+    }
+
+    // ==========================================
+    // --- DELTAS DESDE UN CHECKPOINT          ---
+    // ==========================================
+
+    private String estadoDe(SocialNetwork r) {
+        TreeMap<String, String> estado = new TreeMap<>();
+        r.recorrerClientes(false, c -> estado.put(c.getNombre(), c.getScoring() + " s=" + new TreeSet<>(nombresDe(c.getSiguiendo()))
+                + " a=" + new TreeSet<>(nombresDe(new ArrayList<>(c.getAmigos())))));
+        return estado.toString();
+    }
+
+    @Test
+    public void testDelta_SoloLoCambiadoYReplicaIgual() throws Exception {
+        silenciarConsola();
+        SocialNetwork origen = (SocialNetwork) red;
+        // Sin checkpoint pedido no se registra nada: solo se puede exportar desde 0
+        origen.agregarCliente("previo", 1);
+        assertThrows(IllegalArgumentException.class, () -> origen.recorrerCambiosDesde(1, (n, c) -> { }));
+        for (int i = 0; i < 200; i++) origen.agregarCliente("c" + i, i % 101);
+        for (int i = 0; i < 199; i++) origen.crearAmistad("c" + i, "c" + (i + 1));
+        origen.enviarSolicitud("c0", "c1");
+        origen.enviarSolicitud("c5", "c7");
+        origen.procesarSolicitudes();
+
+        // Sincronización inicial: delta desde 0 = red completa
+        SocialNetwork replica = new SocialNetwork();
+        ByteArrayOutputStream completo = new ByteArrayOutputStream();
+        long checkpoint = DeltaExporter.exportar(origen, 0, completo);
+        DeltaLoader.aplicar(new ByteArrayInputStream(completo.toByteArray()), replica);
+        assertEquals(estadoDe(origen), estadoDe(replica));
+
+        // Pocos cambios: re-scoring, amistad nueva, baja (con sus aristas) y alta
+        origen.actualizarScoring("c10", 99);
+        origen.crearAmistad("c0", "c150");
+        origen.eliminarClienteTotalmente("c1");
+        origen.agregarCliente("nuevo", 42);
+        origen.enviarSolicitud("nuevo", "c5");
+        origen.procesarSolicitudes();
+
+        ByteArrayOutputStream delta = new ByteArrayOutputStream();
+        long siguiente = DeltaExporter.exportar(origen, checkpoint, delta);
+        assertTrue(siguiente > checkpoint);
+        assertTrue(delta.size() * 10 < completo.size(), "El delta debe ser chico: " + delta.size() + " vs " + completo.size());
+
+        assertEquals(siguiente, DeltaLoader.aplicar(new ByteArrayInputStream(delta.toByteArray()), replica));
+        assertEquals(estadoDe(origen), estadoDe(replica));
+        assertNull(replica.buscarPorNombre("c1"));
+
+        // Sin cambios nuevos (una solicitud pendiente solo toca el buzón) el delta queda vacío;
+        // lo ya olvidado no se puede pedir
+        origen.enviarSolicitud("c20", "c30");
+        List<String> cambiados = new ArrayList<>();
+        origen.recorrerCambiosDesde(siguiente, (n, c) -> cambiados.add(n));
+        assertTrue(cambiados.isEmpty());
+        origen.olvidarCambiosHasta(siguiente);
+        assertThrows(IllegalArgumentException.class, () -> origen.recorrerCambiosDesde(checkpoint, (n, c) -> { }));
+    }
+
+    // ==========================================
+    // --- HISTORIAL INDEXADO                  ---
+    // ==========================================
+
+    @Test
+    public void testHistorial_ConsultasPorTipoClienteYRango() throws Exception {
+        silenciarConsola();
+        SocialNetwork r = (SocialNetwork) red;
+        long antes = System.currentTimeMillis();
+        for (int i = 0; i < 30; i++) r.agregarCliente("c" + i, 50);
+        r.enviarSolicitud("c0", "c1");
+        r.actualizarScoring("c1", 70);
+        r.actualizarScorings(Map.of("c1", 10, "c2", 20));
+        long despues = System.currentTimeMillis();
+
+        ActionHistory h = r.getHistorial();
+        assertEquals(33, h.cantidad());
+        assertEquals(30, h.cantidadPorTipo(Accion.TipoAccion.AGREGAR_CLIENTE));
+
+        // Paginado de más reciente a más antigua
+        List<Accion> altas = h.accionesPorTipo(Accion.TipoAccion.AGREGAR_CLIENTE, 0, 10);
+        assertEquals(10, altas.size());
+        assertEquals("c29", altas.get(0).getSujeto());
+        assertEquals("c20", h.accionesPorTipo(Accion.TipoAccion.AGREGAR_CLIENTE, 9, 10).get(0).getSujeto());
+        assertEquals(0, h.accionesPorTipo(Accion.TipoAccion.ELIMINAR_CLIENTE, 0, 10).size());
+
+        // c1: alta, objeto de la solicitud, re-scoring y re-scoring en lote
+        assertEquals(4, h.cantidadDeCliente("c1"));
+        assertEquals(Accion.TipoAccion.ACTUALIZAR_SCORING, h.accionesDeCliente("c1", 0, 1).get(0).getTipo());
+
+        assertEquals(33, h.cantidadEntre(antes, despues));
+        assertEquals(33, h.accionesEntre(antes, despues, 0, 100).size());
+        assertEquals(0, h.accionesEntre(despues + 1, despues + 1000, 0, 100).size());
+        assertEquals(h.cantidad(), h.cantidadEntre(Long.MIN_VALUE, Long.MAX_VALUE));
+        assertEquals(h.cantidad(), h.accionesEntre(0, Long.MAX_VALUE, 0, 1000).size());
+
+        // Deshacer saca la acción de todos los índices
+        r.deshacerUltimaAccion();
+        assertEquals(3, h.cantidadDeCliente("c1"));
+        assertEquals(1, h.cantidadDeCliente("c2")); // Solo su alta
+        assertTrue(h.accionesDeCliente("c0", 0, 10).get(0).toString().matches("\\[\\d{2}:\\d{2}:\\d{2}\\] SEGUIR_USUARIO: c0 -> c1"));
+    }
+
+    // ==========================================
+    // --- VENCIMIENTO DE SOLICITUDES (TTL)    ---
+    // ==========================================
+
+    // Reloj controlable para los vencimientos
+    private static final class RelojManual extends Clock {
+        long ahora = 1_000_000L;
+
+        @Override public ZoneId getZone() { return ZoneOffset.UTC; }
+        @Override public Clock withZone(ZoneId zona) { return this; }
+        @Override public Instant instant() { return Instant.ofEpochMilli(ahora); }
+    }
+
+    @Test
+    public void testSolicitudes_VencenPorTtl() throws Exception {
+        silenciarConsola();
+        SocialNetwork r = (SocialNetwork) red;
+        RelojManual reloj = new RelojManual();
+        r.setReloj(reloj);
+        r.setTtlSolicitudes(Duration.ofSeconds(1));
+        r.agregarCliente("Ana", 50);
+        r.agregarCliente("Beto", 50);
+        r.agregarCliente("Caro", 50);
+
+        r.enviarSolicitud("Ana", "Caro");
+        reloj.ahora += 500;
+        r.enviarSolicitud("Beto", "Caro");
+        assertEquals(2, r.getSolicitudesProgramadas());
+
+        reloj.ahora += 700; // Ana venció (1,2 s), Beto todavía no (0,7 s)
+        assertEquals(1, r.vencerSolicitudes());
+        assertEquals("Beto", r.buscarPorNombre("Caro").getSolicitudesRecibidas().peek().getSolicitante());
+
+        reloj.ahora += 400; // Beto también venció: procesar no acepta nada
+        assertTrue(r.procesarSolicitudes().isEmpty());
+        assertEquals(2, r.getSolicitudesVencidas());
+        assertTrue(r.buscarPorNombre("Ana").getSiguiendo().isEmpty());
+
+        // Una solicitud aceptada a tiempo cancela su vencimiento
+        r.enviarSolicitud("Caro", "Ana");
+        assertEquals(1, r.procesarSolicitudes().size());
+        assertEquals(0, r.getSolicitudesProgramadas());
+        reloj.ahora += 5_000;
+        assertEquals(0, r.vencerSolicitudes());
+        assertEquals(2, r.getSolicitudesVencidas());
+    }
+
+    @Test
+    public void testSolicitudes_MemoriaAcotadaConMuchasAbandonadas() throws Exception {
+        silenciarConsola();
+        SocialNetwork r = (SocialNetwork) red;
+        RelojManual reloj = new RelojManual();
+        r.setReloj(reloj);
+        r.setTtlSolicitudes(Duration.ofHours(1));
+        for (int i = 0; i < 2_000; i++) r.agregarCliente("c" + i, 50);
+        for (int i = 0; i < 2_000; i++) {
+            reloj.ahora += 997; // Repartidas a lo largo de ~33 minutos
+            r.enviarSolicitud("c" + i, "c" + ((i + 1) % 2_000));
+        }
+        r.eliminarClienteTotalmente("c5"); // Su buzón se cancela sin contar como vencido
+        assertEquals(1_999, r.getSolicitudesProgramadas());
+
+        reloj.ahora += 3_600_000L;
+        assertEquals(1_999, r.vencerSolicitudes());
+        assertEquals(0, r.getSolicitudesProgramadas());
+        assertEquals(0, r.buscarPorNombre("c1").getSolicitudesRecibidas().size());
+    }
+
+    // ==========================================
+    // --- PROCESAMIENTO POR PRIORIDAD         ---
+    // ==========================================
+
+    @Test
+    public void testSolicitudes_PrioridadPorScoringYAntiguedad() throws Exception {
+        silenciarConsola();
+        SocialNetwork r = (SocialNetwork) red;
+        RelojManual reloj = new RelojManual();
+        r.setReloj(reloj);
+        r.setPoliticaSolicitudes(PoliticaSolicitudes.PRIORIDAD_SCORING);
+        r.agregarCliente("Bajo", 10);
+        r.agregarCliente("Alto", 90);
+        for (int i = 0; i < 20; i++) r.agregarCliente("d" + i, 5 * i);
+        for (int i = 1; i <= 3; i++) r.agregarCliente("t" + i, 50);
+
+        // Alto pide primero a los de menor scoring: igual se queda con los dos mejores
+        for (int i = 0; i < 20; i++) {
+            reloj.ahora += 10;
+            r.enviarSolicitud("Alto", "d" + i);
+        }
+        // A igual scoring del solicitado ganan las más antiguas
+        for (int i = 1; i <= 3; i++) {
+            reloj.ahora += 10;
+            r.enviarSolicitud("Bajo", "t" + i);
+        }
+
+        List<String> aceptadas = r.procesarSolicitudes();
+        assertEquals(List.of("✅ Aceptada: Alto -> d19", "✅ Aceptada: Alto -> d18",
+                "✅ Aceptada: Bajo -> t1", "✅ Aceptada: Bajo -> t2"), aceptadas);
+        assertEquals(0, r.getSolicitudesProgramadas());
+
+        // Con los cupos llenos las siguientes fallan de inmediato
+        r.enviarSolicitud("Alto", "d0");
+        assertTrue(r.procesarSolicitudes().isEmpty());
+        assertEquals(2, r.buscarPorNombre("Alto").cantidadSeguidos());
+    }
+
+    // ==========================================
+    // --- TESTS DE DISTRIBUCIÓN DE SCORINGS  ---
+    // ==========================================
+
+    @Test
+    public void testDistribucionScorings_AgregadosAlDia() throws Exception {
+        silenciarConsola();
+        SocialNetwork r = (SocialNetwork) red;
+        assertEquals(-1, r.medianaScoring());
+        r.agregarCliente("A", 10);
+        r.agregarCliente("B", 20);
+        r.agregarCliente("C", 30);
+        r.agregarClientes(Map.of("D", 40, "E", 100));
+        assertEquals(5, r.cantidadClientes());
+        assertEquals(200, r.sumaScorings());
+        assertEquals(40.0, r.promedioScoring(), 1e-9);
+        assertEquals(30, r.medianaScoring());
+        assertEquals(10, r.cuantilScoring(0));
+        assertEquals(100, r.cuantilScoring(1));
+        assertEquals(3, r.cantidadEntreScorings(15, 45));
+
+        r.actualizarScoring("A", 100);
+        r.eliminarClienteTotalmente("C");
+        assertEquals(4, r.cantidadClientes());
+        assertEquals(260, r.sumaScorings());
+        assertEquals(2, r.histogramaScorings()[100]);
+        assertEquals(40, r.medianaScoring());
+
+        r.actualizarScorings(Map.of("B", 0, "D", 0));
+        assertEquals(2, r.histogramaScorings()[0]);
+        r.deshacerUltimaAccion(); // Re-scoring en lote
+        r.deshacerUltimaAccion(); // Baja de C
+        r.deshacerUltimaAccion(); // Re-scoring de A
+        assertEquals(5, r.cantidadClientes());
+        assertEquals(200, r.sumaScorings());
+        assertEquals(1, r.histogramaScorings()[30]);
+        assertTrue(r.repOK());
+    }
+
+    @Test
+    public void testArbolFenwick_PrefijosYBusqueda() {
+        ArbolFenwick f = ArbolFenwick.desdeFrecuencias(new long[]{2, 0, 3, 1});
+        assertEquals(2, f.prefijo(1));
+        assertEquals(5, f.prefijo(2));
+        assertEquals(4, f.rango(1, 3));
+        assertEquals(0, f.buscarPrefijo(1));
+        assertEquals(2, f.buscarPrefijo(2));
+        assertEquals(3, f.buscarPrefijo(5));
+        assertEquals(4, f.buscarPrefijo(6));
+        f.sumar(1, 4);
+        assertEquals(1, f.buscarPrefijo(2));
+    }
+
+    // ==========================================
+    // --- TESTS DE RECOMENDACIÓN DE AMIGOS   ---
+    // ==========================================
+
+    @Test
+    public void testRecomendarAmigos_PorAmigosEnComunYScoring() throws Exception {
+        silenciarConsola();
+        SocialNetwork r = (SocialNetwork) red;
+        r.agregarCliente("Yo", 50);
+        r.agregarCliente("A1", 50);
+        r.agregarCliente("A2", 50);
+        r.agregarCliente("A3", 50);
+        r.agregarCliente("Comun3", 10);
+        r.agregarCliente("Comun1Alto", 90);
+        r.agregarCliente("Comun1Bajo", 20);
+        r.agregarCliente("Lejano", 100);
+        r.crearAmistad("Yo", "A1");
+        r.crearAmistad("Yo", "A2");
+        r.crearAmistad("Yo", "A3");
+        r.crearAmistad("A1", "A2"); // Ya son amigos de Yo: no se recomiendan
+        for (String a : List.of("A1", "A2", "A3")) r.crearAmistad(a, "Comun3");
+        r.crearAmistad("A1", "Comun1Alto");
+        r.crearAmistad("A2", "Comun1Bajo");
+        r.crearAmistad("Comun3", "Lejano"); // A tres saltos
+
+        List<String> nombres = new ArrayList<>();
+        for (Cliente c : r.recomendarAmigos("Yo", 2)) nombres.add(c.getNombre());
+        assertEquals(List.of("Comun3", "Comun1Alto"), nombres);
+        assertEquals(3, r.recomendarAmigos("Yo", 10).size());
+        assertEquals(3, r.recomendarAmigos("Yo", Integer.MAX_VALUE).size()); // "Todos" no reserva k lugares
+        assertTrue(r.recomendarAmigos("Lejano", 0).isEmpty());
+        assertThrows(ClienteNoEncontradoException.class, () -> r.recomendarAmigos("Nadie", 1));
+    }
+
+    // ==========================================
+    // --- TESTS DE AMIGOS EN COMÚN           ---
+    // ==========================================
+
+    @Test
+    public void testAmigosEnComun_CoincideConInterseccionIngenua() throws Exception {
+        silenciarConsola();
+        SocialNetwork r = (SocialNetwork) red;
+        int n = 400;
+        Random azar = new Random(46);
+        Map<String, Integer> altas = new LinkedHashMap<>();
+        for (int i = 0; i < n; i++) altas.put("c" + i, azar.nextInt(101));
+        r.agregarClientes(altas);
+        // Hubs (bitset), nodos medianos y ralos (arreglos ordenados, con galloping contra los grandes)
+        for (int i = 0; i < n; i++) {
+            int grado = (i < 4) ? 200 : (i < 40) ? 30 : 3;
+            for (int k = 0; k < grado; k++) {
+                int j = azar.nextInt(n);
+                if (j != i) r.crearAmistad("c" + i, "c" + j);
+            }
+        }
+        assertTrue(r.buscarPorNombre("c0").cantidadAmigos() >= 64);
+
+        for (int t = 0; t < 300; t++) {
+            int i = (t < 100) ? t % 4 : azar.nextInt(n), j = azar.nextInt(n);
+            Set<String> esperado = new HashSet<>();
+            for (Cliente a : r.buscarPorNombre("c" + i).getAmigos()) {
+                if (r.buscarPorNombre("c" + j).esAmigoDe(a)) esperado.add(a.getNombre());
+            }
+            assertEquals(esperado, new HashSet<>(r.amigosEnComun("c" + i, "c" + j)));
+            assertEquals(esperado.size(), r.cantidadAmigosEnComun("c" + i, "c" + j));
+        }
+
+        // Los cambios de amistades invalidan las representaciones cacheadas
+        Cliente comun = r.buscarPorNombre("c100");
+        r.crearAmistad("c0", "c100");
+        r.crearAmistad("c5", "c100");
+        int antes = r.cantidadAmigosEnComun("c0", "c5");
+        comun.eliminarAmigo(r.buscarPorNombre("c0"));
+        r.buscarPorNombre("c0").eliminarAmigo(comun);
+        assertEquals(antes - 1, r.cantidadAmigosEnComun("c0", "c5"));
+
+        Map<String, Integer> lote = r.cantidadAmigosEnComun("c0", List.of("c5", "c1", "c300"));
+        assertEquals(List.of("c5", "c1", "c300"), new ArrayList<>(lote.keySet()));
+        assertEquals(r.cantidadAmigosEnComun("c0", "c1"), lote.get("c1"));
+        assertThrows(ClienteNoEncontradoException.class, () -> r.cantidadAmigosEnComun("c0", List.of("Nadie")));
+    }
+
+    @Test
+    public void testAmigosEnComun_Particionada() throws Exception {
+        silenciarConsola();
+        try (SocialNetworkParticionada p = new SocialNetworkParticionada(3)) {
+            for (String nombre : List.of("A", "B", "X", "Y", "Z")) p.agregarCliente(nombre, 50);
+            p.crearAmistad("A", "X");
+            p.crearAmistad("A", "Y");
+            p.crearAmistad("B", "X");
+            p.crearAmistad("B", "Y");
+            p.crearAmistad("B", "Z");
+            assertEquals(Set.of("X", "Y"), new HashSet<>(p.amigosEnComun("A", "B")));
+            assertEquals(2, p.cantidadAmigosEnComun("A", "B"));
+            assertEquals(Map.of("B", 2, "Z", 0), p.cantidadAmigosEnComun("A", List.of("B", "Z")));
+        }
+    }
+
+    // ==========================================
+    // --- TESTS DE TRIÁNGULOS Y CLUSTERING   ---
+    // ==========================================
+
+    @Test
+    public void testTriangulos_CoincidenConFuerzaBruta() throws Exception {
+        silenciarConsola();
+        SocialNetwork r = (SocialNetwork) red;
+        // K4 (4 triángulos) más una cola que no cierra ninguno
+        for (String nombre : List.of("A", "B", "C", "D", "E")) r.agregarCliente(nombre, 50);
+        String[][] aristas = {{"A", "B"}, {"A", "C"}, {"A", "D"}, {"B", "C"}, {"B", "D"}, {"C", "D"}, {"D", "E"}};
+        for (String[] a : aristas) r.crearAmistad(a[0], a[1]);
+        ContadorTriangulos.Resultado k4 = r.analizarTriangulos();
+        assertEquals(4, k4.getTotalTriangulos());
+        assertEquals(3, k4.triangulosDe(r.buscarPorNombre("A")));
+        assertEquals(1.0, k4.coeficienteDe(r.buscarPorNombre("A")), 1e-12);
+        assertEquals(0.5, k4.coeficienteDe(r.buscarPorNombre("D")), 1e-12); // 3 de 6 pares
+        assertEquals(0.0, k4.coeficienteDe(r.buscarPorNombre("E")), 1e-12);
+
+        // Grafo al azar lo bastante grande como para repartirse entre hilos
+        int n = 2000;
+        Map<String, Integer> altas = new LinkedHashMap<>();
+        for (int i = 0; i < n; i++) altas.put("n" + i, 50);
+        r.agregarClientes(altas);
+        Random azar = new Random(47);
+        for (int k = 0; k < 12000; k++) {
+            int i = azar.nextInt(n), j = (azar.nextInt(4) == 0) ? azar.nextInt(40) : azar.nextInt(n);
+            if (i != j) r.crearAmistad("n" + i, "n" + j);
+        }
+        ContadorTriangulos.Resultado res = r.analizarTriangulos();
+        long total = 0;
+        for (int i = 0; i < n; i++) {
+            Cliente c = r.buscarPorNombre("n" + i);
+            long propios = 0;
+            for (Cliente x : c.getAmigos()) {
+                for (Cliente y : c.getAmigos()) {
+                    if (x.getId() < y.getId() && x.esAmigoDe(y)) propios++;
+                }
+            }
+            assertEquals(propios, res.triangulosDe(c), "Triángulos de " + c.getNombre());
+            total += propios;
+        }
+        assertEquals(total / 3 + 4, res.getTotalTriangulos());
+        assertTrue(res.transitividad() > 0 && res.transitividad() < 1);
+    }
+
+    // ==========================================
+    // --- TESTS DE RANKING DE INFLUENCIA     ---
+    // ==========================================
+
+    @Test
+    public void testInfluencia_PotenciaParalelaYArranqueEnCaliente() throws Exception {
+        silenciarConsola();
+        SocialNetwork r = (SocialNetwork) red;
+        int n = 20000;
+        Map<String, Integer> altas = new LinkedHashMap<>();
+        for (int i = 0; i < n; i++) altas.put("n" + i, 50);
+        r.agregarClientes(altas);
+        // Todos siguen a una "celebridad" y a alguien al azar; n0 no sigue a nadie
+        Random azar = new Random(48);
+        for (int i = 1; i < n; i++) {
+            Cliente c = r.buscarPorNombre("n" + i);
+            c.agregarSeguido(r.buscarPorNombre("n0"));
+            int j = 1 + azar.nextInt(n - 1);
+            if (j != i) c.agregarSeguido(r.buscarPorNombre("n" + j));
+        }
+
+        RankingInfluencia.Resultado frio = r.calcularInfluencia();
+        assertTrue(frio.convergio());
+        double suma = 0;
+        for (double x : frio.getRangos()) suma += x;
+        assertEquals(1.0, suma, 1e-9);
+        assertEquals("n0", frio.masInfluyentes(3).get(0).getNombre());
+        assertEquals(3, frio.masInfluyentes(3).size());
+        List<Cliente> todos = frio.masInfluyentes(Integer.MAX_VALUE); // Sin reservar k lugares
+        assertEquals(n, todos.size());
+        assertEquals(frio.masInfluyentes(3), todos.subList(0, 3));
+        for (int i = 1; i < n; i++) assertTrue(frio.rangoDe(todos.get(i - 1)) >= frio.rangoDe(todos.get(i)));
+
+        // Un cambio chico: arrancando desde los rangos previos converge en menos iteraciones
+        r.buscarPorNombre("n5").eliminarSeguido(r.buscarPorNombre("n0"));
+        RankingInfluencia.Resultado caliente = r.calcularInfluencia(frio);
+        RankingInfluencia.Resultado desdeCero = r.calcularInfluencia();
+        assertTrue(caliente.getIteraciones() < desdeCero.getIteraciones(),
+                caliente.getIteraciones() + " vs " + desdeCero.getIteraciones());
+        Cliente c = r.buscarPorNombre("n5");
+        assertEquals(desdeCero.rangoDe(c), caliente.rangoDe(c), 1e-9);
+    }
+
+    // ==========================================
+    // --- TESTS DE COMPONENTES Y ALCANCES    ---
+    // ==========================================
+
+    @Test
+    public void testComponentesFuertes_AlcancesCoincidenConBFS() throws Exception {
+        silenciarConsola();
+        SocialNetwork r = (SocialNetwork) red;
+        int n = 3000;
+        Map<String, Integer> altas = new LinkedHashMap<>();
+        for (int i = 0; i < n; i++) altas.put("n" + i, 50);
+        r.agregarClientes(altas);
+        // Cadenas largas (sin recursión no hay desborde de pila), diamantes y algunos ciclos
+        Random azar = new Random(49);
+        for (int i = 0; i < n; i++) {
+            Cliente c = r.buscarPorNombre("n" + i);
+            if (i + 1 < n) c.agregarSeguido(r.buscarPorNombre("n" + (i + 1)));
+            if (azar.nextInt(3) == 0) {
+                int j = (azar.nextInt(20) == 0) ? azar.nextInt(n) : Math.min(n - 1, i + 2 + azar.nextInt(30));
+                if (j != i) c.agregarSeguido(r.buscarPorNombre("n" + j));
+            }
+        }
+
+        ComponentesFuertes.Resultado res = r.analizarComponentesSeguimiento();
+        for (int t = 0; t < 60; t++) {
+            Cliente origen = r.buscarPorNombre("n" + azar.nextInt(n));
+            Set<Cliente> vistos = new HashSet<>(List.of(origen));
+            ArrayDeque<Cliente> cola = new ArrayDeque<>(List.of(origen));
+            while (!cola.isEmpty()) {
+                for (Cliente s : cola.poll().getSiguiendo()) if (vistos.add(s)) cola.add(s);
+            }
+            assertEquals(vistos.size() - 1, res.alcanceDe(origen), "Alcance de " + origen.getNombre());
+            List<Cliente> muestra = new ArrayList<>(vistos);
+            Collections.shuffle(muestra, azar);
+            for (Cliente otro : muestra.subList(0, Math.min(10, muestra.size()))) {
+                // Mismo ciclo si y solo si el otro también vuelve al origen
+                boolean vuelve = false;
+                Set<Cliente> v2 = new HashSet<>(List.of(otro));
+                ArrayDeque<Cliente> c2 = new ArrayDeque<>(List.of(otro));
+                while (!c2.isEmpty() && !vuelve) {
+                    for (Cliente s : c2.poll().getSiguiendo()) {
+                        if (s == origen) vuelve = true;
+                        if (v2.add(s)) c2.add(s);
+                    }
+                }
+                assertEquals(vuelve || otro == origen, res.mismoCiclo(origen, otro));
+            }
+        }
+        int enCiclos = 0;
+        for (List<Cliente> ciclo : res.ciclos()) enCiclos += ciclo.size();
+        assertTrue(enCiclos > 0);
+    }
+
+    // ==========================================
+    // --- TESTS DE DETECCIÓN DE COMUNIDADES  ---
+    // ==========================================
+
+    @Test
+    public void testComunidades_GruposDensosYCorridaIncremental() throws Exception {
+        silenciarConsola();
+        SocialNetwork r = (SocialNetwork) red;
+        int grupos = 4, tamanio = 30;
+        Map<String, Integer> altas = new LinkedHashMap<>();
+        for (int g = 0; g < grupos; g++) for (int i = 0; i < tamanio; i++) altas.put("g" + g + "_" + i, 10 * g + i);
+        r.agregarClientes(altas);
+        // Grupos completos unidos en anillo por una sola amistad
+        for (int g = 0; g < grupos; g++) {
+            for (int i = 0; i < tamanio; i++) {
+                for (int j = i + 1; j < tamanio; j++) r.crearAmistad("g" + g + "_" + i, "g" + g + "_" + j);
+            }
+            r.crearAmistad("g" + g + "_0", "g" + ((g + 1) % grupos) + "_1");
+        }
+
+        for (DeteccionComunidades.Metodo metodo : DeteccionComunidades.Metodo.values()) {
+            DeteccionComunidades.Resultado res = r.detectarComunidades(metodo, null).join();
+            assertEquals(grupos, res.cantidadComunidades(), "Método " + metodo);
+            for (int g = 0; g < grupos; g++) {
+                int id = res.comunidadDe(r.buscarPorNombre("g" + g + "_0"));
+                assertEquals(tamanio, res.getTamanios()[id]);
+                for (int i = 1; i < tamanio; i++) assertEquals(id, res.comunidadDe(r.buscarPorNombre("g" + g + "_" + i)));
+            }
+            assertTrue(res.getModularidad() > 0.6, "Modularidad " + res.getModularidad());
+            // Misma semilla y misma foto: mismas comunidades
+            assertArrayEquals(res.getComunidades(), r.detectarComunidades(metodo, null).join().getComunidades());
+        }
+
+        // Incremental: un cliente nuevo se suma al grupo 2 y se da de baja uno del grupo 3
+        DeteccionComunidades.Resultado completo = r.detectarComunidades();
+        r.agregarCliente("nuevo", 5);
+        for (int i = 0; i < 10; i++) r.crearAmistad("nuevo", "g2_" + i);
+        r.crearAmistad("nuevo", "g0_5");
+        r.eliminarClienteTotalmente("g3_7");
+
+        DeteccionComunidades.Resultado inc = r.detectarComunidades(
+                DeteccionComunidades.Metodo.PROPAGACION_ETIQUETAS, completo).join();
+        assertEquals(grupos, inc.cantidadComunidades());
+        assertEquals(inc.comunidadDe(r.buscarPorNombre("g2_0")), inc.comunidadDe(r.buscarPorNombre("nuevo")));
+        assertEquals(tamanio - 1, inc.getTamanios()[inc.comunidadDe(r.buscarPorNombre("g3_0"))]);
+        // Solo se reevalúa la zona afectada, no toda la red
+        assertTrue(inc.getReevaluados() < completo.getReevaluados(),
+                inc.getReevaluados() + " vs " + completo.getReevaluados());
+
+        // Sin cambios la foto es la misma: no se reevalúa nada
+        DeteccionComunidades.Resultado igual = r.detectarComunidades(
+                DeteccionComunidades.Metodo.PROPAGACION_ETIQUETAS, inc).join();
+        assertEquals(0, igual.getReevaluados());
+        assertArrayEquals(inc.getComunidades(), igual.getComunidades());
+    }
+}